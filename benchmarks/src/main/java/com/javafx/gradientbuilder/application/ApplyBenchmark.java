@@ -0,0 +1,96 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.scene.Parent;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.stage.Stage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks applying the gradient to the shapes of the application shown on a headless stage, followed by the CSS pass. Compares the
+ * CSS route (applyStyles) with the typed paint route (applyPaint). Two gradients are applied alternately, so each call is a real change.
+ * Both the routes include the same hop to the JavaFX application thread.
+ * 
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApplyBenchmark {
+
+	@Param({ "2", "10", "100", "1000" })
+	int stops;
+
+	GradientBuilderApp app;
+	Stage stage;
+	Parent root;
+
+	String[] styles = new String[2];
+	Paint[] paints = new Paint[2];
+	int toggle;
+
+	@Setup
+	public void setup() {
+		HeadlessFx.startup();
+		HeadlessFx.call(() -> {
+			app = new GradientBuilderApp();
+			stage = new Stage();
+			app.start(stage);
+			root = stage.getScene().getRoot();
+
+			LinearSettingsLayout layout = HeadlessFx.withColorStops(new LinearSettingsLayout(app), stops);
+			styles[0] = layout.buildSyntax();
+			styles[1] = styles[0].replace("to bottom", "to top");
+			paints[0] = layout.buildPaint();
+			paints[1] = LinearGradient.valueOf(styles[1].substring(0, styles[1].length() - 1));
+			return null;
+		});
+	}
+
+	@TearDown
+	public void tearDown() {
+		HeadlessFx.call(() -> {
+			stage.close();
+			return null;
+		});
+	}
+
+	@Benchmark
+	public Object applyStyles() {
+		final String style = styles[toggle ^= 1];
+		return HeadlessFx.call(() -> {
+			app.applyStyles(style);
+			root.applyCss();
+			return root;
+		});
+	}
+
+	@Benchmark
+	public Object applyPaint() {
+		final Paint paint = paints[toggle ^= 1];
+		return HeadlessFx.call(() -> {
+			app.applyPaint(paint);
+			root.applyCss();
+			return root;
+		});
+	}
+}
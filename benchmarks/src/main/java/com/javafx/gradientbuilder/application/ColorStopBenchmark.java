@@ -0,0 +1,146 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the scripted edits of the color stops : adding, removing, reordering and replacing all the stops one by one through the
+ * observable list (as the "+"/"X" buttons do) against a single {@link ColorStopTransaction}, both followed by one syntax
+ * build. The layout is recreated before each iteration, so each measurement is a single shot.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ColorStopBenchmark {
+
+	@Param({ "5000" })
+	int stops;
+
+	LinearSettingsLayout empty;
+	LinearSettingsLayout full;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		HeadlessFx.startup();
+		empty = HeadlessFx.call(() -> new LinearSettingsLayout(null));
+		full = HeadlessFx.call(() -> HeadlessFx.withColorStops(new LinearSettingsLayout(null), stops));
+	}
+
+	@Benchmark
+	public String addOneByOne() {
+		return HeadlessFx.call(() -> {
+			// Adding each stop after the first one, looked up by its position in the list.
+			ColorStopDTO anchor = empty.colorStops.get(0);
+			for (int i = 0; i < stops; i++) {
+				int pos = empty.colorStops.indexOf(anchor);
+				empty.addColorStop(pos + 1, i % 100, color(i));
+				empty.checkForDeleteBtn();
+			}
+			return empty.buildSyntax();
+		});
+	}
+
+	@Benchmark
+	public String addBulk() {
+		return HeadlessFx.call(() -> {
+			empty.editColorStops((tx) -> {
+				ColorStopDTO anchor = tx.first();
+				for (int i = 0; i < stops; i++) {
+					tx.addAfter(anchor, i % 100, color(i));
+				}
+			});
+			return empty.buildSyntax();
+		});
+	}
+
+	@Benchmark
+	public String removeOneByOne() {
+		return HeadlessFx.call(() -> {
+			for (ColorStopDTO dto : everyOther(full.colorStops)) {
+				full.colorStops.remove(full.colorStops.indexOf(dto));
+				full.checkForDeleteBtn();
+			}
+			return full.buildSyntax();
+		});
+	}
+
+	@Benchmark
+	public String removeBulk() {
+		return HeadlessFx.call(() -> {
+			List<ColorStopDTO> toRemove = everyOther(full.colorStops);
+			full.editColorStops((tx) -> tx.removeAll(toRemove));
+			return full.buildSyntax();
+		});
+	}
+
+	@Benchmark
+	public String reverseOneByOne() {
+		return HeadlessFx.call(() -> {
+			List<ColorStopDTO> order = new ArrayList<ColorStopDTO>(full.colorStops);
+			Collections.reverse(order);
+			for (int i = 0; i < order.size(); i++) {
+				ColorStopDTO dto = order.get(i);
+				full.colorStops.remove(full.colorStops.indexOf(dto));
+				full.colorStops.add(i, dto);
+			}
+			return full.buildSyntax();
+		});
+	}
+
+	@Benchmark
+	public String reverseBulk() {
+		return HeadlessFx.call(() -> {
+			List<ColorStopDTO> order = new ArrayList<ColorStopDTO>(full.colorStops);
+			Collections.reverse(order);
+			full.editColorStops((tx) -> tx.reorder(order));
+			return full.buildSyntax();
+		});
+	}
+
+	@Benchmark
+	public String replaceBulk() {
+		return HeadlessFx.call(() -> {
+			full.editColorStops((tx) -> {
+				int i = 0;
+				for (ColorStopDTO stop = tx.first(); stop != null; stop = tx.next(stop), i++) {
+					tx.replace(stop, (i * 7) % 100, color(i * 31));
+				}
+			});
+			return full.buildSyntax();
+		});
+	}
+
+	private static List<ColorStopDTO> everyOther(List<ColorStopDTO> list) {
+		List<ColorStopDTO> result = new ArrayList<ColorStopDTO>(list.size() / 2);
+		for (int i = 0; i < list.size(); i += 2) {
+			result.add(list.get(i));
+		}
+		return result;
+	}
+
+	private static String color(int i) {
+		return HexEncoder.toHex((i * 0x3F5A7) & 0xFFFFFF);
+	}
+}
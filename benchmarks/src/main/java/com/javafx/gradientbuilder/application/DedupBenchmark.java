@@ -0,0 +1,132 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.LinearDirection;
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Benchmarks the canonical hash of a gradient (hash) and the deduplication of a collection of a million gradients in a single pass
+ * (dedup). Half of the collection are equivalent variants of the other half : direction as from/to points, explicit 0% and 100%
+ * stops, unset focus and center as 0, negative focus distances.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class DedupBenchmark {
+
+	public static final int COLLECTION_SIZE = 1_000_000;
+
+	@Param({ "2", "10" })
+	int stops;
+
+	GradientModel[] models;
+	GradientCanonicalizer canonicalizer = new GradientCanonicalizer();
+	int next;
+
+	@Setup
+	public void setup() {
+		models = createCollection(COLLECTION_SIZE, stops, 42);
+	}
+
+	/**
+	 * Creates the collection : the distinct gradients in the even indexes, and an equivalent variant of a random previous one in the
+	 * odd indexes.
+	 *
+	 * @param size
+	 *            - Number of gradients.
+	 * @param stops
+	 *            - Number of stops of the gradients.
+	 * @param seed
+	 *            - Seed of the random values.
+	 * @return GradientModel[]
+	 */
+	public static GradientModel[] createCollection(int size, int stops, long seed) {
+		Random random = new Random(seed);
+		GradientModel[] models = new GradientModel[size];
+		LinearDirection[] directions = LinearDirection.values();
+		RepeatOrReflect[] cycles = RepeatOrReflect.values();
+		for (int i = 0; i < size; i++) {
+			if (i % 2 == 1) {
+				models[i] = createVariant(models[random.nextInt(i / 2 + 1) * 2]);
+				continue;
+			}
+			int[] colors = new int[stops];
+			int[] percents = new int[stops];
+			for (int s = 0; s < stops; s++) {
+				colors[s] = 0xFF000000 | random.nextInt(0x1000000);
+				percents[s] = (s == 0 || s == stops - 1) ? GradientModel.UNSPECIFIED : s * 100 / stops;
+			}
+			RepeatOrReflect cycle = cycles[random.nextInt(cycles.length)];
+			if (random.nextBoolean()) {
+				models[i] = new LinearGradientModel(false, false, 0, 0, 0, 0, directions[random.nextInt(directions.length)], cycle, colors,
+						percents);
+			} else {
+				models[i] = new RadialGradientModel(true, random.nextInt(360), true, 1 + random.nextInt(90), true, random.nextInt(100),
+						random.nextInt(100), false, 1 + random.nextInt(100), cycle, colors, percents);
+			}
+		}
+		return models;
+	}
+
+	/**
+	 * Returns a gradient written differently from the model, but rendered the same.
+	 */
+	private static GradientModel createVariant(GradientModel model) {
+		int count = model.getStopCount();
+		int[] colors = new int[count];
+		int[] percents = new int[count];
+		for (int s = 0; s < count; s++) {
+			colors[s] = model.getColor(s);
+			percents[s] = model.getPercent(s);
+		}
+		percents[count - 1] = 100;
+		if (model instanceof LinearGradientModel) {
+			LinearGradientModel linear = (LinearGradientModel) model;
+			LinearDirection direction = (linear.getDirection() == null) ? LinearDirection.BOTTOM : linear.getDirection();
+			return new LinearGradientModel(true, false, (int) (direction.getStartX() * 100), (int) (direction.getStartY() * 100),
+					(int) (direction.getEndX() * 100), (int) (direction.getEndY() * 100), null, model.getRepeatOrReflect(), colors,
+					percents);
+		}
+		RadialGradientModel radial = (RadialGradientModel) model;
+		return new RadialGradientModel(true, radial.getFocusAngle() - 180, true, -radial.getFocusDistance(), true, radial.getCenterX(),
+				radial.getCenterY(), false, radial.getRadius(), model.getRepeatOrReflect(), colors, percents);
+	}
+
+	@Benchmark
+	public long hash() {
+		return canonicalizer.hash(models[next++ & 0xFFFF]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3)
+	@Measurement(iterations = 5)
+	public int dedup() {
+		GradientDedupIndex index = new GradientDedupIndex(models.length);
+		for (int i = 0; i < models.length; i++) {
+			index.add(models[i], i);
+		}
+		return index.size();
+	}
+}
@@ -0,0 +1,137 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.geometry.Insets;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.paint.Stop;
+import javafx.stage.Stage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a slider drag on the two shapes alone (no labels, so no fonts are needed) shown on a headless stage : the focus angle of a
+ * radial gradient is dragged over 360 positions, each one applied followed by the CSS pass. Compares the CSS route (syntax string set as
+ * the inline style of both the shapes) with the typed paint route (paint built from the model and one shared background). The score is
+ * per slider position.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DragBenchmark {
+
+	public static final int POSITIONS = 360;
+
+	@Param({ "2", "10", "100" })
+	int stops;
+
+	Stage stage;
+	Group root;
+	StackPane rectangle;
+	StackPane circle;
+	RadialGradientModel[] models = new RadialGradientModel[POSITIONS];
+
+	@Setup
+	public void setup() {
+		int[] colors = new int[stops];
+		int[] percents = new int[stops];
+		for (int i = 0; i < stops; i++) {
+			colors[i] = 0xFF000000 | ((i * 0x3F5A7) & 0xFFFFFF);
+			percents[i] = (i * 100) / Math.max(1, stops - 1);
+		}
+		for (int angle = 0; angle < POSITIONS; angle++) {
+			models[angle] = new RadialGradientModel(true, angle, true, 40, true, 50, 50, false, 60, null, colors, percents);
+		}
+
+		HeadlessFx.startup();
+		HeadlessFx.call(() -> {
+			rectangle = new StackPane();
+			rectangle.resize(400, 300);
+			circle = new StackPane();
+			circle.resize(300, 300);
+			circle.relocate(420, 0);
+			root = new Group(rectangle, circle);
+			stage = new Stage();
+			stage.setScene(new Scene(root, 720, 300));
+			stage.show();
+			return null;
+		});
+	}
+
+	@TearDown
+	public void tearDown() {
+		HeadlessFx.call(() -> {
+			stage.close();
+			return null;
+		});
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POSITIONS)
+	public Object dragStyles() {
+		return HeadlessFx.call(() -> {
+			for (RadialGradientModel model : models) {
+				String bg = model.toSyntax();
+				rectangle.setStyle("-fx-background-color:" + bg);
+				circle.setStyle("-fx-background-color:" + bg);
+				root.applyCss();
+			}
+			return root;
+		});
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POSITIONS)
+	public Object dragPaint() {
+		return HeadlessFx.call(() -> {
+			for (RadialGradientModel model : models) {
+				Background background = new Background(new BackgroundFill(toPaint(model), CornerRadii.EMPTY, Insets.EMPTY));
+				rectangle.setBackground(background);
+				circle.setBackground(background);
+				root.applyCss();
+			}
+			return root;
+		});
+	}
+
+	/**
+	 * Returns the paint of the model, as built by {@link RadialSettingsLayout#buildPaint()}.
+	 */
+	private static RadialGradient toPaint(RadialGradientModel model) {
+		double[] offsets = model.resolveOffsets();
+		Stop[] stops = new Stop[offsets.length];
+		for (int i = 0; i < stops.length; i++) {
+			int argb = model.getColor(i);
+			stops[i] = new Stop(offsets[i], Color.rgb((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, (argb >>> 24) / 255.0));
+		}
+		return new RadialGradient(model.getEffectiveFocusAngle(), model.getEffectiveFocusDistance(), model.getEffectiveCenterX(),
+				model.getEffectiveCenterY(), model.getEffectiveRadius(), model.isProportional(), CycleMethod.NO_CYCLE, stops);
+	}
+}
@@ -0,0 +1,101 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+/**
+ * Utility to start the JavaFX toolkit on the headless Monocle platform with the software pipeline, and to run the tasks on the JavaFX
+ * application thread.
+ * 
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public final class HeadlessFx {
+
+	private static final CountDownLatch STARTED = new CountDownLatch(1);
+	private static boolean launched;
+
+	private HeadlessFx() {
+	}
+
+	/**
+	 * Application which only signals that the toolkit is started.
+	 */
+	public static class Boot extends Application {
+		@Override
+		public void start(Stage stage) {
+			Platform.setImplicitExit(false);
+			STARTED.countDown();
+		}
+	}
+
+	/**
+	 * Starts the toolkit once, and waits till it is ready.
+	 */
+	public static synchronized void startup() {
+		if (!launched) {
+			launched = true;
+			System.setProperty("glass.platform", "Monocle");
+			System.setProperty("monocle.platform", "Headless");
+			System.setProperty("prism.order", "sw");
+			System.setProperty("prism.text", "t2k");
+			System.setProperty("java.awt.headless", "true");
+
+			Thread launcher = new Thread(() -> Application.launch(Boot.class), "fx-launcher");
+			launcher.setDaemon(true);
+			launcher.start();
+		}
+		try {
+			STARTED.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while starting the toolkit", e);
+		}
+	}
+
+	/**
+	 * Runs the task on the JavaFX application thread and waits for its result.
+	 * 
+	 * @param task
+	 *            - Task to be executed.
+	 * @return result of the task.
+	 */
+	public static <T> T call(Callable<T> task) {
+		try {
+			if (Platform.isFxApplicationThread()) {
+				return task.call();
+			}
+			FutureTask<T> future = new FutureTask<T>(task);
+			Platform.runLater(future);
+			return future.get();
+		} catch (Exception e) {
+			throw new IllegalStateException("Task failed on the JavaFX application thread", e);
+		}
+	}
+
+	/**
+	 * Adds color stops to the layout till it has the given count. The positions of the added stops are spread from 0 to 100.
+	 * 
+	 * @param layout
+	 *            - Layout to which the color stops are added.
+	 * @param count
+	 *            - Total number of color stops.
+	 * @return the layout.
+	 */
+	public static <T extends AbstractSettingsLayout> T withColorStops(T layout, int count) {
+		int existing = layout.colorStops.size();
+		for (int i = existing; i < count; i++) {
+			int pos = (i * 100) / Math.max(1, count - 1);
+			String color = String.format("#%06X", (i * 0x3F5A7) & 0xFFFFFF);
+			layout.addColorStop(-1, pos, color);
+		}
+		layout.checkForDeleteBtn();
+		return layout;
+	}
+}
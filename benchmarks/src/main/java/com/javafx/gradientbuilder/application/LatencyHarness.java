@@ -0,0 +1,268 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.control.ColorPicker;
+import javafx.scene.control.Slider;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+/**
+ * End-to-end interaction latency harness. Boots the application on a headless stage (Monocle, software pipeline), switches to the radial
+ * gradient and drives its controls as a user would : the center X slider and the color picker of the first color stop are set alternately
+ * to two values. For each change, the latency is measured from the property change to the first pulse whose rendering of the rectangle
+ * and circle shows new pixels. The pixels are sampled at the start of each pulse (by a 1x1 snapshot of each shape), so the latency includes
+ * the wait for the frame, as seen by the user.
+ * <p>
+ * The p50/p99 of each input are reported, with the {@link PipelineMetrics} of the application, and the harness exits with 1 if the p50 or
+ * p99 of all the changes is above its threshold, or if a change is not rendered within {@link #FRAME_TIMEOUT_MS}. So it can be run in
+ * automated builds to catch regressions.
+ * <p>
+ * Usage : LatencyHarness [&lt;changes&gt; [&lt;max-p50-ms&gt; &lt;max-p99-ms&gt;]]
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public final class LatencyHarness {
+
+	// Default number of measured changes, and thresholds of the latencies.
+	public static final int DEFAULT_CHANGES = 200;
+	public static final double DEFAULT_MAX_P50_MS = 50;
+	public static final double DEFAULT_MAX_P99_MS = 100;
+
+	// Changes done before measuring, to warm up the JIT and the caches.
+	private static final int WARMUP_CHANGES = 40;
+
+	// Time within which a change should be rendered.
+	private static final long FRAME_TIMEOUT_MS = 2000;
+
+	// Largest random pause between two changes, so the changes are not aligned with the pulses.
+	private static final int MAX_PAUSE_MS = 16;
+
+	// Position of the sampled pixel in the shapes (off the center, to avoid the size labels).
+	private static final double SAMPLE_X = 0.3;
+	private static final double SAMPLE_Y = 0.45;
+
+	private GradientBuilderApp app;
+	private Stage stage;
+	private StackPane rectangle;
+	private StackPane circle;
+
+	// Inputs driven alternately, and the latencies of all the inputs.
+	private final Input[] inputs = new Input[2];
+	private final Histogram all = new Histogram();
+
+	// Reused image of a sampled pixel.
+	private final WritableImage pixel = new WritableImage(1, 1);
+
+	// Input of the change waiting for its frame (null if none), the time of the change and the pixels before it. Used on the JavaFX
+	// application thread only.
+	private Input pending;
+	private boolean measured;
+	private long changedAt;
+	private final int[] before = new int[2];
+
+	// Released when the change is rendered.
+	private final Semaphore rendered = new Semaphore(0);
+
+	// Timer sampling the pixels at the start of each pulse while a change is pending.
+	private final AnimationTimer sampler = new AnimationTimer() {
+		@Override
+		public void handle(long now) {
+			if (pending != null && sample(rectangle) != before[0] && sample(circle) != before[1]) {
+				if (measured) {
+					long latency = System.nanoTime() - changedAt;
+					pending.latencies.record(latency);
+					all.record(latency);
+				}
+				pending = null;
+				rendered.release();
+			}
+		}
+	};
+
+	/**
+	 * Input driven by the harness, set alternately to two values.
+	 */
+	private abstract static class Input {
+		final String name;
+		final Histogram latencies = new Histogram();
+		boolean toggle;
+
+		Input(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Sets the input to its other value.
+		 */
+		abstract void change(boolean toggle);
+	}
+
+	/**
+	 * Starts the application on a headless stage and looks up the controls to be driven.
+	 */
+	private void start() {
+		HeadlessFx.startup();
+		HeadlessFx.call(() -> {
+			app = new GradientBuilderApp();
+			stage = new Stage();
+			app.start(stage);
+			rectangle = app.getRectangle();
+			circle = app.getCircle();
+
+			Parent root = stage.getScene().getRoot();
+			for (Node node : root.lookupAll(".button")) {
+				if (node instanceof CustomRadioButton && "Radial".equals(((CustomRadioButton) node).getText())) {
+					((CustomRadioButton) node).fire();
+				}
+			}
+			root.applyCss();
+			root.layout();
+
+			AbstractSettingsLayout layout = app.getCurrentLayout();
+			final Slider slider = findCenterXSlider(layout);
+			final ColorPicker picker = (ColorPicker) layout.lookup(".color-picker");
+			if (slider == null || picker == null) {
+				throw new IllegalStateException("Controls of the radial settings not found");
+			}
+			inputs[0] = new Input("Slider") {
+				@Override
+				void change(boolean toggle) {
+					slider.setValue(toggle ? 35 : 50);
+				}
+			};
+			inputs[1] = new Input("ColorPicker") {
+				@Override
+				void change(boolean toggle) {
+					picker.setValue(toggle ? Color.web("#1E90FF") : Color.web("#FF4500"));
+				}
+			};
+			sampler.start();
+			return null;
+		});
+	}
+
+	/**
+	 * Returns the center X slider : the first slider from -120 to 120 at 50.
+	 */
+	private static Slider findCenterXSlider(Parent layout) {
+		for (Node node : layout.lookupAll(".slider")) {
+			Slider slider = (Slider) node;
+			if (slider.getMin() == -120 && slider.getMax() == 120 && slider.getValue() == 50) {
+				return slider;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the ARGB color of the sampled pixel of the shape, as rendered now.
+	 */
+	private int sample(StackPane shape) {
+		Bounds bounds = shape.getBoundsInParent();
+		SnapshotParameters params = new SnapshotParameters();
+		params.setViewport(new Rectangle2D(Math.floor(bounds.getMinX() + bounds.getWidth() * SAMPLE_X),
+				Math.floor(bounds.getMinY() + bounds.getHeight() * SAMPLE_Y), 1, 1));
+		shape.snapshot(params, pixel);
+		return pixel.getPixelReader().getArgb(0, 0);
+	}
+
+	/**
+	 * Changes the inputs alternately, and waits for each change to be rendered.
+	 */
+	private void run(int changes) throws InterruptedException {
+		Random random = new Random(42);
+		for (int i = 0; i < WARMUP_CHANGES + changes; i++) {
+			final Input input = inputs[i % inputs.length];
+			final boolean measure = i >= WARMUP_CHANGES;
+			HeadlessFx.call(() -> {
+				before[0] = sample(rectangle);
+				before[1] = sample(circle);
+				pending = input;
+				measured = measure;
+				input.toggle = !input.toggle;
+				changedAt = System.nanoTime();
+				input.change(input.toggle);
+				return null;
+			});
+			if (!rendered.tryAcquire(FRAME_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+				throw new IllegalStateException(input.name + " change " + i + " not rendered within " + FRAME_TIMEOUT_MS + " ms");
+			}
+			Thread.sleep(random.nextInt(MAX_PAUSE_MS + 1));
+		}
+	}
+
+	private void stop() {
+		HeadlessFx.call(() -> {
+			sampler.stop();
+			stage.close();
+			app.stop();
+			return null;
+		});
+	}
+
+	private static String format(String name, Histogram histogram) {
+		return String.format("%-12s : %5d changes, p50 %7.2f ms, p99 %7.2f ms, max %7.2f ms", name, histogram.getCount(),
+				histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6, histogram.getMax() / 1e6);
+	}
+
+	public static void main(String[] args) throws Exception {
+		int changes = DEFAULT_CHANGES;
+		double maxP50 = DEFAULT_MAX_P50_MS;
+		double maxP99 = DEFAULT_MAX_P99_MS;
+		try {
+			if (args.length > 0) {
+				changes = Integer.parseInt(args[0]);
+			}
+			if (args.length > 2) {
+				maxP50 = Double.parseDouble(args[1]);
+				maxP99 = Double.parseDouble(args[2]);
+			}
+		} catch (NumberFormatException ex) {
+			System.err.println("Usage : LatencyHarness [<changes> [<max-p50-ms> <max-p99-ms>]]");
+			System.exit(1);
+		}
+
+		LatencyHarness harness = new LatencyHarness();
+		boolean failed = false;
+		try {
+			harness.start();
+			harness.run(changes);
+			for (Input input : harness.inputs) {
+				System.out.println(format(input.name, input.latencies));
+			}
+			System.out.println(format("All", harness.all));
+			System.out.println(harness.app.getMetrics().getReport());
+			harness.stop();
+		} catch (IllegalStateException ex) {
+			System.err.println("FAILED : " + ex.getMessage());
+			failed = true;
+		}
+
+		double p50 = harness.all.getValueAtPercentile(50) / 1e6;
+		double p99 = harness.all.getValueAtPercentile(99) / 1e6;
+		if (!failed && p50 > maxP50) {
+			System.err.println(String.format("FAILED : p50 %.2f ms is above %.2f ms", p50, maxP50));
+			failed = true;
+		}
+		if (!failed && p99 > maxP99) {
+			System.err.println(String.format("FAILED : p99 %.2f ms is above %.2f ms", p99, maxP99));
+			failed = true;
+		}
+		Platform.exit();
+		System.exit(failed ? 1 : 0);
+	}
+}
@@ -0,0 +1,59 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link ColorStopOptimizer} on smooth gradients sampled into many color stops (as imported from design tools), for
+ * different tolerances. The optimization of 1000 stops is expected to take a few milliseconds, to be run on the JavaFX thread.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptimizerBenchmark {
+
+	@Param({ "100", "1000" })
+	int stops;
+
+	@Param({ "1.5", "2.3", "5" })
+	double tolerance;
+
+	int[] colors;
+	int[] percents;
+	ColorStopOptimizer optimizer = new ColorStopOptimizer();
+
+	@Setup
+	public void setup() {
+		colors = new int[stops];
+		percents = new int[stops];
+		for (int i = 0; i < stops; i++) {
+			double t = i / (double) (stops - 1);
+			int r = (int) (255 * (0.5 + 0.5 * Math.sin(t * 6)));
+			int g = (int) (255 * t);
+			int b = (int) (255 * (1 - t) * (1 - t));
+			colors[i] = 0xFF000000 | (r << 16) | (g << 8) | b;
+		}
+	}
+
+	@Benchmark
+	public int optimize() {
+		return optimizer.optimize(colors, percents, tolerance).getStopCount();
+	}
+}
@@ -0,0 +1,62 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.RadialGradient;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the parsing of the emitted gradient syntax by LinearGradient.valueOf() and RadialGradient.valueOf().
+ * 
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+	@Param({ "2", "10", "100", "1000" })
+	int stops;
+
+	String linearSyntax;
+	String radialSyntax;
+
+	@Setup
+	public void setup() {
+		HeadlessFx.startup();
+		linearSyntax = stripEnd(HeadlessFx.call(() -> HeadlessFx.withColorStops(new LinearSettingsLayout(null), stops).buildSyntax()));
+		radialSyntax = stripEnd(HeadlessFx.call(() -> HeadlessFx.withColorStops(new RadialSettingsLayout(null), stops).buildSyntax()));
+	}
+
+	// valueOf() does not accept the trailing ";" of the style.
+	private static String stripEnd(String syntax) {
+		return syntax.endsWith(";") ? syntax.substring(0, syntax.length() - 1) : syntax;
+	}
+
+	@Benchmark
+	public LinearGradient linearValueOf() {
+		return LinearGradient.valueOf(linearSyntax);
+	}
+
+	@Benchmark
+	public RadialGradient radialValueOf() {
+		return RadialGradient.valueOf(radialSyntax);
+	}
+}
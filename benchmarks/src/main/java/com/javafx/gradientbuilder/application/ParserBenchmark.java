@@ -0,0 +1,78 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the hand written {@link GradientParser} against the regular expression based baseline, for the syntax built by the
+ * layouts with different number of color stops. Does not need the JavaFX toolkit.
+ * 
+ * @author Sai.Dandem
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param({ "2", "10", "100", "1000" })
+	int stops;
+
+	String linearSyntax;
+	String radialSyntax;
+
+	GradientParser parser = new GradientParser();
+	RegexGradientParser regexParser = new RegexGradientParser();
+
+	@Setup
+	public void setup() {
+		linearSyntax = build(new StringBuilder("linear-gradient(from 0% 0% to 50% 50% , reflect, "));
+		radialSyntax = build(new StringBuilder("radial-gradient(focus-angle 0deg , focus-distance 0% , center 50% 50% , radius 50% , "));
+	}
+
+	private String build(StringBuilder sb) {
+		for (int i = 0; i < stops; i++) {
+			HexEncoder.appendHex(sb, i * 0x3F5A7);
+			int percent = (i * 100) / Math.max(1, stops - 1);
+			if (percent > 0) {
+				sb.append(' ').append(percent).append('%');
+			}
+			sb.append(i < stops - 1 ? ", " : ");");
+		}
+		return sb.toString();
+	}
+
+	@Benchmark
+	public GradientModel linearHandWritten() {
+		return parser.parse(linearSyntax);
+	}
+
+	@Benchmark
+	public GradientModel linearRegex() {
+		return regexParser.parse(linearSyntax);
+	}
+
+	@Benchmark
+	public GradientModel radialHandWritten() {
+		return parser.parse(radialSyntax);
+	}
+
+	@Benchmark
+	public GradientModel radialRegex() {
+		return regexParser.parse(radialSyntax);
+	}
+}
@@ -0,0 +1,125 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.LinearDirection;
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Regular expression based parser of the gradient syntax, used as the baseline for benchmarking {@link GradientParser}. Handles the
+ * syntax built by the layouts (hex colors only).
+ * 
+ * @author Sai.Dandem
+ *
+ */
+public class RegexGradientParser {
+
+	private static final Pattern FUNCTION = Pattern.compile("\\s*(linear|radial)-gradient\\s*\\((.*)\\)\\s*;?\\s*", Pattern.DOTALL);
+	private static final Pattern ARGUMENT_SEPARATOR = Pattern.compile("\\s*,\\s*");
+	private static final Pattern FROM_TO = Pattern.compile("from\\s+(-?\\d+)(%|px)\\s+(-?\\d+)(%|px)\\s+to\\s+(-?\\d+)(%|px)\\s+(-?\\d+)(%|px)");
+	private static final Pattern TO = Pattern.compile("to\\s+((?:top|bottom|left|right)(?:\\s+(?:top|bottom|left|right))?)");
+	private static final Pattern FOCUS_ANGLE = Pattern.compile("focus-angle\\s+(-?\\d+)deg");
+	private static final Pattern FOCUS_DISTANCE = Pattern.compile("focus-distance\\s+(-?\\d+)%");
+	private static final Pattern CENTER = Pattern.compile("center\\s+(-?\\d+)%\\s+(-?\\d+)%");
+	private static final Pattern RADIUS = Pattern.compile("radius\\s+(-?\\d+)(%|px)");
+	private static final Pattern STOP = Pattern.compile("#([0-9a-fA-F]{6})(?:\\s+(-?\\d+)%)?");
+
+	public GradientModel parse(String syntax) {
+		Matcher function = FUNCTION.matcher(syntax);
+		if (!function.matches()) {
+			throw new IllegalArgumentException("Invalid gradient " + syntax);
+		}
+		String[] args = ARGUMENT_SEPARATOR.split(function.group(2).trim());
+		int index = 0;
+		Matcher m;
+		if (function.group(1).equals("linear")) {
+			boolean fromTo = false, pixel = false;
+			int fromX = 0, fromY = 0, toX = 0, toY = 0;
+			LinearDirection direction = null;
+			if ((m = FROM_TO.matcher(args[index])).matches()) {
+				fromTo = true;
+				pixel = m.group(2).equals("px");
+				fromX = Integer.parseInt(m.group(1));
+				fromY = Integer.parseInt(m.group(3));
+				toX = Integer.parseInt(m.group(5));
+				toY = Integer.parseInt(m.group(7));
+				index++;
+			} else if ((m = TO.matcher(args[index])).matches()) {
+				direction = toDirection(m.group(1).replaceAll("\\s+", " "));
+				index++;
+			}
+			RepeatOrReflect cycle = toCycle(args[index]);
+			if (cycle != RepeatOrReflect.NONE) {
+				index++;
+			}
+			int[][] stops = parseStops(args, index);
+			return new LinearGradientModel(fromTo, pixel, fromX, fromY, toX, toY, direction, cycle, stops[0], stops[1]);
+		}
+
+		boolean hasFocusAngle = false, hasFocusDistance = false, hasCenter = false;
+		int focusAngle = 0, focusDistance = 0, centerX = 0, centerY = 0;
+		if ((m = FOCUS_ANGLE.matcher(args[index])).matches()) {
+			hasFocusAngle = true;
+			focusAngle = Integer.parseInt(m.group(1));
+			index++;
+		}
+		if ((m = FOCUS_DISTANCE.matcher(args[index])).matches()) {
+			hasFocusDistance = true;
+			focusDistance = Integer.parseInt(m.group(1));
+			index++;
+		}
+		if ((m = CENTER.matcher(args[index])).matches()) {
+			hasCenter = true;
+			centerX = Integer.parseInt(m.group(1));
+			centerY = Integer.parseInt(m.group(2));
+			index++;
+		}
+		if (!(m = RADIUS.matcher(args[index])).matches()) {
+			throw new IllegalArgumentException("Expected radius " + args[index]);
+		}
+		boolean radiusPixel = m.group(2).equals("px");
+		int radius = Integer.parseInt(m.group(1));
+		index++;
+		RepeatOrReflect cycle = toCycle(args[index]);
+		if (cycle != RepeatOrReflect.NONE) {
+			index++;
+		}
+		int[][] stops = parseStops(args, index);
+		return new RadialGradientModel(hasFocusAngle, focusAngle, hasFocusDistance, focusDistance, hasCenter, centerX, centerY,
+				radiusPixel, radius, cycle, stops[0], stops[1]);
+	}
+
+	private static LinearDirection toDirection(String value) {
+		for (LinearDirection direction : LinearDirection.values()) {
+			if (direction.toString().equals(value)) {
+				return direction;
+			}
+		}
+		throw new IllegalArgumentException("Invalid direction " + value);
+	}
+
+	private static RepeatOrReflect toCycle(String arg) {
+		if (arg.equals("repeat")) {
+			return RepeatOrReflect.REPEAT;
+		}
+		if (arg.equals("reflect")) {
+			return RepeatOrReflect.REFLECT;
+		}
+		return RepeatOrReflect.NONE;
+	}
+
+	private static int[][] parseStops(String[] args, int index) {
+		int[] colors = new int[args.length - index];
+		int[] percents = new int[args.length - index];
+		for (int i = index; i < args.length; i++) {
+			Matcher m = STOP.matcher(args[i]);
+			if (!m.matches()) {
+				throw new IllegalArgumentException("Invalid color stop " + args[i]);
+			}
+			colors[i - index] = 0xFF000000 | Integer.parseInt(m.group(1), 16);
+			percents[i - index] = (m.group(2) == null) ? GradientModel.UNSPECIFIED : Integer.parseInt(m.group(2));
+		}
+		return new int[][] { colors, percents };
+	}
+}
@@ -0,0 +1,217 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test client of the {@link GradientRenderServer}. The client threads send GET requests of distinct gradients in turn, so the
+ * first request of each gradient is rendered and the next ones are served from the cache, and the throughput and the latencies
+ * (p50/p90/p99/p99.9/max) are reported with the statistics of the server. Without a URL, the server is started in this JVM on a free
+ * port of localhost.
+ * <p>
+ * A tenth of the requests is sent first to warm up the JIT, and is not measured. The client exits with 1 if a request fails.
+ * <p>
+ * Usage : RenderLoadClient [&lt;url&gt;|- [&lt;threads&gt; [&lt;requests&gt; [&lt;distinct-gradients&gt; [&lt;width&gt; &lt;height&gt;]]]]]
+ *
+ * @author Sai.Dandem
+ *
+ */
+public final class RenderLoadClient {
+
+	public static final int DEFAULT_THREADS = 16;
+	public static final int DEFAULT_REQUESTS = 20000;
+	public static final int DEFAULT_DISTINCT = 200;
+
+	private final String baseUrl;
+	private final String[] gradients;
+	private final int width;
+	private final int height;
+
+	private final Histogram latencies = new Histogram();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicInteger errors = new AtomicInteger();
+
+	/**
+	 * Constructor to initialize the client.
+	 *
+	 * @param baseUrl
+	 *            - URL of the server, e.g "http://localhost:8085".
+	 * @param distinct
+	 *            - Number of distinct gradients requested.
+	 * @param width
+	 *            - Width of the images.
+	 * @param height
+	 *            - Height of the images.
+	 */
+	public RenderLoadClient(String baseUrl, int distinct, int width, int height) {
+		this.baseUrl = baseUrl;
+		this.width = width;
+		this.height = height;
+		this.gradients = new String[distinct];
+		for (int i = 0; i < distinct; i++) {
+			gradients[i] = createGradient(i);
+		}
+	}
+
+	/**
+	 * Returns the i-th gradient of the test : linear and radial gradients of varying geometry, colors and cycle methods.
+	 */
+	static String createGradient(int i) {
+		String from = String.format("#%06X", (i * 0x9E3779) & 0xFFFFFF);
+		String to = String.format("#%06X", (i * 0x7F4A7C + 0x3C6EF3) & 0xFFFFFF);
+		String cycle = (i % 3 == 0) ? "" : (i % 3 == 1) ? "repeat, " : "reflect, ";
+		if (i % 2 == 0) {
+			return "linear-gradient(from 0% 0% to " + (i % 100) + "% 100%, " + cycle + from + ", " + to + ");";
+		}
+		return "radial-gradient(focus-angle " + (i % 360) + "deg, center 50% 50%, radius " + (10 + i % 90) + "%, " + cycle + from + ", "
+				+ to + ");";
+	}
+
+	/**
+	 * Sends the requests from the threads, and records the latencies if measured.
+	 */
+	void run(int threads, int requests, boolean measured) throws Exception {
+		final AtomicInteger next = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					byte[] buffer = new byte[16 * 1024];
+					int i;
+					while ((i = next.getAndIncrement()) < requests) {
+						long start = System.nanoTime();
+						long read = request(gradients[i % gradients.length], buffer);
+						if (measured) {
+							latencies.record(System.nanoTime() - start);
+							if (read < 0) {
+								errors.incrementAndGet();
+							} else {
+								bytes.addAndGet(read);
+							}
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Requests the image of the gradient, and reads it fully so the connection is kept alive.
+	 *
+	 * @return Number of bytes read, or -1 if the request failed.
+	 */
+	private long request(String gradient, byte[] buffer) throws IOException {
+		URL url = new URL(baseUrl + "/render?gradient=" + URLEncoder.encode(gradient, "UTF-8") + "&width=" + width + "&height=" + height);
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		int status = connection.getResponseCode();
+		InputStream in = (status == 200) ? connection.getInputStream() : connection.getErrorStream();
+		long total = 0;
+		if (in != null) {
+			try {
+				int read;
+				while ((read = in.read(buffer)) > 0) {
+					total += read;
+				}
+			} finally {
+				in.close();
+			}
+		}
+		return (status == 200) ? total : -1;
+	}
+
+	private String fetchStats() throws IOException {
+		try (Scanner scanner = new Scanner(new URL(baseUrl + "/stats").openStream(), "UTF-8")) {
+			return scanner.useDelimiter("\\A").hasNext() ? scanner.next() : "";
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		String url = "-";
+		int threads = DEFAULT_THREADS;
+		int requests = DEFAULT_REQUESTS;
+		int distinct = DEFAULT_DISTINCT;
+		int width = GradientExporter.DEFAULT_WIDTH;
+		int height = GradientExporter.DEFAULT_HEIGHT;
+		try {
+			if (args.length > 0) {
+				url = args[0];
+			}
+			if (args.length > 1) {
+				threads = Integer.parseInt(args[1]);
+			}
+			if (args.length > 2) {
+				requests = Integer.parseInt(args[2]);
+			}
+			if (args.length > 3) {
+				distinct = Integer.parseInt(args[3]);
+			}
+			if (args.length > 5) {
+				width = Integer.parseInt(args[4]);
+				height = Integer.parseInt(args[5]);
+			}
+			if (threads <= 0 || requests <= 0 || distinct <= 0) {
+				throw new NumberFormatException();
+			}
+		} catch (NumberFormatException ex) {
+			System.err.println(
+					"Usage : RenderLoadClient [<url>|- [<threads> [<requests> [<distinct-gradients> [<width> <height>]]]]]");
+			System.exit(1);
+		}
+
+		GradientRenderServer server = null;
+		if ("-".equals(url)) {
+			// Without the delay of Nagle's algorithm, as the server started by its main.
+			if (System.getProperty(GradientRenderServer.NO_DELAY_PROPERTY) == null) {
+				System.setProperty(GradientRenderServer.NO_DELAY_PROPERTY, "true");
+			}
+			server = new GradientRenderServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+					GradientRenderServer.DEFAULT_CACHE_MB * 1024L * 1024L);
+			server.start();
+			url = "http://localhost:" + server.getPort();
+		}
+		// Keeping a connection per client thread alive.
+		System.setProperty("http.maxConnections", Integer.toString(threads));
+
+		RenderLoadClient client = new RenderLoadClient(url, distinct, width, height);
+		client.run(threads, Math.max(1, requests / 10), false);
+		long start = System.nanoTime();
+		client.run(threads, requests, true);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		Histogram latencies = client.latencies;
+		System.out.println(String.format("%d requests (%d distinct %dx%d) on %d threads in %.2f s : %.0f requests/s, %.1f MB/s", requests,
+				distinct, width, height, threads, seconds, requests / seconds, client.bytes.get() / seconds / (1024 * 1024)));
+		System.out.println(String.format("Latency : p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms",
+				latencies.getValueAtPercentile(50) / 1e6, latencies.getValueAtPercentile(90) / 1e6,
+				latencies.getValueAtPercentile(99) / 1e6, latencies.getValueAtPercentile(99.9) / 1e6, latencies.getMax() / 1e6));
+		System.out.print(client.fetchStats());
+
+		if (server != null) {
+			server.stop(0);
+		}
+		if (client.errors.get() > 0) {
+			System.err.println("FAILED : " + client.errors.get() + " requests failed");
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.scene.Scene;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.Region;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks loading a scene of regions filled by the gradients of "src/main/gradients/scene.gradients", till its first CSS and layout
+ * pass. Compares the CSS route (loadStyled : the gradient syntax as the inline style of each region, parsed by the CSS engine) with the
+ * precompiled paints generated at build time (loadPrecompiled : the Background constants of SceneGradients).
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SceneLoadBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	int regions;
+
+	String[] styles;
+	Background[] backgrounds;
+
+	@Setup
+	public void setup() {
+		HeadlessFx.startup();
+		styles = new String[] { SceneGradients.SUNRISE_SYNTAX, SceneGradients.OCEAN_SYNTAX, SceneGradients.FOREST_SYNTAX,
+				SceneGradients.STRIPES_SYNTAX, SceneGradients.SPOTLIGHT_SYNTAX, SceneGradients.HALO_SYNTAX, SceneGradients.RINGS_SYNTAX,
+				SceneGradients.DUSK_SYNTAX };
+		for (int i = 0; i < styles.length; i++) {
+			styles[i] = "-fx-background-color: " + styles[i];
+		}
+		backgrounds = new Background[] { SceneGradients.SUNRISE_BACKGROUND, SceneGradients.OCEAN_BACKGROUND,
+				SceneGradients.FOREST_BACKGROUND, SceneGradients.STRIPES_BACKGROUND, SceneGradients.SPOTLIGHT_BACKGROUND,
+				SceneGradients.HALO_BACKGROUND, SceneGradients.RINGS_BACKGROUND, SceneGradients.DUSK_BACKGROUND };
+	}
+
+	@Benchmark
+	public Object loadStyled() {
+		return HeadlessFx.call(() -> {
+			FlowPane root = new FlowPane();
+			for (int i = 0; i < regions; i++) {
+				Region region = newRegion();
+				region.setStyle(styles[i % styles.length]);
+				root.getChildren().add(region);
+			}
+			return load(root);
+		});
+	}
+
+	@Benchmark
+	public Object loadPrecompiled() {
+		return HeadlessFx.call(() -> {
+			FlowPane root = new FlowPane();
+			for (int i = 0; i < regions; i++) {
+				Region region = newRegion();
+				region.setBackground(backgrounds[i % backgrounds.length]);
+				root.getChildren().add(region);
+			}
+			return load(root);
+		});
+	}
+
+	private static Region newRegion() {
+		Region region = new Region();
+		region.setPrefSize(40, 30);
+		return region;
+	}
+
+	private static Scene load(FlowPane root) {
+		Scene scene = new Scene(root, 800, 600);
+		root.applyCss();
+		root.layout();
+		return scene;
+	}
+}
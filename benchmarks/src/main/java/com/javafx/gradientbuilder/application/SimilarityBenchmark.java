@@ -0,0 +1,119 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the similarity search over a hundred thousand gradients : the build of the index (build), the search of the 10 most
+ * similar gradients in the tree (search) and by comparing all the vectors (exhaustive). The collection is either random gradients
+ * (random, the worst case of the tree as they are all far apart) or 2000 themes of 50 variants with slightly different colors (themes).
+ *
+ * @author Sai.Dandem
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class SimilarityBenchmark {
+
+	public static final int COLLECTION_SIZE = 100_000;
+	public static final int THEME_COUNT = 2000;
+	public static final int QUERY_COUNT = 1024;
+
+	@Param({ "random", "themes" })
+	String collection;
+
+	float[] vectors;
+	SimilarityIndex index;
+	float[][] queries;
+	int next;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		GradientModel[] models;
+		GradientModel[] themes = DedupBenchmark.createCollection(THEME_COUNT * 2, 5, 7);
+		if (collection.equals("random")) {
+			models = DedupBenchmark.createCollection(COLLECTION_SIZE, 5, 42);
+		} else {
+			models = new GradientModel[COLLECTION_SIZE];
+			for (int i = 0; i < models.length; i++) {
+				models[i] = createVariant(themes[(i % THEME_COUNT) * 2], random);
+			}
+		}
+		GradientFeatures features = new GradientFeatures();
+		vectors = new float[COLLECTION_SIZE * GradientFeatures.DIMENSION];
+		for (int i = 0; i < models.length; i++) {
+			features.extract(models[i], vectors, i * GradientFeatures.DIMENSION);
+		}
+		index = SimilarityIndex.build(vectors, GradientFeatures.DIMENSION, 0, ForkJoinPool.commonPool());
+
+		// Queries of new variants of the themes (random gradients for the random collection).
+		GradientModel[] searched = collection.equals("random") ? DedupBenchmark.createCollection(QUERY_COUNT, 3, 99) : null;
+		queries = new float[QUERY_COUNT][];
+		for (int i = 0; i < QUERY_COUNT; i++) {
+			GradientModel model = (searched != null) ? searched[i] : createVariant(themes[random.nextInt(THEME_COUNT) * 2], random);
+			queries[i] = features.extract(model);
+		}
+	}
+
+	/**
+	 * Returns the gradient with each color channel moved by up to 12 levels.
+	 */
+	private static GradientModel createVariant(GradientModel model, Random random) {
+		int count = model.getStopCount();
+		int[] colors = new int[count];
+		int[] percents = new int[count];
+		for (int s = 0; s < count; s++) {
+			int color = 0xFF000000;
+			for (int shift = 0; shift < 24; shift += 8) {
+				int channel = ((model.getColor(s) >> shift) & 0xFF) + random.nextInt(25) - 12;
+				color |= Math.max(0, Math.min(255, channel)) << shift;
+			}
+			colors[s] = color;
+			percents[s] = model.getPercent(s);
+		}
+		if (model instanceof LinearGradientModel) {
+			LinearGradientModel linear = (LinearGradientModel) model;
+			return new LinearGradientModel(false, false, 0, 0, 0, 0, linear.getDirection(), model.getRepeatOrReflect(), colors, percents);
+		}
+		RadialGradientModel radial = (RadialGradientModel) model;
+		return new RadialGradientModel(true, radial.getFocusAngle(), true, radial.getFocusDistance(), true, radial.getCenterX(),
+				radial.getCenterY(), false, radial.getRadius(), model.getRepeatOrReflect(), colors, percents);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3)
+	@Measurement(iterations = 5)
+	public int build() {
+		return SimilarityIndex.build(vectors, GradientFeatures.DIMENSION, 0, ForkJoinPool.commonPool()).size();
+	}
+
+	@Benchmark
+	public int search() {
+		return index.search(queries[next++ & (QUERY_COUNT - 1)], 10).getIndex(0);
+	}
+
+	@Benchmark
+	public int exhaustive() {
+		return index.searchExhaustive(queries[next++ & (QUERY_COUNT - 1)], 10).getIndex(0);
+	}
+}
@@ -0,0 +1,115 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.Arrays;
+
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+/**
+ * Startup harness. Boots the application on a headless stage (Monocle, software pipeline) and waits for its first frame, then boots it
+ * again a number of times in the same JVM. The {@link StartupProfile} of the first (cold) boot is printed, as it includes the class loading
+ * and the JIT warm up seen by a user, with the median of the total of the warm boots.
+ * <p>
+ * The harness exits with 1 if the total of the cold boot (from the start of the application to its first frame) is above its threshold,
+ * if a boot does not complete within {@link #BOOT_TIMEOUT_MS}, or if a boot opens the library or its similarity index, which are
+ * deferred to their first use. So it can be run in automated builds to catch startup regressions.
+ * <p>
+ * Usage : StartupHarness [&lt;warm-boots&gt; [&lt;max-cold-ms&gt;]]
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public final class StartupHarness {
+
+	// Default number of warm boots, and threshold of the cold boot.
+	public static final int DEFAULT_WARM_BOOTS = 10;
+	public static final double DEFAULT_MAX_COLD_MS = 1000;
+
+	// Time within which a boot should show its first frame.
+	private static final long BOOT_TIMEOUT_MS = 10000;
+
+	// Deferred phases of the application, which a boot should not reach.
+	private static final String[] DEFERRED_PHASES = { "library", "similarity index" };
+
+	private StartupHarness() {
+	}
+
+	/**
+	 * Boots the application, waits for its first frame and closes it.
+	 *
+	 * @return Profile of the boot.
+	 */
+	private static StartupProfile boot() throws InterruptedException {
+		GradientBuilderApp app = HeadlessFx.call(() -> new GradientBuilderApp());
+		Stage stage = HeadlessFx.call(() -> {
+			Stage s = new Stage();
+			app.start(s);
+			return s;
+		});
+		long deadline = System.currentTimeMillis() + BOOT_TIMEOUT_MS;
+		while (!HeadlessFx.call(() -> app.getStartupProfile().isComplete())) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new IllegalStateException("First frame not shown within " + BOOT_TIMEOUT_MS + " ms");
+			}
+			Thread.sleep(5);
+		}
+		HeadlessFx.call(() -> {
+			stage.close();
+			app.stop();
+			return null;
+		});
+		StartupProfile profile = app.getStartupProfile();
+		for (String phase : DEFERRED_PHASES) {
+			if (profile.getDeferredNanos(phase) >= 0) {
+				throw new IllegalStateException("The " + phase + " was opened at startup");
+			}
+		}
+		return profile;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int warmBoots = DEFAULT_WARM_BOOTS;
+		double maxCold = DEFAULT_MAX_COLD_MS;
+		try {
+			if (args.length > 0) {
+				warmBoots = Integer.parseInt(args[0]);
+			}
+			if (args.length > 1) {
+				maxCold = Double.parseDouble(args[1]);
+			}
+		} catch (NumberFormatException ex) {
+			System.err.println("Usage : StartupHarness [<warm-boots> [<max-cold-ms>]]");
+			System.exit(1);
+		}
+
+		boolean failed = false;
+		double cold = 0;
+		try {
+			HeadlessFx.startup();
+			StartupProfile profile = boot();
+			cold = profile.getTotalNanos() / 1e6;
+			System.out.println("Cold boot - " + profile.getReport());
+
+			if (warmBoots > 0) {
+				double[] totals = new double[warmBoots];
+				for (int i = 0; i < warmBoots; i++) {
+					totals[i] = boot().getTotalNanos() / 1e6;
+				}
+				Arrays.sort(totals);
+				System.out.println(String.format("Warm boots : %d, median %.2f ms, min %.2f ms, max %.2f ms", warmBoots,
+						totals[warmBoots / 2], totals[0], totals[warmBoots - 1]));
+			}
+		} catch (IllegalStateException ex) {
+			System.err.println("FAILED : " + ex.getMessage());
+			failed = true;
+		}
+
+		if (!failed && cold > maxCold) {
+			System.err.println(String.format("FAILED : cold boot %.2f ms is above %.2f ms", cold, maxCold));
+			failed = true;
+		}
+		Platform.exit();
+		System.exit(failed ? 1 : 0);
+	}
+}
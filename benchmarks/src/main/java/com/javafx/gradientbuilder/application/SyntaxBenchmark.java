@@ -0,0 +1,82 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.scene.paint.Paint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the gradient syntax and paint generation of the settings layouts, for different number of color stops. The "emit"
+ * benchmarks append the syntax to a reused buffer, and are expected to report no allocation with "-prof gc" (gc.alloc.rate.norm).
+ * 
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyntaxBenchmark {
+
+	@Param({ "2", "10", "100", "1000" })
+	int stops;
+
+	LinearSettingsLayout linear;
+	RadialSettingsLayout radial;
+	StringBuilder buffer = new StringBuilder(256);
+
+	@Setup
+	public void setup() {
+		HeadlessFx.startup();
+		linear = HeadlessFx.call(() -> HeadlessFx.withColorStops(new LinearSettingsLayout(null), stops));
+		radial = HeadlessFx.call(() -> HeadlessFx.withColorStops(new RadialSettingsLayout(null), stops));
+	}
+
+	@Benchmark
+	public String linearSyntax() {
+		return linear.buildSyntax();
+	}
+
+	@Benchmark
+	public String radialSyntax() {
+		return radial.buildSyntax();
+	}
+
+	@Benchmark
+	public int linearEmit() {
+		buffer.setLength(0);
+		linear.appendSyntax(buffer);
+		return buffer.length();
+	}
+
+	@Benchmark
+	public int radialEmit() {
+		buffer.setLength(0);
+		radial.appendSyntax(buffer);
+		return buffer.length();
+	}
+
+	@Benchmark
+	public Paint linearPaint() {
+		return linear.buildPaint();
+	}
+
+	@Benchmark
+	public Paint radialPaint() {
+		return radial.buildPaint();
+	}
+}
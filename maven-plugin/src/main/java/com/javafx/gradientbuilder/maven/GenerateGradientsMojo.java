@@ -0,0 +1,61 @@
+package com.javafx.gradientbuilder.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import com.javafx.gradientbuilder.application.PaintCodeGenerator;
+
+/**
+ * Goal generating, before the compilation, the Java classes of precompiled paints of the gradient definitions ("*.gradients" and
+ * "*.gdb" files) of the source directory (see {@link PaintCodeGenerator}). The output directory is added to the compile source roots.
+ * <p>
+ * Usage : &lt;goal&gt;generate&lt;/goal&gt; with the &lt;packageName&gt; of the classes in the configuration of the plugin.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
+public class GenerateGradientsMojo extends AbstractMojo {
+
+	// Directory of the gradient definitions.
+	@Parameter(property = "gradients.sourceDirectory", defaultValue = "${project.basedir}/src/main/gradients")
+	private File sourceDirectory;
+
+	// Source root of the generated classes.
+	@Parameter(property = "gradients.outputDirectory", defaultValue = "${project.build.directory}/generated-sources/gradients")
+	private File outputDirectory;
+
+	// Package of the classes of the files at the top of the source directory.
+	@Parameter(property = "gradients.packageName", defaultValue = "gradients")
+	private String packageName;
+
+	@Parameter(defaultValue = "${project}", readonly = true, required = true)
+	private MavenProject project;
+
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException {
+		if (!sourceDirectory.isDirectory()) {
+			getLog().info("No gradients to generate : " + sourceDirectory + " is not a directory");
+			return;
+		}
+		try {
+			List<Path> generated = new PaintCodeGenerator().generateAll(sourceDirectory.toPath(), outputDirectory.toPath(), packageName);
+			getLog().info("Generated " + generated.size() + " gradient classes to " + outputDirectory);
+		} catch (IllegalArgumentException ex) {
+			throw new MojoFailureException(ex.getMessage(), ex);
+		} catch (IOException ex) {
+			throw new MojoExecutionException("Failed to generate the gradient classes", ex);
+		}
+		project.addCompileSourceRoot(outputDirectory.getPath());
+	}
+}
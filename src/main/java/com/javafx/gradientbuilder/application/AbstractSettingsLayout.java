@@ -1,6 +1,11 @@
 package com.javafx.gradientbuilder.application;
 
-import javafx.beans.binding.StringBinding;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -12,14 +17,24 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.ColorPicker;
+import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.Slider;
 import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.Stop;
 
 import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
 
@@ -39,13 +54,71 @@ public abstract class AbstractSettingsLayout extends StackPane {
 	protected SimpleObjectProperty<RepeatOrReflect> repeatReflect = new SimpleObjectProperty<RepeatOrReflect>();
 	protected ObservableList<ColorStopDTO> colorStops = FXCollections.observableArrayList();
 
+	// Height of a color stop row, and the number of rows shown before the list scrolls.
+	protected static final double COLOR_STOP_ROW_HEIGHT = 45;
+	protected static final int MAX_VISIBLE_STOPS = 10;
+
+	// true while a slider is being dragged.
+	private boolean sliderPressed;
+
+	// Delete buttons are disabled when there are only two color stops.
+	private final SimpleBooleanProperty deleteDisabled = new SimpleBooleanProperty(true);
+
+	// Default Delta E tolerance of the color stops optimizer (a just noticeable difference is about 2.3).
+	protected static final double DEFAULT_OPTIMIZE_TOLERANCE = 1.5;
+
+	// Optimizer of the color stops, created when first used.
+	private ColorStopOptimizer optimizer;
+
+	// Buffer reused by each build of the syntax.
+	private final StringBuilder syntaxBuffer = new StringBuilder(256);
+
 	protected VBox layout;
-	protected VBox colorStopsVB;
+	protected ListView<ColorStopDTO> colorStopsList;
 	protected GridPane grid;
+	protected ChoiceBox<RepeatOrReflect> repeatChoice;
+
+	// Undo/redo history of the settings and color stops.
+	protected final EditHistory history = new EditHistory(this);
+
+	// Time of the first change not yet rebuilt, 0 if none.
+	private long changedAt;
+
+	// Scheduler to coalesce all the changes within one pulse into a single build, which is recorded in the history. The layout which is
+	// not shown is skipped, as it is rebuilt when it is switched to.
+	protected RebuildScheduler rebuildScheduler = new RebuildScheduler(() -> {
+		if (getParent() != null) {
+			buildGradient();
+			history.record();
+		}
+		changedAt = 0;
+	});
+
+	// true while the value of a slider is changing : the gradient is previewed at low resolution by the DragPreview of the application.
+	private boolean previewing;
+
+	// Action to show the gradient at full fidelity, when the preview is idle.
+	private final Runnable fullRender = () -> app.applyPaint(buildPaint());
+
+	// Listener to preview the gradient while a slider is dragged, and to show it at full fidelity once the drag ends.
+	private final ChangeListener<Boolean> valueChangingListener = (ObservableValue<? extends Boolean> obs, Boolean wasChanging,
+			Boolean changing) -> {
+		previewing = changing;
+		if (!changing) {
+			// Building once at full fidelity, also when the last change was already built as a preview.
+			rebuildScheduler.requestRebuild();
+			rebuildScheduler.flush();
+			app.getDragPreview().hide();
+		}
+	};
 
 	// Listener to build the gradient on change of value.
 	protected ChangeListener<Object> changeListener = (ObservableValue<? extends Object> arg0, Object arg1, Object arg2) -> {
-		buildGradient();
+		app.getMetrics().recordChange();
+		if (changedAt == 0) {
+			changedAt = System.nanoTime();
+		}
+		rebuildScheduler.requestRebuild();
 	};
 
 	/**
@@ -58,172 +131,595 @@ public abstract class AbstractSettingsLayout extends StackPane {
 		layout.setSpacing(10);
 		layout.setPadding(new Insets(10));
 		getChildren().add(layout);
+
+		// Suspending the history while a slider is dragged, so that the drag is recorded as one change. The slider is watched to preview
+		// the gradient while its value is changing.
+		addEventFilter(MouseEvent.MOUSE_PRESSED, (e) -> {
+			Slider slider = findSlider(e.getTarget());
+			if (slider != null) {
+				history.suspend();
+				sliderPressed = true;
+				slider.valueChangingProperty().removeListener(valueChangingListener);
+				slider.valueChangingProperty().addListener(valueChangingListener);
+			}
+		});
+		addEventFilter(MouseEvent.MOUSE_RELEASED, (e) -> {
+			if (sliderPressed) {
+				sliderPressed = false;
+				rebuildScheduler.flush();
+				history.resume();
+			}
+		});
 	}
 
-	protected abstract void buildGradient();
+	private static Slider findSlider(Object target) {
+		for (Node node = (target instanceof Node) ? (Node) target : null; node != null; node = node.getParent()) {
+			if (node instanceof Slider) {
+				return (Slider) node;
+			}
+		}
+		return null;
+	}
 
 	/**
-	 * Returns the color stop row template.
+	 * Returns the undo/redo history of the layout.
 	 * 
-	 * @param startValue
-	 *            - Start value of the slider.
-	 * @param endValue
-	 *            - End value of the slider.
-	 * @param pos
-	 *            - Default value of the slider
-	 * @param finalPos
-	 *            - Position to which the color stop need to be added.
-	 * @param color
-	 *            - Color code to be set in the text field.
-	 * @return HBox
+	 * @return EditHistory
 	 */
-	protected HBox getColorStopTemplate(int startValue, int endValue, int pos, int finalPos, String color) {
-		HBox hb = getColorStopTemplate(startValue, endValue, pos, finalPos);
-		((ColorPicker) hb.getChildren().get(0)).setValue(Color.web(color));
-		return hb;
+	public EditHistory getHistory() {
+		return history;
 	}
 
 	/**
-	 * Returns the color stop row template.
+	 * Captures the values of the settings properties (all except the color stops) for the history. Booleans are stored as 0/1 and enums
+	 * as ordinal + 1 (0 for null).
 	 * 
-	 * @param startValue
-	 *            - Start value of the slider.
-	 * @param endValue
-	 *            - End value of the slider.
-	 * @param pos
-	 *            - Default value of the slider
-	 * @param finalPos
-	 *            - Position to which the color stop need to be added.
-	 * @return HBox
+	 * @return int[]
 	 */
-	protected HBox getColorStopTemplate(int startValue, int endValue, int pos, int finalPos) {
-		ColorStopDTO dto = new ColorStopDTO();
-		dto.colorCodeProperty().addListener(changeListener);
-		dto.percentProperty().addListener(changeListener);
+	protected abstract int[] captureSettings();
 
-		if (finalPos == -1) {
-			colorStops.add(dto);
+	/**
+	 * Restores the values captured by {@link #captureSettings()} into the properties and the controls.
+	 * 
+	 * @param settings
+	 *            - Captured values.
+	 */
+	protected abstract void restoreSettings(int[] settings);
+
+	/**
+	 * Method to build the gradient syntax from the observable properties, and apply the gradient on the shapes. The syntax is built in a
+	 * reused buffer, and the string is created only when the syntax is changed. While a slider is dragged, the gradient is only previewed
+	 * at low resolution by the {@link DragPreview} of the application. The latencies (of the build, and since the first pending change)
+	 * and the syntax length are recorded in the {@link PipelineMetrics} of the application.
+	 */
+	public void buildGradient() {
+		long start = System.nanoTime();
+		syntaxBuffer.setLength(0);
+		appendSyntax(syntaxBuffer);
+		int length = syntaxBuffer.length();
+		if (!gradientSyntax.get().contentEquals(syntaxBuffer)) {
+			gradientSyntax.set(syntaxBuffer.toString());
+		}
+
+		// Setting the result paint to nodes, or previewing it while a slider is dragged.
+		if (previewing) {
+			app.getDragPreview().update(buildModel(), fullRender);
 		} else {
-			colorStops.add(finalPos, dto);
+			app.applyPaint(buildPaint());
+		}
+		long end = System.nanoTime();
+		app.getMetrics().recordBuild(end - start, length);
+		if (changedAt != 0) {
+			app.getMetrics().recordChangeToRebuild(end - changedAt);
+			changedAt = 0;
 		}
+	}
+
+	/**
+	 * Builds the gradient syntax from the observable properties.
+	 * 
+	 * @return String
+	 */
+	public String buildSyntax() {
+		syntaxBuffer.setLength(0);
+		appendSyntax(syntaxBuffer);
+		return syntaxBuffer.toString();
+	}
 
-		SliderTextField sliderTF = new SliderTextField(startValue, endValue, pos);
-		dto.percentProperty().bindBidirectional(sliderTF.valueProperty());
+	/**
+	 * Appends the gradient syntax to the buffer. Implementations should not allocate, so that emitting the syntax produces no garbage; a
+	 * rebuild still allocates the syntax string when it changed, and the immutable JavaFX paint with its stops and colors.
+	 * 
+	 * @param sytx
+	 *            - Buffer to which the syntax is appended.
+	 */
+	protected abstract void appendSyntax(StringBuilder sytx);
 
-		ColorPicker colorPicker = new ColorPicker();
-		colorPicker.setPrefWidth(110);
-		colorPicker.setMaxWidth(110);
-		colorPicker.setMinWidth(110);
-		dto.colorCodeProperty().bind(new StringBinding() {
-			{
-				bind(colorPicker.valueProperty());
-			}
+	/**
+	 * Appends the color stops to the syntax.
+	 * 
+	 * @param sytx
+	 *            - Buffer to which the color stops are appended.
+	 */
+	protected void appendColorStops(StringBuilder sytx) {
+		ColorStopDTO dto;
+		String colorCode;
+		int percent;
+		for (int i = 0; i < colorStops.size(); i++) {
+			dto = colorStops.get(i);
+			colorCode = dto.getColorCode();
+			if (colorCode != null && !colorCode.isEmpty()) {
+				if (colorCode.charAt(0) != '#') {
+					sytx.append('#');
+				}
+				sytx.append(colorCode);
+
+				percent = dto.getPercent();
+				if (percent > 0) {
+					sytx.append(SyntaxConstants.spacer).append(percent).append(SyntaxConstants.colorStopUnit);
+				}
 
-			@Override
-			protected String computeValue() {
-				final Color c = colorPicker.getValue();
-				return String.format("#%02X%02X%02X", (int) (c.getRed() * 255), (int) (c.getGreen() * 255),
-						(int) (c.getBlue() * 255));
+				if (i < (colorStops.size() - 1)) {
+					sytx.append(SyntaxConstants.separator);
+				}
 			}
+		}
+	}
+
+	/**
+	 * Builds the typed gradient paint directly from the observable properties. The paint is equivalent to the syntax built by
+	 * {@link #buildSyntax()}, without the need to parse it.
+	 * 
+	 * @return Paint
+	 */
+	protected abstract Paint buildPaint();
 
+	/**
+	 * Builds the headless model of the gradient from the observable properties.
+	 * 
+	 * @return GradientModel
+	 */
+	public abstract GradientModel buildModel();
+
+	/**
+	 * Loads the gradient model into the observable properties and the controls of the layout.
+	 * 
+	 * @param model
+	 *            - Gradient model of the layout's type.
+	 */
+	public abstract void loadModel(GradientModel model);
+
+	/**
+	 * Loads the "Repeat or Reflect" setting into the controls.
+	 * 
+	 * @param value
+	 *            - Repeat or reflect.
+	 */
+	protected void loadRepeatOrReflect(RepeatOrReflect value) {
+		isRepeat.set(true);
+		repeatChoice.getSelectionModel().select(value);
+	}
+
+	/**
+	 * Replaces the color stops with the color stops of the model.
+	 * 
+	 * @param model
+	 *            - Gradient model.
+	 */
+	protected void loadColorStops(GradientModel model) {
+		editColorStops((stops) -> {
+			stops.clear();
+			for (int i = 0; i < model.getStopCount(); i++) {
+				stops.add(-1, toStopPercent(model.getPercent(i)), HexEncoder.toHexAlpha(model.getColor(i)));
+			}
 		});
+	}
 
-		Button addBtn = buildImgButton("add-button");
-		Button deleteBtn = buildImgButton("delete-button");
+	/**
+	 * Edits the color stops as one transaction : the edits are applied to the color stops list as a single change, the delete buttons
+	 * are checked once and the gradient is built once, however many color stops are edited.
+	 * 
+	 * @param edits
+	 *            - Edits to be done on the color stops.
+	 */
+	public void editColorStops(Consumer<ColorStopTransaction> edits) {
+		ColorStopTransaction transaction = new ColorStopTransaction(colorStops);
+		edits.accept(transaction);
+		List<ColorStopDTO> stops = transaction.commit();
 
-		final HBox hb = new HBox();
-		hb.setMaxHeight(30);
-		hb.setSpacing(20);
-		hb.setAlignment(Pos.CENTER_LEFT);
-		hb.getChildren().addAll(colorPicker, sliderTF, addBtn, deleteBtn);
+		// Moving the listeners from the removed color stops to the added ones.
+		IdentityHashMap<ColorStopDTO, Boolean> current = new IdentityHashMap<ColorStopDTO, Boolean>(colorStops.size() * 2);
+		for (ColorStopDTO dto : colorStops) {
+			current.put(dto, Boolean.TRUE);
+		}
+		for (ColorStopDTO dto : stops) {
+			if (current.remove(dto) == null) {
+				dto.colorCodeProperty().addListener(changeListener);
+				dto.percentProperty().addListener(changeListener);
+			}
+		}
+		for (ColorStopDTO dto : current.keySet()) {
+			dto.colorCodeProperty().removeListener(changeListener);
+			dto.percentProperty().removeListener(changeListener);
+		}
+
+		colorStops.setAll(stops);
+		checkForDeleteBtn();
+		rebuildScheduler.requestRebuild();
+		rebuildScheduler.flush();
+	}
+
+	/**
+	 * Restores the "Repeat or Reflect" setting captured for the history.
+	 * 
+	 * @param repeat
+	 *            - Captured value of isRepeat (0/1).
+	 * @param value
+	 *            - Captured ordinal + 1 of the selected value, 0 if none.
+	 */
+	protected void restoreRepeatOrReflect(int repeat, int value) {
+		isRepeat.set(repeat != 0);
+		if (value == 0) {
+			repeatChoice.getSelectionModel().clearSelection();
+		} else {
+			repeatChoice.getSelectionModel().select(RepeatOrReflect.values()[value - 1]);
+		}
+	}
+
+	/**
+	 * Utility method to capture a boolean setting as int.
+	 */
+	protected static int flag(boolean value) {
+		return value ? 1 : 0;
+	}
+
+	/**
+	 * Utility method to capture an enum setting as int (ordinal + 1, 0 for null).
+	 */
+	protected static int ordinal(Enum<?> value) {
+		return (value == null) ? 0 : value.ordinal() + 1;
+	}
 
-		addBtn.setOnAction((e) -> addNewColorStop(hb));
-		deleteBtn.setOnAction((e) -> deleteColorStop(hb));
+	/**
+	 * Returns the effective "Repeat or Reflect" setting, NONE if it is not checked.
+	 * 
+	 * @return RepeatOrReflect
+	 */
+	protected RepeatOrReflect getRepeatOrReflect() {
+		return (isRepeat.get() && repeatReflect.getValue() != null) ? repeatReflect.getValue() : RepeatOrReflect.NONE;
+	}
 
+	/**
+	 * Returns the ARGB colors of the color stops which have a color code.
+	 * 
+	 * @return int[]
+	 */
+	protected int[] getStopColors() {
+		int size = 0;
+		int[] colors = new int[colorStops.size()];
+		for (ColorStopDTO dto : colorStops) {
+			if (dto.getColorCode() != null && !dto.getColorCode().equals("")) {
+				colors[size++] = GradientModel.parseColorCode(dto.getColorCode());
+			}
+		}
+		return Arrays.copyOf(colors, size);
+	}
+
+	/**
+	 * Returns the percentages of the color stops which have a color code, {@link GradientModel#UNSPECIFIED} if not specified.
+	 * 
+	 * @return int[]
+	 */
+	protected int[] getStopPercents() {
+		int size = 0;
+		int[] percents = new int[colorStops.size()];
+		for (ColorStopDTO dto : colorStops) {
+			if (dto.getColorCode() != null && !dto.getColorCode().equals("")) {
+				percents[size++] = toModelPercent(dto.getPercent());
+			}
+		}
+		return Arrays.copyOf(percents, size);
+	}
+
+	/**
+	 * Returns the percentage of the model for the percentage of a color stop, whose 0 means that no position is written.
+	 * 
+	 * @param percent
+	 *            - Percentage of the color stop.
+	 * @return int
+	 */
+	static int toModelPercent(int percent) {
+		return (percent > 0) ? percent : GradientModel.UNSPECIFIED;
+	}
+
+	/**
+	 * Returns the percentage of a color stop for the percentage of the model. An explicit 0% is a position in the model but not in the
+	 * color stops, where it is the same as an unspecified position (which only differs past the first stop).
+	 * 
+	 * @param percent
+	 *            - Percentage of the model, {@link GradientModel#UNSPECIFIED} if not specified.
+	 * @return int
+	 */
+	static int toStopPercent(int percent) {
+		return (percent == GradientModel.UNSPECIFIED) ? 0 : Math.max(0, Math.min(100, percent));
+	}
+
+	/**
+	 * Returns the cycle method of the gradient as per the "Repeat or Reflect" settings.
+	 * 
+	 * @return CycleMethod
+	 */
+	protected CycleMethod getCycleMethod() {
+		if (isRepeat.get() && repeatReflect.getValue() != null) {
+			switch (repeatReflect.getValue()) {
+			case REPEAT:
+				return CycleMethod.REPEAT;
+			case REFLECT:
+				return CycleMethod.REFLECT;
+			default:
+				break;
+			}
+		}
+		return CycleMethod.NO_CYCLE;
+	}
+
+	/**
+	 * Builds the stops of the gradient from the color stops. The offsets are resolved in the same way as the CSS parser does for the
+	 * syntax (see {@link GradientModel#resolveOffsets(int[], int, double[])}).
+	 * 
+	 * @return Stop[]
+	 */
+	protected Stop[] buildStops() {
+		int size = 0;
+		Color[] colors = new Color[colorStops.size()];
+		int[] percents = new int[colorStops.size()];
+		for (ColorStopDTO dto : colorStops) {
+			if (dto.getColorCode() != null && !dto.getColorCode().equals("")) {
+				colors[size] = Color.web(dto.getColorCode());
+				percents[size] = toModelPercent(dto.getPercent());
+				size++;
+			}
+		}
+		double[] offsets = new double[size];
+		GradientModel.resolveOffsets(percents, size, offsets);
+
+		Stop[] stops = new Stop[size];
+		for (int i = 0; i < size; i++) {
+			stops[i] = new Stop(offsets[i], colors[i]);
+		}
+		return stops;
+	}
+
+	/**
+	 * Returns the scheduler which coalesces the gradient builds, to read the requested/executed/coalesced counts.
+	 * 
+	 * @return RebuildScheduler
+	 */
+	public RebuildScheduler getRebuildScheduler() {
+		return rebuildScheduler;
+	}
+
+	/**
+	 * Creates the list view which edits the color stops. The list is virtualized: only the visible rows have cells, which are reused
+	 * while scrolling, so the number of nodes does not depend on the number of color stops. The list grows with the color stops till
+	 * {@link #MAX_VISIBLE_STOPS} rows and scrolls after that.
+	 * 
+	 * @return ListView
+	 */
+	protected ListView<ColorStopDTO> createColorStopsList() {
+		ListView<ColorStopDTO> list = new ListView<ColorStopDTO>(colorStops);
+		list.getStyleClass().add("color-stops-list");
+		list.setFixedCellSize(COLOR_STOP_ROW_HEIGHT);
+		list.setPrefWidth(470);
+		list.setMinWidth(470);
+		list.prefHeightProperty().bind(Bindings.min(Bindings.size(colorStops), MAX_VISIBLE_STOPS).multiply(COLOR_STOP_ROW_HEIGHT).add(2));
+		list.minHeightProperty().bind(list.prefHeightProperty());
+		list.setCellFactory((param) -> new ColorStopCell());
+		return list;
+	}
+
+	/**
+	 * Creates the row to optimize the color stops : the Delta E tolerance, the "Optimize Stops" button and the label showing the stop
+	 * count and syntax length before and after the optimization.
+	 * 
+	 * @return HBox
+	 */
+	protected HBox createOptimizeRow() {
+		final TextField toleranceTF = new TextField(String.valueOf(DEFAULT_OPTIMIZE_TOLERANCE));
+		toleranceTF.setPrefColumnCount(4);
+		final Label resultLbl = new Label();
+		Button optimizeBtn = new Button("Optimize Stops");
+		optimizeBtn.setOnAction((e) -> {
+			double tolerance;
+			try {
+				tolerance = Double.parseDouble(toleranceTF.getText().trim());
+			} catch (NumberFormatException ex) {
+				resultLbl.setText("Invalid tolerance");
+				return;
+			}
+			int stopsBefore = colorStops.size();
+			int lengthBefore = buildSyntax().length();
+			long start = System.nanoTime();
+			ColorStopOptimizer.Result result = optimizeColorStops(tolerance);
+			long elapsed = (System.nanoTime() - start) / 1_000_000;
+			resultLbl.setText("Stops : " + stopsBefore + " -> " + colorStops.size() + ", Syntax : " + lengthBefore + " -> "
+					+ buildSyntax().length() + " chars, max \u0394E " + String.format("%.2f", result.getMaxError()) + " (" + elapsed + " ms)");
+		});
+
+		HBox hb = new HBox();
+		hb.setSpacing(10);
+		hb.setAlignment(Pos.CENTER_LEFT);
+		hb.getChildren().addAll(new Label("Max \u0394E : "), toleranceTF, optimizeBtn, resultLbl);
 		return hb;
 	}
 
-	private Button buildImgButton(String styleCls) {
-		Button button = new Button();
-		button.getStyleClass().addAll("transparentButton", styleCls);
-		return button;
+	/**
+	 * Replaces the color stops with the fewest stops which render within the Delta E tolerance of the current ones (see
+	 * {@link ColorStopOptimizer}), as one edit. The color stops are not changed if they cannot be reduced.
+	 * 
+	 * @param tolerance
+	 *            - Largest Delta E allowed between the rendered colors of the current and optimized color stops.
+	 * @return Result of the optimization.
+	 */
+	public ColorStopOptimizer.Result optimizeColorStops(double tolerance) {
+		if (optimizer == null) {
+			optimizer = new ColorStopOptimizer();
+		}
+		int[] colors = getStopColors();
+		ColorStopOptimizer.Result result = optimizer.optimize(colors, getStopPercents(), tolerance);
+		if (result.getStopCount() < colors.length) {
+			editColorStops((stops) -> {
+				stops.clear();
+				for (int i = 0; i < result.getStopCount(); i++) {
+					stops.add(-1, toStopPercent(result.getPercents()[i]), HexEncoder.toHexAlpha(result.getColors()[i]));
+				}
+			});
+		}
+		return result;
 	}
 
 	/**
-	 * Method to add a new ColorStop row in the list and the layout. Called on click of "+" button.
+	 * Adds a new color stop to the list.
 	 * 
-	 * @param current
-	 *            - Current color template row to determine the position.
+	 * @param finalPos
+	 *            - Position to which the color stop need to be added, -1 to add at the end.
+	 * @param percent
+	 *            - Percentage of the color stop, 0 if not specified.
+	 * @param color
+	 *            - Color code of the color stop.
+	 * @return ColorStopDTO
 	 */
-	private void addNewColorStop(HBox current) {
-		int finalPos = getColorStopPosition(current);
-		finalPos = (finalPos == colorStopsVB.getChildren().size() - 1 || finalPos == -1) ? -1 : (finalPos + 1);
+	protected ColorStopDTO addColorStop(int finalPos, int percent, String color) {
+		ColorStopDTO dto = new ColorStopDTO(ColorStopTransaction.normalize(color), percent);
+		dto.colorCodeProperty().addListener(changeListener);
+		dto.percentProperty().addListener(changeListener);
+
 		if (finalPos == -1) {
-			colorStopsVB.getChildren().add(getColorStopTemplate(0, 100, 0, finalPos));
+			colorStops.add(dto);
 		} else {
-			colorStopsVB.getChildren().add(finalPos, getColorStopTemplate(0, 100, 0, finalPos));
+			colorStops.add(finalPos, dto);
 		}
+		return dto;
+	}
+
+	/**
+	 * Method to add a new ColorStop after the given position. Called on click of "+" button.
+	 * 
+	 * @param current
+	 *            - Position of the current color stop row.
+	 */
+	private void addNewColorStop(int current) {
+		int finalPos = (current == colorStops.size() - 1 || current == -1) ? -1 : (current + 1);
+		addColorStop(finalPos, 0, "#ffffff");
 
-		// After adding the row calling the method to build the gradient and apply the styles to the shapes.
-		buildGradient();
+		// After adding the row requesting to build the gradient and apply the styles to the shapes.
+		rebuildScheduler.requestRebuild();
 
 		// Calling the method to enable delete buttons based on the row count.
 		checkForDeleteBtn();
 	}
 
 	/**
-	 * Method to remove the color stop row from the list and the layout. Called on click of "X" button.
+	 * Method to remove the color stop from the list. Called on click of "X" button.
 	 * 
-	 * @param current
-	 *            - Current color template row to determine the position.
+	 * @param finalPos
+	 *            - Position of the current color stop row.
 	 */
-	private void deleteColorStop(HBox current) {
-		int finalPos = getColorStopPosition(current);
-
+	private void deleteColorStop(int finalPos) {
 		colorStops.get(finalPos).colorCodeProperty().removeListener(changeListener);
 		colorStops.get(finalPos).percentProperty().removeListener(changeListener);
 		colorStops.remove(finalPos);
 
-		colorStopsVB.getChildren().remove(current);
-		// After adding the row calling the method to build the gradient and apply the styles to the shapes.
-		buildGradient();
+		// After removing the row requesting to build the gradient and apply the styles to the shapes.
+		rebuildScheduler.requestRebuild();
 
 		// Calling the method to enable delete buttons based on the row count.
 		checkForDeleteBtn();
 	}
 
 	/**
-	 * Utility method to get the color stop position from the list.
-	 * 
-	 * @param current
-	 *            - Current color template row to determine the position.
-	 * @return position.
-	 */
-	protected int getColorStopPosition(HBox current) {
-		int finalPos = -1;
-		for (int i = 0; i < colorStopsVB.getChildren().size(); i++) {
-			if (colorStopsVB.getChildren().get(i) == current) {
-				finalPos = i;
-				break;
-			}
-		}
-		return finalPos;
+	 * Utility method to check for no of color-stops and enable/disable the delete buttons.
+	 */
+	protected void checkForDeleteBtn() {
+		deleteDisabled.set(colorStops.size() <= 2);
+	}
+
+	private Button buildImgButton(String styleCls) {
+		Button button = new Button();
+		button.getStyleClass().addAll("transparentButton", styleCls);
+		return button;
 	}
 
 	/**
-	 * Utility method to check for no of color-stops and enable/disable the delete buttons.
+	 * Cell of the color stops list. The row (color picker, slider, "+" and "X" buttons) is created once per cell, and is bound to the
+	 * color stop shown by the cell.
 	 */
-	protected void checkForDeleteBtn() {
-		boolean flag = (colorStopsVB.getChildren().size() > 2) ? true : false;
-		for (Node node : colorStopsVB.getChildren()) {
-			if (flag) {
-				((HBox) node).getChildren().get(3).setDisable(false);
-			} else {
-				((HBox) node).getChildren().get(3).setDisable(true);
+	private class ColorStopCell extends ListCell<ColorStopDTO> {
+		private final ColorPicker colorPicker = new ColorPicker();
+		private final SliderTextField sliderTF = new SliderTextField(0, 100, 0);
+		private final HBox hb = new HBox();
+
+		// Color stop bound to the row, and the flag to ignore the picker changes while it is being set from the color stop.
+		private ColorStopDTO bound;
+		private boolean updating;
+
+		// Shows the color code of the bound color stop when it is changed elsewhere (e.g by an undo or the optimizer).
+		private final ChangeListener<String> colorCodeListener = (ObservableValue<? extends String> arg0, String arg1,
+				String code) -> showColor(code);
+
+		ColorStopCell() {
+			colorPicker.setPrefWidth(110);
+			colorPicker.setMaxWidth(110);
+			colorPicker.setMinWidth(110);
+			colorPicker.valueProperty().addListener((ObservableValue<? extends Color> arg0, Color arg1, Color c) -> {
+				if (!updating && bound != null && c != null) {
+					bound.setColorCode(ColorStopTransaction.normalize(c));
+				}
+			});
+
+			Button addBtn = buildImgButton("add-button");
+			Button deleteBtn = buildImgButton("delete-button");
+			deleteBtn.disableProperty().bind(deleteDisabled);
+			addBtn.setOnAction((e) -> addNewColorStop(getIndex()));
+			deleteBtn.setOnAction((e) -> deleteColorStop(getIndex()));
+
+			hb.setMaxHeight(30);
+			hb.setSpacing(20);
+			hb.setAlignment(Pos.CENTER_LEFT);
+			hb.getChildren().addAll(colorPicker, sliderTF, addBtn, deleteBtn);
+			setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+		}
+
+		@Override
+		protected void updateItem(ColorStopDTO dto, boolean empty) {
+			super.updateItem(dto, empty);
+			if (bound == dto) {
+				return;
+			}
+			if (bound != null) {
+				bound.colorCodeProperty().removeListener(colorCodeListener);
+				sliderTF.valueProperty().unbindBidirectional(bound.percentProperty());
+			}
+			bound = empty ? null : dto;
+			if (bound == null) {
+				setGraphic(null);
+				return;
+			}
+			showColor(bound.getColorCode());
+			bound.colorCodeProperty().addListener(colorCodeListener);
+			sliderTF.valueProperty().bindBidirectional(bound.percentProperty());
+			setGraphic(hb);
+		}
+
+		private void showColor(String code) {
+			if (code != null && !code.isEmpty()) {
+				updating = true;
+				colorPicker.setValue(Color.web(code));
+				updating = false;
 			}
 		}
 	}
-	
+
 	/**
 	 * Configures the settings layout.
 	 */
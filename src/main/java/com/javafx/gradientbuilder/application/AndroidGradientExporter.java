@@ -0,0 +1,132 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Exporter of the gradient to an Android vector drawable of the shape, filled by a &lt;gradient&gt; (inline "aapt:attr" resource).
+ * <p>
+ * Android gradients are in the coordinates of the path, so a proportional radial gradient is exported on a unit square path, in a group
+ * scaled to the size of the shape : the gradient is stretched with the shape as in JavaFX (a proportional radius gives an ellipse).
+ * JavaFX does not stretch the linear gradients, so their proportional points are scaled to the shape, and the other gradients are
+ * exported in the pixels of the shape. The cycle method is exported as the tile mode (clamp, repeat, mirror).
+ * Android gradients have no focus point, so the focus is not exported.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class AndroidGradientExporter extends GradientExporter {
+
+	/**
+	 * Constructor to initialize the exporter.
+	 *
+	 * @param width
+	 *            - Width of the shape (in dp).
+	 * @param height
+	 *            - Height of the shape (in dp).
+	 */
+	public AndroidGradientExporter(int width, int height) {
+		super(width, height);
+	}
+
+	@Override
+	public Format getFormat() {
+		return Format.ANDROID;
+	}
+
+	@Override
+	public void write(GradientModel model, Writer out) throws IOException {
+		boolean proportional = (model instanceof RadialGradientModel) && ((RadialGradientModel) model).isProportional();
+
+		out.write("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+		out.write("<vector xmlns:android=\"http://schemas.android.com/apk/res/android\"\n");
+		out.write("\txmlns:aapt=\"http://schemas.android.com/aapt\"");
+		out.write("\n\tandroid:width=\"");
+		writeNumber(out, width);
+		out.write("dp\"\n\tandroid:height=\"");
+		writeNumber(out, height);
+		out.write("dp\"\n\tandroid:viewportWidth=\"");
+		writeNumber(out, width);
+		out.write("\"\n\tandroid:viewportHeight=\"");
+		writeNumber(out, height);
+		out.write("\">\n");
+
+		String indent = "\t";
+		if (proportional) {
+			out.write("\t<group");
+			writeAttribute(out, "android:scaleX", width);
+			writeAttribute(out, "android:scaleY", height);
+			out.write(">\n");
+			indent = "\t\t";
+		}
+		out.write(indent);
+		out.write("<path android:pathData=\"");
+		if (proportional) {
+			out.write("M0,0h1v1h-1z");
+		} else {
+			out.write("M0,0h");
+			writeNumber(out, width);
+			out.write('v');
+			writeNumber(out, height);
+			out.write("h-");
+			writeNumber(out, width);
+			out.write('z');
+		}
+		out.write("\">\n");
+		out.write(indent);
+		out.write("\t<aapt:attr name=\"android:fillColor\">\n");
+		out.write(indent);
+		out.write("\t\t<gradient");
+
+		if (model instanceof LinearGradientModel) {
+			LinearGradientModel linear = (LinearGradientModel) model;
+			double[] p = linear.getPoints();
+			double sx = linear.isProportional() ? width : 1;
+			double sy = linear.isProportional() ? height : 1;
+			writeAttribute(out, "android:type", "linear");
+			writeAttribute(out, "android:startX", p[0] * sx);
+			writeAttribute(out, "android:startY", p[1] * sy);
+			writeAttribute(out, "android:endX", p[2] * sx);
+			writeAttribute(out, "android:endY", p[3] * sy);
+		} else {
+			RadialGradientModel radial = (RadialGradientModel) model;
+			writeAttribute(out, "android:type", "radial");
+			writeAttribute(out, "android:centerX", radial.getEffectiveCenterX());
+			writeAttribute(out, "android:centerY", radial.getEffectiveCenterY());
+			writeAttribute(out, "android:gradientRadius", radial.getEffectiveRadius());
+		}
+		switch (model.getRepeatOrReflect()) {
+		case REPEAT:
+			writeAttribute(out, "android:tileMode", "repeat");
+			break;
+		case REFLECT:
+			writeAttribute(out, "android:tileMode", "mirror");
+			break;
+		default:
+			writeAttribute(out, "android:tileMode", "clamp");
+			break;
+		}
+		out.write(">\n");
+
+		double[] offsets = model.resolveOffsets();
+		for (int i = 0; i < offsets.length; i++) {
+			out.write(indent);
+			out.write("\t\t\t<item");
+			writeAttribute(out, "android:offset", offsets[i]);
+			out.write(" android:color=\"");
+			HexEncoder.writeHex(out, model.getColor(i), true);
+			out.write("\"/>\n");
+		}
+
+		out.write(indent);
+		out.write("\t\t</gradient>\n");
+		out.write(indent);
+		out.write("\t</aapt:attr>\n");
+		out.write(indent);
+		out.write("</path>\n");
+		if (proportional) {
+			out.write("\t</group>\n");
+		}
+		out.write("</vector>\n");
+	}
+}
@@ -0,0 +1,170 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Separator;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.ToolBar;
+import javafx.scene.layout.Pane;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
+
+/**
+ * Tool bar to design a {@link GradientTimeline} : the current gradient of the builder is added as a keyframe at the given time, and the
+ * timeline is played on the shapes by a {@link TimelinePlayer}, saved as a timeline file or exported as PNG frames by a
+ * {@link TimelineRenderer} in the background.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class AnimationBar extends ToolBar {
+
+	// Default time between the keyframes added one after the other.
+	private static final long KEYFRAME_STEP = 1000;
+
+	private final GradientTimeline timeline = new GradientTimeline();
+	private final TimelinePlayer player;
+	private final Supplier<GradientModel> currentGradient;
+
+	private final TextField timeTF = new TextField("0");
+	private final ToggleButton playButton = new ToggleButton("Play");
+	private final Label statusLbl = new Label();
+
+	/**
+	 * Constructor to initialize the bar.
+	 *
+	 * @param currentGradient
+	 *            - Supplier of the current gradient of the builder.
+	 * @param rectangle
+	 *            - Rectangle shape on which the timeline is played.
+	 * @param circle
+	 *            - Circle shape on which the timeline is played.
+	 */
+	public AnimationBar(Supplier<GradientModel> currentGradient, Pane rectangle, Pane circle) {
+		this.currentGradient = currentGradient;
+		this.player = new TimelinePlayer(timeline, rectangle, circle);
+		timeTF.setPrefColumnCount(5);
+
+		Button addButton = new Button("Add Keyframe");
+		addButton.setOnAction((e) -> addKeyframe());
+
+		Button clearButton = new Button("Clear");
+		clearButton.setOnAction((e) -> {
+			stop();
+			timeline.clear();
+			timeTF.setText("0");
+			updateStatus();
+		});
+
+		CheckBox loopCB = new CheckBox("Loop");
+		loopCB.setSelected(player.isLoop());
+		loopCB.selectedProperty().addListener((obs, old, loop) -> player.setLoop(loop));
+
+		playButton.setOnAction((e) -> {
+			if (playButton.isSelected() && timeline.size() > 1) {
+				player.start();
+			} else {
+				stop();
+			}
+		});
+
+		Button saveButton = new Button("Save...");
+		saveButton.setOnAction((e) -> saveTimeline());
+
+		Button exportButton = new Button("Export PNGs...");
+		exportButton.setOnAction((e) -> exportFrames());
+
+		getItems().addAll(new Label("Time (ms) : "), timeTF, addButton, clearButton, new Separator(), playButton, loopCB, new Separator(),
+				saveButton, exportButton, new Separator(), statusLbl);
+		updateStatus();
+	}
+
+	/**
+	 * Stops the playback and shows the gradient of the builder again.
+	 */
+	public void stop() {
+		player.stop();
+		playButton.setSelected(false);
+	}
+
+	private void addKeyframe() {
+		try {
+			long time = Long.parseLong(timeTF.getText().trim());
+			timeline.add(time, currentGradient.get());
+			timeTF.setText(String.valueOf(time + KEYFRAME_STEP));
+			updateStatus();
+		} catch (IllegalArgumentException ex) {
+			statusLbl.setText(ex.getMessage());
+		}
+	}
+
+	private void saveTimeline() {
+		if (timeline.size() == 0) {
+			return;
+		}
+		FileChooser chooser = new FileChooser();
+		chooser.setTitle("Save Timeline");
+		chooser.setInitialFileName("timeline.txt");
+		File file = chooser.showSaveDialog(getScene().getWindow());
+		if (file == null) {
+			return;
+		}
+		try {
+			timeline.write(file.toPath());
+			statusLbl.setText("Saved " + file.getName());
+		} catch (IOException ex) {
+			statusLbl.setText("Unable to save : " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Renders the frames of the timeline at the size of the rectangle, on the render threads.
+	 */
+	private void exportFrames() {
+		if (timeline.size() == 0) {
+			return;
+		}
+		DirectoryChooser chooser = new DirectoryChooser();
+		chooser.setTitle("Export Frames");
+		File directory = chooser.showDialog(getScene().getWindow());
+		if (directory == null) {
+			return;
+		}
+
+		// Rendering a copy, so the timeline can be edited meanwhile.
+		final GradientTimeline copy = timeline.copy();
+		final int[] size = player.getShapeSize();
+		final int frames = TimelineRenderer.getFrameCount(copy, TimelineRenderer.DEFAULT_FPS);
+		Thread thread = new Thread(() -> {
+			long start = System.nanoTime();
+			String result;
+			try {
+				new TimelineRenderer().render(copy, size[0], size[1], TimelineRenderer.DEFAULT_FPS, directory.toPath(), (count) -> {
+					if (count % 30 == 0) {
+						Platform.runLater(() -> statusLbl.setText("Exported " + count + " / " + frames + " frames"));
+					}
+				});
+				result = "Exported " + frames + " frames of " + size[0] + "x" + size[1] + " in " + (System.nanoTime() - start) / 1_000_000
+						+ " ms";
+			} catch (IOException ex) {
+				result = "Unable to export : " + ex.getMessage();
+			}
+			final String status = result;
+			Platform.runLater(() -> statusLbl.setText(status));
+		}, "timeline-export");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void updateStatus() {
+		statusLbl.setText(timeline.size() + " keyframes, " + timeline.getDuration() + " ms");
+	}
+}
@@ -0,0 +1,58 @@
+package com.javafx.gradientbuilder.application;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read only CharSequence view over the bytes of a buffer (e.g a memory mapped file), where each byte is read as one ISO-8859-1 char.
+ * The gradient syntax is ASCII, so it can be parsed in place without decoding the file into a String, and the indexes of the sequence are
+ * the byte offsets in the file.
+ *
+ * @author Sai.Dandem
+ *
+ */
+final class ByteCharSequence implements CharSequence {
+
+	private final ByteBuffer buffer;
+	private final int offset;
+	private final int length;
+
+	/**
+	 * Constructor to view the given range of the buffer.
+	 *
+	 * @param buffer
+	 *            - Buffer to be read (absolute reads, the position is not changed).
+	 * @param offset
+	 *            - Index of the first byte.
+	 * @param length
+	 *            - Number of bytes.
+	 */
+	ByteCharSequence(ByteBuffer buffer, int offset, int length) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		return (char) (buffer.get(offset + index) & 0xFF);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new ByteCharSequence(buffer, offset + start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = charAt(i);
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,67 @@
+package com.javafx.gradientbuilder.application;
+
+/**
+ * Utility methods to convert the sRGB colors to the CIE L*a*b* color space (D65 white), in which the euclidean distance (CIE76 Delta E)
+ * approximates the perceived difference of two colors : about 1 is the smallest noticeable difference, 2.3 a just noticeable one.
+ *
+ * @author Sai.Dandem
+ *
+ */
+final class ColorSpace {
+
+	// Linear light values of the 8 bit sRGB components.
+	private static final double[] LINEAR = new double[256];
+
+	// D65 reference white.
+	private static final double XN = 0.95047;
+	private static final double YN = 1.0;
+	private static final double ZN = 1.08883;
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			double c = i / 255.0;
+			LINEAR[i] = (c <= 0.04045) ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+		}
+	}
+
+	private ColorSpace() {
+	}
+
+	/**
+	 * Converts the RGB color (alpha ignored) to L*a*b*.
+	 *
+	 * @param rgb
+	 *            - RGB color.
+	 * @param lab
+	 *            - Array to which {L, a, b} are written from the offset.
+	 * @param offset
+	 *            - Offset in the array.
+	 */
+	static void toLab(int rgb, double[] lab, int offset) {
+		double r = LINEAR[(rgb >> 16) & 0xFF];
+		double g = LINEAR[(rgb >> 8) & 0xFF];
+		double b = LINEAR[rgb & 0xFF];
+
+		double fx = f((0.4124564 * r + 0.3575761 * g + 0.1804375 * b) / XN);
+		double fy = f((0.2126729 * r + 0.7151522 * g + 0.0721750 * b) / YN);
+		double fz = f((0.0193339 * r + 0.1191920 * g + 0.9503041 * b) / ZN);
+
+		lab[offset] = 116 * fy - 16;
+		lab[offset + 1] = 500 * (fx - fy);
+		lab[offset + 2] = 200 * (fy - fz);
+	}
+
+	/**
+	 * Returns the CIE76 Delta E between the L*a*b* colors at the offsets of the arrays.
+	 */
+	static double deltaE(double[] lab1, int offset1, double[] lab2, int offset2) {
+		double dl = lab1[offset1] - lab2[offset2];
+		double da = lab1[offset1 + 1] - lab2[offset2 + 1];
+		double db = lab1[offset1 + 2] - lab2[offset2 + 2];
+		return Math.sqrt(dl * dl + da * da + db * db);
+	}
+
+	private static double f(double t) {
+		return (t > 216.0 / 24389) ? Math.cbrt(t) : (24389.0 / 27 * t + 16) / 116;
+	}
+}
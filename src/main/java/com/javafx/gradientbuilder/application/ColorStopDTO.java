@@ -40,11 +40,11 @@ public class ColorStopDTO {
 		return percent;
 	}
 
-	public Integer getPercent() {
+	public int getPercent() {
 		return percent.get();
 	}
 
-	public void setPercent(Integer percent) {
+	public void setPercent(int percent) {
 		this.percent.set(percent);
 	}
 
@@ -0,0 +1,322 @@
+package com.javafx.gradientbuilder.application;
+
+/**
+ * Reduces the color stops of a gradient to the fewest stops whose rendering stays within a Delta E tolerance (CIE76, see
+ * {@link ColorSpace}) of the original. The error is measured on the color lookup table of {@link GradientRasterizer}, i.e on the colors
+ * actually rendered, not only at the positions of the stops. The opacity is compared as well, a full difference of opacity counting
+ * as a full difference of lightness (Delta E of 100).
+ * <p>
+ * As the syntax only allows whole percentages, the candidate stops are the colors of the original gradient at each whole percentage
+ * (two stops where a hard edge falls on it), so redundant stops are removed and the stops between two percentages are merged. The
+ * candidates are then simplified in the way of the Ramer-Douglas-Peucker algorithm : between two kept stops, the gradient is replaced
+ * by the interpolation of both if the error stays within the tolerance, else the candidate nearest to the largest error is kept and both
+ * halves are simplified. The first and last candidates and the hard edges are always kept. Each step scans only the table entries between
+ * its two stops, so 1000 stops are reduced in a few milliseconds.
+ * <p>
+ * The result is checked again as a whole, and the reduction is retried with a tighter tolerance if it is over the tolerance (e.g for a
+ * hard edge which is not on a whole percentage). The original stops are returned if no reduction fits.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class ColorStopOptimizer {
+
+	private static final int LUT_SIZE = GradientRasterizer.LUT_SIZE;
+
+	// Number of retries with a halved tolerance, after which the original stops are returned.
+	private static final int MAX_RETRIES = 6;
+
+	private final GradientRasterizer rasterizer = new GradientRasterizer();
+
+	// Delta E of a difference of 1 in the alpha (0 to 255).
+	private static final double ALPHA_ERROR = 100.0 / 255;
+
+	// L*a*b* colors and alphas of the lookup table of the original gradient.
+	private final double[] originalLab = new double[LUT_SIZE * 3];
+	private final int[] originalAlpha = new int[LUT_SIZE];
+
+	// Scratch L*a*b* color.
+	private final double[] lab = new double[3];
+
+	// Candidate stops : color, percentage given if kept (UNSPECIFIED for the default first and last positions), position and hard edge
+	// flag.
+	private int candidateCount;
+	private int[] candidateColors;
+	private int[] candidatePercents;
+	private double[] candidateOffsets;
+	private boolean[] hardEdges;
+
+	/**
+	 * Result of the reduction.
+	 */
+	public static final class Result {
+		private final int[] colors;
+		private final int[] percents;
+		private final double maxError;
+
+		Result(int[] colors, int[] percents, double maxError) {
+			this.colors = colors;
+			this.percents = percents;
+			this.maxError = maxError;
+		}
+
+		/**
+		 * Returns the ARGB colors of the kept stops.
+		 *
+		 * @return int[]
+		 */
+		public int[] getColors() {
+			return colors;
+		}
+
+		/**
+		 * Returns the percentages of the kept stops, {@link GradientModel#UNSPECIFIED} if not specified.
+		 *
+		 * @return int[]
+		 */
+		public int[] getPercents() {
+			return percents;
+		}
+
+		public int getStopCount() {
+			return colors.length;
+		}
+
+		/**
+		 * Returns the largest Delta E between the rendered colors (or opacities) of the original and reduced gradients.
+		 *
+		 * @return double
+		 */
+		public double getMaxError() {
+			return maxError;
+		}
+	}
+
+	/**
+	 * Reduces the color stops.
+	 *
+	 * @param colors
+	 *            - ARGB colors of the stops.
+	 * @param percents
+	 *            - Percentages of the stops, {@link GradientModel#UNSPECIFIED} if not specified.
+	 * @param tolerance
+	 *            - Largest Delta E allowed between the rendered colors (and opacities) of the original and reduced gradients.
+	 * @return Result, with the original stops if they cannot be reduced.
+	 */
+	public Result optimize(int[] colors, int[] percents, double tolerance) {
+		int size = colors.length;
+		if (size != percents.length) {
+			throw new IllegalArgumentException("Colors count " + size + " does not match percents count " + percents.length);
+		}
+		if (tolerance < 0) {
+			throw new IllegalArgumentException("Tolerance " + tolerance + " is negative");
+		}
+		Result unchanged = new Result(colors.clone(), percents.clone(), 0);
+		if (size <= 2) {
+			return unchanged;
+		}
+
+		GradientFrame original = new GradientFrame(size);
+		original.stopCount = size;
+		System.arraycopy(colors, 0, original.colors, 0, size);
+		GradientModel.resolveOffsets(percents, size, original.offsets);
+		rasterizer.buildLookupTable(original);
+		int[] lut = rasterizer.getLookupTable();
+		for (int i = 0; i < LUT_SIZE; i++) {
+			ColorSpace.toLab(lut[i], originalLab, i * 3);
+			originalAlpha[i] = lut[i] >>> 24;
+		}
+		buildCandidates(original);
+
+		double limit = tolerance;
+		for (int retry = 0; retry <= MAX_RETRIES; retry++) {
+			Result result = build(simplify(limit));
+			if (result.maxError <= tolerance) {
+				return (result.getStopCount() < size) ? result : unchanged;
+			}
+			limit /= 2;
+		}
+		return unchanged;
+	}
+
+	/**
+	 * Builds the candidate stops : the color of the original gradient at each whole percentage, or both colors of a hard edge.
+	 */
+	private void buildCandidates(GradientFrame original) {
+		int size = original.stopCount;
+		int[] colors = original.colors;
+		double[] offsets = original.offsets;
+		candidateCount = 0;
+		candidateColors = new int[202];
+		candidatePercents = new int[202];
+		candidateOffsets = new double[202];
+		hardEdges = new boolean[202];
+
+		int next = 0;
+		for (int p = 0; p <= 100; p++) {
+			double t = p / 100.0;
+			// First stop at or after the position.
+			while (next < size && offsets[next] < t) {
+				next++;
+			}
+			int left;
+			int right;
+			if (next == size) {
+				left = right = colors[size - 1];
+			} else if (offsets[next] == t) {
+				// Stops at the position : the color before the edge is the first one, the color after it the last one.
+				int last = next;
+				while (last + 1 < size && offsets[last + 1] == t) {
+					last++;
+				}
+				left = colors[next];
+				right = colors[last];
+			} else if (next == 0) {
+				left = right = colors[0];
+			} else {
+				double f = (t - offsets[next - 1]) / (offsets[next] - offsets[next - 1]);
+				left = right = GradientRasterizer.interpolate(colors[next - 1], colors[next], f);
+			}
+
+			// The edge is not visible at 0% and 100%.
+			if (left != right && p > 0 && p < 100) {
+				addCandidate(left, p, true);
+				addCandidate(right, p, true);
+			} else {
+				addCandidate(p == 100 ? left : right, p, false);
+			}
+		}
+	}
+
+	private void addCandidate(int color, int percent, boolean hardEdge) {
+		int i = candidateCount++;
+		candidateColors[i] = color;
+		candidateOffsets[i] = percent / 100.0;
+		// 0% is the default position of the first stop and 100% of the last one (the only candidates at these positions).
+		candidatePercents[i] = (percent == 0 || percent == 100) ? GradientModel.UNSPECIFIED : percent;
+		hardEdges[i] = hardEdge;
+	}
+
+	/**
+	 * Marks the candidates to be kept, for the tolerance.
+	 */
+	private boolean[] simplify(double tolerance) {
+		int size = candidateCount;
+		boolean[] keep = hardEdges.clone();
+		keep[0] = true;
+		keep[size - 1] = true;
+
+		// Simplifying between each pair of consecutive kept candidates, with an explicit stack of the ranges to be simplified.
+		int[] stack = new int[size * 2];
+		int top = 0;
+		int prev = 0;
+		for (int i = 1; i < size; i++) {
+			if (keep[i]) {
+				if (i - prev > 1) {
+					stack[top++] = prev;
+					stack[top++] = i;
+				}
+				prev = i;
+			}
+		}
+		while (top > 0) {
+			int end = stack[--top];
+			int start = stack[--top];
+			int split = findSplit(start, end, tolerance);
+			if (split >= 0) {
+				keep[split] = true;
+				if (split - start > 1) {
+					stack[top++] = start;
+					stack[top++] = split;
+				}
+				if (end - split > 1) {
+					stack[top++] = split;
+					stack[top++] = end;
+				}
+			}
+		}
+		return keep;
+	}
+
+	/**
+	 * Returns the candidate between start and end to be kept, or -1 if the interpolation of start and end is within the tolerance.
+	 */
+	private int findSplit(int start, int end, double tolerance) {
+		double from = candidateOffsets[start];
+		double span = candidateOffsets[end] - from;
+
+		// Largest error of the rendered colors between both stops.
+		int first = (int) Math.ceil(from * (LUT_SIZE - 1));
+		int last = Math.min(LUT_SIZE - 1, (int) Math.floor(candidateOffsets[end] * (LUT_SIZE - 1)));
+		double worst = 0;
+		double worstOffset = from;
+		for (int k = first; k <= last; k++) {
+			double t = k / (double) (LUT_SIZE - 1);
+			double f = (span <= 0) ? 1 : (t - from) / span;
+			double error = error(GradientRasterizer.interpolate(candidateColors[start], candidateColors[end], f), k);
+			if (error > worst) {
+				worst = error;
+				worstOffset = t;
+			}
+		}
+		if (worst <= tolerance) {
+			return -1;
+		}
+
+		// Keeping the candidate nearest to the largest error.
+		int split = start + 1;
+		double distance = Math.abs(candidateOffsets[split] - worstOffset);
+		for (int i = start + 2; i < end; i++) {
+			double d = Math.abs(candidateOffsets[i] - worstOffset);
+			if (d < distance) {
+				split = i;
+				distance = d;
+			}
+		}
+		return split;
+	}
+
+	/**
+	 * Builds the result of the kept candidates, and measures its error.
+	 */
+	private Result build(boolean[] keep) {
+		int count = 0;
+		for (int i = 0; i < candidateCount; i++) {
+			if (keep[i]) {
+				count++;
+			}
+		}
+		int[] colors = new int[count];
+		int[] percents = new int[count];
+		int j = 0;
+		for (int i = 0; i < candidateCount; i++) {
+			if (keep[i]) {
+				colors[j] = candidateColors[i];
+				percents[j] = candidatePercents[i];
+				j++;
+			}
+		}
+
+		GradientFrame reduced = new GradientFrame(count);
+		reduced.stopCount = count;
+		System.arraycopy(colors, 0, reduced.colors, 0, count);
+		GradientModel.resolveOffsets(percents, count, reduced.offsets);
+		rasterizer.buildLookupTable(reduced);
+		int[] lut = rasterizer.getLookupTable();
+		double maxError = 0;
+		for (int k = 0; k < LUT_SIZE; k++) {
+			maxError = Math.max(maxError, error(lut[k], k));
+		}
+		return new Result(colors, percents, maxError);
+	}
+
+	/**
+	 * Returns the error of the color against the entry of the lookup table of the original gradient : the Delta E of the colors, or of
+	 * the opacities if larger.
+	 */
+	private double error(int argb, int k) {
+		ColorSpace.toLab(argb, lab, 0);
+		double colorError = ColorSpace.deltaE(lab, 0, originalLab, k * 3);
+		return Math.max(colorError, Math.abs((argb >>> 24) - originalAlpha[k]) * ALPHA_ERROR);
+	}
+}
@@ -0,0 +1,427 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Batch of edits on the color stops of a settings layout, started by {@link AbstractSettingsLayout#editColorStops(java.util.function.Consumer)}.
+ * The edits are done on a working structure, and are committed to the observable color stops as a single change followed by a single
+ * build of the gradient, however many stops are added, removed, moved or replaced. The color stops themselves are not changed before
+ * the commit : the replacements are kept on the working structure and applied when the transaction is committed.
+ * <p>
+ * The working structure is a linked list of the color stops indexed by identity, so the edits relative to a color stop (add after or
+ * before it, remove it, move it, replace it) take constant time. The edits by position walk the list, and {@link #indexOf(ColorStopDTO)}
+ * uses the positions computed once after the last change of the order.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public final class ColorStopTransaction {
+
+	private static final class Node {
+		final ColorStopDTO stop;
+		Node prev;
+		Node next;
+
+		// Replacement of the color and percentage, applied at the commit.
+		boolean replaced;
+		String color;
+		int percent;
+
+		Node(ColorStopDTO stop) {
+			this.stop = stop;
+		}
+	}
+
+	// Sentinel of the circular list; head.next is the first color stop.
+	private final Node head = new Node(null);
+	private final IdentityHashMap<ColorStopDTO, Node> nodes;
+
+	// Positions of the color stops, computed on demand. Null when the order is changed.
+	private IdentityHashMap<ColorStopDTO, Integer> positions;
+
+	ColorStopTransaction(List<ColorStopDTO> current) {
+		head.prev = head;
+		head.next = head;
+		nodes = new IdentityHashMap<ColorStopDTO, Node>(Math.max(16, current.size() * 2));
+		for (ColorStopDTO stop : current) {
+			link(new Node(stop), head.prev);
+		}
+	}
+
+	/**
+	 * Returns the number of color stops.
+	 *
+	 * @return int
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Returns true if the color stop is in the list.
+	 *
+	 * @param stop
+	 *            - Color stop.
+	 * @return boolean
+	 */
+	public boolean contains(ColorStopDTO stop) {
+		return nodes.containsKey(stop);
+	}
+
+	/**
+	 * Returns the color stop at the position. Walks the list from the nearest end.
+	 *
+	 * @param index
+	 *            - Position of the color stop.
+	 * @return ColorStopDTO
+	 */
+	public ColorStopDTO get(int index) {
+		return nodeAt(index).stop;
+	}
+
+	/**
+	 * Returns the first color stop, null if there is none.
+	 *
+	 * @return ColorStopDTO
+	 */
+	public ColorStopDTO first() {
+		return head.next.stop;
+	}
+
+	/**
+	 * Returns the last color stop, null if there is none.
+	 *
+	 * @return ColorStopDTO
+	 */
+	public ColorStopDTO last() {
+		return head.prev.stop;
+	}
+
+	/**
+	 * Returns the color stop after the given one, null if it is the last.
+	 *
+	 * @param stop
+	 *            - Color stop.
+	 * @return ColorStopDTO
+	 */
+	public ColorStopDTO next(ColorStopDTO stop) {
+		return node(stop).next.stop;
+	}
+
+	/**
+	 * Returns the color stop before the given one, null if it is the first.
+	 *
+	 * @param stop
+	 *            - Color stop.
+	 * @return ColorStopDTO
+	 */
+	public ColorStopDTO previous(ColorStopDTO stop) {
+		return node(stop).prev.stop;
+	}
+
+	/**
+	 * Returns the position of the color stop, -1 if it is not in the list. The positions are computed once after each change of the
+	 * order.
+	 *
+	 * @param stop
+	 *            - Color stop.
+	 * @return int
+	 */
+	public int indexOf(ColorStopDTO stop) {
+		if (positions == null) {
+			positions = new IdentityHashMap<ColorStopDTO, Integer>(Math.max(16, nodes.size() * 2));
+			int i = 0;
+			for (Node n = head.next; n != head; n = n.next) {
+				positions.put(n.stop, i++);
+			}
+		}
+		Integer index = positions.get(stop);
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * Adds a new color stop at the position.
+	 *
+	 * @param index
+	 *            - Position to which the color stop need to be added, -1 to add at the end.
+	 * @param percent
+	 *            - Percentage of the color stop, 0 if not specified.
+	 * @param color
+	 *            - Color code (any web color).
+	 * @return the added color stop.
+	 */
+	public ColorStopDTO add(int index, int percent, String color) {
+		Node prev = (index == -1 || index == nodes.size()) ? head.prev : nodeAt(index).prev;
+		return link(new Node(newStop(percent, color)), prev).stop;
+	}
+
+	/**
+	 * Adds a new color stop after the given one.
+	 *
+	 * @param anchor
+	 *            - Color stop after which the new one is added.
+	 * @param percent
+	 *            - Percentage of the color stop, 0 if not specified.
+	 * @param color
+	 *            - Color code (any web color).
+	 * @return the added color stop.
+	 */
+	public ColorStopDTO addAfter(ColorStopDTO anchor, int percent, String color) {
+		return link(new Node(newStop(percent, color)), node(anchor)).stop;
+	}
+
+	/**
+	 * Adds a new color stop before the given one.
+	 *
+	 * @param anchor
+	 *            - Color stop before which the new one is added.
+	 * @param percent
+	 *            - Percentage of the color stop, 0 if not specified.
+	 * @param color
+	 *            - Color code (any web color).
+	 * @return the added color stop.
+	 */
+	public ColorStopDTO addBefore(ColorStopDTO anchor, int percent, String color) {
+		return link(new Node(newStop(percent, color)), node(anchor).prev).stop;
+	}
+
+	/**
+	 * Removes the color stop at the position.
+	 *
+	 * @param index
+	 *            - Position of the color stop.
+	 * @return the removed color stop.
+	 */
+	public ColorStopDTO remove(int index) {
+		Node node = nodeAt(index);
+		unlink(node);
+		return node.stop;
+	}
+
+	/**
+	 * Removes the color stop.
+	 *
+	 * @param stop
+	 *            - Color stop to be removed.
+	 * @return true if the color stop was in the list.
+	 */
+	public boolean remove(ColorStopDTO stop) {
+		Node node = nodes.get(stop);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+
+	/**
+	 * Removes all the given color stops.
+	 *
+	 * @param toRemove
+	 *            - Color stops to be removed.
+	 * @return Number of color stops removed.
+	 */
+	public int removeAll(Collection<ColorStopDTO> toRemove) {
+		int count = 0;
+		for (ColorStopDTO stop : toRemove) {
+			if (remove(stop)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Moves the color stop after the given one.
+	 *
+	 * @param stop
+	 *            - Color stop to be moved.
+	 * @param anchor
+	 *            - Color stop after which it is moved.
+	 */
+	public void moveAfter(ColorStopDTO stop, ColorStopDTO anchor) {
+		Node node = node(stop);
+		Node prev = node(anchor);
+		if (node != prev) {
+			unlink(node);
+			link(node, prev);
+		}
+	}
+
+	/**
+	 * Moves the color stop to the position.
+	 *
+	 * @param stop
+	 *            - Color stop to be moved.
+	 * @param index
+	 *            - New position of the color stop.
+	 */
+	public void move(ColorStopDTO stop, int index) {
+		Node node = node(stop);
+		unlink(node);
+		Node prev = (index == nodes.size()) ? head.prev : nodeAt(index).prev;
+		link(node, prev);
+	}
+
+	/**
+	 * Reorders all the color stops.
+	 *
+	 * @param order
+	 *            - The same color stops in the new order.
+	 */
+	public void reorder(List<ColorStopDTO> order) {
+		if (order.size() != nodes.size()) {
+			throw new IllegalArgumentException("Order has " + order.size() + " color stops instead of " + nodes.size());
+		}
+		IdentityHashMap<ColorStopDTO, Boolean> seen = new IdentityHashMap<ColorStopDTO, Boolean>(order.size() * 2);
+		for (ColorStopDTO stop : order) {
+			node(stop);
+			if (seen.put(stop, Boolean.TRUE) != null) {
+				throw new IllegalArgumentException("Color stop is repeated in the order");
+			}
+		}
+		Node prev = head;
+		for (ColorStopDTO stop : order) {
+			Node node = nodes.get(stop);
+			prev.next = node;
+			node.prev = prev;
+			prev = node;
+		}
+		prev.next = head;
+		head.prev = prev;
+		positions = null;
+	}
+
+	/**
+	 * Sets the color and percentage of the color stop when the transaction is committed.
+	 *
+	 * @param stop
+	 *            - Color stop.
+	 * @param percent
+	 *            - Percentage of the color stop, 0 if not specified.
+	 * @param color
+	 *            - Color code (any web color).
+	 */
+	public void replace(ColorStopDTO stop, int percent, String color) {
+		Node node = node(stop);
+		node.color = normalize(color);
+		node.percent = percent;
+		node.replaced = true;
+	}
+
+	/**
+	 * Sets the color and percentage of the color stop at the position when the transaction is committed.
+	 *
+	 * @param index
+	 *            - Position of the color stop.
+	 * @param percent
+	 *            - Percentage of the color stop, 0 if not specified.
+	 * @param color
+	 *            - Color code (any web color).
+	 */
+	public void replace(int index, int percent, String color) {
+		replace(get(index), percent, color);
+	}
+
+	/**
+	 * Removes all the color stops.
+	 */
+	public void clear() {
+		head.prev = head;
+		head.next = head;
+		nodes.clear();
+		positions = null;
+	}
+
+	/**
+	 * Applies the replacements to the color stops, and returns the color stops in their order.
+	 */
+	List<ColorStopDTO> commit() {
+		List<ColorStopDTO> stops = new ArrayList<ColorStopDTO>(nodes.size());
+		for (Node n = head.next; n != head; n = n.next) {
+			if (n.replaced) {
+				n.stop.setColorCode(n.color);
+				n.stop.setPercent(n.percent);
+				n.replaced = false;
+			}
+			stops.add(n.stop);
+		}
+		return stops;
+	}
+
+	private Node node(ColorStopDTO stop) {
+		Node node = nodes.get(stop);
+		if (node == null) {
+			throw new IllegalArgumentException("Color stop is not in the list");
+		}
+		return node;
+	}
+
+	private Node nodeAt(int index) {
+		int size = nodes.size();
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index : " + index + ", Size : " + size);
+		}
+		Node n;
+		if (index < size / 2) {
+			n = head.next;
+			for (int i = 0; i < index; i++) {
+				n = n.next;
+			}
+		} else {
+			n = head.prev;
+			for (int i = size - 1; i > index; i--) {
+				n = n.prev;
+			}
+		}
+		return n;
+	}
+
+	private Node link(Node node, Node prev) {
+		if (nodes.containsKey(node.stop)) {
+			throw new IllegalArgumentException("Color stop is already in the list");
+		}
+		nodes.put(node.stop, node);
+		node.prev = prev;
+		node.next = prev.next;
+		prev.next.prev = node;
+		prev.next = node;
+		positions = null;
+		return node;
+	}
+
+	private void unlink(Node node) {
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		node.prev = null;
+		node.next = null;
+		nodes.remove(node.stop);
+		positions = null;
+	}
+
+	private static ColorStopDTO newStop(int percent, String color) {
+		return new ColorStopDTO(normalize(color), percent);
+	}
+
+	/**
+	 * Normalizes the color code to "#RRGGBB" as the color picker does, or to "#RRGGBBAA" if the color is not opaque.
+	 */
+	static String normalize(String color) {
+		return normalize(Color.web(color));
+	}
+
+	/**
+	 * Returns the color code of the color, "#RRGGBB" or "#RRGGBBAA" if it is not opaque. The color components are truncated as the builder
+	 * always did, and the opacity is rounded as by {@link GradientParser}.
+	 */
+	static String normalize(Color c) {
+		int rgb = ((int) (c.getRed() * 255) << 16) | ((int) (c.getGreen() * 255) << 8) | (int) (c.getBlue() * 255);
+		return HexEncoder.toHexAlpha(((int) Math.round(c.getOpacity() * 255) << 24) | rgb);
+	}
+}
@@ -0,0 +1,166 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.LinearDirection;
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Exporter of the gradient to a W3C CSS "background-image" declaration.
+ * <p>
+ * A linear gradient to a side is exported with the same "to &lt;side&gt;". JavaFX scales the proportional points to the shape and keeps
+ * the lines of equal color perpendicular to the gradient, where a CSS gradient to a corner has them through the other corners, so the
+ * gradients to a corner and from/to points (which have no equivalent in CSS) are converted, for the size of the shape, to an angle and
+ * stop positions giving the same colors. A radial gradient is exported as an ellipse (proportional radius, stretched as in JavaFX)
+ * or a circle (pixel radius) at its center; CSS has no focus point, so the focus is not exported. REPEAT is exported as a
+ * repeating-*-gradient, and REFLECT as a repeating-*-gradient of the stops followed by their mirror.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class CssGradientExporter extends GradientExporter {
+
+	/**
+	 * Constructor to initialize the exporter.
+	 *
+	 * @param width
+	 *            - Width of the shape.
+	 * @param height
+	 *            - Height of the shape.
+	 */
+	public CssGradientExporter(int width, int height) {
+		super(width, height);
+	}
+
+	@Override
+	public Format getFormat() {
+		return Format.CSS;
+	}
+
+	@Override
+	public void write(GradientModel model, Writer out) throws IOException {
+		int[] colors = new int[2 * (model.getStopCount() + 2)];
+		double[] offsets = new double[colors.length];
+		int size = getCycleStops(model, colors, offsets);
+		boolean repeating = model.getRepeatOrReflect() != RepeatOrReflect.NONE;
+
+		out.write("background-image: ");
+		if (repeating) {
+			out.write("repeating-");
+		}
+		if (model instanceof LinearGradientModel) {
+			writeLinear((LinearGradientModel) model, colors, offsets, size, out);
+		} else {
+			writeRadial((RadialGradientModel) model, colors, offsets, size, out);
+		}
+		out.write(");\n");
+	}
+
+	private void writeLinear(LinearGradientModel model, int[] colors, double[] offsets, int size, Writer out) throws IOException {
+		out.write("linear-gradient(");
+		LinearDirection direction = model.getDirection();
+		if (!model.isFromTo() && (direction == null || direction.getStartX() == direction.getEndX()
+				|| direction.getStartY() == direction.getEndY())) {
+			if (direction != null) {
+				out.write("to ");
+				out.write(direction.toString());
+				out.write(", ");
+			}
+			writeStops(colors, offsets, size, 1, 0, out);
+			return;
+		}
+
+		// Gradient position t(x, y) = gx * x + gy * y + c in the pixels of the shape, the proportional points scaled to the shape.
+		double[] p = model.getPoints();
+		double sx = model.isProportional() ? width : 1;
+		double sy = model.isProportional() ? height : 1;
+		double x1 = p[0] * sx;
+		double y1 = p[1] * sy;
+		double dx = p[2] * sx - x1;
+		double dy = p[3] * sy - y1;
+		double length2 = dx * dx + dy * dy;
+		if (length2 == 0) {
+			// No gradient : the color of the last stop.
+			int last = colors[size - 1];
+			writeColor(out, last);
+			out.write(", ");
+			writeColor(out, last);
+			return;
+		}
+		double gx = dx / length2;
+		double gy = dy / length2;
+		double centerT = ((width * 0.5 - x1) * dx + (height * 0.5 - y1) * dy) / length2;
+
+		// CSS angle (0deg to top, clockwise) along the gradient, and the length of its gradient line through the center of the box.
+		double angle = Math.atan2(gx, -gy);
+		double line = Math.abs(width * Math.sin(angle)) + Math.abs(height * Math.cos(angle));
+		double scale = Math.sqrt(gx * gx + gy * gy) * line;
+
+		writeNumber(out, (Math.toDegrees(angle) + 360) % 360);
+		out.write("deg, ");
+		// Position on the gradient line of the offset t : (t - centerT) / scale + 0.5.
+		writeStops(colors, offsets, size, 1 / scale, 0.5 - centerT / scale, out);
+	}
+
+	private void writeRadial(RadialGradientModel model, int[] colors, double[] offsets, int size, Writer out) throws IOException {
+		out.write("radial-gradient(");
+		double radius = model.getEffectiveRadius();
+		if (model.isProportional()) {
+			out.write("ellipse ");
+			writeNumber(out, radius * 100);
+			out.write("% ");
+			writeNumber(out, radius * 100);
+			out.write("% at ");
+			writeNumber(out, model.getEffectiveCenterX() * 100);
+			out.write("% ");
+			writeNumber(out, model.getEffectiveCenterY() * 100);
+			out.write("%, ");
+		} else {
+			// The center is taken in pixels, as rendered by JavaFX for a pixel radius.
+			out.write("circle ");
+			writeNumber(out, radius);
+			out.write("px at ");
+			writeNumber(out, model.getEffectiveCenterX());
+			out.write("px ");
+			writeNumber(out, model.getEffectiveCenterY());
+			out.write("px, ");
+		}
+		writeStops(colors, offsets, size, 1, 0, out);
+	}
+
+	/**
+	 * Writes the color stops, at the positions scale * offset + shift (in percentage).
+	 */
+	private static void writeStops(int[] colors, double[] offsets, int size, double scale, double shift, Writer out) throws IOException {
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				out.write(", ");
+			}
+			writeColor(out, colors[i]);
+			out.write(' ');
+			writeNumber(out, (offsets[i] * scale + shift) * 100);
+			out.write('%');
+		}
+	}
+
+	/**
+	 * Writes the color as "#RRGGBB", or "rgba(...)" if it is not opaque.
+	 */
+	private static void writeColor(Writer out, int argb) throws IOException {
+		int alpha = argb >>> 24;
+		if (alpha == 0xFF) {
+			HexEncoder.writeHex(out, argb, false);
+			return;
+		}
+		out.write("rgba(");
+		out.write(Integer.toString((argb >> 16) & 0xFF));
+		out.write(", ");
+		out.write(Integer.toString((argb >> 8) & 0xFF));
+		out.write(", ");
+		out.write(Integer.toString(argb & 0xFF));
+		out.write(", ");
+		writeNumber(out, alpha / 255.0);
+		out.write(')');
+	}
+}
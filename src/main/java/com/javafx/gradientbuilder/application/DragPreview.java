@@ -0,0 +1,159 @@
+package com.javafx.gradientbuilder.application;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.layout.Pane;
+
+/**
+ * Low-resolution preview of the gradient while a slider is dragged. Instead of a new paint shaded by the scene at full resolution on
+ * both shapes for each move, the gradient is rasterized by {@link GradientRasterizer} into small images stretched (with smoothing) over
+ * the shapes (see {@link ShapeOverlay}).
+ * <p>
+ * The resolution adapts to the measured times : it is lowered when the preview takes more than {@link #RENDER_BUDGET_NANOS} or when the
+ * pulses are slower than {@link #FRAME_BUDGET_NANOS} (frames are dropped), and raised back up to {@link #MAX_SCALE} when the preview is
+ * well within the budget. The last resolution is kept for the next drag.
+ * <p>
+ * Full fidelity comes back when the drag ends (by the layout), or when the gradient is not changed for {@link #IDLE_NANOS} while the
+ * slider is held.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class DragPreview extends AnimationTimer {
+
+	// Range of the scale of the images to the shapes.
+	public static final double MIN_SCALE = 1.0 / 16;
+	public static final double MAX_SCALE = 0.5;
+
+	// Time budget of a preview, and of a frame (60 fps, with some tolerance).
+	public static final long RENDER_BUDGET_NANOS = 4_000_000;
+	public static final long FRAME_BUDGET_NANOS = 20_000_000;
+
+	// Time without change after which the full fidelity paint is shown.
+	public static final long IDLE_NANOS = 300_000_000;
+
+	// Factors to lower and raise the scale.
+	private static final double SCALE_DOWN = 0.75;
+	private static final double SCALE_UP = 1.25;
+
+	private final GradientRasterizer rasterizer = new GradientRasterizer();
+	private final GradientFrame frame = new GradientFrame(2);
+	private final ShapeOverlay[] targets;
+
+	private double scale = 0.25;
+
+	// Action restoring the full fidelity paint on idle, given by the last update.
+	private Runnable fullRender;
+
+	// Time of the last update and of the last pulse, and the smoothed interval between the pulses (0 if not measured yet).
+	private long updatedAt;
+	private long lastPulse;
+	private double frameNanos;
+
+	/**
+	 * Constructor to initialize the preview for the shapes.
+	 *
+	 * @param rectangle
+	 *            - Rectangle shape.
+	 * @param circle
+	 *            - Circle shape, clipped to the ellipse of its bounds.
+	 */
+	public DragPreview(Pane rectangle, Pane circle) {
+		this.targets = new ShapeOverlay[] { new ShapeOverlay(rectangle, false), new ShapeOverlay(circle, true) };
+	}
+
+	/**
+	 * Shows the gradient at the current resolution, and adapts the resolution.
+	 *
+	 * @param model
+	 *            - Gradient to be previewed.
+	 * @param fullRender
+	 *            - Action to show the gradient at full fidelity, run if the gradient is not changed for {@link #IDLE_NANOS}.
+	 */
+	public void update(GradientModel model, Runnable fullRender) {
+		this.fullRender = fullRender;
+		if (!isShowing()) {
+			lastPulse = 0;
+			frameNanos = 0;
+			start();
+		}
+
+		long start = System.nanoTime();
+		for (ShapeOverlay target : targets) {
+			int width = target.getImageWidth(scale);
+			int height = target.getImageHeight(scale);
+			if (width == 0 || height == 0) {
+				continue;
+			}
+			frame.set(model);
+			if (!frame.proportional) {
+				// Pixel geometry in the pixels of the image.
+				double sx = width / target.shape.getWidth();
+				double sy = height / target.shape.getHeight();
+				frame.startX *= sx;
+				frame.startY *= sy;
+				frame.endX *= sx;
+				frame.endY *= sy;
+				frame.centerX *= sx;
+				frame.centerY *= sy;
+				frame.radius *= sx;
+			}
+			target.render(rasterizer, frame, width, height);
+			target.attach();
+		}
+		long end = System.nanoTime();
+		updatedAt = end;
+		adapt(end - start);
+	}
+
+	/**
+	 * Hides the preview, showing the shapes as they are again.
+	 */
+	public void hide() {
+		stop();
+		for (ShapeOverlay target : targets) {
+			target.detach();
+		}
+		fullRender = null;
+	}
+
+	public boolean isShowing() {
+		return targets[0].isAttached() || targets[1].isAttached();
+	}
+
+	/**
+	 * Returns the current scale of the images to the shapes.
+	 *
+	 * @return double
+	 */
+	public double getScale() {
+		return scale;
+	}
+
+	@Override
+	public void handle(long now) {
+		long time = System.nanoTime();
+		if (lastPulse != 0) {
+			long interval = time - lastPulse;
+			frameNanos = (frameNanos == 0) ? interval : frameNanos * 0.8 + interval * 0.2;
+		}
+		lastPulse = time;
+
+		if (time - updatedAt > IDLE_NANOS && fullRender != null) {
+			Runnable action = fullRender;
+			action.run();
+			hide();
+		}
+	}
+
+	/**
+	 * Lowers or raises the resolution as per the time of the last preview and the frame time.
+	 */
+	private void adapt(long renderNanos) {
+		if (renderNanos > RENDER_BUDGET_NANOS || frameNanos > FRAME_BUDGET_NANOS) {
+			scale = Math.max(MIN_SCALE, scale * SCALE_DOWN);
+		} else if (renderNanos < RENDER_BUDGET_NANOS / 3) {
+			scale = Math.min(MAX_SCALE, scale * SCALE_UP);
+		}
+	}
+}
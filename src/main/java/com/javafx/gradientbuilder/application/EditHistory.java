@@ -0,0 +1,288 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+
+/**
+ * Undo/redo history of a settings layout. Each entry is an immutable snapshot of the layout : the settings (the values of its
+ * properties, packed as ints by {@link AbstractSettingsLayout#captureSettings()}) and the color stops.
+ * <p>
+ * The snapshots share whatever is not changed with the previous snapshot : the settings array when only the color stops are changed, the
+ * color stops when only the settings are changed, and within the color stops the unchanged chunks of 32 stops. So an entry costs a few
+ * hundred bytes at most, and the history of {@link #DEFAULT_CAPACITY} entries stays within a few MB.
+ * <p>
+ * An entry is recorded after each build of the gradient, so all the changes of one pulse make one entry. Recording is suspended while a
+ * slider is dragged, so that a drag makes a single entry.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class EditHistory {
+
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	private final AbstractSettingsLayout layout;
+	private final int capacity;
+
+	private final ArrayDeque<Snapshot> undoStack = new ArrayDeque<Snapshot>();
+	private final ArrayDeque<Snapshot> redoStack = new ArrayDeque<Snapshot>();
+	private Snapshot current;
+
+	private int suspendCount;
+
+	private final SimpleBooleanProperty undoable = new SimpleBooleanProperty();
+	private final SimpleBooleanProperty redoable = new SimpleBooleanProperty();
+
+	/**
+	 * Constructor to initialize the history with the default capacity.
+	 *
+	 * @param layout
+	 *            - Layout whose state is recorded.
+	 */
+	public EditHistory(AbstractSettingsLayout layout) {
+		this(layout, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor to initialize the history.
+	 *
+	 * @param layout
+	 *            - Layout whose state is recorded.
+	 * @param capacity
+	 *            - Maximum number of undo steps; the oldest steps are dropped after it.
+	 */
+	public EditHistory(AbstractSettingsLayout layout, int capacity) {
+		this.layout = layout;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Clears the history, and takes the current state of the layout as the initial state.
+	 */
+	public void reset() {
+		undoStack.clear();
+		redoStack.clear();
+		current = capture(null);
+		updateFlags();
+	}
+
+	/**
+	 * Records the current state of the layout as a new entry, if it is changed since the last entry. Clears the redo steps.
+	 */
+	public void record() {
+		if (suspendCount > 0) {
+			return;
+		}
+		Snapshot snapshot = capture(current);
+		if (current == null) {
+			current = snapshot;
+			return;
+		}
+		if (snapshot == current) {
+			return;
+		}
+		undoStack.push(current);
+		if (undoStack.size() > capacity) {
+			undoStack.removeLast();
+		}
+		redoStack.clear();
+		current = snapshot;
+		updateFlags();
+	}
+
+	/**
+	 * Suspends the recording, e.g while a slider is dragged. Calls can be nested.
+	 */
+	public void suspend() {
+		suspendCount++;
+	}
+
+	/**
+	 * Resumes the recording, and records the changes done while it was suspended as one entry.
+	 */
+	public void resume() {
+		if (suspendCount > 0 && --suspendCount == 0) {
+			record();
+		}
+	}
+
+	/**
+	 * Restores the previous state.
+	 *
+	 * @return false if there is nothing to undo.
+	 */
+	public boolean undo() {
+		// Recording any pending change first, so that it is the one undone (also when it is the first change).
+		recordPending();
+		if (undoStack.isEmpty()) {
+			return false;
+		}
+		redoStack.push(current);
+		restore(undoStack.pop());
+		return true;
+	}
+
+	/**
+	 * Restores the state undone last.
+	 *
+	 * @return false if there is nothing to redo.
+	 */
+	public boolean redo() {
+		// Recording any pending change first, which clears the redo steps rather than being overwritten by them.
+		recordPending();
+		if (redoStack.isEmpty()) {
+			return false;
+		}
+		undoStack.push(current);
+		restore(redoStack.pop());
+		return true;
+	}
+
+	private void recordPending() {
+		layout.getRebuildScheduler().flush();
+		record();
+	}
+
+	public int getUndoCount() {
+		return undoStack.size();
+	}
+
+	public int getRedoCount() {
+		return redoStack.size();
+	}
+
+	public ReadOnlyBooleanProperty undoableProperty() {
+		return undoable;
+	}
+
+	public ReadOnlyBooleanProperty redoableProperty() {
+		return redoable;
+	}
+
+	private void restore(Snapshot snapshot) {
+		Snapshot previous = current;
+		// Setting the target first, so that the builds triggered by the restore find no change to record.
+		current = snapshot;
+		updateFlags();
+		suspendCount++;
+		try {
+			if (snapshot.settings != previous.settings) {
+				layout.restoreSettings(snapshot.settings);
+			}
+			if (snapshot.stops != previous.stops) {
+				final Stops stops = snapshot.stops;
+				layout.editColorStops((tx) -> {
+					tx.clear();
+					for (int i = 0; i < stops.size; i++) {
+						long stop = stops.get(i);
+						tx.add(-1, (int) stop, HexEncoder.toHexAlpha((int) (stop >>> 32)));
+					}
+				});
+			}
+		} finally {
+			suspendCount--;
+		}
+	}
+
+	private void updateFlags() {
+		undoable.set(!undoStack.isEmpty());
+		redoable.set(!redoStack.isEmpty());
+	}
+
+	/**
+	 * Captures the state of the layout, sharing the unchanged parts with the previous snapshot. Returns the previous snapshot itself if
+	 * nothing is changed.
+	 */
+	private Snapshot capture(Snapshot previous) {
+		int[] settings = layout.captureSettings();
+		if (previous != null && Arrays.equals(settings, previous.settings)) {
+			settings = previous.settings;
+		}
+		Stops stops = Stops.capture(layout.colorStops, previous == null ? null : previous.stops);
+		if (previous != null && settings == previous.settings && stops == previous.stops) {
+			return previous;
+		}
+		return new Snapshot(settings, stops);
+	}
+
+	@Override
+	public String toString() {
+		return "EditHistory [undo=" + undoStack.size() + ", redo=" + redoStack.size() + "]";
+	}
+
+	/**
+	 * Immutable state of the layout.
+	 */
+	private static final class Snapshot {
+		final int[] settings;
+		final Stops stops;
+
+		Snapshot(int[] settings, Stops stops) {
+			this.settings = settings;
+			this.stops = stops;
+		}
+	}
+
+	/**
+	 * Immutable list of the color stops, each packed in a long as (ARGB &lt;&lt; 32 | percent), stored in chunks of 32 stops which are
+	 * shared between the lists.
+	 */
+	private static final class Stops {
+		private static final int CHUNK_BITS = 5;
+		private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+		final long[][] chunks;
+		final int size;
+
+		private Stops(long[][] chunks, int size) {
+			this.chunks = chunks;
+			this.size = size;
+		}
+
+		long get(int index) {
+			return chunks[index >>> CHUNK_BITS][index & (CHUNK_SIZE - 1)];
+		}
+
+		static Stops capture(List<ColorStopDTO> list, Stops previous) {
+			int size = list.size();
+			int chunkCount = (size + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+			long[][] chunks = new long[chunkCount][];
+			long[] values = new long[CHUNK_SIZE];
+			boolean changed = (previous == null || previous.size != size);
+
+			for (int c = 0; c < chunkCount; c++) {
+				int start = c << CHUNK_BITS;
+				int length = Math.min(CHUNK_SIZE, size - start);
+				for (int i = 0; i < length; i++) {
+					ColorStopDTO dto = list.get(start + i);
+					String code = dto.getColorCode();
+					int argb = (code == null || code.isEmpty()) ? 0 : GradientModel.parseColorCode(code);
+					values[i] = ((long) argb << 32) | (dto.getPercent() & 0xFFFFFFFFL);
+				}
+
+				long[] shared = (previous != null && c < previous.chunks.length) ? previous.chunks[c] : null;
+				if (shared != null && shared.length == length && equals(shared, values, length)) {
+					chunks[c] = shared;
+				} else {
+					chunks[c] = Arrays.copyOf(values, length);
+					changed = true;
+				}
+			}
+			return changed ? new Stops(chunks, size) : previous;
+		}
+
+		private static boolean equals(long[] a, long[] b, int length) {
+			for (int i = 0; i < length; i++) {
+				if (a[i] != b[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.javafx.gradientbuilder.application.GradientExporter.Format;
+
+/**
+ * Exports the saved gradients of a library (or of all the libraries "*.gdb" in a directory tree) to files in the given formats. The
+ * gradients of a library are written to a directory named after it, as "&lt;index&gt;-&lt;name&gt;.&lt;extension&gt;". The libraries
+ * are exported one after the other : while a library is open, its gradients are decoded and written in parallel on a fork-join pool,
+ * each streamed to its file, so only the gradients being written are held in memory.
+ * <p>
+ * Usage : GradientBatchExporter &lt;library-file|directory&gt; &lt;output-directory&gt; [&lt;formats&gt; [&lt;width&gt; &lt;height&gt;]]
+ * <br>
+ * where the formats are a comma separated list of css, svg and android (all by default).
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientBatchExporter {
+
+	// Extension of the library files.
+	private static final String LIBRARY_EXTENSION = ".gdb";
+
+	// Longest part of a file name taken from the name of a gradient.
+	private static final int MAX_NAME_LENGTH = 64;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructor to export on the common fork-join pool.
+	 */
+	public GradientBatchExporter() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor to export on the given pool.
+	 *
+	 * @param pool
+	 *            - Pool on which the files are written.
+	 */
+	public GradientBatchExporter(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Exports the gradients of the library, or of all the libraries in the directory tree.
+	 *
+	 * @param source
+	 *            - Library file or directory.
+	 * @param directory
+	 *            - Directory to which the files are written.
+	 * @param exporters
+	 *            - Exporters of the formats.
+	 * @return Number of files written.
+	 * @throws IOException
+	 *             if a library cannot be read or a file cannot be written.
+	 */
+	public int export(Path source, Path directory, List<GradientExporter> exporters) throws IOException {
+		List<Path> libraries;
+		boolean tree = Files.isDirectory(source);
+		if (!tree && !Files.isRegularFile(source)) {
+			throw new IOException("No such library : " + source);
+		}
+		if (tree) {
+			try (Stream<Path> stream = Files.walk(source)) {
+				libraries = stream.filter(p -> p.toString().endsWith(LIBRARY_EXTENSION) && Files.isRegularFile(p)).sorted()
+						.collect(Collectors.toList());
+			}
+		} else {
+			libraries = new ArrayList<Path>();
+			libraries.add(source);
+		}
+
+		int count = 0;
+		for (Path file : libraries) {
+			// Directory named after the library (and its sub directory in the tree).
+			String name = (tree ? source.relativize(file) : file.getFileName()).toString();
+			if (name.endsWith(LIBRARY_EXTENSION)) {
+				name = name.substring(0, name.length() - LIBRARY_EXTENSION.length());
+			}
+			Path target = directory.resolve(name);
+			Files.createDirectories(target);
+			try (GradientLibrary library = GradientLibrary.openReadOnly(file)) {
+				count += export(library, target, exporters);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Exports the gradients of the open library in parallel, each decoded by the task writing its files.
+	 *
+	 * @param library
+	 *            - Library, open until the export is done.
+	 * @param target
+	 *            - Directory to which the files are written.
+	 * @param exporters
+	 *            - Exporters of the formats.
+	 * @return Number of files written.
+	 * @throws IOException
+	 *             if a gradient cannot be read or a file cannot be written.
+	 */
+	private int export(GradientLibrary library, Path target, List<GradientExporter> exporters) throws IOException {
+		int size = library.size();
+		try {
+			pool.submit(() -> IntStream.range(0, size).parallel().forEach(i -> {
+				GradientModel model = library.get(i);
+				String base = String.format("%04d-%s.", i, toFileName(library.getName(i)));
+				for (GradientExporter exporter : exporters) {
+					try (OutputStream out = Files.newOutputStream(target.resolve(base + exporter.getFormat().getExtension()))) {
+						exporter.export(model, out);
+					} catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				}
+			})).get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Export interrupted", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) ex.getCause()).getCause();
+			}
+			if (ex.getCause() instanceof RuntimeException) {
+				// E.g a corrupted record.
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+		return size * exporters.size();
+	}
+
+	/**
+	 * Returns the name as a portable file name : letters, digits, '-' and '_' kept, others replaced by '_'.
+	 */
+	static String toFileName(String name) {
+		StringBuilder sb = new StringBuilder(Math.min(name.length(), MAX_NAME_LENGTH));
+		for (int i = 0; i < name.length() && sb.length() < MAX_NAME_LENGTH; i++) {
+			char c = name.charAt(i);
+			sb.append((c < 128 && (Character.isLetterOrDigit(c) || c == '-' || c == '_')) ? c : '_');
+		}
+		return sb.length() == 0 ? "gradient" : sb.toString();
+	}
+
+	/**
+	 * Parses the comma separated formats (css, svg, android).
+	 */
+	private static Set<Format> parseFormats(String formats) {
+		Set<Format> set = EnumSet.noneOf(Format.class);
+		for (String format : formats.split(",")) {
+			set.add(Format.valueOf(format.trim().toUpperCase(Locale.ROOT)));
+		}
+		return set;
+	}
+
+	public static void main(String[] args) throws IOException {
+		Set<Format> formats = EnumSet.allOf(Format.class);
+		int width = GradientExporter.DEFAULT_WIDTH;
+		int height = GradientExporter.DEFAULT_HEIGHT;
+		try {
+			if (args.length < 2) {
+				throw new IllegalArgumentException();
+			}
+			if (args.length > 2) {
+				formats = parseFormats(args[2]);
+			}
+			if (args.length > 4) {
+				width = Integer.parseInt(args[3]);
+				height = Integer.parseInt(args[4]);
+			}
+		} catch (IllegalArgumentException ex) {
+			System.err.println("Usage : GradientBatchExporter <library-file|directory> <output-directory> [<formats> [<width> <height>]]");
+			System.err.println("        formats : comma separated list of css, svg, android (default all)");
+			System.exit(1);
+		}
+
+		List<GradientExporter> exporters = new ArrayList<GradientExporter>();
+		for (Format format : formats) {
+			exporters.add(GradientExporter.create(format, width, height));
+		}
+		long start = System.nanoTime();
+		int files = new GradientBatchExporter().export(Paths.get(args[0]), Paths.get(args[1]), exporters);
+		long elapsed = System.nanoTime() - start;
+		System.err.println("Exported " + files + " files in " + (elapsed / 1_000_000) + " ms");
+	}
+}
@@ -1,6 +1,19 @@
 package com.javafx.gradientbuilder.application;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.management.JMException;
+
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.beans.binding.StringBinding;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
@@ -8,18 +21,34 @@ import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Separator;
 import javafx.scene.control.SplitPane;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.control.ToolBar;
 import javafx.scene.effect.Bloom;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 /**
@@ -44,23 +73,109 @@ public class GradientBuilderApp extends Application {
 		LINEAR, RADIAL
 	};
 
+	// Settings layouts, created when their gradient type is first selected.
 	private LinearSettingsLayout linearSettingLayout;
 	private RadialSettingsLayout radialSettingLayout;
 	private StackPane settingsContainer;
 
+	// Paint currently applied to the shapes.
+	private Paint currentPaint;
+
+	// Library of the saved gradients, opened when first used.
+	private GradientLibrary library;
+
+	// Tool bar to design and play the gradient animations, created when first shown.
+	private AnimationBar animationBar;
+
+	// Renderer and cache of the thumbnails of the saved gradients (64x40 pixels, up to 32MB off-heap), created when first used.
+	private ThumbnailRenderer thumbnails;
+
+	// Similarity index of the library, loaded or built in the background when the library is first shown or searched, and its button
+	// disabled meanwhile.
+	private SimilarityIndex similarityIndex;
+	private Button similarButton;
+	private boolean indexing;
+
+	// Number of similar gradients shown.
+	private static final int SIMILAR_COUNT = 12;
+
+	// Grid of the variants of the current gradient and its window, created when first shown.
+	private VariantGrid variantGrid;
+	private Stage variantStage;
+
+	// Listener updating the variants on change of the gradient, added to the layouts once the variants are shown.
+	private InvalidationListener variantUpdater;
+
+	// Low-resolution preview of the gradient while a slider is dragged, created when first used.
+	private DragPreview dragPreview;
+
+	// Metrics of the rebuild pipeline (also registered in JMX), the probe measuring the pulses, and their overlay created when first shown.
+	private final PipelineMetrics metrics = new PipelineMetrics();
+	private final PulseProbe pulseProbe = new PulseProbe(metrics);
+	private MetricsOverlay metricsOverlay;
+	private StackPane body;
+
+	// Timings of the startup phases, complete when the first frame is shown.
+	private final StartupProfile startupProfile = new StartupProfile();
+
 	// Observable Property to determine the type of the current selected gradient.
 	private SimpleObjectProperty<GradientType> gradientType = new SimpleObjectProperty<GradientType>();
 
-	public static void main(String[] args) {
+	/**
+	 * Launches the builder, or with "--server [&lt;port&gt; [&lt;cache-mb&gt;]]" the headless rendering service (see
+	 * {@link GradientRenderServer}) without the JavaFX toolkit.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length > 0 && "--server".equals(args[0])) {
+			GradientRenderServer.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
 		Application.launch(args);
 	}
 
 	@Override
 	public void start(Stage stage) throws Exception {
+		try {
+			metrics.register();
+		} catch (JMException ex) {
+			showError("Metrics", "Unable to register the metrics in JMX", ex.getMessage());
+		}
+		startupProfile.mark("metrics");
 		configureSceneAndStage(stage);
+		startupProfile.mark("stage");
 		configureHeader();
+		startupProfile.mark("header");
 		configureFooter();
+		startupProfile.mark("footer");
 		configureCenter();
+		startupProfile.mark("center");
+
+		// Completing the profile on the second pulse, as the first frame is rendered in the first one.
+		new AnimationTimer() {
+			private int pulses;
+
+			@Override
+			public void handle(long now) {
+				if (++pulses == 2) {
+					stop();
+					startupProfile.complete("first frame");
+				}
+			}
+		}.start();
+	}
+
+	@Override
+	public void stop() throws Exception {
+		metrics.unregister();
+		if (thumbnails != null) {
+			thumbnails.shutdown();
+		}
+		if (variantGrid != null) {
+			variantGrid.shutdown();
+		}
+		if (library != null) {
+			library.close();
+		}
 	}
 
 	/**
@@ -82,10 +197,12 @@ public class GradientBuilderApp extends Application {
 	}
 
 	/**
-	 * Configures the header of the application.
+	 * Configures the header of the application. The icon is loaded (at its shown size) in the background, so it does not delay the first
+	 * frame.
 	 */
 	private void configureHeader() {
-		ImageView iconImage = new ImageView(new Image(getClass().getResourceAsStream("/images/app-icon.png")));
+		ImageView iconImage = new ImageView(new Image(getClass().getResource("/images/app-icon.png").toExternalForm(), 80, 80, true, true,
+				true));
 		iconImage.setFitHeight(80);
 		iconImage.setFitWidth(80);
 
@@ -155,8 +272,10 @@ public class GradientBuilderApp extends Application {
 		SplitPane mainPane = new SplitPane();
 		mainPane.getItems().addAll(leftPane, rightPane);
 
-		// Setting the entire layout as the center to the root(BorderPane) node.
-		center.setCenter(mainPane);
+		// Setting the entire layout (with the probe measuring the pulses, and room for the metrics overlay) as the center to the
+		// root(BorderPane) node.
+		body = new StackPane(mainPane, pulseProbe);
+		center.setCenter(body);
 	}
 
 	/**
@@ -170,37 +289,423 @@ public class GradientBuilderApp extends Application {
 		final CustomRadioButton radialButton = new CustomRadioButton("Radial");
 		radialButton.setOnAction((e) -> gradientType.set(GradientType.RADIAL));
 
-		// When the gradient type is changed, Listener to switch the layouts and apply the styles to the shapes.
+		// When the gradient type is changed, Listener to switch the layouts (created on first selection) and apply the styles to the
+		// shapes. The build is done immediately, so any pending build of the layout is cancelled.
 		gradientType.addListener((ObservableValue<? extends GradientType> arg0, GradientType arg1, GradientType type) -> {
-			settingsContainer.getChildren().clear();
-			switch (type) {
-			case LINEAR:
-				linearButton.setSelected(true);
-				radialButton.setSelected(false);
-				settingsContainer.getChildren().add(linearSettingLayout);
-				linearSettingLayout.buildGradient();
-				break;
-			case RADIAL:
-				linearButton.setSelected(false);
-				radialButton.setSelected(true);
-				settingsContainer.getChildren().add(radialSettingLayout);
-				radialSettingLayout.buildGradient();
-				break;
-			}
+			linearButton.setSelected(type == GradientType.LINEAR);
+			radialButton.setSelected(type == GradientType.RADIAL);
+			AbstractSettingsLayout layout = getCurrentLayout();
+			settingsContainer.getChildren().setAll(layout);
+			layout.getRebuildScheduler().cancel();
+			layout.buildGradient();
 		});
 
+		// Button to import an existing gradient syntax into the builder.
+		Button importButton = new Button("Import");
+		importButton.setOnAction((e) -> importGradient());
+
+		// Button to export the current gradient to W3C CSS, SVG or Android vector drawable.
+		Button exportButton = new Button("Export...");
+		exportButton.setOnAction((e) -> exportGradient());
+
+		// Button to fit a gradient to a reference image.
+		Button fitButton = new Button("Fit Image...");
+		fitButton.setOnAction((e) -> fitImage(fitButton));
+
+		// Buttons to save the current gradient to the library and to load a saved gradient.
+		Button saveButton = new Button("Save");
+		saveButton.setOnAction((e) -> saveGradient());
+
+		Button libraryButton = new Button("Library");
+		libraryButton.setOnAction((e) -> showLibrary());
+
+		// Button to show the saved gradients most similar to the current gradient.
+		similarButton = new Button("Similar");
+		similarButton.setOnAction((e) -> showSimilar());
+
+		// Buttons to undo/redo the changes of the current layout (also Ctrl+Z / Ctrl+Y).
+		Button undoButton = new Button("Undo");
+		undoButton.setOnAction((e) -> getCurrentLayout().getHistory().undo());
+
+		Button redoButton = new Button("Redo");
+		redoButton.setOnAction((e) -> getCurrentLayout().getHistory().redo());
+
+		root.getScene().getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN), undoButton::fire);
+		root.getScene().getAccelerators().put(new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN), redoButton::fire);
+
+		// Button to show/hide the animation tool bar below the shapes.
+		ToggleButton animateButton = new ToggleButton("Animate");
+		animateButton.setOnAction((e) -> showAnimationBar(animateButton.isSelected()));
+
+		// Button to show/hide the window of the variants of the current gradient.
+		ToggleButton variantsButton = new ToggleButton("Variants");
+		variantsButton.setOnAction((e) -> showVariantGrid(variantsButton));
+
+		// Button to show/hide the overlay of the pipeline metrics.
+		ToggleButton metricsButton = new ToggleButton("Metrics");
+		metricsButton.setOnAction((e) -> showMetricsOverlay(metricsButton.isSelected()));
+
 		// Initializing the application tool bar and setting the radio buttons.
 		ToolBar toolBar = new ToolBar();
 		toolBar.setPrefHeight(35);
-		toolBar.getItems().addAll(linearButton, radialButton);
+		toolBar.getItems().addAll(linearButton, radialButton, new Separator(), importButton, exportButton, fitButton, saveButton,
+				libraryButton, similarButton, new Separator(), undoButton, redoButton, new Separator(), animateButton, variantsButton,
+				metricsButton);
 
 		// Setting the ToolBar as the top to the root(BorderPane) node.
 		center.setTop(toolBar);
 
+		// Enabling the undo/redo buttons as per the history of the current layout.
+		gradientType.addListener((ObservableValue<? extends GradientType> arg0, GradientType arg1, GradientType type) -> {
+			EditHistory history = getCurrentLayout().getHistory();
+			undoButton.disableProperty().bind(history.undoableProperty().not());
+			redoButton.disableProperty().bind(history.redoableProperty().not());
+		});
+
 		// By default selecting the "Linear" gradient.
 		gradientType.set(GradientType.LINEAR);
 	}
 
+	/**
+	 * Returns the settings layout of the current gradient type.
+	 * 
+	 * @return AbstractSettingsLayout
+	 */
+	AbstractSettingsLayout getCurrentLayout() {
+		if (gradientType.get() == GradientType.LINEAR) {
+			if (linearSettingLayout == null) {
+				linearSettingLayout = new LinearSettingsLayout(this);
+				watchLayout(linearSettingLayout);
+			}
+			return linearSettingLayout;
+		}
+		if (radialSettingLayout == null) {
+			radialSettingLayout = new RadialSettingsLayout(this);
+			watchLayout(radialSettingLayout);
+		}
+		return radialSettingLayout;
+	}
+
+	/**
+	 * Adds the listeners of the application to a layout just created.
+	 */
+	private void watchLayout(AbstractSettingsLayout layout) {
+		if (variantUpdater != null) {
+			layout.gradientSyntax.addListener(variantUpdater);
+		}
+	}
+
+	/**
+	 * Shows or hides the animation tool bar. Hiding it stops the playback.
+	 * 
+	 * @param show
+	 *            - true to show the tool bar.
+	 */
+	private void showAnimationBar(boolean show) {
+		if (show) {
+			if (animationBar == null) {
+				animationBar = new AnimationBar(() -> getCurrentLayout().buildModel(), rectangle, circle);
+			}
+			center.setBottom(animationBar);
+		} else if (animationBar != null) {
+			animationBar.stop();
+			center.setBottom(null);
+		}
+	}
+
+	/**
+	 * Shows or hides the window of the variants of the current gradient. The variants are updated when the current gradient is changed,
+	 * while the window is shown.
+	 * 
+	 * @param variantsButton
+	 *            - Toggle button of the window, unselected when the window is closed.
+	 */
+	private void showVariantGrid(ToggleButton variantsButton) {
+		if (variantGrid == null) {
+			variantGrid = new VariantGrid(this::loadGradient);
+			variantStage = new Stage();
+			variantStage.initOwner(root.getScene().getWindow());
+			variantStage.setTitle("Variants");
+			variantStage.setScene(new Scene(variantGrid, 1000, 330));
+			variantStage.setOnHidden((e) -> variantsButton.setSelected(false));
+
+			variantUpdater = (obs) -> {
+				if (variantStage.isShowing()) {
+					variantGrid.setBase(getCurrentLayout().buildModel());
+				}
+			};
+			for (AbstractSettingsLayout layout : new AbstractSettingsLayout[] { linearSettingLayout, radialSettingLayout }) {
+				if (layout != null) {
+					layout.gradientSyntax.addListener(variantUpdater);
+				}
+			}
+			gradientType.addListener(variantUpdater);
+		}
+		if (variantsButton.isSelected()) {
+			variantGrid.setBase(getCurrentLayout().buildModel());
+			variantStage.show();
+		} else {
+			variantStage.hide();
+		}
+	}
+
+	/**
+	 * Shows or hides the overlay of the pipeline metrics over the body.
+	 * 
+	 * @param show
+	 *            - true to show the overlay.
+	 */
+	private void showMetricsOverlay(boolean show) {
+		if (show) {
+			if (metricsOverlay == null) {
+				metricsOverlay = new MetricsOverlay(metrics);
+			}
+			body.getChildren().add(metricsOverlay);
+			metricsOverlay.start();
+		} else if (metricsOverlay != null) {
+			metricsOverlay.stop();
+			body.getChildren().remove(metricsOverlay);
+		}
+	}
+
+	/**
+	 * Asks for a gradient syntax, parses it and loads it into the corresponding settings layout.
+	 */
+	private void importGradient() {
+		TextInputDialog dialog = new TextInputDialog();
+		dialog.setTitle("Import Gradient");
+		dialog.setHeaderText("Enter the linear-gradient(...) or radial-gradient(...) syntax :");
+		Optional<String> result = dialog.showAndWait();
+		if (!result.isPresent()) {
+			return;
+		}
+
+		String syntax = result.get();
+		try {
+			int start = GradientParser.indexOfGradient(syntax, 0, syntax.length());
+			loadGradient(new GradientParser().parse(syntax, Math.max(start, 0), syntax.length()));
+		} catch (IllegalArgumentException ex) {
+			showError("Import Gradient", "Invalid gradient syntax", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Asks for a file and exports the current gradient to it, in the format of the selected extension filter, for the size of the
+	 * rectangle.
+	 */
+	private void exportGradient() {
+		FileChooser chooser = new FileChooser();
+		chooser.setTitle("Export Gradient");
+		FileChooser.ExtensionFilter css = new FileChooser.ExtensionFilter("W3C CSS", "*.css");
+		FileChooser.ExtensionFilter svg = new FileChooser.ExtensionFilter("SVG", "*.svg");
+		FileChooser.ExtensionFilter android = new FileChooser.ExtensionFilter("Android vector drawable", "*.xml");
+		chooser.getExtensionFilters().addAll(css, svg, android);
+		File file = chooser.showSaveDialog(root.getScene().getWindow());
+		if (file == null) {
+			return;
+		}
+		GradientExporter.Format format = (chooser.getSelectedExtensionFilter() == svg) ? GradientExporter.Format.SVG
+				: (chooser.getSelectedExtensionFilter() == android) ? GradientExporter.Format.ANDROID : GradientExporter.Format.CSS;
+		int width = (rectangle.getWidth() > 0) ? (int) Math.round(rectangle.getWidth()) : GradientExporter.DEFAULT_WIDTH;
+		int height = (rectangle.getHeight() > 0) ? (int) Math.round(rectangle.getHeight()) : GradientExporter.DEFAULT_HEIGHT;
+		try (OutputStream out = Files.newOutputStream(file.toPath())) {
+			GradientExporter.create(format, width, height).export(getCurrentLayout().buildModel(), out);
+		} catch (IOException ex) {
+			showError("Export Gradient", "Unable to export the gradient to " + file.getName(), ex.getMessage());
+		}
+	}
+
+	/**
+	 * Asks for an image and the gradient type, fits the gradient to the image in the background and loads it.
+	 * 
+	 * @param fitButton
+	 *            - Button disabled while the fit is running.
+	 */
+	private void fitImage(Button fitButton) {
+		FileChooser chooser = new FileChooser();
+		chooser.setTitle("Fit Image");
+		chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Images", "*.png", "*.jpg", "*.jpeg", "*.gif", "*.bmp"));
+		File file = chooser.showOpenDialog(root.getScene().getWindow());
+		if (file == null) {
+			return;
+		}
+		ChoiceDialog<String> dialog = new ChoiceDialog<String>("Best", "Best", "Linear", "Radial");
+		dialog.setTitle("Fit Image");
+		dialog.setHeaderText("Select the gradient to fit to " + file.getName() + " :\n"
+				+ "The linear gradient spans the image at the fitted angle, and the radial gradient is fitted with its center, focus and\n"
+				+ "radius. The stops are opaque and the gradient does not repeat or reflect.");
+		Optional<String> type = dialog.showAndWait();
+		if (!type.isPresent()) {
+			return;
+		}
+
+		fitButton.setDisable(true);
+		Thread thread = new Thread(() -> {
+			try {
+				Image image = new Image(file.toURI().toString());
+				if (image.isError()) {
+					throw new IllegalArgumentException("Unable to read " + file + " : " + image.getException());
+				}
+				int width = (int) image.getWidth();
+				int height = (int) image.getHeight();
+				int[] argb = new int[width * height];
+				image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+
+				GradientFitter fitter = new GradientFitter();
+				GradientFitter.Fit fit = type.get().equals("Linear") ? fitter.fitLinear(argb, width, height)
+						: type.get().equals("Radial") ? fitter.fitRadial(argb, width, height) : fitter.fit(argb, width, height);
+				Platform.runLater(() -> {
+					fitButton.setDisable(false);
+					loadGradient(fit.getModel());
+				});
+			} catch (RuntimeException ex) {
+				Platform.runLater(() -> {
+					fitButton.setDisable(false);
+					showError("Fit Image", "Unable to fit a gradient to " + file.getName(), ex.getMessage());
+				});
+			}
+		}, "image-fit");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Asks for a name and appends the current gradient to the library.
+	 */
+	private void saveGradient() {
+		TextInputDialog dialog = new TextInputDialog("Gradient " + (getLibrary() == null ? 1 : library.size() + 1));
+		dialog.setTitle("Save Gradient");
+		dialog.setHeaderText("Enter the name of the gradient :");
+		Optional<String> result = dialog.showAndWait();
+		if (!result.isPresent() || getLibrary() == null) {
+			return;
+		}
+
+		try {
+			library.append(result.get(), getCurrentLayout().buildModel());
+		} catch (IOException | IllegalArgumentException ex) {
+			showError("Save Gradient", "Unable to save the gradient", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Shows the saved gradients of the library and loads the selected one. The library is indexed in the background meanwhile, if it is
+	 * not yet, as the similar gradients are likely to be searched next.
+	 */
+	private void showLibrary() {
+		if (getLibrary() == null) {
+			return;
+		}
+		if (similarityIndex == null && !indexing) {
+			indexLibrary(() -> {
+			});
+		}
+		new LibraryDialog(library, getThumbnails()).showAndWait().ifPresent(this::loadGradient);
+	}
+
+	/**
+	 * Shows the saved gradients most similar to the current gradient and loads the selected one. The library is indexed first if it
+	 * changed since it was indexed.
+	 */
+	private void showSimilar() {
+		if (getLibrary() == null) {
+			return;
+		}
+		if (similarityIndex == null || similarityIndex.size() != library.size()) {
+			indexLibrary(this::showSimilar);
+			return;
+		}
+		float[] query = new GradientFeatures().extract(getCurrentLayout().buildModel());
+		SimilarityIndex.Result result = similarityIndex.search(query, SIMILAR_COUNT);
+		new LibraryDialog(library, getThumbnails(), result).showAndWait().ifPresent(this::loadGradient);
+	}
+
+	/**
+	 * Loads the similarity index of the library, or builds and saves it if the library changed, in the background.
+	 * 
+	 * @param then
+	 *            - Action run on the JavaFX thread once the library is indexed.
+	 */
+	private void indexLibrary(Runnable then) {
+		indexing = true;
+		similarButton.setDisable(true);
+		GradientLibrary indexed = library;
+		Thread thread = new Thread(() -> {
+			try {
+				long start = System.nanoTime();
+				SimilarityIndex index = SimilarityIndex.open(indexed, ForkJoinPool.commonPool());
+				long nanos = System.nanoTime() - start;
+				Platform.runLater(() -> {
+					startupProfile.recordDeferred("similarity index", nanos);
+					indexing = false;
+					similarButton.setDisable(false);
+					similarityIndex = index;
+					then.run();
+				});
+			} catch (IOException | RuntimeException ex) {
+				Platform.runLater(() -> {
+					indexing = false;
+					similarButton.setDisable(false);
+					showError("Similar Gradients", "Unable to index the library " + indexed.getFile(), ex.getMessage());
+				});
+			}
+		}, "similarity-index");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Returns the renderer of the thumbnails, creating it on the first call.
+	 * 
+	 * @return ThumbnailRenderer
+	 */
+	private ThumbnailRenderer getThumbnails() {
+		if (thumbnails == null) {
+			thumbnails = new ThumbnailRenderer(new ThumbnailCache(64, 40, 32 * 1024 * 1024, true));
+		}
+		return thumbnails;
+	}
+
+	/**
+	 * Returns the library, opening it on the first call. Returns null (after showing the error) if it cannot be opened.
+	 * 
+	 * @return GradientLibrary
+	 */
+	private GradientLibrary getLibrary() {
+		if (library == null) {
+			try {
+				long start = System.nanoTime();
+				library = GradientLibrary.open(GradientLibrary.getDefaultPath());
+				startupProfile.recordDeferred("library", System.nanoTime() - start);
+			} catch (IOException ex) {
+				showError("Gradient Library", "Unable to open the library " + GradientLibrary.getDefaultPath(), ex.getMessage());
+			}
+		}
+		return library;
+	}
+
+	/**
+	 * Loads the gradient into the corresponding settings layout and selects its type.
+	 * 
+	 * @param model
+	 *            - Gradient to be loaded.
+	 */
+	private void loadGradient(GradientModel model) {
+		gradientType.set((model instanceof LinearGradientModel) ? GradientType.LINEAR : GradientType.RADIAL);
+		getCurrentLayout().loadModel(model);
+	}
+
+	/**
+	 * Utility method to show an error alert.
+	 */
+	private void showError(String title, String header, String content) {
+		Alert alert = new Alert(AlertType.ERROR);
+		alert.setTitle(title);
+		alert.setHeaderText(header);
+		alert.setContentText(content);
+		alert.showAndWait();
+	}
+
 	/**
 	 * Configures the layout for the "Rectangle" shape.
 	 * 
@@ -315,13 +820,7 @@ public class GradientBuilderApp extends Application {
 	 * @return ScrollPane
 	 */
 	private ScrollPane configureGradientSettings() {
-		// Initializing the RadialSettingsLayout.
-		radialSettingLayout = new RadialSettingsLayout(this);
-
-		// Initializing the LinearSettingsLayout.
-		linearSettingLayout = new LinearSettingsLayout(this);
-
-		// Initializing the container to hold RadialSettingsLayout or LinearSettingsLayout.
+		// Initializing the container to hold RadialSettingsLayout or LinearSettingsLayout (created when their type is selected).
 		settingsContainer = new StackPane();
 		settingsContainer.setAlignment(Pos.TOP_LEFT);
 
@@ -368,13 +867,89 @@ public class GradientBuilderApp extends Application {
 	}
 
 	/**
-	 * Method to apply the styles to the shapes.
+	 * Method to apply the gradient paint to the shapes. One background instance is shared by both the shapes, and nothing is done if the
+	 * paint is not changed.
+	 * 
+	 * @param paint
+	 *            - Gradient paint.
+	 */
+	public void applyPaint(Paint paint) {
+		if (paint.equals(currentPaint)) {
+			return;
+		}
+		long start = System.nanoTime();
+		currentPaint = paint;
+		// Clearing any inline style set by applyStyles(), as it takes precedence over the background.
+		rectangle.setStyle("");
+		circle.setStyle("");
+		Background background = new Background(new BackgroundFill(paint, CornerRadii.EMPTY, Insets.EMPTY));
+		rectangle.setBackground(background);
+		circle.setBackground(background);
+		metrics.recordApply(System.nanoTime() - start);
+		pulseProbe.arm();
+	}
+
+	/**
+	 * Method to apply the styles to the shapes. This parses the CSS string for each call, so {@link #applyPaint(Paint)} is used by the
+	 * layouts; kept for comparing both the routes.
 	 * 
 	 * @param bg
 	 *            - CSS gradient string.
 	 */
 	public void applyStyles(String bg) {
+		long start = System.nanoTime();
+		currentPaint = null;
 		rectangle.setStyle("-fx-background-color:" + bg);
 		circle.setStyle("-fx-background-color:" + bg);
+		metrics.recordApply(System.nanoTime() - start);
+		pulseProbe.arm();
+	}
+
+	/**
+	 * Returns the "Rectangle" shape, e.g to sample the rendered gradient.
+	 * 
+	 * @return StackPane
+	 */
+	StackPane getRectangle() {
+		return rectangle;
+	}
+
+	/**
+	 * Returns the "Circle" shape, e.g to sample the rendered gradient.
+	 * 
+	 * @return StackPane
+	 */
+	StackPane getCircle() {
+		return circle;
+	}
+
+	/**
+	 * Returns the low-resolution preview of the shapes, used while a slider is dragged.
+	 * 
+	 * @return DragPreview
+	 */
+	public DragPreview getDragPreview() {
+		if (dragPreview == null) {
+			dragPreview = new DragPreview(rectangle, circle);
+		}
+		return dragPreview;
+	}
+
+	/**
+	 * Returns the timings of the startup phases.
+	 * 
+	 * @return StartupProfile
+	 */
+	public StartupProfile getStartupProfile() {
+		return startupProfile;
+	}
+
+	/**
+	 * Returns the metrics of the rebuild pipeline.
+	 * 
+	 * @return PipelineMetrics
+	 */
+	public PipelineMetrics getMetrics() {
+		return metrics;
 	}
 }
@@ -0,0 +1,327 @@
+package com.javafx.gradientbuilder.application;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.LinearDirection;
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Reduces the gradients to a normal form, so that the settings giving the same rendering give the same form, and computes its 64-bit
+ * hash. The normal form is :
+ * <ul>
+ * <li>Linear : the "to &lt;direction&gt;" (bottom if not set) as its from/to points in percentage, e.g "to right" as "from 0% 0% to
+ * 100% 0%". Pixel from/to points are kept, as they depend on the size of the shape.</li>
+ * <li>Radial : the focus angle, focus distance and center set (0 if not set). The focus distance is limited as rendered (see
+ * {@link GradientRasterizer#MAX_FOCUS_DISTANCE}) and made positive by turning the angle by 180 degrees, the angle is taken modulo 360
+ * and set to 0 without focus distance.</li>
+ * <li>Stops : the offsets resolved (see {@link GradientModel#resolveOffsets()}) to millionths, and normalized as by JavaFX : the last
+ * stop at 0% and the first at 100% are kept, the first and last of the stops at the same offset, and the first and last colors are
+ * extended to 0% and 100%. A stop between two stops of its color, or a repeated stop, is removed.</li>
+ * <li>Solid : a gradient of a single color is only that color, whatever its geometry and cycle method.</li>
+ * </ul>
+ * E.g "linear-gradient(to bottom, red, blue)", "linear-gradient(from 0% 0% to 0% 100%, #FF0000 0%, #0000FF 100%)" and the same with a
+ * middle red stop at 0% have the same form. The form is written as a gradient syntax by {@link #appendSyntax(StringBuilder)}.
+ * <p>
+ * An instance reuses its buffers, so {@link #hash(GradientModel)} does not allocate, and is not thread safe.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientCanonicalizer {
+
+	// Kinds of the normal form.
+	public static final int SOLID = 0;
+	public static final int LINEAR = 1;
+	public static final int RADIAL = 2;
+
+	// Resolution of the offsets in the normal form (millionths).
+	public static final int OFFSET_SCALE = 1_000_000;
+
+	// Largest focus distance in percentage, as rendered.
+	private static final int MAX_FOCUS_PERCENT = (int) Math.round(GradientRasterizer.MAX_FOCUS_DISTANCE * 100);
+
+	// Constants of the hash (from xxHash and MurmurHash3).
+	private static final long PRIME_1 = 0x9E3779B97F4A7C15L;
+	private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+	private static final long PRIME_3 = 0x165667B19E3779F9L;
+
+	private int kind;
+	private boolean pixel;
+	private RepeatOrReflect repeatOrReflect;
+
+	// Linear : from x, from y, to x, to y. Radial : focus angle, focus distance, center x, center y, radius.
+	private final int[] geometry = new int[5];
+
+	// Colors and offsets (in millionths) of the normalized stops.
+	private int[] colors = new int[16];
+	private int[] offsets = new int[16];
+	private int stopCount;
+
+	// Resolved offsets of the stops of the model.
+	private double[] resolved = new double[16];
+
+	/**
+	 * Reduces the gradient to its normal form, which is read by the getters till the next call.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @return this canonicalizer.
+	 */
+	public GradientCanonicalizer load(GradientModel model) {
+		loadStops(model);
+		repeatOrReflect = model.getRepeatOrReflect();
+		pixel = false;
+		if (stopCount == 2 && colors[0] == colors[1]) {
+			kind = SOLID;
+			stopCount = 1;
+			repeatOrReflect = RepeatOrReflect.NONE;
+			for (int i = 0; i < geometry.length; i++) {
+				geometry[i] = 0;
+			}
+		} else if (model instanceof LinearGradientModel) {
+			loadLinear((LinearGradientModel) model);
+		} else {
+			loadRadial((RadialGradientModel) model);
+		}
+		return this;
+	}
+
+	private void loadLinear(LinearGradientModel model) {
+		kind = LINEAR;
+		if (model.isFromTo()) {
+			pixel = model.isPixel();
+			geometry[0] = model.getFromX();
+			geometry[1] = model.getFromY();
+			geometry[2] = model.getToX();
+			geometry[3] = model.getToY();
+		} else {
+			LinearDirection direction = (model.getDirection() == null) ? LinearDirection.BOTTOM : model.getDirection();
+			geometry[0] = (int) (direction.getStartX() * 100);
+			geometry[1] = (int) (direction.getStartY() * 100);
+			geometry[2] = (int) (direction.getEndX() * 100);
+			geometry[3] = (int) (direction.getEndY() * 100);
+		}
+		geometry[4] = 0;
+	}
+
+	private void loadRadial(RadialGradientModel model) {
+		kind = RADIAL;
+		pixel = model.isRadiusPixel();
+		int angle = model.hasFocusAngle() ? model.getFocusAngle() : 0;
+		int distance = model.hasFocusDistance() ? model.getFocusDistance() : 0;
+		distance = Math.max(-MAX_FOCUS_PERCENT, Math.min(MAX_FOCUS_PERCENT, distance));
+		if (distance < 0) {
+			distance = -distance;
+			angle += 180;
+		}
+		geometry[0] = (distance == 0) ? 0 : Math.floorMod(angle, 360);
+		geometry[1] = distance;
+		geometry[2] = model.hasCenter() ? model.getCenterX() : 0;
+		geometry[3] = model.hasCenter() ? model.getCenterY() : 0;
+		geometry[4] = model.getRadius();
+	}
+
+	/**
+	 * Normalizes the stops of the model in the same way as javafx.scene.paint.Stop does, then removes the stops without effect.
+	 */
+	private void loadStops(GradientModel model) {
+		int count = model.getStopCount();
+		if (colors.length < count + 2) {
+			colors = new int[count + 2];
+			offsets = new int[count + 2];
+			resolved = new double[count];
+		}
+		GradientModel.resolveOffsets(model.percents, count, resolved);
+
+		// Stops at 0 (the last one is kept) and 1 (the first one is kept), and the stops between them from index 1.
+		boolean hasZero = false;
+		boolean hasOne = false;
+		int zeroColor = 0;
+		int oneColor = 0;
+		int size = 1;
+		for (int i = 0; i < count; i++) {
+			int color = model.colors[i];
+			long offset = Math.round(resolved[i] * OFFSET_SCALE);
+			if (offset <= 0) {
+				hasZero = true;
+				zeroColor = color;
+			} else if (offset >= OFFSET_SCALE) {
+				if (!hasOne) {
+					hasOne = true;
+					oneColor = color;
+				}
+			} else if (size > 2 && offsets[size - 1] == offset && offsets[size - 2] == offset) {
+				// Only the first and last stops at the same offset are kept.
+				colors[size - 1] = color;
+			} else {
+				colors[size] = color;
+				offsets[size] = (int) offset;
+				size++;
+			}
+		}
+		if (!hasZero) {
+			zeroColor = (size > 1) ? colors[1] : oneColor;
+		}
+		if (!hasOne) {
+			oneColor = (size > 1) ? colors[size - 1] : zeroColor;
+		}
+
+		// Adding the stops again, without those having no effect.
+		stopCount = 0;
+		addStop(zeroColor, 0);
+		for (int i = 1; i < size; i++) {
+			addStop(colors[i], offsets[i]);
+		}
+		addStop(oneColor, OFFSET_SCALE);
+	}
+
+	/**
+	 * Adds the stop after the last one (the stops are added in place, never ahead of the one read).
+	 */
+	private void addStop(int color, int offset) {
+		if (stopCount > 0 && colors[stopCount - 1] == color) {
+			if (offsets[stopCount - 1] == offset) {
+				// Same stop again.
+				return;
+			}
+			if (stopCount > 1 && colors[stopCount - 2] == color) {
+				// The previous stop is between two stops of its color : moved to this one.
+				offsets[stopCount - 1] = offset;
+				return;
+			}
+		}
+		colors[stopCount] = color;
+		offsets[stopCount] = offset;
+		stopCount++;
+	}
+
+	/**
+	 * Returns the 64-bit hash of the normal form of the gradient. Equal forms give equal hashes; different forms give different hashes
+	 * but with a probability of about n&sup2; / 2<sup>65</sup> of a collision among n gradients (3e-8 for a million). Does not allocate.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @return long
+	 */
+	public long hash(GradientModel model) {
+		return load(model).hash();
+	}
+
+	/**
+	 * Returns the 64-bit hash of the normal form loaded.
+	 *
+	 * @return long
+	 */
+	public long hash() {
+		long hash = PRIME_3 + kind;
+		hash = mix(hash, (pixel ? 8 : 0) | repeatOrReflect.ordinal());
+		if (kind != SOLID) {
+			for (int i = 0; i < geometry.length; i++) {
+				hash = mix(hash, geometry[i]);
+			}
+		}
+		hash = mix(hash, stopCount);
+		for (int i = 0; i < stopCount; i++) {
+			hash = mix(hash, colors[i]);
+			hash = mix(hash, offsets[i]);
+		}
+		// Final avalanche of MurmurHash3.
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+
+	private static long mix(long hash, int value) {
+		hash ^= (value & 0xFFFFFFFFL) * PRIME_1;
+		return Long.rotateLeft(hash, 27) * PRIME_2 + PRIME_3;
+	}
+
+	public int getKind() {
+		return kind;
+	}
+
+	public boolean isPixel() {
+		return pixel;
+	}
+
+	public RepeatOrReflect getRepeatOrReflect() {
+		return repeatOrReflect;
+	}
+
+	public int getGeometry(int index) {
+		return geometry[index];
+	}
+
+	public int getStopCount() {
+		return stopCount;
+	}
+
+	public int getColor(int index) {
+		return colors[index];
+	}
+
+	/**
+	 * Returns the offset of the stop in millionths (see {@link #OFFSET_SCALE}).
+	 */
+	public int getOffset(int index) {
+		return offsets[index];
+	}
+
+	/**
+	 * Appends the normal form loaded as a gradient syntax with all its settings, e.g "linear-gradient(from 0% 0% to 0% 100%, #FF0000 0%,
+	 * #0000FF 100%)", or the color of a solid form ("#RRGGBB", or "#RRGGBBAA" if not opaque). The offsets are written as percentages
+	 * with up to four decimals. Does not allocate.
+	 *
+	 * @param sb
+	 *            - Buffer to which the syntax is appended.
+	 */
+	public void appendSyntax(StringBuilder sb) {
+		if (kind == SOLID) {
+			HexEncoder.appendHexAlpha(sb, colors[0]);
+			return;
+		}
+		String unit = pixel ? "px" : "%";
+		if (kind == LINEAR) {
+			sb.append("linear-gradient(from ").append(geometry[0]).append(unit).append(' ').append(geometry[1]).append(unit);
+			sb.append(" to ").append(geometry[2]).append(unit).append(' ').append(geometry[3]).append(unit);
+		} else {
+			sb.append("radial-gradient(focus-angle ").append(geometry[0]).append("deg, focus-distance ").append(geometry[1]);
+			// The center is in the units of the radius.
+			sb.append("%, center ").append(geometry[2]).append(unit).append(' ').append(geometry[3]).append(unit);
+			sb.append(", radius ").append(geometry[4]).append(unit);
+		}
+		if (repeatOrReflect != RepeatOrReflect.NONE) {
+			sb.append(", ").append(repeatOrReflect.toString());
+		}
+		for (int i = 0; i < stopCount; i++) {
+			sb.append(", ");
+			HexEncoder.appendHexAlpha(sb, colors[i]).append(' ');
+			int hundredths = OFFSET_SCALE / 100;
+			sb.append(offsets[i] / hundredths);
+			int fraction = offsets[i] % hundredths;
+			if (fraction != 0) {
+				// Four decimals, without the trailing zeros.
+				sb.append('.');
+				for (int digit = hundredths / 10; fraction != 0; digit /= 10) {
+					sb.append((char) ('0' + fraction / digit));
+					fraction %= digit;
+				}
+			}
+			sb.append('%');
+		}
+		sb.append(')');
+	}
+
+	/**
+	 * Returns the normal form of the gradient as a gradient syntax (see {@link #appendSyntax(StringBuilder)}).
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @return String
+	 */
+	public String toSyntax(GradientModel model) {
+		StringBuilder sb = new StringBuilder(96 + model.getStopCount() * 16);
+		load(model).appendSyntax(sb);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,202 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Index of the gradients by the 64-bit hash of their normal form (see {@link GradientCanonicalizer}), to find the duplicates of a
+ * collection in a single streaming pass : each gradient is added with its index, and is either the first of its form or a duplicate of
+ * the first one. Only the hashes and the first indexes are kept, in an open addressing table (linear probing) of 12 bytes per slot,
+ * filled to 3/4 at most : about 16 to 32 bytes per distinct gradient whatever the number of stops, e.g 24 MB for a million distinct
+ * gradients, while the gradients themselves are streamed.
+ * <p>
+ * Two different forms are taken as duplicates if their hashes collide, with a probability of about 3e-8 for a million gradients.
+ * Instances are not thread safe.
+ * <p>
+ * Usage : GradientDedupIndex &lt;library-file&gt; [&lt;output-library&gt;]
+ * <br>
+ * Prints the duplicates of the library as tab separated lines of index and index of the first occurrence, and writes the first
+ * occurrences to the output library (which should not exist) if given. The normal form of a duplicate is compared with the one of its
+ * first occurrence, so a gradient whose hash only collides is kept, and reported on the error output.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientDedupIndex {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private final GradientCanonicalizer canonicalizer = new GradientCanonicalizer();
+
+	// Hashes of the slots, and the first index + 1 of their gradient (0 if the slot is free).
+	private long[] hashes;
+	private int[] firsts;
+	private int mask;
+	private int size;
+
+	/**
+	 * Constructor to initialize the index for the expected number of distinct gradients, so it is not resized.
+	 *
+	 * @param expectedSize
+	 *            - Expected number of distinct gradients.
+	 */
+	public GradientDedupIndex(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < Math.min(1 << 30, expectedSize / 3L * 4 + 1)) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		hashes = new long[capacity];
+		firsts = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Adds the gradient, if its normal form is not in the index.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @param index
+	 *            - Index of the gradient in the collection (0 or more).
+	 * @return -1 if the gradient is added, else the index of the first gradient of the same form.
+	 */
+	public int add(GradientModel model, int index) {
+		return add(canonicalizer.hash(model), index);
+	}
+
+	/**
+	 * Adds the hash of a normal form, if it is not in the index.
+	 *
+	 * @param hash
+	 *            - Hash of the normal form (see {@link GradientCanonicalizer#hash()}).
+	 * @param index
+	 *            - Index of the gradient in the collection (0 or more).
+	 * @return -1 if the hash is added, else the index of the first gradient of the hash.
+	 */
+	public int add(long hash, int index) {
+		if (index < 0 || index == Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid index : " + index);
+		}
+		int slot = (int) hash & mask;
+		while (firsts[slot] != 0) {
+			if (hashes[slot] == hash) {
+				return firsts[slot] - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		hashes[slot] = hash;
+		firsts[slot] = index + 1;
+		if (++size > mask / 4 * 3) {
+			resize();
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the first gradient of the same form as the gradient.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @return Index, or -1 if the form is not in the index.
+	 */
+	public int indexOf(GradientModel model) {
+		long hash = canonicalizer.hash(model);
+		for (int slot = (int) hash & mask; firsts[slot] != 0; slot = (slot + 1) & mask) {
+			if (hashes[slot] == hash) {
+				return firsts[slot] - 1;
+			}
+		}
+		return -1;
+	}
+
+	private void resize() {
+		long[] oldHashes = hashes;
+		int[] oldFirsts = firsts;
+		allocate(hashes.length * 2);
+		for (int i = 0; i < oldHashes.length; i++) {
+			if (oldFirsts[i] != 0) {
+				int slot = (int) oldHashes[i] & mask;
+				while (firsts[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				hashes[slot] = oldHashes[i];
+				firsts[slot] = oldFirsts[i];
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of distinct forms in the index.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the memory of the table in bytes.
+	 */
+	public long getBytes() {
+		return hashes.length * 12L;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage : GradientDedupIndex <library-file> [<output-library>]");
+			System.exit(1);
+		}
+		Path source = Paths.get(args[0]);
+		Path target = (args.length > 1) ? Paths.get(args[1]) : null;
+		if (!Files.isRegularFile(source)) {
+			System.err.println("No such library : " + source);
+			System.exit(1);
+		}
+		if (target != null && Files.exists(target)) {
+			System.err.println("Output library already exists : " + target);
+			System.exit(1);
+		}
+
+		long start = System.nanoTime();
+		int count;
+		int duplicates = 0;
+		int collisions = 0;
+		GradientDedupIndex index;
+		GradientCanonicalizer canonicalizer = new GradientCanonicalizer();
+		Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024);
+		try (GradientLibrary library = GradientLibrary.openReadOnly(source);
+				GradientLibrary output = (target == null) ? null : GradientLibrary.open(target)) {
+			count = library.size();
+			index = new GradientDedupIndex(count);
+			for (int i = 0; i < count; i++) {
+				GradientModel model = library.get(i);
+				int first = index.add(model, i);
+				if (first >= 0 && !canonicalizer.toSyntax(model).equals(canonicalizer.toSyntax(library.get(first)))) {
+					System.err.println("Hash collision of gradient " + i + " with gradient " + first + ", kept");
+					collisions++;
+					first = -1;
+				}
+				if (first >= 0) {
+					duplicates++;
+					out.write(Integer.toString(i));
+					out.write('\t');
+					out.write(Integer.toString(first));
+					out.write('\n');
+				} else if (output != null) {
+					output.append(library.getName(i), model);
+				}
+			}
+		}
+		out.flush();
+		long elapsed = System.nanoTime() - start;
+		System.err.println("Read " + count + " gradients in " + (elapsed / 1_000_000) + " ms : " + (count - duplicates) + " distinct, "
+				+ duplicates + " duplicates, " + collisions + " hash collisions (index of " + (index.getBytes() / 1024) + " KB)");
+	}
+}
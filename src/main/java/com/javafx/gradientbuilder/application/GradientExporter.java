@@ -0,0 +1,241 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Exporter of a {@link GradientModel} to the formats of the other platforms, for a shape of a given size. The output is written to the
+ * stream as it is produced, through a small buffer, so no intermediate string of the whole output is built. Instances are immutable and
+ * can be shared by threads.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public abstract class GradientExporter {
+
+	// Default size of the shape, as the rectangle of the builder.
+	public static final int DEFAULT_WIDTH = 400;
+	public static final int DEFAULT_HEIGHT = 300;
+
+	// Size of the buffer between the writer and the stream.
+	private static final int BUFFER_SIZE = 4096;
+
+	/**
+	 * Export formats, with the extension of their files.
+	 */
+	public enum Format {
+		CSS("css"), SVG("svg"), ANDROID("xml");
+
+		private final String extension;
+
+		Format(String extension) {
+			this.extension = extension;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+	}
+
+	// Size of the shape to which the gradient is applied.
+	protected final int width;
+	protected final int height;
+
+	/**
+	 * Constructor to initialize the exporter.
+	 *
+	 * @param width
+	 *            - Width of the shape.
+	 * @param height
+	 *            - Height of the shape.
+	 */
+	protected GradientExporter(int width, int height) {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Invalid size " + width + "x" + height);
+		}
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Returns the exporter of the format.
+	 *
+	 * @param format
+	 *            - Export format.
+	 * @param width
+	 *            - Width of the shape.
+	 * @param height
+	 *            - Height of the shape.
+	 * @return GradientExporter
+	 */
+	public static GradientExporter create(Format format, int width, int height) {
+		switch (format) {
+		case CSS:
+			return new CssGradientExporter(width, height);
+		case SVG:
+			return new SvgGradientExporter(width, height);
+		default:
+			return new AndroidGradientExporter(width, height);
+		}
+	}
+
+	public abstract Format getFormat();
+
+	/**
+	 * Exports the gradient to the stream as UTF-8. The stream is flushed but not closed.
+	 *
+	 * @param model
+	 *            - Gradient to be exported.
+	 * @param out
+	 *            - Stream to which the gradient is written.
+	 * @throws IOException
+	 *             if the stream fails.
+	 */
+	public void export(GradientModel model, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+		write(model, writer);
+		writer.flush();
+	}
+
+	/**
+	 * Writes the gradient to the writer.
+	 *
+	 * @param model
+	 *            - Gradient to be exported.
+	 * @param out
+	 *            - Writer to which the gradient is written.
+	 * @throws IOException
+	 *             if the writer fails.
+	 */
+	public abstract void write(GradientModel model, Writer out) throws IOException;
+
+	/**
+	 * Returns the focus distance of the radial gradient, as a fraction of the radius kept inside the circle as rendered.
+	 *
+	 * @param model
+	 *            - Radial gradient.
+	 * @return double
+	 */
+	protected static double getFocusDistance(RadialGradientModel model) {
+		double distance = model.getEffectiveFocusDistance();
+		return Math.max(-GradientRasterizer.MAX_FOCUS_DISTANCE, Math.min(GradientRasterizer.MAX_FOCUS_DISTANCE, distance));
+	}
+
+	/**
+	 * Returns the stop offsets of the gradient for a cycle method which repeats the stops from their first to their last offset : the
+	 * offsets are extended to 0 and 1 (with the colors of the first and last stops), and for REFLECT the stops are mirrored from 1 to 2.
+	 * Without cycle, the resolved offsets are returned.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @param colors
+	 *            - Array of the colors, filled as the offsets. Its length should be at least 2 * (stop count + 2).
+	 * @param offsets
+	 *            - Array of the offsets.
+	 * @return Number of stops.
+	 */
+	protected static int getCycleStops(GradientModel model, int[] colors, double[] offsets) {
+		int size = model.getStopCount();
+		GradientModel.resolveOffsets(model.percents, size, offsets);
+		System.arraycopy(model.colors, 0, colors, 0, size);
+		if (model.getRepeatOrReflect() == RepeatOrReflect.NONE || size == 0) {
+			return size;
+		}
+
+		// Extending the stops to the period 0 to 1.
+		if (offsets[0] > 0) {
+			System.arraycopy(offsets, 0, offsets, 1, size);
+			System.arraycopy(colors, 0, colors, 1, size);
+			offsets[0] = 0;
+			size++;
+		}
+		if (offsets[size - 1] < 1) {
+			offsets[size] = 1;
+			colors[size] = colors[size - 1];
+			size++;
+		}
+
+		// Mirroring the stops for the period 1 to 2 (the stop at 1 is shared).
+		if (model.getRepeatOrReflect() == RepeatOrReflect.REFLECT) {
+			for (int i = size - 2; i >= 0; i--) {
+				offsets[size] = 2 - offsets[i];
+				colors[size] = colors[i];
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Writes the number with up to 4 decimals, without the trailing zeros.
+	 *
+	 * @param out
+	 *            - Writer to write to.
+	 * @param value
+	 *            - Number.
+	 * @throws IOException
+	 *             if the writer fails.
+	 */
+	protected static void writeNumber(Writer out, double value) throws IOException {
+		long scaled = Math.round(value * 10000);
+		if (scaled < 0) {
+			out.write('-');
+			scaled = -scaled;
+		}
+		out.write(Long.toString(scaled / 10000));
+		int fraction = (int) (scaled % 10000);
+		if (fraction != 0) {
+			out.write('.');
+			for (int divisor = 1000; fraction != 0; divisor /= 10) {
+				out.write('0' + fraction / divisor);
+				fraction %= divisor;
+			}
+		}
+	}
+
+	/**
+	 * Writes the XML attribute : a space, the name and the quoted number.
+	 *
+	 * @param out
+	 *            - Writer to write to.
+	 * @param name
+	 *            - Name of the attribute.
+	 * @param value
+	 *            - Number.
+	 * @throws IOException
+	 *             if the writer fails.
+	 */
+	protected static void writeAttribute(Writer out, String name, double value) throws IOException {
+		out.write(' ');
+		out.write(name);
+		out.write("=\"");
+		writeNumber(out, value);
+		out.write('"');
+	}
+
+	/**
+	 * Writes the XML attribute : a space, the name and the quoted value (which should not need escaping).
+	 *
+	 * @param out
+	 *            - Writer to write to.
+	 * @param name
+	 *            - Name of the attribute.
+	 * @param value
+	 *            - Value.
+	 * @throws IOException
+	 *             if the writer fails.
+	 */
+	protected static void writeAttribute(Writer out, String name, String value) throws IOException {
+		out.write(' ');
+		out.write(name);
+		out.write("=\"");
+		out.write(value);
+		out.write('"');
+	}
+}
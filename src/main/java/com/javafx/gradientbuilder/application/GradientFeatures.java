@@ -0,0 +1,132 @@
+package com.javafx.gradientbuilder.application;
+
+/**
+ * Extractor of the feature vectors of the gradients, to find the similar ones : the gradient is sampled on a grid of
+ * {@link #COLUMNS} x {@link #ROWS} points of a {@link #WIDTH} x {@link #HEIGHT} shape (see {@link GradientRasterizer#sample}), blended
+ * on white, and converted to L*a*b* (see {@link ColorSpace}). The features are the coefficients of the orthonormal 2D DCT of each
+ * component over the grid, the lowest frequencies first : as the transform keeps the distances, the euclidean distance of two vectors
+ * sums the perceived differences of the two gradients over the shape, whatever their geometry ({@link #toDeltaE(double)} gives the
+ * mean Delta E of the samples), and as gradients are smooth most of the distance is in the first features, so a search can give up a
+ * far vector early (see {@link SimilarityIndex}).
+ * <p>
+ * An instance reuses its buffers and is not thread safe.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientFeatures {
+
+	// Grid of the samples.
+	public static final int COLUMNS = 5;
+	public static final int ROWS = 4;
+
+	// Size of the sampled shape, for the gradients in pixels.
+	public static final int WIDTH = GradientExporter.DEFAULT_WIDTH;
+	public static final int HEIGHT = GradientExporter.DEFAULT_HEIGHT;
+
+	// Number of features : the L*, a* and b* coefficients of each frequency.
+	public static final int DIMENSION = COLUMNS * ROWS * 3;
+
+	// Orthonormal 2D DCT-II of the grid : the weights of the samples in each coefficient, lowest frequencies first.
+	private static final double[][] BASIS = createBasis();
+
+	private final GradientRasterizer rasterizer = new GradientRasterizer();
+	private final int[] samples = new int[COLUMNS * ROWS];
+	private final double[] lab = new double[COLUMNS * ROWS * 3];
+
+	/**
+	 * Returns the feature vector of the gradient.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @return float[] of {@link #DIMENSION} features.
+	 */
+	public float[] extract(GradientModel model) {
+		float[] vector = new float[DIMENSION];
+		extract(model, vector, 0);
+		return vector;
+	}
+
+	/**
+	 * Writes the feature vector of the gradient to the array. Does not allocate.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @param vectors
+	 *            - Array to which the {@link #DIMENSION} features are written.
+	 * @param offset
+	 *            - Offset in the array.
+	 */
+	public void extract(GradientModel model, float[] vectors, int offset) {
+		rasterizer.sample(model, WIDTH, HEIGHT, COLUMNS, ROWS, samples);
+		for (int i = 0; i < samples.length; i++) {
+			ColorSpace.toLab(blendOnWhite(samples[i]), lab, i * 3);
+		}
+		for (double[] weights : BASIS) {
+			double l = 0;
+			double a = 0;
+			double b = 0;
+			for (int i = 0; i < weights.length; i++) {
+				l += weights[i] * lab[i * 3];
+				a += weights[i] * lab[i * 3 + 1];
+				b += weights[i] * lab[i * 3 + 2];
+			}
+			vectors[offset++] = (float) l;
+			vectors[offset++] = (float) a;
+			vectors[offset++] = (float) b;
+		}
+	}
+
+	/**
+	 * Returns the orthonormal DCT-II basis of the grid, the coefficients sorted by increasing frequency (u + v).
+	 */
+	private static double[][] createBasis() {
+		double[][] basis = new double[COLUMNS * ROWS][];
+		int index = 0;
+		for (int frequency = 0; frequency < COLUMNS + ROWS - 1; frequency++) {
+			for (int u = 0; u < COLUMNS; u++) {
+				int v = frequency - u;
+				if (v < 0 || v >= ROWS) {
+					continue;
+				}
+				double[] weights = new double[COLUMNS * ROWS];
+				for (int y = 0; y < ROWS; y++) {
+					for (int x = 0; x < COLUMNS; x++) {
+						weights[y * COLUMNS + x] = dct(u, x, COLUMNS) * dct(v, y, ROWS);
+					}
+				}
+				basis[index++] = weights;
+			}
+		}
+		return basis;
+	}
+
+	private static double dct(int k, int n, int size) {
+		double scale = (k == 0) ? Math.sqrt(1.0 / size) : Math.sqrt(2.0 / size);
+		return scale * Math.cos(Math.PI * (n + 0.5) * k / size);
+	}
+
+	/**
+	 * Returns the mean Delta E of the samples of two gradients from the distance of their vectors (the root mean square of the Delta E
+	 * of the samples).
+	 *
+	 * @param distance
+	 *            - Euclidean distance of the vectors.
+	 * @return double
+	 */
+	public static double toDeltaE(double distance) {
+		return distance / Math.sqrt(COLUMNS * ROWS);
+	}
+
+	private static int blendOnWhite(int argb) {
+		int a = argb >>> 24;
+		if (a == 0xFF) {
+			return argb;
+		}
+		int white = (0xFF - a) * 0xFF;
+		int r = (((argb >> 16) & 0xFF) * a + white + 127) / 255;
+		int g = (((argb >> 8) & 0xFF) * a + white + 127) / 255;
+		int b = ((argb & 0xFF) * a + white + 127) / 255;
+		return 0xFF000000 | (r << 16) | (g << 8) | b;
+	}
+}
@@ -0,0 +1,591 @@
+package com.javafx.gradientbuilder.application;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Fits a linear or radial gradient to a reference image, e.g to recreate a gradient from a designer's PNG. The gradient is fitted with
+ * proportional points, as the gradients built by the settings layouts, and with the geometry of {@link GradientRasterizer} : the linear
+ * points are scaled to the image (the lines of equal color stay perpendicular to the gradient), the radial gradient is computed in the
+ * unit square stretched to the image.
+ * <p>
+ * The image is first averaged down to a working grid of at most {@link #GRID_SIZE} pixels on its longer side. For a candidate geometry,
+ * each grid pixel is projected to its gradient position (0 to 1), and the pixels are averaged into {@link #BINS} bins of position : the
+ * bin means are the least-squares profile of colors for the geometry, and the sum of the squared deviations from the means is its error.
+ * The geometry minimizing the error is searched : the angle of the linear gradient, or the center, focus point and radius of the radial
+ * gradient. The from/to points of the linear gradient span the image : the profile is fitted over the whole image, so a gradient whose
+ * points are inside the image is fitted with the same colors, its extent given by the positions of the first and last stops (a shorter
+ * extent would only pad, and cannot lower the error). The profile of the best geometry is then sampled at each whole percentage and
+ * reduced by the {@link ColorStopOptimizer}. The gradients are fitted without repeat or reflect.
+ * <p>
+ * The averaging of the image and each evaluation of the error are split by rows between the threads of a fork-join pool.
+ * <p>
+ * Usage : GradientFitter &lt;image-file&gt; [linear|radial]
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientFitter {
+
+	// Longer side of the working grid.
+	public static final int GRID_SIZE = 256;
+
+	// Number of bins of the gradient position.
+	public static final int BINS = 256;
+
+	// Delta E tolerance of the stops reduction.
+	public static final double STOP_TOLERANCE = 1.5;
+
+	// Largest percentage of the from/to points, center and radius allowed by the settings layouts.
+	private static final int MAX_PERCENT = 120;
+
+	// Largest focus distance, as the rasterizer keeps the focus inside the circle.
+	private static final double MAX_FOCUS_DISTANCE = 0.99;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Result of a fit.
+	 */
+	public static final class Fit {
+		private final GradientModel model;
+		private final double error;
+		private final int evaluations;
+
+		Fit(GradientModel model, double error, int evaluations) {
+			this.model = model;
+			this.error = error;
+			this.evaluations = evaluations;
+		}
+
+		public GradientModel getModel() {
+			return model;
+		}
+
+		/**
+		 * Returns the root mean square difference (0 to 255 per channel) between the working grid and the fitted gradient.
+		 *
+		 * @return double
+		 */
+		public double getError() {
+			return error;
+		}
+
+		/**
+		 * Returns the number of geometries evaluated.
+		 *
+		 * @return int
+		 */
+		public int getEvaluations() {
+			return evaluations;
+		}
+
+		@Override
+		public String toString() {
+			return model.toSyntax() + " (rms error " + String.format("%.2f", error) + ", " + evaluations + " evaluations)";
+		}
+	}
+
+	/**
+	 * Constructor to fit on the common fork-join pool.
+	 */
+	public GradientFitter() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor to fit on the given pool.
+	 *
+	 * @param pool
+	 *            - Pool on which the image is sampled and the errors are evaluated.
+	 */
+	public GradientFitter(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Fits both a linear and a radial gradient to the image, and returns the one with the lower error.
+	 *
+	 * @param argb
+	 *            - ARGB pixels of the image, row by row.
+	 * @param width
+	 *            - Width of the image.
+	 * @param height
+	 *            - Height of the image.
+	 * @return Fit
+	 */
+	public Fit fit(int[] argb, int width, int height) {
+		Grid grid = sample(argb, width, height);
+		Fit linear = fitLinear(grid);
+		Fit radial = fitRadial(grid);
+		return (radial.error < linear.error) ? radial : linear;
+	}
+
+	/**
+	 * Fits a linear gradient to the image.
+	 *
+	 * @param argb
+	 *            - ARGB pixels of the image, row by row.
+	 * @param width
+	 *            - Width of the image.
+	 * @param height
+	 *            - Height of the image.
+	 * @return Fit
+	 */
+	public Fit fitLinear(int[] argb, int width, int height) {
+		return fitLinear(sample(argb, width, height));
+	}
+
+	/**
+	 * Fits a radial gradient to the image.
+	 *
+	 * @param argb
+	 *            - ARGB pixels of the image, row by row.
+	 * @param width
+	 *            - Width of the image.
+	 * @param height
+	 *            - Height of the image.
+	 * @return Fit
+	 */
+	public Fit fitRadial(int[] argb, int width, int height) {
+		return fitRadial(sample(argb, width, height));
+	}
+
+	private Fit fitLinear(Grid grid) {
+		Search search = new Search(grid, false);
+
+		// Coarse search of the angle (an angle and its opposite fit equally), then refined around the best angle.
+		double best = 0;
+		double bestError = Double.MAX_VALUE;
+		for (int deg = 0; deg < 180; deg += 5) {
+			double error = search.evaluateLinear(deg);
+			if (error < bestError) {
+				best = deg;
+				bestError = error;
+			}
+		}
+		for (double step = 2.5; step >= 0.25; step /= 2) {
+			for (double angle : new double[] { best - step, best + step }) {
+				double error = search.evaluateLinear(angle);
+				if (error < bestError) {
+					best = angle;
+					bestError = error;
+				}
+			}
+		}
+		search.evaluateLinear(best);
+		return search.result();
+	}
+
+	private Fit fitRadial(Grid grid) {
+		Search search = new Search(grid, true);
+
+		// Coarse search of the center with the focus on it and the radius covering the image, which places the outer circles, then coarse
+		// search of the focus point and the radius around that center, and pattern search of the center, the focus point and the radius.
+		// Searching the focus as a point (not relative to the center) lets the center move while the innermost color stays in place.
+		double[] best = { 0.5, 0.5, 0.5, 0.5, coveringRadius(0.5, 0.5) };
+		double bestError = Double.MAX_VALUE;
+		for (int i = 0; i <= 10; i++) {
+			for (int j = 0; j <= 10; j++) {
+				double radius = coveringRadius(i / 10.0, j / 10.0);
+				double error = search.evaluateRadial(i / 10.0, j / 10.0, i / 10.0, j / 10.0, radius);
+				if (error < bestError) {
+					best = new double[] { i / 10.0, j / 10.0, i / 10.0, j / 10.0, radius };
+					bestError = error;
+				}
+			}
+		}
+		double cx = best[0];
+		double cy = best[1];
+		for (int i = 0; i <= 10; i++) {
+			for (int j = 0; j <= 10; j++) {
+				for (int r = 2; r * 10 <= MAX_PERCENT; r += 2) {
+					double error = search.evaluateRadial(cx, cy, i / 10.0, j / 10.0, r / 10.0);
+					if (error < bestError) {
+						best = new double[] { cx, cy, i / 10.0, j / 10.0, r / 10.0 };
+						bestError = error;
+					}
+				}
+			}
+		}
+		double step = 0.1;
+		while (step >= 0.01) {
+			boolean improved = false;
+			for (int p = 0; p < best.length; p++) {
+				for (int sign = -1; sign <= 1; sign += 2) {
+					double[] candidate = best.clone();
+					candidate[p] += sign * step;
+					double error = search.evaluateRadial(candidate[0], candidate[1], candidate[2], candidate[3], candidate[4]);
+					if (error < bestError) {
+						best = candidate;
+						bestError = error;
+						improved = true;
+					}
+				}
+			}
+			if (!improved) {
+				step /= 2;
+			}
+		}
+		search.evaluateRadial(best[0], best[1], best[2], best[3], best[4]);
+		return search.result();
+	}
+
+	/**
+	 * Returns the radius from the center to the farthest corner of the unit square.
+	 */
+	private static double coveringRadius(double cx, double cy) {
+		double radius = 0;
+		for (int corner = 0; corner < 4; corner++) {
+			radius = Math.max(radius, Math.hypot((corner & 1) - cx, (corner >> 1) - cy));
+		}
+		return radius;
+	}
+
+	/**
+	 * Averages the image down to the working grid.
+	 */
+	Grid sample(int[] argb, int width, int height) {
+		if (argb.length < width * height || width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Invalid image of " + width + "x" + height + " with " + argb.length + " pixels");
+		}
+		double scale = Math.min(1, GRID_SIZE / (double) Math.max(width, height));
+		final Grid grid = new Grid(Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale)));
+		pool.submit(() -> IntStream.range(0, grid.height).parallel().forEach(gy -> {
+			int y0 = gy * height / grid.height;
+			int y1 = Math.max(y0 + 1, (gy + 1) * height / grid.height);
+			for (int gx = 0; gx < grid.width; gx++) {
+				int x0 = gx * width / grid.width;
+				int x1 = Math.max(x0 + 1, (gx + 1) * width / grid.width);
+				long r = 0;
+				long g = 0;
+				long b = 0;
+				for (int y = y0; y < y1; y++) {
+					int row = y * width;
+					for (int x = x0; x < x1; x++) {
+						int c = argb[row + x];
+						r += (c >> 16) & 0xFF;
+						g += (c >> 8) & 0xFF;
+						b += c & 0xFF;
+					}
+				}
+				double n = (x1 - x0) * (y1 - y0);
+				int i = (gy * grid.width + gx) * 3;
+				grid.rgb[i] = r / n;
+				grid.rgb[i + 1] = g / n;
+				grid.rgb[i + 2] = b / n;
+			}
+		})).join();
+		return grid;
+	}
+
+	/**
+	 * Working grid of averaged RGB colors.
+	 */
+	static final class Grid {
+		final int width;
+		final int height;
+		final double[] rgb;
+
+		Grid(int width, int height) {
+			this.width = width;
+			this.height = height;
+			this.rgb = new double[width * height * 3];
+		}
+	}
+
+	/**
+	 * Sums of the colors of the pixels of each bin of position, for one row range.
+	 */
+	private static final class Bins {
+		final long[] counts = new long[BINS];
+		final double[] sums = new double[BINS * 3];
+		final double[] squares = new double[BINS * 3];
+
+		void add(int bin, double[] rgb, int i) {
+			counts[bin]++;
+			int j = bin * 3;
+			for (int c = 0; c < 3; c++) {
+				double v = rgb[i + c];
+				sums[j + c] += v;
+				squares[j + c] += v * v;
+			}
+		}
+
+		void merge(Bins other) {
+			for (int k = 0; k < BINS; k++) {
+				counts[k] += other.counts[k];
+			}
+			for (int k = 0; k < BINS * 3; k++) {
+				sums[k] += other.sums[k];
+				squares[k] += other.squares[k];
+			}
+		}
+
+		/**
+		 * Returns the sum of the squared deviations of the pixels from the mean of their bin.
+		 */
+		double error() {
+			double error = 0;
+			for (int k = 0; k < BINS; k++) {
+				if (counts[k] > 0) {
+					for (int c = 0; c < 3; c++) {
+						double s = sums[k * 3 + c];
+						error += squares[k * 3 + c] - s * s / counts[k];
+					}
+				}
+			}
+			return error;
+		}
+	}
+
+	/**
+	 * Search of the geometry : evaluates the candidate geometries and keeps the best one.
+	 */
+	private final class Search {
+		final Grid grid;
+		final GradientFrame frame = new GradientFrame(2);
+		int evaluations;
+
+		// Best geometry (as the percentages of the model) and its bins.
+		double bestError = Double.MAX_VALUE;
+		int[] bestParams;
+		Bins bestBins;
+
+		Search(Grid grid, boolean radial) {
+			this.grid = grid;
+			frame.radial = radial;
+			frame.proportional = true;
+		}
+
+		/**
+		 * Evaluates the linear gradient at the angle (degrees, in the pixels of the image), with the from/to points spanning the image
+		 * through its center.
+		 */
+		double evaluateLinear(double angle) {
+			double dx = Math.cos(Math.toRadians(angle));
+			double dy = Math.sin(Math.toRadians(angle));
+			// Half length of the gradient line reaching the corners, in pixels, then as proportions of the width and height.
+			double extent = (Math.abs(dx) * grid.width + Math.abs(dy) * grid.height) / 2;
+			double ex = dx * extent / grid.width;
+			double ey = dy * extent / grid.height;
+			return evaluate(new int[] { percent(0.5 - ex), percent(0.5 - ey), percent(0.5 + ex), percent(0.5 + ey) });
+		}
+
+		/**
+		 * Evaluates the radial gradient at the center, focus point and radius. Returns the largest error if the radius is out of the range
+		 * of the settings or the focus is not inside the circle.
+		 */
+		double evaluateRadial(double cx, double cy, double fx, double fy, double radius) {
+			int r = (int) Math.ceil(radius * 100);
+			if (r < 1 || r > MAX_PERCENT) {
+				return Double.MAX_VALUE;
+			}
+			int distance = (int) Math.round(Math.hypot(fx - cx, fy - cy) * 100 * 100 / r);
+			if (distance > MAX_FOCUS_DISTANCE * 100) {
+				return Double.MAX_VALUE;
+			}
+			int angle = (distance == 0) ? 0 : (int) Math.round(Math.toDegrees(Math.atan2(fy - cy, fx - cx)));
+			return evaluate(new int[] { (angle + 360) % 360, distance, percent(cx), percent(cy), r });
+		}
+
+		/**
+		 * Evaluates the geometry given by the percentages of the model, and keeps it if it is the best one.
+		 */
+		double evaluate(int[] params) {
+			evaluations++;
+			if (frame.radial) {
+				frame.focusAngle = params[0];
+				frame.focusDistance = params[1] / 100.0;
+				frame.centerX = params[2] / 100.0;
+				frame.centerY = params[3] / 100.0;
+				frame.radius = params[4] / 100.0;
+			} else {
+				frame.startX = params[0] / 100.0;
+				frame.startY = params[1] / 100.0;
+				frame.endX = params[2] / 100.0;
+				frame.endY = params[3] / 100.0;
+			}
+			final Positions positions = new Positions(frame, grid.width, grid.height);
+			Bins bins = pool.submit(() -> IntStream.range(0, grid.height).parallel().collect(Bins::new, (b, y) -> {
+				int i = y * grid.width;
+				for (int x = 0; x < grid.width; x++, i++) {
+					b.add(positions.bin(x, y), grid.rgb, i * 3);
+				}
+			}, Bins::merge)).join();
+
+			double error = bins.error();
+			if (error < bestError) {
+				bestError = error;
+				bestParams = params;
+				bestBins = bins;
+			}
+			return error;
+		}
+
+		/**
+		 * Builds the model of the best geometry with the stops of its profile, and measures its error against the grid.
+		 */
+		Fit result() {
+			// Mean color of each bin, the empty bins being interpolated from their neighbours.
+			double[] profile = new double[BINS * 3];
+			int previous = -1;
+			for (int k = 0; k < BINS; k++) {
+				if (bestBins.counts[k] == 0) {
+					continue;
+				}
+				for (int c = 0; c < 3; c++) {
+					profile[k * 3 + c] = bestBins.sums[k * 3 + c] / bestBins.counts[k];
+				}
+				for (int e = previous + 1; e < k; e++) {
+					double f = (previous < 0) ? 1 : (e - previous) / (double) (k - previous);
+					for (int c = 0; c < 3; c++) {
+						double from = (previous < 0) ? profile[k * 3 + c] : profile[previous * 3 + c];
+						profile[e * 3 + c] = from + (profile[k * 3 + c] - from) * f;
+					}
+				}
+				previous = k;
+			}
+			for (int e = previous + 1; e < BINS; e++) {
+				System.arraycopy(profile, Math.max(previous, 0) * 3, profile, e * 3, 3);
+			}
+
+			// Stops at each whole percentage, reduced within the tolerance.
+			int[] colors = new int[101];
+			int[] percents = new int[101];
+			for (int p = 0; p <= 100; p++) {
+				double pos = p / 100.0 * (BINS - 1);
+				int k = Math.min(BINS - 2, (int) pos);
+				double f = pos - k;
+				int rgb = 0xFF000000;
+				for (int c = 0; c < 3; c++) {
+					double v = profile[k * 3 + c] + (profile[(k + 1) * 3 + c] - profile[k * 3 + c]) * f;
+					rgb |= Math.max(0, Math.min(255, (int) Math.round(v))) << (16 - c * 8);
+				}
+				colors[p] = rgb;
+				percents[p] = (p == 0 || p == 100) ? GradientModel.UNSPECIFIED : p;
+			}
+			ColorStopOptimizer.Result stops = new ColorStopOptimizer().optimize(colors, percents, STOP_TOLERANCE);
+
+			int[] b = bestParams;
+			GradientModel model;
+			if (frame.radial) {
+				model = new RadialGradientModel(b[1] != 0, b[0], b[1] != 0, b[1], true, b[2], b[3], false, b[4], null, stops.getColors(),
+						stops.getPercents());
+			} else {
+				model = new LinearGradientModel(true, false, b[0], b[1], b[2], b[3], null, null, stops.getColors(), stops.getPercents());
+			}
+			return new Fit(model, rmsError(model), evaluations);
+		}
+
+		private double rmsError(GradientModel model) {
+			int[] rendered = new GradientRasterizer().rasterize(model, grid.width, grid.height);
+			double sum = 0;
+			for (int i = 0; i < rendered.length; i++) {
+				for (int c = 0; c < 3; c++) {
+					double d = ((rendered[i] >> (16 - c * 8)) & 0xFF) - grid.rgb[i * 3 + c];
+					sum += d * d;
+				}
+			}
+			return Math.sqrt(sum / (rendered.length * 3));
+		}
+	}
+
+	/**
+	 * Computes the bin of the gradient position of the grid pixels, for a geometry, in the same way as {@link GradientRasterizer} : the
+	 * linear points are scaled to the grid, the radial gradient is computed in the unit square.
+	 */
+	private static final class Positions {
+		final boolean radial;
+		final double sx;
+		final double sy;
+
+		// Linear : start point and scaled direction, in the pixels of the grid.
+		double x0;
+		double y0;
+		double dx;
+		double dy;
+
+		// Radial : focus, center minus focus, and the coefficient of the equation.
+		double fx;
+		double fy;
+		double ccx;
+		double ccy;
+		double a;
+
+		Positions(GradientFrame frame, int width, int height) {
+			radial = frame.radial;
+			sx = radial ? 1.0 / width : 1;
+			sy = radial ? 1.0 / height : 1;
+			if (radial) {
+				double r = Math.max(frame.radius, 1e-6);
+				double distance = Math.max(-MAX_FOCUS_DISTANCE, Math.min(MAX_FOCUS_DISTANCE, frame.focusDistance));
+				double angle = Math.toRadians(frame.focusAngle);
+				fx = frame.centerX + distance * r * Math.cos(angle);
+				fy = frame.centerY + distance * r * Math.sin(angle);
+				ccx = frame.centerX - fx;
+				ccy = frame.centerY - fy;
+				a = ccx * ccx + ccy * ccy - r * r;
+			} else {
+				x0 = frame.startX * width;
+				y0 = frame.startY * height;
+				double ex = frame.endX * width - x0;
+				double ey = frame.endY * height - y0;
+				double len2 = Math.max(ex * ex + ey * ey, 1e-12);
+				dx = ex / len2;
+				dy = ey / len2;
+			}
+		}
+
+		int bin(int x, int y) {
+			double px = (x + 0.5) * sx;
+			double py = (y + 0.5) * sy;
+			double t;
+			if (radial) {
+				double ux = px - fx;
+				double uy = py - fy;
+				double dc = ux * ccx + uy * ccy;
+				double dd = ux * ux + uy * uy;
+				t = (dc - Math.sqrt(dc * dc - a * dd)) / a;
+			} else {
+				t = (px - x0) * dx + (py - y0) * dy;
+			}
+			int bin = (int) (t * (BINS - 1) + 0.5);
+			return (bin < 0) ? 0 : (bin >= BINS) ? BINS - 1 : bin;
+		}
+	}
+
+	private static int percent(double value) {
+		return Math.max(-MAX_PERCENT, Math.min(MAX_PERCENT, (int) Math.round(value * 100)));
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage : GradientFitter <image-file> [linear|radial]");
+			System.exit(1);
+		}
+		BufferedImage image = ImageIO.read(new File(args[0]));
+		if (image == null) {
+			System.err.println("Unsupported image " + args[0]);
+			System.exit(1);
+		}
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+
+		long start = System.nanoTime();
+		GradientFitter fitter = new GradientFitter();
+		String type = (args.length > 1) ? args[1] : "";
+		Fit fit = type.equalsIgnoreCase("linear") ? fitter.fitLinear(argb, width, height)
+				: type.equalsIgnoreCase("radial") ? fitter.fitRadial(argb, width, height) : fitter.fit(argb, width, height);
+		long elapsed = System.nanoTime() - start;
+		System.out.println(fit.getModel().toSyntax());
+		System.err.println("Fitted " + width + "x" + height + " with rms error " + String.format("%.2f", fit.getError()) + " ("
+				+ fit.getEvaluations() + " evaluations) in " + (elapsed / 1_000_000) + " ms");
+	}
+}
@@ -0,0 +1,106 @@
+package com.javafx.gradientbuilder.application;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Mutable and resolved state of a gradient, as rendered by {@link GradientRasterizer} : the effective geometry in doubles and the color
+ * stops with their resolved offsets. Used as the reusable output of {@link GradientTimeline#sample(double, GradientFrame)}, so that the
+ * frames of an animation are computed and rendered without allocation.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public final class GradientFrame {
+
+	// true for a radial gradient, else linear.
+	boolean radial;
+
+	// true if the geometry is relative to the size of the shape, else in pixels.
+	boolean proportional;
+
+	RepeatOrReflect cycle = RepeatOrReflect.NONE;
+
+	// Linear geometry : start and end points.
+	double startX;
+	double startY;
+	double endX;
+	double endY;
+
+	// Radial geometry : focus angle in degrees, focus distance as a fraction of the radius, center and radius.
+	double focusAngle;
+	double focusDistance;
+	double centerX;
+	double centerY;
+	double radius;
+
+	// ARGB colors and resolved offsets (0 to 1) of the color stops.
+	int stopCount;
+	int[] colors;
+	double[] offsets;
+
+	/**
+	 * Constructor to initialize the frame for up to the given number of color stops.
+	 *
+	 * @param capacity
+	 *            - Number of color stops for which the arrays are allocated.
+	 */
+	public GradientFrame(int capacity) {
+		colors = new int[Math.max(2, capacity)];
+		offsets = new double[colors.length];
+	}
+
+	/**
+	 * Sets the frame to the resolved state of the gradient.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 */
+	public void set(GradientModel model) {
+		cycle = model.getRepeatOrReflect();
+		if (model instanceof LinearGradientModel) {
+			LinearGradientModel linear = (LinearGradientModel) model;
+			double[] p = linear.getPoints();
+			radial = false;
+			proportional = linear.isProportional();
+			startX = p[0];
+			startY = p[1];
+			endX = p[2];
+			endY = p[3];
+		} else if (model instanceof RadialGradientModel) {
+			RadialGradientModel rg = (RadialGradientModel) model;
+			radial = true;
+			proportional = rg.isProportional();
+			focusAngle = rg.getEffectiveFocusAngle();
+			focusDistance = rg.getEffectiveFocusDistance();
+			centerX = rg.getEffectiveCenterX();
+			centerY = rg.getEffectiveCenterY();
+			radius = rg.getEffectiveRadius();
+		} else {
+			throw new IllegalArgumentException("Unsupported gradient model " + model.getClass().getName());
+		}
+
+		int size = model.getStopCount();
+		ensureCapacity(size);
+		stopCount = size;
+		System.arraycopy(model.colors, 0, colors, 0, size);
+		GradientModel.resolveOffsets(model.percents, size, offsets);
+	}
+
+	/**
+	 * Grows the arrays of the color stops if needed.
+	 */
+	void ensureCapacity(int size) {
+		if (colors.length < size) {
+			colors = new int[size];
+			offsets = new double[size];
+		}
+	}
+
+	public boolean isRadial() {
+		return radial;
+	}
+
+	public int getStopCount() {
+		return stopCount;
+	}
+}
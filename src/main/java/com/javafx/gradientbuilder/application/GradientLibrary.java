@@ -0,0 +1,378 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.LinearDirection;
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Library of the saved gradients, persisted in an append-only binary file. The file is memory mapped when opened and only the record
+ * offsets are read, so the library opens quickly even with a large number of gradients; the records are decoded when requested.
+ * <p>
+ * File layout : a header (magic, version 2) followed by the records. Each record has a fixed layout :
+ *
+ * <pre>
+ * int    record length (in bytes, including this field)
+ * byte   type (0 = linear, 1 = radial)
+ * byte   flags (linear : from/to, pixel; radial : focus angle, focus distance, center, radius pixel)
+ * byte   repeat or reflect (ordinal)
+ * byte   linear direction (ordinal + 1, 0 if not set)
+ * int[5] parameters (linear : from x, from y, to x, to y; radial : focus angle, focus distance, center x, center y, radius)
+ * int    stop count
+ * short  name length
+ * stops  (int ARGB color, byte percentage, 255 if not specified) for each stop
+ * bytes  name (UTF-8)
+ * </pre>
+ *
+ * The version 1 wrote 0 for an unspecified percentage, which could not be told from an explicit 0%, so its files are not read.
+ * <p>
+ * The records are read up to the first one whose length does not fit in the file (e.g left incomplete by an interrupted write, or a
+ * corrupted length). The bytes from there are kept as they are, and the library refuses to append after them : they may hold records
+ * which a repair can save. A record whose fields do not agree with its length is reported as corrupted when it is read. A library opened
+ * read only (see {@link #openReadOnly(Path)}), e.g by the tools reading a checkout, never writes to its file. Instances are thread safe.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientLibrary implements Closeable {
+
+	private static final int MAGIC = 0x47524442; // "GRDB"
+	// Version 2 : 255 for an unspecified stop percentage.
+	private static final int VERSION = 2;
+	private static final int FILE_HEADER_SIZE = 8;
+	private static final int RECORD_HEADER_SIZE = 34;
+	private static final int STOP_SIZE = 5;
+
+	private static final byte TYPE_LINEAR = 0;
+	private static final byte TYPE_RADIAL = 1;
+
+	private static final int FLAG_0 = 1;
+	private static final int FLAG_1 = 2;
+	private static final int FLAG_2 = 4;
+	private static final int FLAG_3 = 8;
+
+	// Stop percentage written for an unspecified position.
+	private static final int PERCENT_UNSPECIFIED = 0xFF;
+
+	private static final RepeatOrReflect[] REPEAT_OR_REFLECT = RepeatOrReflect.values();
+	private static final LinearDirection[] DIRECTIONS = LinearDirection.values();
+
+	private final Path file;
+	private final FileChannel channel;
+	private final boolean readOnly;
+
+	// Description of the bytes after the last valid record, null if there are none.
+	private String damage;
+
+	// Mapped view of the file, re-mapped when a record beyond it is read.
+	private MappedByteBuffer map;
+
+	// Offsets of the records and the end of the last record.
+	private int[] offsets = new int[1024];
+	private int count;
+	private long end;
+
+	private GradientLibrary(Path file, FileChannel channel, boolean readOnly) {
+		this.file = file;
+		this.channel = channel;
+		this.readOnly = readOnly;
+	}
+
+	/**
+	 * Returns the path of the default library in the user's home directory.
+	 *
+	 * @return Path
+	 */
+	public static Path getDefaultPath() {
+		return Paths.get(System.getProperty("user.home"), ".gradientbuilder", "library.gdb");
+	}
+
+	/**
+	 * Opens the library, creating the file if it does not exist.
+	 *
+	 * @param file
+	 *            - Library file.
+	 * @return GradientLibrary
+	 * @throws IOException
+	 *             if the file cannot be opened or is not a library.
+	 */
+	public static GradientLibrary open(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		return loaded(new GradientLibrary(file, channel, false));
+	}
+
+	/**
+	 * Opens the existing library to read it only : its file is never written, and it can be read from a read-only directory.
+	 *
+	 * @param file
+	 *            - Library file.
+	 * @return GradientLibrary
+	 * @throws IOException
+	 *             if the file cannot be opened or is not a library.
+	 */
+	public static GradientLibrary openReadOnly(Path file) throws IOException {
+		return loaded(new GradientLibrary(file, FileChannel.open(file, StandardOpenOption.READ), true));
+	}
+
+	private static GradientLibrary loaded(GradientLibrary library) throws IOException {
+		FileChannel channel = library.channel;
+		try {
+			library.load();
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		return library;
+	}
+
+	private void load() throws IOException {
+		long size = channel.size();
+		if (size == 0 && !readOnly) {
+			ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).flip();
+			channel.write(header, 0);
+			size = FILE_HEADER_SIZE;
+		}
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Library is too large : " + file);
+		}
+		map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		if (size < FILE_HEADER_SIZE || map.getInt(0) != MAGIC) {
+			throw new IOException("Not a gradient library : " + file);
+		}
+		if (map.getInt(4) != VERSION) {
+			throw new IOException("Unsupported gradient library version " + map.getInt(4) + " : " + file);
+		}
+
+		// Reading only the length of each record to index the offsets.
+		int pos = FILE_HEADER_SIZE;
+		while (pos < size) {
+			int length = (pos + 4 <= size) ? map.getInt(pos) : -1;
+			if (length < RECORD_HEADER_SIZE || pos + (long) length > size) {
+				damage = (size - pos) + " bytes at offset " + pos + " are not a complete record (length " + length + ")";
+				break;
+			}
+			addOffset(pos);
+			pos += length;
+		}
+		end = pos;
+	}
+
+	private void addOffset(int offset) {
+		if (count == offsets.length) {
+			offsets = Arrays.copyOf(offsets, count * 2);
+		}
+		offsets[count++] = offset;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * Returns the number of gradients in the library.
+	 *
+	 * @return int
+	 */
+	public synchronized int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the name of the gradient.
+	 *
+	 * @param index
+	 *            - Index of the gradient.
+	 * @return String
+	 */
+	public synchronized String getName(int index) {
+		ByteBuffer buffer = record(index);
+		int offset = offsets[index];
+		int stopCount = checkRecord(buffer, index);
+		int nameLength = buffer.getShort(offset + 32) & 0xFFFF;
+		int nameOffset = offset + RECORD_HEADER_SIZE + stopCount * STOP_SIZE;
+		byte[] bytes = new byte[nameLength];
+		for (int i = 0; i < nameLength; i++) {
+			bytes[i] = buffer.get(nameOffset + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes the gradient.
+	 *
+	 * @param index
+	 *            - Index of the gradient.
+	 * @return GradientModel
+	 * @throws IllegalStateException
+	 *             if the record is corrupted.
+	 */
+	public synchronized GradientModel get(int index) {
+		ByteBuffer buffer = record(index);
+		int offset = offsets[index];
+		int stopCount = checkRecord(buffer, index);
+		byte type = buffer.get(offset + 4);
+		int flags = buffer.get(offset + 5);
+		RepeatOrReflect repeatOrReflect = REPEAT_OR_REFLECT[buffer.get(offset + 6)];
+		int direction = buffer.get(offset + 7);
+		int[] params = new int[5];
+		for (int i = 0; i < params.length; i++) {
+			params[i] = buffer.getInt(offset + 8 + i * 4);
+		}
+		int[] colors = new int[stopCount];
+		int[] percents = new int[stopCount];
+		int stopOffset = offset + RECORD_HEADER_SIZE;
+		for (int i = 0; i < stopCount; i++, stopOffset += STOP_SIZE) {
+			colors[i] = buffer.getInt(stopOffset);
+			int percent = buffer.get(stopOffset + 4) & 0xFF;
+			if (percent > 100 && percent != PERCENT_UNSPECIFIED) {
+				throw corrupted(index, "stop percentage " + percent);
+			}
+			percents[i] = (percent == PERCENT_UNSPECIFIED) ? GradientModel.UNSPECIFIED : percent;
+		}
+
+		if (type == TYPE_LINEAR) {
+			LinearDirection dir = (direction == 0) ? null : DIRECTIONS[direction - 1];
+			return new LinearGradientModel((flags & FLAG_0) != 0, (flags & FLAG_1) != 0, params[0], params[1], params[2], params[3], dir,
+					repeatOrReflect, colors, percents);
+		}
+		return new RadialGradientModel((flags & FLAG_0) != 0, params[0], (flags & FLAG_1) != 0, params[1], (flags & FLAG_2) != 0, params[2],
+				params[3], (flags & FLAG_3) != 0, params[4], repeatOrReflect, colors, percents);
+	}
+
+	/**
+	 * Checks the type, ordinals, stop count and name length of the record against its length, and returns its stop count.
+	 */
+	private int checkRecord(ByteBuffer buffer, int index) {
+		int offset = offsets[index];
+		int length = buffer.getInt(offset);
+		byte type = buffer.get(offset + 4);
+		int repeatOrReflect = buffer.get(offset + 6);
+		int direction = buffer.get(offset + 7);
+		int stopCount = buffer.getInt(offset + 28);
+		int nameLength = buffer.getShort(offset + 32) & 0xFFFF;
+		if (type != TYPE_LINEAR && type != TYPE_RADIAL) {
+			throw corrupted(index, "type " + type);
+		}
+		if (repeatOrReflect < 0 || repeatOrReflect >= REPEAT_OR_REFLECT.length) {
+			throw corrupted(index, "repeat or reflect " + repeatOrReflect);
+		}
+		if (direction < 0 || direction > DIRECTIONS.length) {
+			throw corrupted(index, "direction " + direction);
+		}
+		if (stopCount < 0 || RECORD_HEADER_SIZE + (long) stopCount * STOP_SIZE + nameLength != length) {
+			throw corrupted(index, stopCount + " stops and a name of " + nameLength + " bytes in " + length + " bytes");
+		}
+		return stopCount;
+	}
+
+	private IllegalStateException corrupted(int index, String reason) {
+		return new IllegalStateException("Corrupted library " + file + " : record " + index + " at offset " + offsets[index] + " has "
+				+ reason);
+	}
+
+	/**
+	 * Appends the gradient to the library.
+	 *
+	 * @param name
+	 *            - Name of the gradient.
+	 * @param model
+	 *            - Gradient to be saved.
+	 * @return Index of the saved gradient.
+	 * @throws IOException
+	 *             if the gradient cannot be written, the library is read only, or its file ends with bytes which are not a record.
+	 */
+	public synchronized int append(String name, GradientModel model) throws IOException {
+		if (readOnly) {
+			throw new IOException("Library opened read only : " + file);
+		}
+		if (damage != null) {
+			throw new IOException("Corrupted library " + file + " : " + damage + ", not appending after them");
+		}
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		if (nameBytes.length > 0xFFFF) {
+			throw new IllegalArgumentException("Name is too long : " + nameBytes.length + " bytes");
+		}
+		int stopCount = model.getStopCount();
+		int length = RECORD_HEADER_SIZE + stopCount * STOP_SIZE + nameBytes.length;
+		if (end + length > Integer.MAX_VALUE) {
+			throw new IOException("Library is full : " + file);
+		}
+
+		ByteBuffer record = ByteBuffer.allocate(length);
+		record.putInt(length);
+		if (model instanceof LinearGradientModel) {
+			LinearGradientModel linear = (LinearGradientModel) model;
+			record.put(TYPE_LINEAR);
+			record.put((byte) ((linear.isFromTo() ? FLAG_0 : 0) | (linear.isPixel() ? FLAG_1 : 0)));
+			record.put((byte) linear.getRepeatOrReflect().ordinal());
+			record.put((byte) (linear.getDirection() == null ? 0 : linear.getDirection().ordinal() + 1));
+			record.putInt(linear.getFromX()).putInt(linear.getFromY()).putInt(linear.getToX()).putInt(linear.getToY()).putInt(0);
+		} else {
+			RadialGradientModel radial = (RadialGradientModel) model;
+			record.put(TYPE_RADIAL);
+			record.put((byte) ((radial.hasFocusAngle() ? FLAG_0 : 0) | (radial.hasFocusDistance() ? FLAG_1 : 0)
+					| (radial.hasCenter() ? FLAG_2 : 0) | (radial.isRadiusPixel() ? FLAG_3 : 0)));
+			record.put((byte) radial.getRepeatOrReflect().ordinal());
+			record.put((byte) 0);
+			record.putInt(radial.getFocusAngle()).putInt(radial.getFocusDistance()).putInt(radial.getCenterX()).putInt(radial.getCenterY())
+					.putInt(radial.getRadius());
+		}
+		record.putInt(stopCount);
+		record.putShort((short) nameBytes.length);
+		for (int i = 0; i < stopCount; i++) {
+			record.putInt(model.getColor(i));
+			int percent = model.getPercent(i);
+			record.put((byte) ((percent == GradientModel.UNSPECIFIED) ? PERCENT_UNSPECIFIED : Math.max(0, Math.min(100, percent))));
+		}
+		record.put(nameBytes);
+		record.flip();
+
+		long pos = end;
+		while (record.hasRemaining()) {
+			pos += channel.write(record, pos);
+		}
+		addOffset((int) end);
+		end = pos;
+		return count - 1;
+	}
+
+	/**
+	 * Returns the mapped buffer covering the record, mapping the file again if the record was appended after the last mapping.
+	 */
+	private ByteBuffer record(int index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("Index : " + index + ", Size : " + count);
+		}
+		if (map.capacity() < end) {
+			try {
+				map = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+			} catch (IOException e) {
+				throw new IllegalStateException("Unable to map the library : " + file, e);
+			}
+		}
+		return map;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,205 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.Arrays;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Immutable model of a gradient, which holds the values of the gradient syntax without depending on the JavaFX scene graph. Used for
+ * rendering the gradient headless.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public abstract class GradientModel {
+
+	// Percentage of a color stop whose position is not specified (an explicit 0% is a position).
+	public static final int UNSPECIFIED = -1;
+
+	// Cycle method of the gradient. NONE if repeat/reflect is not set.
+	protected final RepeatOrReflect repeatOrReflect;
+
+	// ARGB color and percentage of the color stops, UNSPECIFIED if the position is not specified.
+	protected final int[] colors;
+	protected final int[] percents;
+
+	/**
+	 * Constructor to initialize the common values of the gradient.
+	 *
+	 * @param repeatOrReflect
+	 *            - Cycle method, null is considered as NONE.
+	 * @param colors
+	 *            - ARGB colors of the stops.
+	 * @param percents
+	 *            - Percentages of the stops, {@link #UNSPECIFIED} if not specified.
+	 */
+	protected GradientModel(RepeatOrReflect repeatOrReflect, int[] colors, int[] percents) {
+		if (colors.length != percents.length) {
+			throw new IllegalArgumentException("Colors count " + colors.length + " does not match percents count " + percents.length);
+		}
+		this.repeatOrReflect = (repeatOrReflect == null) ? RepeatOrReflect.NONE : repeatOrReflect;
+		this.colors = colors.clone();
+		this.percents = percents.clone();
+	}
+
+	public RepeatOrReflect getRepeatOrReflect() {
+		return repeatOrReflect;
+	}
+
+	public int getStopCount() {
+		return colors.length;
+	}
+
+	public int getColor(int index) {
+		return colors[index];
+	}
+
+	public int getPercent(int index) {
+		return percents[index];
+	}
+
+	/**
+	 * Appends the gradient syntax of the model, the same as built by the settings layouts. Does not allocate.
+	 *
+	 * @param sb
+	 *            - Buffer to which the syntax is appended.
+	 */
+	public abstract void appendSyntax(StringBuilder sb);
+
+	/**
+	 * Returns the gradient syntax of the model.
+	 *
+	 * @return String
+	 */
+	public String toSyntax() {
+		StringBuilder sb = new StringBuilder(64 + colors.length * 14);
+		appendSyntax(sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the "Repeat or Reflect" setting (if any) and the color stops, followed by the end of the gradient. The colors which are
+	 * not opaque are written with their alpha ("#RRGGBBAA"), so the syntax gives the same gradient as the model.
+	 *
+	 * @param sb
+	 *            - Buffer to append to.
+	 */
+	protected void appendRepeatAndColorStops(StringBuilder sb) {
+		if (repeatOrReflect != RepeatOrReflect.NONE) {
+			sb.append(repeatOrReflect.toString()).append(SyntaxConstants.separator);
+		}
+		for (int i = 0; i < colors.length; i++) {
+			HexEncoder.appendHexAlpha(sb, colors[i]);
+			if (percents[i] != UNSPECIFIED) {
+				sb.append(SyntaxConstants.spacer).append(percents[i]).append(SyntaxConstants.colorStopUnit);
+			}
+			if (i < colors.length - 1) {
+				sb.append(SyntaxConstants.separator);
+			}
+		}
+		sb.append(SyntaxConstants.bgGradEnd);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		GradientModel other = (GradientModel) obj;
+		return repeatOrReflect == other.repeatOrReflect && Arrays.equals(colors, other.colors) && Arrays.equals(percents, other.percents);
+	}
+
+	@Override
+	public int hashCode() {
+		return (repeatOrReflect.hashCode() * 31 + Arrays.hashCode(colors)) * 31 + Arrays.hashCode(percents);
+	}
+
+	@Override
+	public String toString() {
+		return toSyntax();
+	}
+
+	/**
+	 * Returns the resolved offsets (0 to 1) of the color stops.
+	 *
+	 * @return double[]
+	 */
+	public double[] resolveOffsets() {
+		double[] offsets = new double[percents.length];
+		resolveOffsets(percents, percents.length, offsets);
+		return offsets;
+	}
+
+	/**
+	 * Resolves the offsets of the color stops in the same way as the CSS parser does for the syntax: the stops without percentage are
+	 * spread evenly between their neighbours, the first and last stops default to 0% and 100%, the percentages are clamped to 0% - 100%
+	 * and an offset lower than its previous one is raised to it.
+	 *
+	 * @param percents
+	 *            - Percentages of the stops, {@link #UNSPECIFIED} if not specified.
+	 * @param size
+	 *            - Number of stops to be considered.
+	 * @param offsets
+	 *            - Array to which the resolved offsets are written.
+	 */
+	public static void resolveOffsets(int[] percents, int size, double[] offsets) {
+		if (size == 0) {
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			offsets[i] = (percents[i] == UNSPECIFIED) ? -1 : Math.max(0, Math.min(100, percents[i])) / 100.0;
+		}
+
+		if (offsets[0] < 0) {
+			offsets[0] = 0;
+		}
+		if (offsets[size - 1] < 0) {
+			offsets[size - 1] = 1;
+		}
+
+		// Offsets should not decrease.
+		double max = offsets[0];
+		for (int i = 1; i < size; i++) {
+			if (offsets[i] >= 0) {
+				if (offsets[i] < max) {
+					offsets[i] = max;
+				} else {
+					max = offsets[i];
+				}
+			}
+		}
+
+		// Spreading the stops without offset between the previous and next stops with offset.
+		int last = 0;
+		for (int i = 1; i < size; i++) {
+			if (offsets[i] >= 0) {
+				int gap = i - last;
+				double step = (offsets[i] - offsets[last]) / gap;
+				for (int j = last + 1; j < i; j++) {
+					offsets[j] = offsets[last] + step * (j - last);
+				}
+				last = i;
+			}
+		}
+	}
+
+	/**
+	 * Utility method to convert the color code ("#RRGGBB" or "RRGGBB", opaque, or "#RRGGBBAA" as written for the translucent colors) to
+	 * an ARGB value.
+	 *
+	 * @param colorCode
+	 *            - Color code.
+	 * @return int
+	 */
+	public static int parseColorCode(String colorCode) {
+		int start = colorCode.startsWith("#") ? 1 : 0;
+		if (colorCode.length() - start == 8) {
+			int rgba = Integer.parseUnsignedInt(colorCode.substring(start), 16);
+			return (rgba << 24) | (rgba >>> 8);
+		}
+		return 0xFF000000 | Integer.parseInt(colorCode.substring(start), 16);
+	}
+}
@@ -0,0 +1,495 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.Arrays;
+
+import javafx.scene.paint.Color;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.LinearDirection;
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Hand written single pass parser which reads the gradient syntax built by the layouts (see {@link SyntaxConstants}) back into the
+ * {@link LinearGradientModel} and {@link RadialGradientModel}. The text is read in place from any CharSequence, so no intermediate
+ * substrings are created; the only allocations are the resulting model (and the lookup of named colors and color functions, which are
+ * rare).
+ * <p>
+ * Supported syntax :
+ *
+ * <pre>
+ * linear-gradient( [from &lt;x&gt; &lt;y&gt; to &lt;x&gt; &lt;y&gt; | to &lt;direction&gt;]? ,
+ *                  [repeat | reflect ,]? &lt;color-stop&gt;[, &lt;color-stop&gt;]+ )
+ * radial-gradient( [focus-angle &lt;deg&gt; ,]? [focus-distance &lt;%&gt; ,]? [center &lt;x&gt; &lt;y&gt; ,]?
+ *                  radius [&lt;%&gt; | &lt;px&gt;] , [repeat | reflect ,]? &lt;color-stop&gt;[, &lt;color-stop&gt;]+ )
+ * </pre>
+ *
+ * The center takes the units of the radius (percentages or pixels). A color stop without percentage gets the
+ * {@link GradientModel#UNSPECIFIED} position (an explicit 0% is kept as a position), and the percentages are clamped to 0-100 as by
+ * JavaFX. An instance reuses its buffers and is not thread safe.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class GradientParser {
+
+	private static final String LINEAR = "linear-gradient";
+	private static final String RADIAL = "radial-gradient";
+
+	private static final int UNIT_NONE = 0;
+	private static final int UNIT_PERCENT = 1;
+	private static final int UNIT_PIXEL = 2;
+	private static final int UNIT_DEGREE = 3;
+
+	private CharSequence text;
+	private int pos;
+	private int end;
+
+	// Unit of the last parsed number.
+	private int unit;
+
+	// Buffers for the color stops, grown as needed.
+	private int[] colors = new int[16];
+	private int[] percents = new int[16];
+	private int stopCount;
+
+	/**
+	 * Parses the gradient syntax.
+	 *
+	 * @param text
+	 *            - Gradient syntax, e.g "linear-gradient(to bottom, #FFB6C1, #FFA500);"
+	 * @return GradientModel
+	 * @throws IllegalArgumentException
+	 *             if the syntax is not valid.
+	 */
+	public GradientModel parse(CharSequence text) {
+		return parse(text, 0, text.length());
+	}
+
+	/**
+	 * Parses the gradient syntax from the given range of the text. Leading white spaces are skipped, and reading stops after the closing
+	 * parenthesis (and the optional ";"), which can be read by {@link #getEndIndex()}.
+	 *
+	 * @param text
+	 *            - Text containing the gradient.
+	 * @param start
+	 *            - Start index of the gradient.
+	 * @param end
+	 *            - Index till which the text can be read.
+	 * @return GradientModel
+	 * @throws IllegalArgumentException
+	 *             if the syntax is not valid.
+	 */
+	public GradientModel parse(CharSequence text, int start, int end) {
+		this.text = text;
+		this.pos = start;
+		this.end = end;
+		this.stopCount = 0;
+		try {
+			skipWhitespace();
+			GradientModel model;
+			if (matchWord(LINEAR)) {
+				expect('(');
+				model = parseLinear();
+			} else if (matchWord(RADIAL)) {
+				expect('(');
+				model = parseRadial();
+			} else {
+				throw error("Expected '" + LINEAR + "' or '" + RADIAL + "'");
+			}
+			skipWhitespace();
+			if (pos < end && text.charAt(pos) == ';') {
+				pos++;
+			}
+			return model;
+		} finally {
+			this.text = null;
+		}
+	}
+
+	/**
+	 * Returns the index after the last parsed gradient.
+	 *
+	 * @return int
+	 */
+	public int getEndIndex() {
+		return pos;
+	}
+
+	/**
+	 * Returns the index of the next "linear-gradient(" or "radial-gradient(" in the text, or -1 if there is none.
+	 *
+	 * @param text
+	 *            - Text to be searched.
+	 * @param from
+	 *            - Index to start the search.
+	 * @param end
+	 *            - Index till which the text is searched.
+	 * @return int
+	 */
+	public static int indexOfGradient(CharSequence text, int from, int end) {
+		// Searching for "-gradient" and checking the preceding function name.
+		final int nameLength = LINEAR.length();
+		for (int i = Math.max(from, 6); i + 9 <= end; i++) {
+			if (text.charAt(i) == '-' && regionMatches(text, i, end, "-gradient")) {
+				int start = i - 6;
+				if (start >= from && (regionMatches(text, start, end, LINEAR) || regionMatches(text, start, end, RADIAL))) {
+					int p = start + nameLength;
+					while (p < end && Character.isWhitespace(text.charAt(p))) {
+						p++;
+					}
+					if (p < end && text.charAt(p) == '(' && (start == 0 || !isWordChar(text.charAt(start - 1)))) {
+						return start;
+					}
+				}
+			}
+		}
+		return -1;
+	}
+
+	private LinearGradientModel parseLinear() {
+		boolean fromTo = false;
+		boolean pixel = false;
+		int fromX = 0, fromY = 0, toX = 0, toY = 0;
+		LinearDirection direction = null;
+
+		skipWhitespace();
+		if (matchWord("from")) {
+			fromTo = true;
+			fromX = parseNumber();
+			int pointUnit = unit;
+			fromY = parseNumber();
+			checkPointUnit(pointUnit);
+			if (!matchWord("to")) {
+				throw error("Expected 'to'");
+			}
+			toX = parseNumber();
+			checkPointUnit(pointUnit);
+			toY = parseNumber();
+			checkPointUnit(pointUnit);
+			pixel = (pointUnit == UNIT_PIXEL);
+			expect(',');
+		} else if (matchWord("to")) {
+			direction = parseDirection();
+			expect(',');
+		}
+
+		RepeatOrReflect cycle = parseRepeatOrReflect();
+		parseColorStops();
+		return new LinearGradientModel(fromTo, pixel, fromX, fromY, toX, toY, direction, cycle, Arrays.copyOf(colors, stopCount),
+				Arrays.copyOf(percents, stopCount));
+	}
+
+	private RadialGradientModel parseRadial() {
+		boolean hasFocusAngle = false, hasFocusDistance = false, hasCenter = false;
+		int focusAngle = 0, focusDistance = 0, centerX = 0, centerY = 0, centerUnit = UNIT_NONE;
+
+		skipWhitespace();
+		if (matchWord("focus-angle")) {
+			hasFocusAngle = true;
+			focusAngle = parseNumber();
+			if (unit != UNIT_DEGREE && unit != UNIT_NONE) {
+				throw error("Expected 'deg'");
+			}
+			expect(',');
+		}
+		if (matchWord("focus-distance")) {
+			hasFocusDistance = true;
+			focusDistance = parseNumber();
+			expectUnit(UNIT_PERCENT, "%");
+			expect(',');
+		}
+		if (matchWord("center")) {
+			hasCenter = true;
+			centerX = parseNumber();
+			centerUnit = unit;
+			checkPointUnit(centerUnit);
+			centerY = parseNumber();
+			checkPointUnit(centerUnit);
+			expect(',');
+		}
+		if (!matchWord("radius")) {
+			throw error("Expected 'radius'");
+		}
+		int radius = parseNumber();
+		if (unit != UNIT_PERCENT && unit != UNIT_PIXEL) {
+			throw error("Expected '%' or 'px'");
+		}
+		// The center takes the units of the radius, RadialGradient.valueOf() does not mix them.
+		if (hasCenter && unit != centerUnit) {
+			throw error("Units of the center and radius do not agree");
+		}
+		boolean radiusPixel = (unit == UNIT_PIXEL);
+		expect(',');
+
+		RepeatOrReflect cycle = parseRepeatOrReflect();
+		parseColorStops();
+		return new RadialGradientModel(hasFocusAngle, focusAngle, hasFocusDistance, focusDistance, hasCenter, centerX, centerY,
+				radiusPixel, radius, cycle, Arrays.copyOf(colors, stopCount), Arrays.copyOf(percents, stopCount));
+	}
+
+	private LinearDirection parseDirection() {
+		boolean top = false, bottom = false, left = false, right = false;
+		for (int i = 0; i < 2; i++) {
+			if (matchWord("top")) {
+				top = true;
+			} else if (matchWord("bottom")) {
+				bottom = true;
+			} else if (matchWord("left")) {
+				left = true;
+			} else if (matchWord("right")) {
+				right = true;
+			} else if (i == 0) {
+				throw error("Expected 'top', 'bottom', 'left' or 'right'");
+			}
+		}
+		if ((top && bottom) || (left && right)) {
+			throw error("Invalid direction");
+		}
+		if (top) {
+			return left ? LinearDirection.TOP_LEFT : (right ? LinearDirection.TOP_RIGHT : LinearDirection.TOP);
+		}
+		if (bottom) {
+			return left ? LinearDirection.BOTTOM_LEFT : (right ? LinearDirection.BOTTOM_RIGHT : LinearDirection.BOTTOM);
+		}
+		return left ? LinearDirection.LEFT : LinearDirection.RIGHT;
+	}
+
+	private RepeatOrReflect parseRepeatOrReflect() {
+		if (matchWord("repeat")) {
+			expect(',');
+			return RepeatOrReflect.REPEAT;
+		}
+		if (matchWord("reflect")) {
+			expect(',');
+			return RepeatOrReflect.REFLECT;
+		}
+		return RepeatOrReflect.NONE;
+	}
+
+	private void parseColorStops() {
+		while (true) {
+			int color = parseColor();
+			int percent = GradientModel.UNSPECIFIED;
+			skipWhitespace();
+			if (pos < end && (isDigit(text.charAt(pos)) || text.charAt(pos) == '-' || text.charAt(pos) == '.')) {
+				// Clamped as by JavaFX, which also keeps a negative percentage apart from an unspecified position.
+				percent = Math.max(0, Math.min(100, parseNumber()));
+				expectUnit(UNIT_PERCENT, "%");
+			}
+			addStop(color, percent);
+
+			skipWhitespace();
+			if (pos >= end) {
+				throw error("Expected ')'");
+			}
+			char c = text.charAt(pos++);
+			if (c == ')') {
+				break;
+			}
+			if (c != ',') {
+				pos--;
+				throw error("Expected ',' or ')'");
+			}
+		}
+		if (stopCount < 2) {
+			throw error("Expected at least two color stops");
+		}
+	}
+
+	private void addStop(int color, int percent) {
+		if (stopCount == colors.length) {
+			colors = Arrays.copyOf(colors, stopCount * 2);
+			percents = Arrays.copyOf(percents, stopCount * 2);
+		}
+		colors[stopCount] = color;
+		percents[stopCount] = percent;
+		stopCount++;
+	}
+
+	/**
+	 * Parses the color as ARGB. Supports "#RGB", "#RRGGBB", "#RRGGBBAA", the named colors and the functions "rgb()", "rgba()", "hsl()"
+	 * and "hsla()".
+	 */
+	private int parseColor() {
+		skipWhitespace();
+		if (pos >= end) {
+			throw error("Expected color");
+		}
+		if (text.charAt(pos) == '#') {
+			int start = ++pos;
+			int value = 0;
+			while (pos < end && hexValue(text.charAt(pos)) >= 0) {
+				value = (value << 4) | hexValue(text.charAt(pos));
+				pos++;
+			}
+			switch (pos - start) {
+			case 3:
+				int r = (value >> 8) & 0xF, g = (value >> 4) & 0xF, b = value & 0xF;
+				return 0xFF000000 | (r * 0x11 << 16) | (g * 0x11 << 8) | (b * 0x11);
+			case 6:
+				return 0xFF000000 | value;
+			case 8:
+				return (value << 24) | (value >>> 8);
+			default:
+				pos = start;
+				throw error("Invalid hex color");
+			}
+		}
+
+		// Named colors and color functions, which are looked up by JavaFX.
+		int start = pos;
+		while (pos < end && Character.isLetter(text.charAt(pos))) {
+			pos++;
+		}
+		if (start == pos) {
+			throw error("Expected color");
+		}
+		if (pos < end && text.charAt(pos) == '(') {
+			while (pos < end && text.charAt(pos) != ')') {
+				pos++;
+			}
+			if (pos == end) {
+				throw error("Expected ')'");
+			}
+			pos++;
+		}
+		try {
+			Color c = Color.web(text.subSequence(start, pos).toString());
+			return ((int) Math.round(c.getOpacity() * 255) << 24) | ((int) Math.round(c.getRed() * 255) << 16)
+					| ((int) Math.round(c.getGreen() * 255) << 8) | (int) Math.round(c.getBlue() * 255);
+		} catch (IllegalArgumentException e) {
+			pos = start;
+			throw error("Unknown color");
+		}
+	}
+
+	/**
+	 * Parses a number with its optional unit, rounded to int. The unit is set in {@link #unit}.
+	 */
+	private int parseNumber() {
+		skipWhitespace();
+		boolean negative = false;
+		if (pos < end && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+			negative = text.charAt(pos) == '-';
+			pos++;
+		}
+		int start = pos;
+		long value = 0;
+		while (pos < end && isDigit(text.charAt(pos))) {
+			value = value * 10 + (text.charAt(pos) - '0');
+			if (value > Integer.MAX_VALUE) {
+				throw error("Number too large");
+			}
+			pos++;
+		}
+		// Fraction is rounded.
+		if (pos < end && text.charAt(pos) == '.') {
+			pos++;
+			if (pos < end && isDigit(text.charAt(pos)) && text.charAt(pos) >= '5') {
+				value++;
+			}
+			while (pos < end && isDigit(text.charAt(pos))) {
+				pos++;
+			}
+		}
+		if (pos == start) {
+			throw error("Expected number");
+		}
+
+		if (pos < end && text.charAt(pos) == '%') {
+			pos++;
+			unit = UNIT_PERCENT;
+		} else if (regionMatches(text, pos, end, "px")) {
+			pos += 2;
+			unit = UNIT_PIXEL;
+		} else if (regionMatches(text, pos, end, "deg")) {
+			pos += 3;
+			unit = UNIT_DEGREE;
+		} else {
+			unit = UNIT_NONE;
+		}
+		return (int) (negative ? -value : value);
+	}
+
+	private void checkPointUnit(int pointUnit) {
+		if (pointUnit != UNIT_PERCENT && pointUnit != UNIT_PIXEL) {
+			throw error("Expected '%' or 'px'");
+		}
+		if (unit != pointUnit) {
+			throw error("Units of the points do not agree");
+		}
+	}
+
+	private void expectUnit(int expected, String name) {
+		if (unit != expected) {
+			throw error("Expected '" + name + "'");
+		}
+	}
+
+	private void expect(char c) {
+		skipWhitespace();
+		if (pos >= end || text.charAt(pos) != c) {
+			throw error("Expected '" + c + "'");
+		}
+		pos++;
+	}
+
+	/**
+	 * Consumes the keyword (case insensitive) if it is present as a whole word at the current position.
+	 */
+	private boolean matchWord(String word) {
+		skipWhitespace();
+		if (!regionMatches(text, pos, end, word)) {
+			return false;
+		}
+		int next = pos + word.length();
+		if (next < end && isWordChar(text.charAt(next))) {
+			return false;
+		}
+		pos = next;
+		return true;
+	}
+
+	private void skipWhitespace() {
+		while (pos < end && Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " at index " + pos);
+	}
+
+	private static boolean regionMatches(CharSequence text, int offset, int end, String word) {
+		if (offset < 0 || offset + word.length() > end) {
+			return false;
+		}
+		for (int i = 0; i < word.length(); i++) {
+			if (Character.toLowerCase(text.charAt(offset + i)) != word.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isWordChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int hexValue(char c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		if (c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		}
+		if (c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
+		}
+		return -1;
+	}
+}
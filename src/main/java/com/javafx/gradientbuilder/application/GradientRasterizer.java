@@ -0,0 +1,301 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.Arrays;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Pure Java software renderer which rasterizes the {@link LinearGradientModel} and {@link RadialGradientModel} into ARGB pixel buffers,
+ * without the need of a JavaFX stage or Prism. The color stops of the gradient are precomputed into a fixed-size color lookup table, so
+ * the per pixel path neither allocates nor searches the stops. The models are resolved into a {@link GradientFrame}, which can
+ * also be rendered directly (e.g the frames of a {@link GradientTimeline}).
+ * <p>
+ * The geometry follows the JavaFX gradients: the points of proportional linear gradients are scaled to the size of the shape, the
+ * proportional radial gradients are computed in the unit square of the shape and stretched to its size, and each pixel is sampled at
+ * its center. An instance reuses its buffers and is not thread safe.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientRasterizer {
+
+	// Number of entries in the color lookup table.
+	public static final int LUT_SIZE = 1024;
+
+	// Maximum focus distance (as a fraction of radius), to keep the focus inside the circle.
+	public static final double MAX_FOCUS_DISTANCE = 0.99;
+
+	private final int[] lut = new int[LUT_SIZE];
+
+	// Resolved state of the last rendered model, reused for each model.
+	private GradientFrame modelFrame;
+
+	/**
+	 * Rasterizes the gradient into a new ARGB buffer.
+	 *
+	 * @param model
+	 *            - Gradient to be rendered.
+	 * @param width
+	 *            - Width of the shape in pixels.
+	 * @param height
+	 *            - Height of the shape in pixels.
+	 * @return int[] of width * height ARGB pixels, row by row.
+	 */
+	public int[] rasterize(GradientModel model, int width, int height) {
+		int[] argb = new int[width * height];
+		rasterize(model, width, height, argb);
+		return argb;
+	}
+
+	/**
+	 * Rasterizes the gradient into the provided ARGB buffer.
+	 *
+	 * @param model
+	 *            - Gradient to be rendered.
+	 * @param width
+	 *            - Width of the shape in pixels.
+	 * @param height
+	 *            - Height of the shape in pixels.
+	 * @param argb
+	 *            - Buffer of at least width * height pixels.
+	 */
+	public void rasterize(GradientModel model, int width, int height, int[] argb) {
+		if (modelFrame == null) {
+			modelFrame = new GradientFrame(model.getStopCount());
+		}
+		modelFrame.set(model);
+		rasterize(modelFrame, width, height, argb);
+	}
+
+	/**
+	 * Rasterizes the resolved gradient into the provided ARGB buffer. Does not allocate.
+	 *
+	 * @param frame
+	 *            - Resolved gradient to be rendered.
+	 * @param width
+	 *            - Width of the shape in pixels.
+	 * @param height
+	 *            - Height of the shape in pixels.
+	 * @param argb
+	 *            - Buffer of at least width * height pixels.
+	 */
+	public void rasterize(GradientFrame frame, int width, int height, int[] argb) {
+		sample(frame, width, height, width, height, argb);
+	}
+
+	/**
+	 * Samples the gradient on a grid of points of the shape, at the centers of the cells of columns x rows : the rendering of the shape
+	 * downscaled without filtering, e.g to compare gradients. With as many columns and rows as pixels, the samples are the pixels.
+	 *
+	 * @param model
+	 *            - Gradient to be sampled.
+	 * @param width
+	 *            - Width of the shape in pixels.
+	 * @param height
+	 *            - Height of the shape in pixels.
+	 * @param columns
+	 *            - Number of columns of the grid.
+	 * @param rows
+	 *            - Number of rows of the grid.
+	 * @param argb
+	 *            - Buffer of at least columns * rows samples, row by row.
+	 */
+	public void sample(GradientModel model, int width, int height, int columns, int rows, int[] argb) {
+		if (modelFrame == null) {
+			modelFrame = new GradientFrame(model.getStopCount());
+		}
+		modelFrame.set(model);
+		sample(modelFrame, width, height, columns, rows, argb);
+	}
+
+	/**
+	 * Samples the resolved gradient on a grid of points of the shape (see {@link #sample(GradientModel, int, int, int, int, int[])}).
+	 * Does not allocate.
+	 */
+	public void sample(GradientFrame frame, int width, int height, int columns, int rows, int[] argb) {
+		if (argb.length < columns * rows) {
+			throw new IllegalArgumentException("Buffer size " + argb.length + " is less than " + columns + "x" + rows);
+		}
+		buildLookupTable(frame);
+		// Size of a cell of the grid in pixels (1 for the pixels).
+		double cellWidth = width / (double) columns;
+		double cellHeight = height / (double) rows;
+		if (frame.radial) {
+			rasterizeRadial(frame, width, height, columns, rows, cellWidth, cellHeight, argb);
+		} else {
+			rasterizeLinear(frame, width, height, columns, rows, cellWidth, cellHeight, argb);
+		}
+	}
+
+	/**
+	 * Returns the color lookup table of the last rendered gradient. Entry i holds the color at position i / (LUT_SIZE - 1).
+	 *
+	 * @return int[]
+	 */
+	public int[] getLookupTable() {
+		return lut;
+	}
+
+	/**
+	 * Precomputes the colors of the gradient into the lookup table, as used for the rendering.
+	 * 
+	 * @param frame
+	 *            - Resolved gradient.
+	 */
+	void buildLookupTable(GradientFrame frame) {
+		int size = frame.stopCount;
+		if (size == 0) {
+			Arrays.fill(lut, 0);
+			return;
+		}
+		int[] colors = frame.colors;
+		double[] offsets = frame.offsets;
+
+		// Walking the stops along with the table, so each segment is visited only once. As in javafx.scene.paint.Stop, the last of the
+		// stops at the same offset wins, except at 1 where the first one wins.
+		int seg = 0;
+		for (int i = 0; i < LUT_SIZE; i++) {
+			double t = i / (double) (LUT_SIZE - 1);
+			while (seg < size - 1 && (offsets[seg + 1] < t || (offsets[seg + 1] == t && t < 1))) {
+				seg++;
+			}
+			if (t < offsets[0]) {
+				lut[i] = colors[0];
+			} else if (seg == size - 1) {
+				lut[i] = colors[size - 1];
+			} else {
+				double span = offsets[seg + 1] - offsets[seg];
+				double f = (span <= 0) ? 1 : (t - offsets[seg]) / span;
+				lut[i] = interpolate(colors[seg], colors[seg + 1], f);
+			}
+		}
+	}
+
+	private void rasterizeLinear(GradientFrame frame, int width, int height, int columns, int rows, double cellWidth, double cellHeight,
+			int[] argb) {
+		// Proportional points are scaled to the shape, and the pixels are projected on the line in pixels (as JavaFX does, the
+		// gradient is not stretched : its lines of equal color stay perpendicular to the line).
+		double sx = frame.proportional ? width : 1;
+		double sy = frame.proportional ? height : 1;
+		double startX = frame.startX * sx;
+		double startY = frame.startY * sy;
+
+		double dx = frame.endX * sx - startX;
+		double dy = frame.endY * sy - startY;
+		double len2 = dx * dx + dy * dy;
+		if (len2 == 0) {
+			Arrays.fill(argb, 0, columns * rows, lut[LUT_SIZE - 1]);
+			return;
+		}
+
+		// t is linear in x and y, so it is advanced by constant steps.
+		double stepX = dx * cellWidth / len2;
+		double stepY = dy * cellHeight / len2;
+		double t0 = ((0.5 * cellWidth - startX) * dx + (0.5 * cellHeight - startY) * dy) / len2;
+		RepeatOrReflect cycle = frame.cycle;
+
+		int idx = 0;
+		for (int y = 0; y < rows; y++) {
+			double t = t0 + y * stepY;
+			for (int x = 0; x < columns; x++) {
+				argb[idx++] = lut[lookupIndex(t, cycle)];
+				t += stepX;
+			}
+		}
+	}
+
+	private void rasterizeRadial(GradientFrame frame, int width, int height, int columns, int rows, double cellWidth, double cellHeight,
+			int[] argb) {
+		double sx = frame.proportional ? 1.0 / width : 1;
+		double sy = frame.proportional ? 1.0 / height : 1;
+
+		double cx = frame.centerX;
+		double cy = frame.centerY;
+		double r = frame.radius;
+		if (r <= 0) {
+			Arrays.fill(argb, 0, columns * rows, lut[LUT_SIZE - 1]);
+			return;
+		}
+
+		double distance = Math.max(-MAX_FOCUS_DISTANCE, Math.min(MAX_FOCUS_DISTANCE, frame.focusDistance));
+		double angle = Math.toRadians(frame.focusAngle);
+		double fx = cx + distance * r * Math.cos(angle);
+		double fy = cy + distance * r * Math.sin(angle);
+
+		// Solving |P - F - t(C - F)| = t * r for t, with a = |C - F|^2 - r^2 (always negative as the focus is inside the circle).
+		double ccx = cx - fx;
+		double ccy = cy - fy;
+		double a = ccx * ccx + ccy * ccy - r * r;
+		double invA = 1 / a;
+		RepeatOrReflect cycle = frame.cycle;
+
+		int idx = 0;
+		for (int y = 0; y < rows; y++) {
+			double dy = (y + 0.5) * cellHeight * sy - fy;
+			for (int x = 0; x < columns; x++) {
+				double dx = (x + 0.5) * cellWidth * sx - fx;
+				double dc = dx * ccx + dy * ccy;
+				double dd = dx * dx + dy * dy;
+				double t = (dc - Math.sqrt(dc * dc - a * dd)) * invA;
+				argb[idx++] = lut[lookupIndex(t, cycle)];
+			}
+		}
+	}
+
+	/**
+	 * Maps the gradient position to the lookup table index as per the cycle method.
+	 */
+	private static int lookupIndex(double t, RepeatOrReflect cycle) {
+		switch (cycle) {
+		case REPEAT:
+			t = t - Math.floor(t);
+			break;
+		case REFLECT:
+			t = t - 2 * Math.floor(t * 0.5);
+			if (t > 1) {
+				t = 2 - t;
+			}
+			break;
+		default:
+			if (t < 0) {
+				t = 0;
+			} else if (t > 1) {
+				t = 1;
+			}
+			break;
+		}
+		return (int) (t * (LUT_SIZE - 1) + 0.5);
+	}
+
+	/**
+	 * Linear interpolation of each ARGB channel. The colors are interpolated premultiplied by their alpha (as JavaFX does), so a stop
+	 * fading to a transparent color does not show the color of the transparent stop.
+	 */
+	static int interpolate(int c1, int c2, double f) {
+		int a1 = c1 >>> 24;
+		int a2 = c2 >>> 24;
+		if (a1 == a2) {
+			int r = channel((c1 >> 16) & 0xFF, (c2 >> 16) & 0xFF, f);
+			int g = channel((c1 >> 8) & 0xFF, (c2 >> 8) & 0xFF, f);
+			int b = channel(c1 & 0xFF, c2 & 0xFF, f);
+			return (a1 << 24) | (r << 16) | (g << 8) | b;
+		}
+		double a = a1 + (a2 - a1) * f;
+		if (a < 0.5) {
+			return 0;
+		}
+		int r = premultipliedChannel((c1 >> 16) & 0xFF, a1, (c2 >> 16) & 0xFF, a2, f, a);
+		int g = premultipliedChannel((c1 >> 8) & 0xFF, a1, (c2 >> 8) & 0xFF, a2, f, a);
+		int b = premultipliedChannel(c1 & 0xFF, a1, c2 & 0xFF, a2, f, a);
+		return ((int) (a + 0.5) << 24) | (r << 16) | (g << 8) | b;
+	}
+
+	private static int channel(int v1, int v2, double f) {
+		return (int) (v1 + (v2 - v1) * f + 0.5);
+	}
+
+	private static int premultipliedChannel(int v1, int a1, int v2, int a2, double f, double a) {
+		double p1 = v1 * a1;
+		return Math.min(255, (int) ((p1 + (v2 * a2 - p1) * f) / a + 0.5));
+	}
+}
@@ -0,0 +1,394 @@
+package com.javafx.gradientbuilder.application;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Headless HTTP service rendering the gradients to PNG images with the {@link GradientRasterizer}, on the JDK built-in HTTP server :
+ * <ul>
+ * <li>GET /render?gradient=&lt;syntax&gt;&amp;width=&lt;w&gt;&amp;height=&lt;h&gt; (or POST /render?width=&lt;w&gt;&amp;height=&lt;h&gt;
+ * with the syntax as the body) : the PNG image of the gradient, 400x300 by default.</li>
+ * <li>GET /stats : the counters of the service and its cache, as text.</li>
+ * </ul>
+ * The images are kept in a {@link RenderCache} keyed by the normal form of the gradient (see {@link GradientCanonicalizer}) and the
+ * size, so the gradients written differently but rendered the same (e.g "to right" and "from 0% 0% to 100% 0%") share one image. The
+ * key is returned as the entity tag, and a request with a matching "If-None-Match" gets a "304 Not Modified". Concurrent requests of
+ * an image being rendered wait for that rendering instead of rendering it again.
+ * <p>
+ * Each request is handled on its own thread : a virtual thread when the JDK has them (Java 21 and above), else a thread of a cached
+ * pool. The renderings are bounded to one per processor by default, as an image of the largest size takes 64 MB : a request waiting
+ * longer than {@link #RENDER_WAIT_MILLIS} for its turn gets a "503 Service Unavailable".
+ * <p>
+ * Usage : GradientRenderServer [&lt;port&gt; [&lt;cache-mb&gt;]]
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientRenderServer {
+
+	public static final int DEFAULT_PORT = 8085;
+	public static final int DEFAULT_CACHE_MB = 64;
+
+	// Largest width and height of the images, and the largest body of a POST request.
+	public static final int MAX_SIZE = 4096;
+	private static final int MAX_BODY_LENGTH = 64 * 1024;
+
+	// Connections waiting to be accepted.
+	private static final int BACKLOG = 1024;
+
+	// Longest wait of a request for a rendering permit, before answering 503.
+	public static final long RENDER_WAIT_MILLIS = 1000;
+
+	// Property of the JDK server enabling TCP_NODELAY on the connections.
+	public static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final RenderCache cache;
+
+	// Permits of the renderings at the same time.
+	final Semaphore renderPermits;
+
+	// Renderings in progress by key, joined by the concurrent requests of the same image.
+	private final ConcurrentHashMap<String, CompletableFuture<byte[]>> renderings = new ConcurrentHashMap<>();
+
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong renderCount = new AtomicLong();
+	private final AtomicLong notModifiedCount = new AtomicLong();
+	private final AtomicLong errorCount = new AtomicLong();
+	private final AtomicLong busyCount = new AtomicLong();
+
+	/**
+	 * Constructor to initialize the server with one rendering per processor at the same time.
+	 *
+	 * @param address
+	 *            - Address to listen to (port 0 for any free port).
+	 * @param cacheBytes
+	 *            - Maximum size of the cached images in bytes.
+	 * @throws IOException
+	 *             if the address cannot be bound.
+	 */
+	public GradientRenderServer(InetSocketAddress address, long cacheBytes) throws IOException {
+		this(address, cacheBytes, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor to initialize the server, which is started by {@link #start()}.
+	 *
+	 * @param address
+	 *            - Address to listen to (port 0 for any free port).
+	 * @param cacheBytes
+	 *            - Maximum size of the cached images in bytes.
+	 * @param maxRenders
+	 *            - Maximum number of renderings at the same time.
+	 * @throws IOException
+	 *             if the address cannot be bound.
+	 */
+	public GradientRenderServer(InetSocketAddress address, long cacheBytes, int maxRenders) throws IOException {
+		if (maxRenders <= 0) {
+			throw new IllegalArgumentException("Invalid number of renderings : " + maxRenders);
+		}
+		this.cache = new RenderCache(cacheBytes);
+		this.renderPermits = new Semaphore(maxRenders);
+		this.server = HttpServer.create(address, BACKLOG);
+		this.executor = createExecutor();
+		server.setExecutor(executor);
+		server.createContext("/render", this::handleRender);
+		server.createContext("/stats", this::handleStats);
+		// Encoding in memory, without the temporary files of ImageIO.
+		ImageIO.setUseCache(false);
+	}
+
+	/**
+	 * Returns an executor running each task on a new virtual thread if the JDK has them, else on a thread of a cached pool.
+	 */
+	static ExecutorService createExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException ex) {
+			final AtomicInteger threadCount = new AtomicInteger();
+			return Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, "render-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops the server, waiting at most the delay for the exchanges in progress.
+	 *
+	 * @param delaySeconds
+	 *            - Maximum time to wait in seconds.
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		executor.shutdown();
+	}
+
+	/**
+	 * Returns the port on which the server listens.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	public RenderCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Renders the gradient to a PNG image.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @param width
+	 *            - Width of the image.
+	 * @param height
+	 *            - Height of the image.
+	 * @return PNG bytes.
+	 * @throws IOException
+	 *             if the image cannot be encoded.
+	 */
+	public static byte[] render(GradientModel model, int width, int height) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		new GradientRasterizer().rasterize(model, width, height, pixels);
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(1024, width * height / 8));
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+
+	private void handleRender(HttpExchange exchange) throws IOException {
+		requestCount.incrementAndGet();
+		try {
+			String method = exchange.getRequestMethod();
+			if (!"GET".equals(method) && !"POST".equals(method)) {
+				exchange.getResponseHeaders().set("Allow", "GET, POST");
+				sendText(exchange, 405, "Method not allowed : " + method);
+				return;
+			}
+			Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+			String syntax = "POST".equals(method) ? readBody(exchange) : query.get("gradient");
+			if (syntax == null || syntax.trim().isEmpty()) {
+				sendText(exchange, 400, "Missing gradient");
+				return;
+			}
+			int width = parseSize(query.get("width"), GradientExporter.DEFAULT_WIDTH);
+			int height = parseSize(query.get("height"), GradientExporter.DEFAULT_HEIGHT);
+			GradientModel model = new GradientParser().parse(syntax.trim());
+
+			String key = RenderCache.keyOf(new GradientCanonicalizer().toSyntax(model) + " " + width + "x" + height);
+			String tag = "\"" + key + "\"";
+			Headers headers = exchange.getResponseHeaders();
+			headers.set("ETag", tag);
+			headers.set("Cache-Control", "public, max-age=31536000, immutable");
+			if (tag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				notModifiedCount.incrementAndGet();
+				exchange.sendResponseHeaders(304, -1);
+				return;
+			}
+
+			byte[] png = cache.get(key);
+			headers.set("X-Cache", (png == null) ? "MISS" : "HIT");
+			if (png == null) {
+				png = renderOnce(key, model, width, height);
+			}
+			headers.set("Content-Type", "image/png");
+			exchange.sendResponseHeaders(200, png.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(png);
+			}
+		} catch (IllegalArgumentException ex) {
+			sendText(exchange, 400, ex.getMessage());
+		} catch (BusyException ex) {
+			busyCount.incrementAndGet();
+			exchange.getResponseHeaders().set("Retry-After", "1");
+			sendText(exchange, 503, ex.getMessage());
+		} catch (IOException | RuntimeException ex) {
+			errorCount.incrementAndGet();
+			sendText(exchange, 500, "Rendering failed : " + ex);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Renders and caches the image of the key, or waits for its rendering in progress by another request.
+	 *
+	 * @throws BusyException
+	 *             if no rendering permit is released within {@link #RENDER_WAIT_MILLIS}.
+	 */
+	private byte[] renderOnce(String key, GradientModel model, int width, int height) throws IOException {
+		CompletableFuture<byte[]> own = new CompletableFuture<>();
+		CompletableFuture<byte[]> running = renderings.putIfAbsent(key, own);
+		if (running != null) {
+			try {
+				return running.join();
+			} catch (CompletionException ex) {
+				if (ex.getCause() instanceof BusyException) {
+					throw new BusyException();
+				}
+				throw new IOException("Rendering failed", ex.getCause());
+			}
+		}
+		try {
+			acquireRenderPermit();
+			byte[] png;
+			try {
+				png = render(model, width, height);
+			} finally {
+				renderPermits.release();
+			}
+			renderCount.incrementAndGet();
+			cache.put(key, png);
+			own.complete(png);
+			return png;
+		} catch (IOException | RuntimeException ex) {
+			own.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			renderings.remove(key);
+		}
+	}
+
+	private void acquireRenderPermit() throws IOException {
+		try {
+			if (!renderPermits.tryAcquire(RENDER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+				throw new BusyException();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for a rendering permit");
+		}
+	}
+
+	private void handleStats(HttpExchange exchange) throws IOException {
+		try {
+			sendText(exchange, 200, "Requests : " + requestCount.get() + ", renders : " + renderCount.get() + ", not modified : "
+					+ notModifiedCount.get() + ", errors : " + errorCount.get() + ", busy : " + busyCount.get() + "\n" + cache + "\n");
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+		byte[] bytes = String.valueOf(text).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+		exchange.getResponseHeaders().remove("ETag");
+		exchange.getResponseHeaders().remove("Cache-Control");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static String readBody(HttpExchange exchange) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		try (InputStream in = exchange.getRequestBody()) {
+			int read;
+			while ((read = in.read(buffer)) > 0) {
+				body.write(buffer, 0, read);
+				if (body.size() > MAX_BODY_LENGTH) {
+					throw new IllegalArgumentException("Gradient longer than " + MAX_BODY_LENGTH + " bytes");
+				}
+			}
+		}
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static int parseSize(String value, int defaultSize) {
+		if (value == null) {
+			return defaultSize;
+		}
+		int size = Integer.parseInt(value.trim());
+		if (size <= 0 || size > MAX_SIZE) {
+			throw new IllegalArgumentException("Invalid size : " + value + " (1 to " + MAX_SIZE + ")");
+		}
+		return size;
+	}
+
+	/**
+	 * Decodes the parameters of the raw query string.
+	 */
+	static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+		Map<String, String> parameters = new HashMap<String, String>();
+		if (rawQuery == null) {
+			return parameters;
+		}
+		for (String pair : rawQuery.split("&")) {
+			int equals = pair.indexOf('=');
+			String name = URLDecoder.decode((equals < 0) ? pair : pair.substring(0, equals), "UTF-8");
+			String value = (equals < 0) ? "" : URLDecoder.decode(pair.substring(equals + 1), "UTF-8");
+			parameters.put(name, value);
+		}
+		return parameters;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = DEFAULT_PORT;
+		int cacheMb = DEFAULT_CACHE_MB;
+		try {
+			if (args.length > 0) {
+				port = Integer.parseInt(args[0]);
+			}
+			if (args.length > 1) {
+				cacheMb = Integer.parseInt(args[1]);
+			}
+		} catch (NumberFormatException ex) {
+			System.err.println("Usage : GradientRenderServer [<port> [<cache-mb>]]");
+			System.exit(1);
+		}
+		// Sending the responses without the delay of Nagle's algorithm, which waits for the delayed acknowledgment of the client on
+		// keep-alive connections (about 40 ms per request). Read by the JDK server when the first server is created.
+		if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+			System.setProperty(NO_DELAY_PROPERTY, "true");
+		}
+		GradientRenderServer server = new GradientRenderServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+				cacheMb * 1024L * 1024L);
+		server.start();
+		System.err.println("Rendering gradients on http://localhost:" + server.getPort() + "/render");
+	}
+
+	/**
+	 * Failure of a request waiting too long for a rendering permit, answered with "503 Service Unavailable".
+	 */
+	private static final class BusyException extends IOException {
+
+		BusyException() {
+			super("Too many renderings in progress, retry later");
+		}
+	}
+}
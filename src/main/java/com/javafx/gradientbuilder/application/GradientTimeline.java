@@ -0,0 +1,356 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keyframe animation of a gradient. Each keyframe is a full gradient state (a {@link GradientModel}) at a time in milliseconds, and the
+ * state between two keyframes is interpolated : the geometry (points of the linear gradient; focus angle, focus distance, center and
+ * radius of the radial gradient), and the colors and offsets of the color stops. The cycle method is taken from the earlier keyframe.
+ * <p>
+ * The keyframes are resolved when the timeline is changed : the color stops of two consecutive keyframes are paired by index, the
+ * keyframe with fewer stops being resampled by splitting its widest gaps. So {@link #sample(double, GradientFrame)} only blends
+ * precomputed arrays into the frame, and does not allocate.
+ * <p>
+ * The timeline file has one keyframe per line : the time in milliseconds and the gradient syntax, separated by a space. Empty lines and
+ * lines starting with "#" are skipped.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public final class GradientTimeline {
+
+	private final List<GradientModel> models = new ArrayList<GradientModel>();
+	private long[] times = new long[0];
+
+	// Resolved keyframes, rebuilt when the timeline is changed. segments[i] holds the keyframes i and i + 1 with paired stops.
+	private GradientFrame[] keyframes;
+	private Segment[] segments;
+	private int maxStopCount;
+
+	/**
+	 * Adds the keyframe. A keyframe at the same time as an existing one replaces it.
+	 *
+	 * @param time
+	 *            - Time of the keyframe in milliseconds.
+	 * @param model
+	 *            - Gradient at that time. Should be of the same type and units (proportional or pixels) as the other keyframes.
+	 */
+	public void add(long time, GradientModel model) {
+		if (time < 0) {
+			throw new IllegalArgumentException("Time " + time + " is negative");
+		}
+		if (model.getStopCount() == 0) {
+			throw new IllegalArgumentException("Keyframe at " + time + " ms has no color stops");
+		}
+		if (!models.isEmpty()) {
+			GradientFrame first = resolve(models.get(0));
+			GradientFrame frame = resolve(model);
+			if (first.radial != frame.radial) {
+				throw new IllegalArgumentException("Keyframe at " + time + " ms is not a " + (first.radial ? "radial" : "linear") + " gradient");
+			}
+			if (first.proportional != frame.proportional) {
+				throw new IllegalArgumentException("Keyframe at " + time + " ms is not in " + (first.proportional ? "percentage" : "pixels"));
+			}
+		}
+
+		int index = Arrays.binarySearch(times, time);
+		if (index >= 0) {
+			models.set(index, model);
+		} else {
+			index = -index - 1;
+			models.add(index, model);
+			long[] newTimes = new long[times.length + 1];
+			System.arraycopy(times, 0, newTimes, 0, index);
+			newTimes[index] = time;
+			System.arraycopy(times, index, newTimes, index + 1, times.length - index);
+			times = newTimes;
+		}
+		keyframes = null;
+	}
+
+	/**
+	 * Removes the keyframe at the index.
+	 *
+	 * @param index
+	 *            - Index of the keyframe.
+	 */
+	public void remove(int index) {
+		models.remove(index);
+		long[] newTimes = new long[times.length - 1];
+		System.arraycopy(times, 0, newTimes, 0, index);
+		System.arraycopy(times, index + 1, newTimes, index, newTimes.length - index);
+		times = newTimes;
+		keyframes = null;
+	}
+
+	/**
+	 * Removes all the keyframes.
+	 */
+	public void clear() {
+		models.clear();
+		times = new long[0];
+		keyframes = null;
+	}
+
+	/**
+	 * Returns a copy of the timeline, e.g to be rendered in the background while this one is edited.
+	 *
+	 * @return GradientTimeline
+	 */
+	public GradientTimeline copy() {
+		GradientTimeline copy = new GradientTimeline();
+		copy.models.addAll(models);
+		copy.times = times.clone();
+		return copy;
+	}
+
+	public int size() {
+		return models.size();
+	}
+
+	public long getTime(int index) {
+		return times[index];
+	}
+
+	public GradientModel getModel(int index) {
+		return models.get(index);
+	}
+
+	/**
+	 * Returns the time of the last keyframe, 0 if there is none.
+	 *
+	 * @return long
+	 */
+	public long getDuration() {
+		return times.length == 0 ? 0 : times[times.length - 1];
+	}
+
+	/**
+	 * Returns a frame with room for the color stops of any time of the timeline, to be passed to {@link #sample(double, GradientFrame)}.
+	 *
+	 * @return GradientFrame
+	 */
+	public GradientFrame createFrame() {
+		prepare();
+		return new GradientFrame(maxStopCount);
+	}
+
+	/**
+	 * Computes the state of the gradient at the time into the frame. Times before the first keyframe or after the last one take the
+	 * first or last keyframe. Does not allocate if the frame is created by {@link #createFrame()}.
+	 *
+	 * @param time
+	 *            - Time in milliseconds.
+	 * @param frame
+	 *            - Frame to which the state is written.
+	 */
+	public void sample(double time, GradientFrame frame) {
+		if (models.isEmpty()) {
+			throw new IllegalStateException("Timeline has no keyframes");
+		}
+		prepare();
+		int last = times.length - 1;
+		if (last == 0 || time <= times[0]) {
+			copy(keyframes[0], frame);
+			return;
+		}
+		if (time >= times[last]) {
+			copy(keyframes[last], frame);
+			return;
+		}
+
+		// Index of the keyframe at or before the time.
+		int index = Arrays.binarySearch(times, (long) time);
+		if (index < 0) {
+			index = -index - 2;
+		}
+		index = Math.min(index, last - 1);
+		double f = (time - times[index]) / (double) (times[index + 1] - times[index]);
+		segments[index].blend(f, frame);
+	}
+
+	/**
+	 * Writes the keyframes to the timeline file.
+	 *
+	 * @param path
+	 *            - Timeline file.
+	 * @throws IOException
+	 */
+	public void write(Path path) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			StringBuilder sb = new StringBuilder(256);
+			for (int i = 0; i < models.size(); i++) {
+				sb.setLength(0);
+				sb.append(times[i]).append(' ');
+				models.get(i).appendSyntax(sb);
+				writer.append(sb).append('\n');
+			}
+		}
+	}
+
+	/**
+	 * Reads the timeline file.
+	 *
+	 * @param path
+	 *            - Timeline file.
+	 * @return GradientTimeline
+	 * @throws IOException
+	 *             - If the file cannot be read.
+	 * @throws IllegalArgumentException
+	 *             - If a line is not valid, with its line number.
+	 */
+	public static GradientTimeline read(Path path) throws IOException {
+		GradientTimeline timeline = new GradientTimeline();
+		GradientParser parser = new GradientParser();
+		int lineNumber = 0;
+		for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			int space = line.indexOf(' ');
+			try {
+				if (space < 0) {
+					throw new IllegalArgumentException("Expected the time and the gradient syntax");
+				}
+				long time = Long.parseLong(line.substring(0, space));
+				timeline.add(time, parser.parse(line, space + 1, line.length()));
+			} catch (IllegalArgumentException ex) {
+				throw new IllegalArgumentException(path + ":" + lineNumber + " : " + ex.getMessage(), ex);
+			}
+		}
+		return timeline;
+	}
+
+	/**
+	 * Resolves the keyframes and pairs the color stops of each segment, if the timeline is changed.
+	 */
+	private void prepare() {
+		if (keyframes != null) {
+			return;
+		}
+		int size = models.size();
+		keyframes = new GradientFrame[size];
+		segments = new Segment[Math.max(0, size - 1)];
+		maxStopCount = 2;
+		for (int i = 0; i < size; i++) {
+			keyframes[i] = resolve(models.get(i));
+			maxStopCount = Math.max(maxStopCount, keyframes[i].stopCount);
+		}
+		for (int i = 0; i < size - 1; i++) {
+			segments[i] = new Segment(keyframes[i], keyframes[i + 1]);
+		}
+	}
+
+	private static GradientFrame resolve(GradientModel model) {
+		GradientFrame frame = new GradientFrame(model.getStopCount());
+		frame.set(model);
+		return frame;
+	}
+
+	private static void copy(GradientFrame from, GradientFrame to) {
+		to.radial = from.radial;
+		to.proportional = from.proportional;
+		to.cycle = from.cycle;
+		to.startX = from.startX;
+		to.startY = from.startY;
+		to.endX = from.endX;
+		to.endY = from.endY;
+		to.focusAngle = from.focusAngle;
+		to.focusDistance = from.focusDistance;
+		to.centerX = from.centerX;
+		to.centerY = from.centerY;
+		to.radius = from.radius;
+		to.ensureCapacity(from.stopCount);
+		to.stopCount = from.stopCount;
+		System.arraycopy(from.colors, 0, to.colors, 0, from.stopCount);
+		System.arraycopy(from.offsets, 0, to.offsets, 0, from.stopCount);
+	}
+
+	private static double lerp(double a, double b, double f) {
+		return a + (b - a) * f;
+	}
+
+	/**
+	 * Two consecutive keyframes, with the same number of color stops.
+	 */
+	private static final class Segment {
+		final GradientFrame from;
+		final GradientFrame to;
+
+		Segment(GradientFrame from, GradientFrame to) {
+			int size = Math.max(from.stopCount, to.stopCount);
+			this.from = resample(from, size);
+			this.to = resample(to, size);
+		}
+
+		/**
+		 * Writes the state at the fraction f (0 to 1) of the segment into the frame.
+		 */
+		void blend(double f, GradientFrame frame) {
+			frame.radial = from.radial;
+			frame.proportional = from.proportional;
+			frame.cycle = from.cycle;
+			frame.startX = lerp(from.startX, to.startX, f);
+			frame.startY = lerp(from.startY, to.startY, f);
+			frame.endX = lerp(from.endX, to.endX, f);
+			frame.endY = lerp(from.endY, to.endY, f);
+			frame.focusAngle = lerp(from.focusAngle, to.focusAngle, f);
+			frame.focusDistance = lerp(from.focusDistance, to.focusDistance, f);
+			frame.centerX = lerp(from.centerX, to.centerX, f);
+			frame.centerY = lerp(from.centerY, to.centerY, f);
+			frame.radius = lerp(from.radius, to.radius, f);
+
+			int size = from.stopCount;
+			frame.ensureCapacity(size);
+			frame.stopCount = size;
+			for (int i = 0; i < size; i++) {
+				frame.colors[i] = GradientRasterizer.interpolate(from.colors[i], to.colors[i], f);
+				frame.offsets[i] = lerp(from.offsets[i], to.offsets[i], f);
+			}
+		}
+
+		/**
+		 * Returns the keyframe with the given number of color stops, by adding stops in the middle of its widest gaps. The added stops
+		 * take the color of the gradient at their offset, so the keyframe renders the same.
+		 */
+		private static GradientFrame resample(GradientFrame frame, int size) {
+			if (frame.stopCount == size) {
+				return frame;
+			}
+			GradientFrame result = new GradientFrame(size);
+			copy(frame, result);
+			while (result.stopCount < size) {
+				int n = result.stopCount;
+				int widest = n - 1;
+				double widestGap = 0;
+				for (int i = 0; i < n - 1; i++) {
+					double gap = result.offsets[i + 1] - result.offsets[i];
+					if (gap > widestGap) {
+						widest = i;
+						widestGap = gap;
+					}
+				}
+				// Inserting after the widest gap start; with a single stop (or no gap), the last stop is repeated.
+				int at = widest + 1;
+				int next = Math.min(at, n - 1);
+				int color = GradientRasterizer.interpolate(result.colors[widest], result.colors[next], 0.5);
+				double offset = (result.offsets[widest] + result.offsets[next]) / 2;
+				System.arraycopy(result.colors, at, result.colors, at + 1, n - at);
+				System.arraycopy(result.offsets, at, result.offsets, at + 1, n - at);
+				result.colors[at] = color;
+				result.offsets[at] = offset;
+				result.stopCount++;
+			}
+			return result;
+		}
+	}
+}
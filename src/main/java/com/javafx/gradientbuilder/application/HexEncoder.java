@@ -0,0 +1,120 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Utility to encode the colors as "#RRGGBB" hex codes through a lookup table, without the formatting overhead of String.format().
+ *
+ * @author Sai.Dandem
+ *
+ */
+public final class HexEncoder {
+
+	// Two upper case hex digits for each byte value.
+	private static final char[] HEX_PAIRS = new char[512];
+
+	static {
+		final char[] digits = "0123456789ABCDEF".toCharArray();
+		for (int i = 0; i < 256; i++) {
+			HEX_PAIRS[i * 2] = digits[i >> 4];
+			HEX_PAIRS[i * 2 + 1] = digits[i & 0xF];
+		}
+	}
+
+	private HexEncoder() {
+	}
+
+	/**
+	 * Appends the color as "#RRGGBB" to the buffer. Does not allocate.
+	 *
+	 * @param sb
+	 *            - Buffer to append to.
+	 * @param rgb
+	 *            - Color as RGB (alpha is ignored).
+	 * @return the buffer.
+	 */
+	public static StringBuilder appendHex(StringBuilder sb, int rgb) {
+		int r = ((rgb >> 16) & 0xFF) * 2;
+		int g = ((rgb >> 8) & 0xFF) * 2;
+		int b = (rgb & 0xFF) * 2;
+		return sb.append('#').append(HEX_PAIRS[r]).append(HEX_PAIRS[r + 1]).append(HEX_PAIRS[g]).append(HEX_PAIRS[g + 1])
+				.append(HEX_PAIRS[b]).append(HEX_PAIRS[b + 1]);
+	}
+
+	/**
+	 * Appends the color as "#RRGGBB", followed by its alpha ("#RRGGBBAA" as in CSS) if it is not opaque. Does not allocate.
+	 *
+	 * @param sb
+	 *            - Buffer to append to.
+	 * @param argb
+	 *            - Color as ARGB.
+	 * @return the buffer.
+	 */
+	public static StringBuilder appendHexAlpha(StringBuilder sb, int argb) {
+		appendHex(sb, argb);
+		int a = (argb >>> 24) * 2;
+		return (a == 0xFF * 2) ? sb : sb.append(HEX_PAIRS[a]).append(HEX_PAIRS[a + 1]);
+	}
+
+	/**
+	 * Writes the color as "#RRGGBB", or as "#AARRGGBB" with its alpha. Does not allocate.
+	 *
+	 * @param out
+	 *            - Writer to write to.
+	 * @param argb
+	 *            - Color as ARGB.
+	 * @param alpha
+	 *            - true to write the alpha.
+	 * @throws IOException
+	 *             if the writer fails.
+	 */
+	public static void writeHex(Writer out, int argb, boolean alpha) throws IOException {
+		out.write('#');
+		for (int shift = alpha ? 24 : 16; shift >= 0; shift -= 8) {
+			int pair = ((argb >>> shift) & 0xFF) * 2;
+			out.write(HEX_PAIRS[pair]);
+			out.write(HEX_PAIRS[pair + 1]);
+		}
+	}
+
+	/**
+	 * Returns the color as "#RRGGBB" string.
+	 *
+	 * @param rgb
+	 *            - Color as RGB (alpha is ignored).
+	 * @return String
+	 */
+	public static String toHex(int rgb) {
+		int r = ((rgb >> 16) & 0xFF) * 2;
+		int g = ((rgb >> 8) & 0xFF) * 2;
+		int b = (rgb & 0xFF) * 2;
+		return new String(new char[] { '#', HEX_PAIRS[r], HEX_PAIRS[r + 1], HEX_PAIRS[g], HEX_PAIRS[g + 1], HEX_PAIRS[b], HEX_PAIRS[b + 1] });
+	}
+
+	/**
+	 * Returns the color as "#RRGGBB" string, or as "#RRGGBBAA" if it is not opaque.
+	 *
+	 * @param argb
+	 *            - Color as ARGB.
+	 * @return String
+	 */
+	public static String toHexAlpha(int argb) {
+		return appendHexAlpha(new StringBuilder(9), argb).toString();
+	}
+
+	/**
+	 * Returns the color components (0 to 1) as "#RRGGBB" string. Each component is truncated to 0-255 as the builder always did.
+	 *
+	 * @param red
+	 *            - Red component.
+	 * @param green
+	 *            - Green component.
+	 * @param blue
+	 *            - Blue component.
+	 * @return String
+	 */
+	public static String toHex(double red, double green, double blue) {
+		return toHex(((int) (red * 255) << 16) | ((int) (green * 255) << 8) | (int) (blue * 255));
+	}
+}
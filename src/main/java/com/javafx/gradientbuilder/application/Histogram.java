@@ -0,0 +1,173 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative long values (e.g latencies in nanoseconds), in the way of HdrHistogram : the values below 128 are counted
+ * exactly, and each power of two above is split into 64 linear sub-buckets, so any value is counted with a relative error below 1.6%
+ * (about two significant digits) in a fixed array of {@link #BUCKET_COUNT} counts. Recording is an index computation and an atomic
+ * increment, so it can be done on the hot paths from any thread; the percentiles are computed when read.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public final class Histogram {
+
+	// Sub-buckets per power of two, and the exact range below them.
+	private static final int SUB_BITS = 6;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int LINEAR_LIMIT = SUB_COUNT * 2;
+	private static final int LINEAR_BITS = SUB_BITS + 1;
+
+	// Number of buckets to count any long value.
+	public static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - LINEAR_BITS) * SUB_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records the value. Negative values are recorded as 0.
+	 *
+	 * @param value
+	 *            - Value to be recorded.
+	 */
+	public void record(long value) {
+		long v = Math.max(0, value);
+		counts.incrementAndGet(indexOf(v));
+		totalCount.incrementAndGet();
+		sum.addAndGet(v);
+		if (v > max.get()) {
+			max.accumulateAndGet(v, Math::max);
+		}
+	}
+
+	/**
+	 * Clears the recorded values. Values recorded meanwhile by other threads may be partly kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		totalCount.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long count = totalCount.get();
+		return (count == 0) ? 0 : sum.get() / (double) count;
+	}
+
+	/**
+	 * Returns the value at the percentile, i.e the highest value of the bucket holding the value of that rank (capped by the maximum).
+	 *
+	 * @param percentile
+	 *            - Percentile from 0 to 100.
+	 * @return long, 0 if no value is recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = totalCount.get();
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(highestValueOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Returns a snapshot of the histogram.
+	 *
+	 * @param scale
+	 *            - Factor applied to the values of the snapshot, e.g 0.001 for microseconds of nanoseconds.
+	 * @return Snapshot
+	 */
+	public Snapshot snapshot(double scale) {
+		return new Snapshot(getCount(), getMean() * scale, getValueAtPercentile(50) * scale, getValueAtPercentile(90) * scale,
+				getValueAtPercentile(99) * scale, getMax() * scale);
+	}
+
+	static int indexOf(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		return LINEAR_LIMIT + (exponent - LINEAR_BITS) * SUB_COUNT + (int) ((value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1));
+	}
+
+	static long highestValueOf(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int shift = (index - LINEAR_LIMIT) / SUB_COUNT + 1;
+		long lowest = (long) (SUB_COUNT + (index - LINEAR_LIMIT) % SUB_COUNT) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Values of the histogram at a time. Exposed as a composite value by {@link PipelineMetricsMXBean}.
+	 */
+	public static final class Snapshot {
+		private final long count;
+		private final double mean;
+		private final double p50;
+		private final double p90;
+		private final double p99;
+		private final double max;
+
+		Snapshot(long count, double mean, double p50, double p90, double p99, double max) {
+			this.count = count;
+			this.mean = mean;
+			this.p50 = p50;
+			this.p90 = p90;
+			this.p99 = p99;
+			this.max = max;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public double getMean() {
+			return mean;
+		}
+
+		public double getP50() {
+			return p50;
+		}
+
+		public double getP90() {
+			return p90;
+		}
+
+		public double getP99() {
+			return p99;
+		}
+
+		public double getMax() {
+			return max;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%7d  p50 %8.3f  p90 %8.3f  p99 %8.3f  max %8.3f", count, p50, p90, p99, max);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.collections.FXCollections;
+import javafx.scene.control.ButtonBar.ButtonData;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.BorderPane;
+
+/**
+ * Dialog to browse the saved gradients of the {@link GradientLibrary} and pick one to be loaded. The list only holds the indexes of the
+ * gradients; the cells read the names and gradients from the library as they are shown, and show the thumbnails from the
+ * {@link ThumbnailRenderer}. Each cell owns one image which is rewritten when the cell is reused, so only the visible cells hold images.
+ * The dialog also shows the gradients found by a {@link SimilarityIndex} search, with their distance to the searched gradient.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class LibraryDialog extends Dialog<GradientModel> {
+
+	private final GradientLibrary library;
+	private final ThumbnailRenderer thumbnails;
+	private final ListView<Integer> listView = new ListView<>();
+	private final Label statsLbl = new Label();
+
+	// Mean Delta E of the gradients found by a search to the searched gradient, empty for the whole library.
+	private final Map<Integer, Double> deltaEs = new HashMap<>();
+
+	/**
+	 * Constructor to initialize the dialog for the library.
+	 *
+	 * @param library
+	 *            - Library to be browsed.
+	 * @param thumbnails
+	 *            - Renderer of the thumbnails.
+	 */
+	public LibraryDialog(GradientLibrary library, ThumbnailRenderer thumbnails) {
+		this(library, thumbnails, "Gradient Library", library.size() + " saved gradients", latestFirst(library.size()));
+	}
+
+	/**
+	 * Constructor to initialize the dialog for the gradients of the library found by a search, the most similar first.
+	 *
+	 * @param library
+	 *            - Library searched.
+	 * @param thumbnails
+	 *            - Renderer of the thumbnails.
+	 * @param result
+	 *            - Gradients found in the library.
+	 */
+	public LibraryDialog(GradientLibrary library, ThumbnailRenderer thumbnails, SimilarityIndex.Result result) {
+		this(library, thumbnails, "Similar Gradients", "Saved gradients most similar to the current gradient",
+				new ArrayList<>(result.size()));
+		for (int i = 0; i < result.size(); i++) {
+			listView.getItems().add(result.getIndex(i));
+			deltaEs.put(result.getIndex(i), GradientFeatures.toDeltaE(result.getDistance(i)));
+		}
+	}
+
+	private LibraryDialog(GradientLibrary library, ThumbnailRenderer thumbnails, String title, String header, List<Integer> indexes) {
+		this.library = library;
+		this.thumbnails = thumbnails;
+		setTitle(title);
+		setHeaderText(header);
+		setResizable(true);
+
+		listView.setItems(FXCollections.observableList(indexes));
+		listView.setPrefSize(400, 450);
+		listView.setCellFactory(param -> new ThumbnailCell());
+
+		final ButtonType loadButton = new ButtonType("Load", ButtonData.OK_DONE);
+		getDialogPane().getButtonTypes().addAll(loadButton, ButtonType.CANCEL);
+		getDialogPane().lookupButton(loadButton).disableProperty().bind(listView.getSelectionModel().selectedItemProperty().isNull());
+		BorderPane content = new BorderPane();
+		content.setCenter(listView);
+		content.setBottom(statsLbl);
+		getDialogPane().setContent(content);
+		updateStats();
+
+		// Double click on a gradient loads it.
+		listView.setOnMouseClicked(e -> {
+			if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2 && getSelectedIndex() != null) {
+				setResult(library.get(getSelectedIndex()));
+				close();
+			}
+		});
+
+		setResultConverter(buttonType -> (buttonType == loadButton && getSelectedIndex() != null) ? library.get(getSelectedIndex()) : null);
+	}
+
+	/**
+	 * Returns the indexes of the library, latest gradient first.
+	 */
+	private static List<Integer> latestFirst(int size) {
+		List<Integer> indexes = new ArrayList<>(size);
+		for (int i = size - 1; i >= 0; i--) {
+			indexes.add(i);
+		}
+		return indexes;
+	}
+
+	private void updateStats() {
+		statsLbl.setText(thumbnails.getCache().toString());
+	}
+
+	private Integer getSelectedIndex() {
+		return listView.getSelectionModel().getSelectedItem();
+	}
+
+	public GradientLibrary getLibrary() {
+		return library;
+	}
+
+	/**
+	 * Cell showing the thumbnail and name of a saved gradient.
+	 */
+	private class ThumbnailCell extends ListCell<Integer> {
+		private final WritableImage image = thumbnails.createImage();
+		private final ImageView imageView = new ImageView(image);
+
+		// Index shown by the cell, read by the render threads to skip the gradients scrolled out of view.
+		private volatile int shownIndex = -1;
+
+		@Override
+		protected void updateItem(Integer index, boolean empty) {
+			super.updateItem(index, empty);
+			if (empty || index == null) {
+				shownIndex = -1;
+				setText(null);
+				setGraphic(null);
+				return;
+			}
+			shownIndex = index;
+			Double deltaE = deltaEs.get(index);
+			setText((deltaE == null) ? library.getName(index) : String.format("%s (Delta E %.1f)", library.getName(index), deltaE));
+			setGraphic(imageView);
+			showThumbnail(index);
+		}
+
+		private void showThumbnail(int index) {
+			GradientModel model = library.get(index);
+			boolean written = thumbnails.request(model, image, () -> shownIndex == index, () -> {
+				if (shownIndex == index) {
+					showThumbnail(index);
+				}
+			});
+			// Hiding the previous thumbnail of the reused cell till the new one is rendered.
+			imageView.setVisible(written);
+			updateStats();
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.javafx.gradientbuilder.application;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.LinearDirection;
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Immutable model of the linear gradient built by {@link LinearSettingsLayout}.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public final class LinearGradientModel extends GradientModel {
+
+	// "from x y to x y" settings.
+	private final boolean fromTo;
+	private final boolean pixel;
+	private final int fromX;
+	private final int fromY;
+	private final int toX;
+	private final int toY;
+
+	// "to <direction>" setting, used when "from" is not set. Null if not specified (i.e "bottom").
+	private final LinearDirection direction;
+
+	/**
+	 * Constructor to initialize the linear gradient model.
+	 *
+	 * @param fromTo
+	 *            - true if the gradient is defined by the from/to points.
+	 * @param pixel
+	 *            - true if the from/to points are in pixels, else in percentage.
+	 * @param fromX
+	 *            - From X.
+	 * @param fromY
+	 *            - From Y.
+	 * @param toX
+	 *            - To X.
+	 * @param toY
+	 *            - To Y.
+	 * @param direction
+	 *            - Direction used when the from/to points are not set.
+	 * @param repeatOrReflect
+	 *            - Cycle method.
+	 * @param colors
+	 *            - ARGB colors of the stops.
+	 * @param percents
+	 *            - Percentages of the stops, {@link GradientModel#UNSPECIFIED} if not specified.
+	 */
+	public LinearGradientModel(boolean fromTo, boolean pixel, int fromX, int fromY, int toX, int toY, LinearDirection direction,
+			RepeatOrReflect repeatOrReflect, int[] colors, int[] percents) {
+		super(repeatOrReflect, colors, percents);
+		this.fromTo = fromTo;
+		this.pixel = pixel;
+		this.fromX = fromX;
+		this.fromY = fromY;
+		this.toX = toX;
+		this.toY = toY;
+		this.direction = direction;
+	}
+
+	public boolean isFromTo() {
+		return fromTo;
+	}
+
+	public boolean isPixel() {
+		return pixel;
+	}
+
+	public int getFromX() {
+		return fromX;
+	}
+
+	public int getFromY() {
+		return fromY;
+	}
+
+	public int getToX() {
+		return toX;
+	}
+
+	public int getToY() {
+		return toY;
+	}
+
+	public LinearDirection getDirection() {
+		return direction;
+	}
+
+	@Override
+	public void appendSyntax(StringBuilder sb) {
+		sb.append(SyntaxConstants.bgLinear);
+		if (fromTo) {
+			String fromUnit = pixel ? SyntaxConstants.fromPixelUnit : SyntaxConstants.fromPercentUnit;
+			String toUnit = pixel ? SyntaxConstants.toPixelUnit : SyntaxConstants.toPercentUnit;
+			sb.append(SyntaxConstants.from).append(fromX).append(fromUnit).append(fromY).append(fromUnit);
+			sb.append(SyntaxConstants.to).append(toX).append(toUnit).append(toY).append(toUnit);
+			sb.append(SyntaxConstants.separator);
+		} else if (direction != null) {
+			sb.append(SyntaxConstants.to).append(direction.toString()).append(SyntaxConstants.separator);
+		}
+		appendRepeatAndColorStops(sb);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!super.equals(obj)) {
+			return false;
+		}
+		LinearGradientModel other = (LinearGradientModel) obj;
+		return fromTo == other.fromTo && pixel == other.pixel && fromX == other.fromX && fromY == other.fromY && toX == other.toX
+				&& toY == other.toY && direction == other.direction;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = super.hashCode();
+		hash = hash * 31 + (fromTo ? 1 : 0) + (pixel ? 2 : 0);
+		hash = ((hash * 31 + fromX) * 31 + fromY) * 31 + toX;
+		hash = hash * 31 + toY;
+		return hash * 31 + (direction == null ? 0 : direction.hashCode());
+	}
+
+	/**
+	 * Returns true if the gradient points are relative to the size of the shape.
+	 *
+	 * @return boolean
+	 */
+	public boolean isProportional() {
+		return !(fromTo && pixel);
+	}
+
+	/**
+	 * Returns the effective start and end points (proportional or in pixels) as {startX, startY, endX, endY}.
+	 *
+	 * @return double[]
+	 */
+	public double[] getPoints() {
+		if (fromTo) {
+			double scale = pixel ? 1 : 100.0;
+			return new double[] { fromX / scale, fromY / scale, toX / scale, toY / scale };
+		}
+		LinearDirection dir = (direction == null) ? LinearDirection.BOTTOM : direction;
+		return new double[] { dir.getStartX(), dir.getStartY(), dir.getEndX(), dir.getEndY() };
+	}
+}
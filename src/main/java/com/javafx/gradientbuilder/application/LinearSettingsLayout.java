@@ -21,6 +21,8 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
 
 /**
  * Linear Settings layout class to configure the layout.
@@ -40,10 +42,10 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 	protected SimpleIntegerProperty fromYPercent = new SimpleIntegerProperty();
 
 	protected SimpleBooleanProperty isTo = new SimpleBooleanProperty(true);
-	protected SimpleIntegerProperty toXPixel = new SimpleIntegerProperty();
-	protected SimpleIntegerProperty toYPixel = new SimpleIntegerProperty();
-	protected SimpleIntegerProperty toXPercent = new SimpleIntegerProperty();
-	protected SimpleIntegerProperty toYPercent = new SimpleIntegerProperty();
+	protected SimpleIntegerProperty toXPixel = new SimpleIntegerProperty(50);
+	protected SimpleIntegerProperty toYPixel = new SimpleIntegerProperty(50);
+	protected SimpleIntegerProperty toXPercent = new SimpleIntegerProperty(50);
+	protected SimpleIntegerProperty toYPercent = new SimpleIntegerProperty(50);
 	protected SimpleObjectProperty<LinearDirection> toDirection = new SimpleObjectProperty<LinearDirection>();
 
 	// Instance variables used for building gradient.
@@ -51,6 +53,8 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 	ToggleGroup grp;
 	StackPane fromContainer;
 	StackPane toContainer;
+
+	// Fields of the percent and pixel "from"/"to" points, created when first shown (see getFromPercentLayout() etc).
 	VBox fromPercentLayout;
 	VBox fromPixelLayout;
 	VBox toPercentLayout;
@@ -75,6 +79,9 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 
 		// Calling the method to configure the layout.
 		configure();
+
+		// Taking the default settings as the initial state of the history.
+		history.reset();
 	}
 
 	/**
@@ -108,8 +115,9 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 		configureFrom();
 		configureTo();
 
-		// Selecting the percent by default.
+		// Selecting the percent by default, with the direction as "to".
 		grp.selectToggle(grp.getToggles().get(0));
+		toContainer.getChildren().add(toChoice);
 		isFrom.addListener((ObservableValue<? extends Boolean> arg0, Boolean arg1, Boolean selected) -> {
 			if (selected) {
 				RadioButton btn = (RadioButton) grp.getSelectedToggle();
@@ -122,13 +130,11 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 				toCB.setDisable(false);
 			}
 		});
-		isFrom.set(true);
-		isFrom.set(false);
 
 		/* Repeat Or Reflect */
 		CheckBox repeatCB = new CheckBox();
 		repeatCB.selectedProperty().bindBidirectional(isRepeat);
-		ChoiceBox<RepeatOrReflect> repeatChoice = new ChoiceBox<RepeatOrReflect>();
+		repeatChoice = new ChoiceBox<RepeatOrReflect>();
 		repeatChoice.disableProperty().bind(repeatCB.selectedProperty().not());
 		repeatChoice.setItems(RepeatOrReflect.getList());
 		repeatChoice.getSelectionModel().select(0);
@@ -145,12 +151,16 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 		stopLblPane.setPadding(new Insets(5, 0, 0, 0));
 		stopLblPane.getChildren().add(new Label("Color Stops : "));
 
-		colorStopsVB = new VBox();
-		colorStopsVB.setSpacing(15);
-		colorStopsVB.getChildren().addAll(getColorStopTemplate(0, 100, 0, -1, "#ffb6c1"), getColorStopTemplate(0, 100, 0, -1, "#ffa500"));
+		colorStopsList = createColorStopsList();
+		addColorStop(-1, 0, "#ffb6c1");
+		addColorStop(-1, 0, "#ffa500");
 
 		this.grid.add(stopLblPane, 1, rowIndex);
-		this.grid.add(colorStopsVB, 2, rowIndex);
+		this.grid.add(colorStopsList, 2, rowIndex);
+		rowIndex++;
+
+		/* Color Stops Optimizer */
+		this.grid.add(createOptimizeRow(), 2, rowIndex);
 		rowIndex++;
 
 		checkForDeleteBtn();
@@ -200,35 +210,6 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 		this.grid.add(hb, 2, rowIndex);
 		rowIndex++;
 
-		// From Percent Container fields
-		Label fromXPercentLabel = buildLabel("X : ", 20);
-		SliderTextField fromXPercentField = new SliderTextField(-120, 120, 0, "%");
-		fromXPercentField.sliderDisableProperty().bind(fromCB.selectedProperty().not());
-		fromXPercent.bindBidirectional(fromXPercentField.valueProperty());
-
-		Label fromYPercentLabel = buildLabel("Y : ", 20);
-		SliderTextField fromYPercentField = new SliderTextField(-120, 120, 0, "%");
-		fromYPercentField.sliderDisableProperty().bind(fromCB.selectedProperty().not());
-		fromYPercent.bindBidirectional(fromYPercentField.valueProperty());
-
-		fromPercentLayout = new VBox();
-		fromPercentLayout.getChildren().addAll(buildHBox(fromXPercentLabel, fromXPercentField),
-				buildHBox(fromYPercentLabel, fromYPercentField));
-
-		// From Pixel Container fields
-		Label fromXPixelLabel = buildLabel("X : ", 20);
-		SliderTextField fromXPixelField = new SliderTextField(-120, 120, 0, "px");
-		fromXPixelField.sliderDisableProperty().bind(fromCB.selectedProperty().not());
-		fromXPixel.bindBidirectional(fromXPixelField.valueProperty());
-
-		Label fromYPixelLabel = buildLabel("Y : ", 20);
-		SliderTextField fromYPixelField = new SliderTextField(-120, 120, 0, "px");
-		fromYPixelField.sliderDisableProperty().bind(fromCB.selectedProperty().not());
-		fromYPixel.bindBidirectional(fromYPixelField.valueProperty());
-
-		fromPixelLayout = new VBox();
-		fromPixelLayout.getChildren().addAll(buildHBox(fromXPixelLabel, fromXPixelField), buildHBox(fromYPixelLabel, fromYPixelField));
-
 		fromContainer = new StackPane();
 
 		this.grid.add(fromContainer, 2, rowIndex);
@@ -254,34 +235,6 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 		toChoice.getSelectionModel().select(LinearDirection.BOTTOM);
 		toDirection.bind(toChoice.getSelectionModel().selectedItemProperty());
 
-		// To Percent Container fields
-		Label toXPercentLabel = buildLabel("X : ", 20);
-		SliderTextField toXPercentField = new SliderTextField(-120, 120, 50, "%");
-		toXPercentField.sliderDisableProperty().bind(isFrom.not());
-		toXPercent.bindBidirectional(toXPercentField.valueProperty());
-
-		Label toYPercentLabel = buildLabel("Y : ", 20);
-		SliderTextField toYPercentField = new SliderTextField(-120, 120, 50, "%");
-		toYPercentField.sliderDisableProperty().bind(isFrom.not());
-		toYPercent.bindBidirectional(toYPercentField.valueProperty());
-
-		toPercentLayout = new VBox();
-		toPercentLayout.getChildren().addAll(buildHBox(toXPercentLabel, toXPercentField), buildHBox(toYPercentLabel, toYPercentField));
-
-		// To Pixel Container fields
-		Label toXPixelLabel = buildLabel("X : ", 20);
-		SliderTextField toXPixelField = new SliderTextField(0, 300, 50, "px");
-		toXPixelField.sliderDisableProperty().bind(isFrom.not());
-		toXPixel.bindBidirectional(toXPixelField.valueProperty());
-
-		Label toYPixelLabel = buildLabel("Y : ", 20);
-		SliderTextField toYPixelField = new SliderTextField(0, 300, 50, "px");
-		toYPixelField.sliderDisableProperty().bind(isFrom.not());
-		toYPixel.bindBidirectional(toYPixelField.valueProperty());
-
-		toPixelLayout = new VBox();
-		toPixelLayout.getChildren().addAll(buildHBox(toXPixelLabel, toXPixelField), buildHBox(toYPixelLabel, toYPixelField));
-
 		toContainer = new StackPane();
 		toContainer.setAlignment(Pos.TOP_LEFT);
 
@@ -292,6 +245,87 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 
 	}
 
+	/**
+	 * Returns the fields of the "from" point in percentage, creating them on the first call.
+	 * 
+	 * @return VBox
+	 */
+	private VBox getFromPercentLayout() {
+		if (fromPercentLayout == null) {
+			fromPercentLayout = buildPointLayout(fromXPercent, fromYPercent, -120, 120, "%", isFrom);
+		}
+		return fromPercentLayout;
+	}
+
+	/**
+	 * Returns the fields of the "from" point in pixels, creating them on the first call.
+	 * 
+	 * @return VBox
+	 */
+	private VBox getFromPixelLayout() {
+		if (fromPixelLayout == null) {
+			fromPixelLayout = buildPointLayout(fromXPixel, fromYPixel, -120, 120, "px", isFrom);
+		}
+		return fromPixelLayout;
+	}
+
+	/**
+	 * Returns the fields of the "to" point in percentage, creating them on the first call.
+	 * 
+	 * @return VBox
+	 */
+	private VBox getToPercentLayout() {
+		if (toPercentLayout == null) {
+			toPercentLayout = buildPointLayout(toXPercent, toYPercent, -120, 120, "%", isFrom);
+		}
+		return toPercentLayout;
+	}
+
+	/**
+	 * Returns the fields of the "to" point in pixels, creating them on the first call.
+	 * 
+	 * @return VBox
+	 */
+	private VBox getToPixelLayout() {
+		if (toPixelLayout == null) {
+			toPixelLayout = buildPointLayout(toXPixel, toYPixel, 0, 300, "px", isFrom);
+		}
+		return toPixelLayout;
+	}
+
+	/**
+	 * Builds the X and Y fields of a point, bound to the properties. The fields start at the current values of the properties, so a model
+	 * loaded before the fields are created is kept.
+	 * 
+	 * @param x
+	 *            - X property of the point.
+	 * @param y
+	 *            - Y property of the point.
+	 * @param min
+	 *            - Minimum value of the fields.
+	 * @param max
+	 *            - Maximum value of the fields.
+	 * @param unit
+	 *            - Unit label of the fields.
+	 * @param enabled
+	 *            - Property enabling the sliders.
+	 * @return VBox
+	 */
+	private VBox buildPointLayout(SimpleIntegerProperty x, SimpleIntegerProperty y, int min, int max, String unit,
+			SimpleBooleanProperty enabled) {
+		SliderTextField xField = new SliderTextField(min, max, x.get(), unit);
+		xField.sliderDisableProperty().bind(enabled.not());
+		x.bindBidirectional(xField.valueProperty());
+
+		SliderTextField yField = new SliderTextField(min, max, y.get(), unit);
+		yField.sliderDisableProperty().bind(enabled.not());
+		y.bindBidirectional(yField.valueProperty());
+
+		VBox vb = new VBox();
+		vb.getChildren().addAll(buildHBox(buildLabel("X : ", 20), xField), buildHBox(buildLabel("Y : ", 20), yField));
+		return vb;
+	}
+
 	private HBox buildHBox(Node... nodes) {
 		HBox hb = new HBox();
 		hb.setAlignment(Pos.CENTER_LEFT);
@@ -299,25 +333,27 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 		return hb;
 	}
 
+	/**
+	 * Shows the percent or pixel fields of the selected radio. The "to" point is shown only if "from" is selected, otherwise the "to"
+	 * direction is kept.
+	 */
 	private void loadContainerByRadio(RadioButton btn) {
-		fromContainer.getChildren().clear();
-		toContainer.getChildren().clear();
-		if (btn.getId().equals("per")) {
-			isFromPixel.set(false);
-			fromContainer.getChildren().add(fromPercentLayout);
-			toContainer.getChildren().add(toPercentLayout);
-		} else {
-			isFromPixel.set(true);
-			fromContainer.getChildren().add(fromPixelLayout);
-			toContainer.getChildren().add(toPixelLayout);
+		boolean pixel = !btn.getId().equals("per");
+		isFromPixel.set(pixel);
+		fromContainer.getChildren().setAll(pixel ? getFromPixelLayout() : getFromPercentLayout());
+		if (isFrom.get()) {
+			toContainer.getChildren().setAll(pixel ? getToPixelLayout() : getToPercentLayout());
 		}
 	}
 
 	/**
-	 * Method to build the final gradient string from the observable properties., and apply it on the shapes.
+	 * Method to append the final gradient string from the observable properties.
+	 * 
+	 * @param sytx
+	 *            - Buffer to which the syntax is appended.
 	 */
-	public void buildGradient() {
-		StringBuilder sytx = new StringBuilder(bgLinear);
+	protected void appendSyntax(StringBuilder sytx) {
+		sytx.append(bgLinear);
 
 		// From
 		if (isFrom.get()) {
@@ -354,31 +390,116 @@ public class LinearSettingsLayout extends AbstractSettingsLayout implements Synt
 		}
 
 		// Color Stops
-		ColorStopDTO dto;
-		for (int i = 0; i < colorStops.size(); i++) {
-			dto = colorStops.get(i);
-			if (dto.getColorCode() != null && !dto.getColorCode().equals("")) {
-				if (dto.getColorCode().indexOf("#") == 0) {
-					sytx.append(dto.getColorCode());
-				} else {
-					sytx.append("#" + dto.getColorCode());
-				}
-
-				if (dto.getPercent() > 0) {
-					sytx.append(spacer).append(dto.getPercent()).append(colorStopUnit);
-				}
-
-				if (i < (colorStops.size() - 1)) {
-					sytx.append(separator);
-				}
+		appendColorStops(sytx);
+
+		sytx.append(bgGradEnd);
+	}
+
+	/**
+	 * Method to build the headless linear gradient model from the observable properties.
+	 * 
+	 * @return GradientModel
+	 */
+	public GradientModel buildModel() {
+		boolean pixel = isFromPixel.get();
+		return new LinearGradientModel(isFrom.get(), pixel, pixel ? fromXPixel.get() : fromXPercent.get(),
+				pixel ? fromYPixel.get() : fromYPercent.get(), pixel ? toXPixel.get() : toXPercent.get(),
+				pixel ? toYPixel.get() : toYPercent.get(), isTo.get() ? toDirection.getValue() : null, getRepeatOrReflect(),
+				getStopColors(), getStopPercents());
+	}
+
+	/**
+	 * Method to load the linear gradient model into the observable properties and the controls.
+	 * 
+	 * @param gradientModel
+	 *            - LinearGradientModel
+	 */
+	public void loadModel(GradientModel gradientModel) {
+		LinearGradientModel model = (LinearGradientModel) gradientModel;
+		if (model.isFromTo()) {
+			grp.selectToggle(grp.getToggles().get(model.isPixel() ? 1 : 0));
+			if (model.isPixel()) {
+				fromXPixel.set(model.getFromX());
+				fromYPixel.set(model.getFromY());
+				toXPixel.set(model.getToX());
+				toYPixel.set(model.getToY());
+			} else {
+				fromXPercent.set(model.getFromX());
+				fromYPercent.set(model.getFromY());
+				toXPercent.set(model.getToX());
+				toYPercent.set(model.getToY());
+			}
+			isFrom.set(true);
+		} else {
+			isFrom.set(false);
+			isTo.set(model.getDirection() != null);
+			if (model.getDirection() != null) {
+				toChoice.getSelectionModel().select(model.getDirection());
 			}
 		}
 
-		sytx.append(bgGradEnd);
-		gradientSyntax.set(sytx.toString());
+		loadRepeatOrReflect(model.getRepeatOrReflect());
+		loadColorStops(model);
+	}
+
+	/**
+	 * Method to capture the values of the linear gradient settings for the history.
+	 * 
+	 * @return int[]
+	 */
+	protected int[] captureSettings() {
+		return new int[] { flag(isFrom.get()), flag(isFromPixel.get()), fromXPixel.get(), fromYPixel.get(), fromXPercent.get(),
+				fromYPercent.get(), flag(isTo.get()), toXPixel.get(), toYPixel.get(), toXPercent.get(), toYPercent.get(),
+				ordinal(toDirection.get()), flag(isRepeat.get()), ordinal(repeatReflect.get()) };
+	}
+
+	/**
+	 * Method to restore the captured values of the linear gradient settings into the properties and the controls.
+	 * 
+	 * @param settings
+	 *            - Values captured by captureSettings().
+	 */
+	protected void restoreSettings(int[] settings) {
+		// "from" is restored first, as selecting it also selects the "to".
+		isFrom.set(settings[0] != 0);
+		grp.selectToggle(grp.getToggles().get(settings[1]));
+		fromXPixel.set(settings[2]);
+		fromYPixel.set(settings[3]);
+		fromXPercent.set(settings[4]);
+		fromYPercent.set(settings[5]);
+		isTo.set(settings[6] != 0);
+		toXPixel.set(settings[7]);
+		toYPixel.set(settings[8]);
+		toXPercent.set(settings[9]);
+		toYPercent.set(settings[10]);
+		if (settings[11] == 0) {
+			toChoice.getSelectionModel().clearSelection();
+		} else {
+			toChoice.getSelectionModel().select(LinearDirection.values()[settings[11] - 1]);
+		}
+		restoreRepeatOrReflect(settings[12], settings[13]);
+	}
 
-		// Setting the result style to nodes.
-		app.applyStyles(gradientSyntax.get());
+	/**
+	 * Method to build the linear gradient paint from the observable properties.
+	 * 
+	 * @return Paint
+	 */
+	protected Paint buildPaint() {
+		// From
+		if (isFrom.get()) {
+			if (isFromPixel.get()) {
+				return new LinearGradient(fromXPixel.get(), fromYPixel.get(), toXPixel.get(), toYPixel.get(), false, getCycleMethod(),
+						buildStops());
+			} else {
+				return new LinearGradient(fromXPercent.get() / 100.0, fromYPercent.get() / 100.0, toXPercent.get() / 100.0,
+						toYPercent.get() / 100.0, true, getCycleMethod(), buildStops());
+			}
+		}
 
+		// To (defaults to "bottom" if not specified)
+		LinearDirection direction = (isTo.get() && toDirection.getValue() != null) ? toDirection.getValue() : LinearDirection.BOTTOM;
+		return new LinearGradient(direction.getStartX(), direction.getStartY(), direction.getEndX(), direction.getEndY(), true,
+				getCycleMethod(), buildStops());
 	}
 }
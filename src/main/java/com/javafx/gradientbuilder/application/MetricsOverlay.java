@@ -0,0 +1,70 @@
+package com.javafx.gradientbuilder.application;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
+
+/**
+ * On-screen overlay of the {@link PipelineMetrics}, refreshed twice a second while shown. The overlay is mouse transparent, so the
+ * shapes and settings below it stay usable.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class MetricsOverlay extends StackPane {
+
+	// Interval between two refreshes of the text.
+	private static final Duration REFRESH_INTERVAL = Duration.millis(500);
+
+	private final PipelineMetrics metrics;
+	private final Label reportLbl = new Label();
+	private final Timeline refresher;
+
+	/**
+	 * Constructor to initialize the overlay.
+	 *
+	 * @param metrics
+	 *            - Metrics to be shown.
+	 */
+	public MetricsOverlay(PipelineMetrics metrics) {
+		this.metrics = metrics;
+		setMouseTransparent(true);
+		setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+		setPadding(new Insets(8));
+		setStyle("-fx-background-color:rgba(0,0,0,0.7);-fx-background-radius:4;");
+		StackPane.setAlignment(this, Pos.BOTTOM_LEFT);
+		StackPane.setMargin(this, new Insets(10));
+
+		reportLbl.setStyle("-fx-font-family:monospace;-fx-text-fill:white;");
+		getChildren().add(reportLbl);
+
+		refresher = new Timeline(new KeyFrame(REFRESH_INTERVAL, (e) -> refresh()));
+		refresher.setCycleCount(Animation.INDEFINITE);
+	}
+
+	/**
+	 * Starts refreshing the text.
+	 */
+	public void start() {
+		refresh();
+		refresher.play();
+	}
+
+	/**
+	 * Stops refreshing the text.
+	 */
+	public void stop() {
+		refresher.stop();
+	}
+
+	private void refresh() {
+		reportLbl.setText("Latencies in us : count, p50, p90, p99, max\n" + metrics.getReport());
+	}
+}
@@ -0,0 +1,339 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.lang.model.SourceVersion;
+
+/**
+ * Generator of Java classes holding the gradients as precompiled JavaFX paints : for each gradient, a "static final" LinearGradient or
+ * RadialGradient constant, the matching Background and the CSS syntax. Applying a constant skips the parsing and conversion of the CSS
+ * syntax done by the CSS engine when a scene is loaded. The paints are built exactly as the builder builds them for its shapes.
+ * <p>
+ * The gradient definitions are read from the files of a directory tree :
+ * <ul>
+ * <li>"*.gradients" : text files of "name = gradient syntax" lines, with blank lines and "#" comments.</li>
+ * <li>"*.gdb" : gradient libraries saved by the builder (see {@link GradientLibrary}).</li>
+ * </ul>
+ * Each file gives one class, named after the file ("brand-colors.gradients" gives "BrandColorsGradients") in the package of its sub
+ * directory under the base package. A class is only generated again if its file is newer. Used by the Maven plugin at build time.
+ * <p>
+ * Usage : PaintCodeGenerator &lt;source-directory&gt; &lt;output-directory&gt; &lt;package&gt;
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class PaintCodeGenerator {
+
+	// Extensions of the definition files.
+	public static final String TEXT_EXTENSION = ".gradients";
+	public static final String LIBRARY_EXTENSION = ".gdb";
+
+	private final GradientParser parser = new GradientParser();
+
+	/**
+	 * Generates the classes of all the definition files of the directory tree, if they are outdated.
+	 *
+	 * @param sourceDirectory
+	 *            - Directory of the definition files.
+	 * @param outputDirectory
+	 *            - Source root to which the classes are written.
+	 * @param basePackage
+	 *            - Package of the classes of the files at the top of the directory (may be empty).
+	 * @return Java files generated (those up to date are not included).
+	 * @throws IOException
+	 *             if a file cannot be read or written.
+	 * @throws IllegalArgumentException
+	 *             if a definition is not valid.
+	 */
+	public List<Path> generateAll(Path sourceDirectory, Path outputDirectory, String basePackage) throws IOException {
+		List<Path> sources;
+		try (Stream<Path> stream = Files.walk(sourceDirectory)) {
+			sources = stream.filter(p -> Files.isRegularFile(p)
+					&& (p.toString().endsWith(TEXT_EXTENSION) || p.toString().endsWith(LIBRARY_EXTENSION))).sorted()
+					.collect(Collectors.toList());
+		}
+
+		List<Path> generated = new ArrayList<Path>();
+		for (Path source : sources) {
+			String packageName = basePackage;
+			Path relative = sourceDirectory.relativize(source);
+			for (int i = 0; i < relative.getNameCount() - 1; i++) {
+				String part = relative.getName(i).toString();
+				packageName = packageName.isEmpty() ? part : packageName + "." + part;
+			}
+			if (!packageName.isEmpty() && !SourceVersion.isName(packageName)) {
+				throw new IllegalArgumentException("Invalid package name '" + packageName + "' for " + source);
+			}
+			String className = toClassName(source.getFileName().toString());
+			Path target = outputDirectory.resolve(packageName.replace('.', '/')).resolve(className + ".java");
+			if (Files.exists(target) && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(source)) >= 0) {
+				continue;
+			}
+
+			Map<String, GradientModel> gradients = read(source);
+			Files.createDirectories(target.getParent());
+			try (Writer out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+				generate(packageName, className, source.getFileName().toString(), gradients, out);
+			}
+			generated.add(target);
+		}
+		return generated;
+	}
+
+	/**
+	 * Reads the gradients of a definition file, by name in the order of the file.
+	 *
+	 * @param file
+	 *            - "*.gradients" or "*.gdb" file.
+	 * @return Map
+	 * @throws IOException
+	 *             if the file cannot be read.
+	 * @throws IllegalArgumentException
+	 *             if a definition is not valid.
+	 */
+	public Map<String, GradientModel> read(Path file) throws IOException {
+		Map<String, GradientModel> gradients = new LinkedHashMap<String, GradientModel>();
+		if (file.toString().endsWith(LIBRARY_EXTENSION)) {
+			try (GradientLibrary library = GradientLibrary.openReadOnly(file)) {
+				for (int i = 0; i < library.size(); i++) {
+					put(gradients, library.getName(i), library.get(i), file + " #" + i);
+				}
+			}
+			return gradients;
+		}
+
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		for (int i = 0; i < lines.size(); i++) {
+			String line = lines.get(i).trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String location = file + ":" + (i + 1);
+			int equals = line.indexOf('=');
+			if (equals <= 0) {
+				throw new IllegalArgumentException(location + " : expected 'name = gradient syntax'");
+			}
+			GradientModel model;
+			try {
+				model = parser.parse(line, equals + 1, line.length());
+			} catch (IllegalArgumentException ex) {
+				throw new IllegalArgumentException(location + " : " + ex.getMessage(), ex);
+			}
+			put(gradients, line.substring(0, equals).trim(), model, location);
+		}
+		return gradients;
+	}
+
+	private static void put(Map<String, GradientModel> gradients, String name, GradientModel model, String location) {
+		if (gradients.put(name, model) != null) {
+			throw new IllegalArgumentException(location + " : duplicate gradient '" + name + "'");
+		}
+	}
+
+	/**
+	 * Writes the class of the gradients.
+	 *
+	 * @param packageName
+	 *            - Package of the class (may be empty).
+	 * @param className
+	 *            - Simple name of the class.
+	 * @param sourceName
+	 *            - Name of the definition file, for the comments.
+	 * @param gradients
+	 *            - Gradients by name.
+	 * @param out
+	 *            - Writer of the Java source.
+	 * @throws IOException
+	 *             if the writer fails.
+	 * @throws IllegalArgumentException
+	 *             if two names give the same constant.
+	 */
+	public void generate(String packageName, String className, String sourceName, Map<String, GradientModel> gradients, Writer out)
+			throws IOException {
+		if (!packageName.isEmpty()) {
+			out.write("package " + packageName + ";\n\n");
+		}
+		out.write("import javafx.geometry.Insets;\n");
+		out.write("import javafx.scene.layout.Background;\n");
+		out.write("import javafx.scene.layout.BackgroundFill;\n");
+		out.write("import javafx.scene.layout.CornerRadii;\n");
+		out.write("import javafx.scene.paint.Color;\n");
+		out.write("import javafx.scene.paint.CycleMethod;\n");
+		out.write("import javafx.scene.paint.LinearGradient;\n");
+		out.write("import javafx.scene.paint.RadialGradient;\n");
+		out.write("import javafx.scene.paint.Stop;\n\n");
+		out.write("/**\n * Gradients of " + escapeComment(sourceName) + " as precompiled paints. Generated by "
+				+ PaintCodeGenerator.class.getSimpleName() + ", do not edit.\n */\n");
+		out.write("@SuppressWarnings(\"restriction\")\n");
+		out.write("public final class " + className + " {\n\n");
+		out.write("\tprivate " + className + "() {\n\t}\n");
+
+		Set<String> constants = new HashSet<String>();
+		for (Map.Entry<String, GradientModel> entry : gradients.entrySet()) {
+			String constant = toConstantName(entry.getKey());
+			if (!constants.add(constant) | !constants.add(constant + "_BACKGROUND") | !constants.add(constant + "_SYNTAX")) {
+				throw new IllegalArgumentException("Gradient '" + entry.getKey() + "' gives the constant " + constant
+						+ " of another gradient");
+			}
+			GradientModel model = entry.getValue();
+			String syntax = model.toSyntax();
+			String type = (model instanceof LinearGradientModel) ? "LinearGradient" : "RadialGradient";
+
+			out.write("\n\t/** " + escapeComment(entry.getKey()) + " : " + escapeComment(syntax) + " */\n");
+			out.write("\tpublic static final " + type + " " + constant + " = ");
+			writePaint(model, out);
+			out.write(";\n\n");
+			out.write("\tpublic static final Background " + constant + "_BACKGROUND = new Background(new BackgroundFill(" + constant
+					+ ", CornerRadii.EMPTY, Insets.EMPTY));\n\n");
+			out.write("\tpublic static final String " + constant + "_SYNTAX = \"" + syntax.replace("\\", "\\\\").replace("\"", "\\\"")
+					+ "\";\n");
+		}
+		out.write("}\n");
+	}
+
+	/**
+	 * Writes the constructor of the paint, with the same values as the paint built by the settings layouts.
+	 */
+	private static void writePaint(GradientModel model, Writer out) throws IOException {
+		if (model instanceof LinearGradientModel) {
+			LinearGradientModel linear = (LinearGradientModel) model;
+			double[] p = linear.getPoints();
+			out.write("new LinearGradient(" + p[0] + ", " + p[1] + ", " + p[2] + ", " + p[3] + ", " + linear.isProportional());
+		} else {
+			RadialGradientModel radial = (RadialGradientModel) model;
+			out.write("new RadialGradient(" + radial.getEffectiveFocusAngle() + ", " + radial.getEffectiveFocusDistance() + ", "
+					+ radial.getEffectiveCenterX() + ", " + radial.getEffectiveCenterY() + ", " + radial.getEffectiveRadius() + ", "
+					+ radial.isProportional());
+		}
+		switch (model.getRepeatOrReflect()) {
+		case REPEAT:
+			out.write(", CycleMethod.REPEAT");
+			break;
+		case REFLECT:
+			out.write(", CycleMethod.REFLECT");
+			break;
+		default:
+			out.write(", CycleMethod.NO_CYCLE");
+			break;
+		}
+
+		double[] offsets = model.resolveOffsets();
+		for (int i = 0; i < offsets.length; i++) {
+			int color = model.getColor(i);
+			out.write(",\n\t\t\tnew Stop(" + offsets[i] + ", Color.rgb(" + ((color >> 16) & 0xFF) + ", " + ((color >> 8) & 0xFF) + ", "
+					+ (color & 0xFF));
+			if ((color >>> 24) != 0xFF) {
+				out.write(", " + ((color >>> 24) / 255.0));
+			}
+			out.write("))");
+		}
+		out.write(")");
+	}
+
+	/**
+	 * Returns the class name for the definition file : its name without extension in camel case, followed by "Gradients".
+	 *
+	 * @param fileName
+	 *            - Name of the definition file.
+	 * @return String
+	 */
+	static String toClassName(String fileName) {
+		int dot = fileName.lastIndexOf('.');
+		String base = (dot > 0) ? fileName.substring(0, dot) : fileName;
+		StringBuilder sb = new StringBuilder();
+		boolean upper = true;
+		for (int i = 0; i < base.length(); i++) {
+			char c = base.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				sb.append(upper ? Character.toUpperCase(c) : c);
+				upper = false;
+			} else {
+				upper = true;
+			}
+		}
+		if (sb.length() == 0 || !Character.isJavaIdentifierStart(sb.charAt(0))) {
+			sb.insert(0, 'G');
+		}
+		return sb.append("Gradients").toString();
+	}
+
+	/**
+	 * Returns the constant name for the gradient name, in upper case with words separated by '_' ("Sunset glow" gives "SUNSET_GLOW").
+	 *
+	 * @param name
+	 *            - Name of the gradient.
+	 * @return String
+	 */
+	static String toConstantName(String name) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c < 128 && Character.isLetterOrDigit(c)) {
+				// Separating the words of camel case names.
+				if (Character.isUpperCase(c) && i > 0 && Character.isLowerCase(name.charAt(i - 1))) {
+					sb.append('_');
+				}
+				sb.append(Character.toUpperCase(c));
+			} else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '_') {
+				sb.append('_');
+			}
+		}
+		while (sb.length() > 0 && sb.charAt(sb.length() - 1) == '_') {
+			sb.setLength(sb.length() - 1);
+		}
+		if (sb.length() == 0 || !Character.isJavaIdentifierStart(sb.charAt(0))) {
+			sb.insert(0, "GRADIENT_");
+		}
+		String constant = sb.toString();
+		return SourceVersion.isKeyword(constant) ? constant + "_" : constant;
+	}
+
+	/**
+	 * Returns the text for a Java comment, in ASCII so that the class compiles whatever the encoding of the build : the end of comment,
+	 * backslashes (unicode escapes) and non ASCII characters are written as HTML entities, and line breaks as spaces.
+	 */
+	static String escapeComment(String text) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || c == '\r') {
+				sb.append(' ');
+			} else if (c == '\\' || c >= 128 || (c == '/' && i > 0 && text.charAt(i - 1) == '*')) {
+				sb.append("&#").append(text.codePointAt(i)).append(';');
+				if (Character.isSupplementaryCodePoint(text.codePointAt(i))) {
+					i++;
+				}
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Usage : PaintCodeGenerator <source-directory> <output-directory> <package>");
+			System.exit(1);
+		}
+		long start = System.nanoTime();
+		List<Path> generated = new PaintCodeGenerator().generateAll(Paths.get(args[0]), Paths.get(args[1]), args[2]);
+		long elapsed = System.nanoTime() - start;
+		for (Path file : generated) {
+			System.out.println(file);
+		}
+		System.err.println("Generated " + generated.size() + " classes in " + (elapsed / 1_000_000) + " ms");
+	}
+}
@@ -0,0 +1,165 @@
+package com.javafx.gradientbuilder.application;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of the rebuild pipeline : the property changes notified to the settings layouts, the rebuilds they cause, the paint applied to
+ * the shapes and the next CSS/layout pass of the pulse. The latencies are recorded in nanoseconds into {@link Histogram}s, so the
+ * recording costs a few nanoseconds on the hot paths, and are read through JMX or the {@link MetricsOverlay}.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class PipelineMetrics implements PipelineMetricsMXBean {
+
+	// Name under which the metrics are registered in the platform MBean server.
+	public static final String OBJECT_NAME = "com.javafx.gradientbuilder:type=PipelineMetrics";
+
+	// Scale of the nanosecond latencies to the microseconds of the snapshots.
+	private static final double MICROS = 0.001;
+
+	private final LongAdder changeEvents = new LongAdder();
+	private final Histogram changeToRebuild = new Histogram();
+	private final Histogram buildGradient = new Histogram();
+	private final Histogram apply = new Histogram();
+	private final Histogram pulse = new Histogram();
+	private final Histogram syntaxLength = new Histogram();
+
+	private ObjectName registeredName;
+
+	/**
+	 * Registers the metrics in the platform MBean server.
+	 *
+	 * @throws JMException
+	 *             - If the metrics cannot be registered, e.g if already registered by another instance.
+	 */
+	public void register() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		server.registerMBean(this, name);
+		registeredName = name;
+	}
+
+	/**
+	 * Unregisters the metrics from the platform MBean server, if registered.
+	 *
+	 * @throws JMException
+	 */
+	public void unregister() throws JMException {
+		if (registeredName != null) {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+			registeredName = null;
+		}
+	}
+
+	/**
+	 * Counts a property change notified to a settings layout.
+	 */
+	public void recordChange() {
+		changeEvents.increment();
+	}
+
+	/**
+	 * Records the latency from the first change of a pulse to the end of its rebuild.
+	 *
+	 * @param nanos
+	 *            - Latency in nanoseconds.
+	 */
+	public void recordChangeToRebuild(long nanos) {
+		changeToRebuild.record(nanos);
+	}
+
+	/**
+	 * Records a build of the gradient.
+	 *
+	 * @param nanos
+	 *            - Latency in nanoseconds.
+	 * @param syntaxLength
+	 *            - Length of the emitted syntax.
+	 */
+	public void recordBuild(long nanos, int syntaxLength) {
+		buildGradient.record(nanos);
+		this.syntaxLength.record(syntaxLength);
+	}
+
+	/**
+	 * Records the latency of applying the paint or the styles to the shapes.
+	 *
+	 * @param nanos
+	 *            - Latency in nanoseconds.
+	 */
+	public void recordApply(long nanos) {
+		apply.record(nanos);
+	}
+
+	/**
+	 * Records the latency from applying the paint or the styles to the end of the CSS and layout passes showing them.
+	 *
+	 * @param nanos
+	 *            - Latency in nanoseconds.
+	 */
+	public void recordPulse(long nanos) {
+		pulse.record(nanos);
+	}
+
+	@Override
+	public long getChangeEventCount() {
+		return changeEvents.sum();
+	}
+
+	@Override
+	public Histogram.Snapshot getChangeToRebuild() {
+		return changeToRebuild.snapshot(MICROS);
+	}
+
+	@Override
+	public Histogram.Snapshot getBuildGradient() {
+		return buildGradient.snapshot(MICROS);
+	}
+
+	@Override
+	public Histogram.Snapshot getApply() {
+		return apply.snapshot(MICROS);
+	}
+
+	@Override
+	public Histogram.Snapshot getPulse() {
+		return pulse.snapshot(MICROS);
+	}
+
+	@Override
+	public Histogram.Snapshot getSyntaxLength() {
+		return syntaxLength.snapshot(1);
+	}
+
+	@Override
+	public void reset() {
+		changeEvents.reset();
+		changeToRebuild.reset();
+		buildGradient.reset();
+		apply.reset();
+		pulse.reset();
+		syntaxLength.reset();
+	}
+
+	/**
+	 * Returns the metrics as text, one line per metric.
+	 *
+	 * @return String
+	 */
+	public String getReport() {
+		StringBuilder sb = new StringBuilder(512);
+		sb.append("Changes        ").append(String.format("%7d", getChangeEventCount())).append('\n');
+		sb.append("Change->build  ").append(getChangeToRebuild()).append(" us\n");
+		sb.append("Build          ").append(getBuildGradient()).append(" us\n");
+		sb.append("Apply          ").append(getApply()).append(" us\n");
+		sb.append("Pulse          ").append(getPulse()).append(" us\n");
+		sb.append("Syntax length  ").append(getSyntaxLength()).append(" chars");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,58 @@
+package com.javafx.gradientbuilder.application;
+
+/**
+ * Management interface of the {@link PipelineMetrics}, registered as "com.javafx.gradientbuilder:type=PipelineMetrics" (e.g to be
+ * watched in JConsole or VisualVM). The latencies are in microseconds.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public interface PipelineMetricsMXBean {
+
+	/**
+	 * Returns the number of property changes notified to the settings layouts.
+	 *
+	 * @return long
+	 */
+	long getChangeEventCount();
+
+	/**
+	 * Returns the latencies from the first change of a pulse to the end of the rebuild it caused.
+	 *
+	 * @return Histogram.Snapshot
+	 */
+	Histogram.Snapshot getChangeToRebuild();
+
+	/**
+	 * Returns the latencies of buildGradient(), including the paint applied to the shapes.
+	 *
+	 * @return Histogram.Snapshot
+	 */
+	Histogram.Snapshot getBuildGradient();
+
+	/**
+	 * Returns the latencies of applying the paint or the styles to the shapes.
+	 *
+	 * @return Histogram.Snapshot
+	 */
+	Histogram.Snapshot getApply();
+
+	/**
+	 * Returns the latencies from applying the paint or the styles to the end of the CSS and layout passes of the pulse showing them.
+	 *
+	 * @return Histogram.Snapshot
+	 */
+	Histogram.Snapshot getPulse();
+
+	/**
+	 * Returns the lengths in characters of the syntax emitted by each build.
+	 *
+	 * @return Histogram.Snapshot
+	 */
+	Histogram.Snapshot getSyntaxLength();
+
+	/**
+	 * Clears all the metrics.
+	 */
+	void reset();
+}
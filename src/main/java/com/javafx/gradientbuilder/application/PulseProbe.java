@@ -0,0 +1,51 @@
+package com.javafx.gradientbuilder.application;
+
+import javafx.scene.layout.Region;
+
+/**
+ * Invisible, unmanaged node measuring the latency of the pulse which shows a change : when armed, it requests its own layout, and its
+ * layout is done in the layout pass of the next pulse, after the CSS pass. As an unmanaged node, its request does not lay out its parent
+ * again, so the measure does not add layout work.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class PulseProbe extends Region {
+
+	private final PipelineMetrics metrics;
+
+	// Time at which the probe was armed, 0 if not armed.
+	private long armedAt;
+
+	/**
+	 * Constructor to initialize the probe.
+	 *
+	 * @param metrics
+	 *            - Metrics to which the pulse latencies are recorded.
+	 */
+	public PulseProbe(PipelineMetrics metrics) {
+		this.metrics = metrics;
+		setManaged(false);
+		setMouseTransparent(true);
+		setVisible(false);
+	}
+
+	/**
+	 * Arms the probe, if not already armed, so the latency to the next layout pass is recorded.
+	 */
+	public void arm() {
+		if (armedAt == 0) {
+			armedAt = System.nanoTime();
+			requestLayout();
+		}
+	}
+
+	@Override
+	protected void layoutChildren() {
+		if (armedAt != 0) {
+			metrics.recordPulse(System.nanoTime() - armedAt);
+			armedAt = 0;
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package com.javafx.gradientbuilder.application;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Immutable model of the radial gradient built by {@link RadialSettingsLayout}.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public final class RadialGradientModel extends GradientModel {
+
+	private final boolean hasFocusAngle;
+	private final int focusAngle;
+	private final boolean hasFocusDistance;
+	private final int focusDistance;
+	private final boolean hasCenter;
+	private final int centerX;
+	private final int centerY;
+	private final boolean radiusPixel;
+	private final int radius;
+
+	/**
+	 * Constructor to initialize the radial gradient model.
+	 *
+	 * @param hasFocusAngle
+	 *            - true if the focus angle is specified.
+	 * @param focusAngle
+	 *            - Focus angle in degrees.
+	 * @param hasFocusDistance
+	 *            - true if the focus distance is specified.
+	 * @param focusDistance
+	 *            - Focus distance in percentage of the radius.
+	 * @param hasCenter
+	 *            - true if the center is specified.
+	 * @param centerX
+	 *            - Center X, in the units of the radius.
+	 * @param centerY
+	 *            - Center Y, in the units of the radius.
+	 * @param radiusPixel
+	 *            - true if the radius is in pixels, else in percentage.
+	 * @param radius
+	 *            - Radius.
+	 * @param repeatOrReflect
+	 *            - Cycle method.
+	 * @param colors
+	 *            - ARGB colors of the stops.
+	 * @param percents
+	 *            - Percentages of the stops, {@link GradientModel#UNSPECIFIED} if not specified.
+	 */
+	public RadialGradientModel(boolean hasFocusAngle, int focusAngle, boolean hasFocusDistance, int focusDistance, boolean hasCenter,
+			int centerX, int centerY, boolean radiusPixel, int radius, RepeatOrReflect repeatOrReflect, int[] colors, int[] percents) {
+		super(repeatOrReflect, colors, percents);
+		this.hasFocusAngle = hasFocusAngle;
+		this.focusAngle = focusAngle;
+		this.hasFocusDistance = hasFocusDistance;
+		this.focusDistance = focusDistance;
+		this.hasCenter = hasCenter;
+		this.centerX = centerX;
+		this.centerY = centerY;
+		this.radiusPixel = radiusPixel;
+		this.radius = radius;
+	}
+
+	public boolean hasFocusAngle() {
+		return hasFocusAngle;
+	}
+
+	public int getFocusAngle() {
+		return focusAngle;
+	}
+
+	public boolean hasFocusDistance() {
+		return hasFocusDistance;
+	}
+
+	public int getFocusDistance() {
+		return focusDistance;
+	}
+
+	public boolean hasCenter() {
+		return hasCenter;
+	}
+
+	public int getCenterX() {
+		return centerX;
+	}
+
+	public int getCenterY() {
+		return centerY;
+	}
+
+	public boolean isRadiusPixel() {
+		return radiusPixel;
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	@Override
+	public void appendSyntax(StringBuilder sb) {
+		sb.append(SyntaxConstants.bgRadial);
+		if (hasFocusAngle) {
+			sb.append(SyntaxConstants.focusAngleStart).append(focusAngle).append(SyntaxConstants.focusAngleUnit);
+			sb.append(SyntaxConstants.separator);
+		}
+		if (hasFocusDistance) {
+			sb.append(SyntaxConstants.focusDistStart).append(focusDistance).append(SyntaxConstants.focusDistUnit);
+			sb.append(SyntaxConstants.separator);
+		}
+		if (hasCenter) {
+			String unit = radiusPixel ? SyntaxConstants.centerPixelUnit : SyntaxConstants.centerUnit;
+			sb.append(SyntaxConstants.centerStart).append(centerX).append(unit);
+			sb.append(centerY).append(unit);
+			sb.append(SyntaxConstants.separator);
+		}
+		sb.append(SyntaxConstants.radiusStart).append(radius);
+		sb.append(radiusPixel ? SyntaxConstants.radiusPixelUnit : SyntaxConstants.radiusPercentUnit);
+		sb.append(SyntaxConstants.separator);
+		appendRepeatAndColorStops(sb);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!super.equals(obj)) {
+			return false;
+		}
+		RadialGradientModel other = (RadialGradientModel) obj;
+		return hasFocusAngle == other.hasFocusAngle && focusAngle == other.focusAngle && hasFocusDistance == other.hasFocusDistance
+				&& focusDistance == other.focusDistance && hasCenter == other.hasCenter && centerX == other.centerX
+				&& centerY == other.centerY && radiusPixel == other.radiusPixel && radius == other.radius;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = super.hashCode();
+		hash = hash * 31 + (hasFocusAngle ? 1 : 0) + (hasFocusDistance ? 2 : 0) + (hasCenter ? 4 : 0) + (radiusPixel ? 8 : 0);
+		hash = ((hash * 31 + focusAngle) * 31 + focusDistance) * 31 + centerX;
+		return (hash * 31 + centerY) * 31 + radius;
+	}
+
+	/**
+	 * Returns true if the center and radius are relative to the size of the shape.
+	 *
+	 * @return boolean
+	 */
+	public boolean isProportional() {
+		return !radiusPixel;
+	}
+
+	/**
+	 * Returns the effective focus angle in degrees.
+	 *
+	 * @return double
+	 */
+	public double getEffectiveFocusAngle() {
+		return hasFocusAngle ? focusAngle : 0;
+	}
+
+	/**
+	 * Returns the effective focus distance as a fraction of the radius.
+	 *
+	 * @return double
+	 */
+	public double getEffectiveFocusDistance() {
+		return hasFocusDistance ? focusDistance / 100.0 : 0;
+	}
+
+	/**
+	 * Returns the effective center X, in the units of the radius : a fraction if proportional else in pixels.
+	 *
+	 * @return double
+	 */
+	public double getEffectiveCenterX() {
+		return !hasCenter ? 0 : radiusPixel ? centerX : centerX / 100.0;
+	}
+
+	/**
+	 * Returns the effective center Y.
+	 *
+	 * @return double
+	 */
+	public double getEffectiveCenterY() {
+		return !hasCenter ? 0 : radiusPixel ? centerY : centerY / 100.0;
+	}
+
+	/**
+	 * Returns the effective radius, a fraction if proportional else in pixels.
+	 *
+	 * @return double
+	 */
+	public double getEffectiveRadius() {
+		return radiusPixel ? radius : radius / 100.0;
+	}
+}
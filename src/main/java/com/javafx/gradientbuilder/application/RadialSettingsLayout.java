@@ -16,7 +16,8 @@ import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
-import javafx.scene.layout.VBox;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.RadialGradient;
 
 /**
  * Radial Settings layout class to configure the layout.
@@ -35,10 +36,20 @@ public class RadialSettingsLayout extends AbstractSettingsLayout implements Synt
 	protected SimpleBooleanProperty isCenter = new SimpleBooleanProperty(true);
 	protected SimpleIntegerProperty centerX = new SimpleIntegerProperty();
 	protected SimpleIntegerProperty centerY = new SimpleIntegerProperty();
+	protected SimpleIntegerProperty centerPixelX = new SimpleIntegerProperty(100);
+	protected SimpleIntegerProperty centerPixelY = new SimpleIntegerProperty(100);
 	protected SimpleBooleanProperty isRadiusPixel = new SimpleBooleanProperty();
-	protected SimpleIntegerProperty radiusPixel = new SimpleIntegerProperty();
+	protected SimpleIntegerProperty radiusPixel = new SimpleIntegerProperty(100);
 	protected SimpleIntegerProperty radiusPercent = new SimpleIntegerProperty();
 
+	// Instance variables used for loading the gradient.
+	ToggleGroup radiusGrp;
+
+	// Pixel radius and center fields, created when the pixel radius is first selected (the center takes the units of the radius).
+	SliderTextField radiusPixelField;
+	SliderTextField centerPixelXField;
+	SliderTextField centerPixelYField;
+
 	/**
 	 * Constructor to configure the layout.
 	 * 
@@ -58,6 +69,9 @@ public class RadialSettingsLayout extends AbstractSettingsLayout implements Synt
 
 		// Calling the method to configure the layout.
 		configure();
+
+		// Taking the default settings as the initial state of the history.
+		history.reset();
 	}
 
 	/**
@@ -69,6 +83,8 @@ public class RadialSettingsLayout extends AbstractSettingsLayout implements Synt
 		focusDistance.addListener(changeListener);
 		centerX.addListener(changeListener);
 		centerY.addListener(changeListener);
+		centerPixelX.addListener(changeListener);
+		centerPixelY.addListener(changeListener);
 		isRadiusPixel.addListener(changeListener);
 		radiusPixel.addListener(changeListener);
 		radiusPercent.addListener(changeListener);
@@ -117,54 +133,72 @@ public class RadialSettingsLayout extends AbstractSettingsLayout implements Synt
 		SliderTextField centerXField = new SliderTextField(-120, 120, 50, "%");
 		centerXField.sliderDisableProperty().bind(centerCB.selectedProperty().not());
 		centerX.bindBidirectional(centerXField.valueProperty());
+		final StackPane centerXContainer = new StackPane(centerXField);
+		centerXContainer.setAlignment(Pos.TOP_LEFT);
 
 		this.grid.add(centerCB, 0, rowIndex);
 		this.grid.add(new Label("Center : "), 1, rowIndex);
 		this.grid.add(new Label("X : "), 2, rowIndex);
-		this.grid.add(centerXField, 3, rowIndex);
+		this.grid.add(centerXContainer, 3, rowIndex);
 		rowIndex++;
 
 		SliderTextField centerYField = new SliderTextField(-120, 120, 50, "%");
 		centerYField.sliderDisableProperty().bind(centerCB.selectedProperty().not());
 		centerY.bindBidirectional(centerYField.valueProperty());
+		final StackPane centerYContainer = new StackPane(centerYField);
+		centerYContainer.setAlignment(Pos.TOP_LEFT);
 
 		this.grid.add(new Label("Y : "), 2, rowIndex);
-		this.grid.add(centerYField, 3, rowIndex);
+		this.grid.add(centerYContainer, 3, rowIndex);
 		rowIndex++;
 
 		/* Radius */
 		final SliderTextField radiusPercentField = new SliderTextField(0, 120, 50, "%");
 		radiusPercent.bindBidirectional(radiusPercentField.valueProperty());
 
-		final SliderTextField radiusPixelField = new SliderTextField(0, 300, 100, "px");
-		radiusPixel.bindBidirectional(radiusPixelField.valueProperty());
-
 		final StackPane radiusContainer = new StackPane();
 		radiusContainer.setAlignment(Pos.TOP_LEFT);
 
-		ToggleGroup grp = new ToggleGroup();
+		radiusGrp = new ToggleGroup();
 		RadioButton percentBtn = new RadioButton("Percentage");
 		percentBtn.setId("per");
-		percentBtn.setToggleGroup(grp);
+		percentBtn.setToggleGroup(radiusGrp);
 
 		RadioButton pixelBtn = new RadioButton("Pixel");
 		pixelBtn.setId("pix");
-		pixelBtn.setToggleGroup(grp);
+		pixelBtn.setToggleGroup(radiusGrp);
 
 		radiusPercentField.disableProperty().bind(pixelBtn.selectedProperty());
-		radiusPixelField.disableProperty().bind(percentBtn.selectedProperty());
-		grp.selectedToggleProperty().addListener((ObservableValue<? extends Toggle> arg0, Toggle arg1, Toggle arg2) -> {
+		radiusGrp.selectedToggleProperty().addListener((ObservableValue<? extends Toggle> arg0, Toggle arg1, Toggle arg2) -> {
 			RadioButton btn = (RadioButton) arg2;
 			radiusContainer.getChildren().clear();
+			centerXContainer.getChildren().clear();
+			centerYContainer.getChildren().clear();
 			if (btn.getId().equals("per")) {
 				isRadiusPixel.set(false);
 				radiusContainer.getChildren().add(radiusPercentField);
+				centerXContainer.getChildren().add(centerXField);
+				centerYContainer.getChildren().add(centerYField);
 			} else {
 				isRadiusPixel.set(true);
+				if (radiusPixelField == null) {
+					radiusPixelField = new SliderTextField(0, 300, radiusPixel.get(), "px");
+					radiusPixelField.disableProperty().bind(percentBtn.selectedProperty());
+					radiusPixel.bindBidirectional(radiusPixelField.valueProperty());
+
+					centerPixelXField = new SliderTextField(-300, 600, centerPixelX.get(), "px");
+					centerPixelXField.sliderDisableProperty().bind(centerCB.selectedProperty().not());
+					centerPixelX.bindBidirectional(centerPixelXField.valueProperty());
+					centerPixelYField = new SliderTextField(-300, 600, centerPixelY.get(), "px");
+					centerPixelYField.sliderDisableProperty().bind(centerCB.selectedProperty().not());
+					centerPixelY.bindBidirectional(centerPixelYField.valueProperty());
+				}
 				radiusContainer.getChildren().add(radiusPixelField);
+				centerXContainer.getChildren().add(centerPixelXField);
+				centerYContainer.getChildren().add(centerPixelYField);
 			}
 		});
-		grp.selectToggle(percentBtn);
+		radiusGrp.selectToggle(percentBtn);
 
 		HBox hb = new HBox();
 		hb.setAlignment(Pos.CENTER_LEFT);
@@ -180,7 +214,7 @@ public class RadialSettingsLayout extends AbstractSettingsLayout implements Synt
 		/* Repeat Or Reflect */
 		CheckBox repeatCB = new CheckBox();
 		repeatCB.selectedProperty().bindBidirectional(isRepeat);
-		ChoiceBox<RepeatOrReflect> repeatChoice = new ChoiceBox<RepeatOrReflect>();
+		repeatChoice = new ChoiceBox<RepeatOrReflect>();
 		repeatChoice.disableProperty().bind(repeatCB.selectedProperty().not());
 		repeatChoice.setItems(RepeatOrReflect.getList());
 		repeatChoice.getSelectionModel().select(0);
@@ -197,12 +231,16 @@ public class RadialSettingsLayout extends AbstractSettingsLayout implements Synt
 		stopLblPane.setPadding(new Insets(5, 0, 0, 0));
 		stopLblPane.getChildren().add(new Label("Color Stops : "));
 
-		colorStopsVB = new VBox();
-		colorStopsVB.setSpacing(15);
-		colorStopsVB.getChildren().addAll(getColorStopTemplate(0, 100, 0, -1, "#ffe4c4"), getColorStopTemplate(0, 100, 0, -1, "#d2691e"));
+		colorStopsList = createColorStopsList();
+		addColorStop(-1, 0, "#ffe4c4");
+		addColorStop(-1, 0, "#d2691e");
 
 		this.grid.add(stopLblPane, 1, rowIndex);
-		this.grid.add(colorStopsVB, 2, rowIndex, 2, 1);
+		this.grid.add(colorStopsList, 2, rowIndex, 2, 1);
+		rowIndex++;
+
+		/* Color Stops Optimizer */
+		this.grid.add(createOptimizeRow(), 2, rowIndex, 2, 1);
 		rowIndex++;
 
 		checkForDeleteBtn();
@@ -217,10 +255,13 @@ public class RadialSettingsLayout extends AbstractSettingsLayout implements Synt
 	}
 
 	/**
-	 * Method to build the final gradient string from the observable properties., and apply it on the shapes.
+	 * Method to append the final gradient string from the observable properties.
+	 * 
+	 * @param sytx
+	 *            - Buffer to which the syntax is appended.
 	 */
-	public void buildGradient() {
-		StringBuilder sytx = new StringBuilder(bgRadial);
+	protected void appendSyntax(StringBuilder sytx) {
+		sytx.append(bgRadial);
 
 		// Focus Angle
 		if (isFocusAngle.get()) {
@@ -234,10 +275,15 @@ public class RadialSettingsLayout extends AbstractSettingsLayout implements Synt
 			sytx.append(separator);
 		}
 
-		// Center
+		// Center (in the units of the radius, as the syntax does not mix them)
 		if (isCenter.get()) {
-			sytx.append(centerStart).append(centerX.get()).append(centerUnit);
-			sytx.append(centerY.get()).append(centerUnit);
+			if (isRadiusPixel.get()) {
+				sytx.append(centerStart).append(centerPixelX.get()).append(centerPixelUnit);
+				sytx.append(centerPixelY.get()).append(centerPixelUnit);
+			} else {
+				sytx.append(centerStart).append(centerX.get()).append(centerUnit);
+				sytx.append(centerY.get()).append(centerUnit);
+			}
 			sytx.append(separator);
 		}
 
@@ -257,30 +303,99 @@ public class RadialSettingsLayout extends AbstractSettingsLayout implements Synt
 		}
 
 		// Color Stops
-		ColorStopDTO dto;
-		for (int i = 0; i < colorStops.size(); i++) {
-			dto = colorStops.get(i);
-			if (dto.getColorCode() != null && !dto.getColorCode().equals("")) {
-				if (dto.getColorCode().indexOf("#") == 0) {
-					sytx.append(dto.getColorCode());
-				} else {
-					sytx.append("#" + dto.getColorCode());
-				}
+		appendColorStops(sytx);
 
-				if (dto.getPercent() > 0) {
-					sytx.append(spacer).append(dto.getPercent()).append(colorStopUnit);
-				}
+		sytx.append(bgGradEnd);
+	}
 
-				if (i < (colorStops.size() - 1)) {
-					sytx.append(separator);
-				}
-			}
+	/**
+	 * Method to build the headless radial gradient model from the observable properties.
+	 * 
+	 * @return GradientModel
+	 */
+	public GradientModel buildModel() {
+		boolean pixel = isRadiusPixel.get();
+		return new RadialGradientModel(isFocusAngle.get(), focusAngle.get(), isFocusDistance.get(), focusDistance.get(), isCenter.get(),
+				pixel ? centerPixelX.get() : centerX.get(), pixel ? centerPixelY.get() : centerY.get(), pixel,
+				pixel ? radiusPixel.get() : radiusPercent.get(), getRepeatOrReflect(),
+				getStopColors(), getStopPercents());
+	}
+
+	/**
+	 * Method to load the radial gradient model into the observable properties and the controls.
+	 * 
+	 * @param gradientModel
+	 *            - RadialGradientModel
+	 */
+	public void loadModel(GradientModel gradientModel) {
+		RadialGradientModel model = (RadialGradientModel) gradientModel;
+		isFocusAngle.set(model.hasFocusAngle());
+		focusAngle.set(model.getFocusAngle());
+		isFocusDistance.set(model.hasFocusDistance());
+		focusDistance.set(model.getFocusDistance());
+		isCenter.set(model.hasCenter());
+
+		radiusGrp.selectToggle(radiusGrp.getToggles().get(model.isRadiusPixel() ? 1 : 0));
+		if (model.isRadiusPixel()) {
+			centerPixelX.set(model.getCenterX());
+			centerPixelY.set(model.getCenterY());
+			radiusPixel.set(model.getRadius());
+		} else {
+			centerX.set(model.getCenterX());
+			centerY.set(model.getCenterY());
+			radiusPercent.set(model.getRadius());
 		}
 
-		sytx.append(bgGradEnd);
-		gradientSyntax.set(sytx.toString());
+		loadRepeatOrReflect(model.getRepeatOrReflect());
+		loadColorStops(model);
+	}
+
+	/**
+	 * Method to capture the values of the radial gradient settings for the history.
+	 * 
+	 * @return int[]
+	 */
+	protected int[] captureSettings() {
+		return new int[] { flag(isFocusAngle.get()), focusAngle.get(), flag(isFocusDistance.get()), focusDistance.get(),
+				flag(isCenter.get()), centerX.get(), centerY.get(), flag(isRadiusPixel.get()), radiusPixel.get(), radiusPercent.get(),
+				flag(isRepeat.get()), ordinal(repeatReflect.get()), centerPixelX.get(), centerPixelY.get() };
+	}
+
+	/**
+	 * Method to restore the captured values of the radial gradient settings into the properties and the controls.
+	 * 
+	 * @param settings
+	 *            - Values captured by captureSettings().
+	 */
+	protected void restoreSettings(int[] settings) {
+		isFocusAngle.set(settings[0] != 0);
+		focusAngle.set(settings[1]);
+		isFocusDistance.set(settings[2] != 0);
+		focusDistance.set(settings[3]);
+		isCenter.set(settings[4] != 0);
+		centerX.set(settings[5]);
+		centerY.set(settings[6]);
+		radiusGrp.selectToggle(radiusGrp.getToggles().get(settings[7]));
+		radiusPixel.set(settings[8]);
+		radiusPercent.set(settings[9]);
+		restoreRepeatOrReflect(settings[10], settings[11]);
+		centerPixelX.set(settings[12]);
+		centerPixelY.set(settings[13]);
+	}
 
-		// Setting the result style to nodes.
-		app.applyStyles(gradientSyntax.get());
+	/**
+	 * Method to build the radial gradient paint from the observable properties. The center takes the units of the radius, as in the
+	 * syntax : a fraction of the shape with a percentage radius, else pixels.
+	 * 
+	 * @return Paint
+	 */
+	protected Paint buildPaint() {
+		double angle = isFocusAngle.get() ? focusAngle.get() : 0;
+		double distance = isFocusDistance.get() ? focusDistance.get() / 100.0 : 0;
+		boolean proportional = !isRadiusPixel.get();
+		double cx = !isCenter.get() ? 0 : proportional ? centerX.get() / 100.0 : centerPixelX.get();
+		double cy = !isCenter.get() ? 0 : proportional ? centerY.get() / 100.0 : centerPixelY.get();
+		double radius = proportional ? radiusPercent.get() / 100.0 : radiusPixel.get();
+		return new RadialGradient(angle, distance, cx, cy, radius, proportional, getCycleMethod(), buildStops());
 	}
 }
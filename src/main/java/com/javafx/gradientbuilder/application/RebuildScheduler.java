@@ -0,0 +1,109 @@
+package com.javafx.gradientbuilder.application;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Dirty-flag scheduler which coalesces all the rebuild requests raised within one JavaFX pulse into a single rebuild. The rebuild is
+ * executed by an {@link AnimationTimer}, which is started on the first request and stopped once the rebuild is done, so nothing runs on
+ * the pulses where no property has changed.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class RebuildScheduler {
+
+	// Action to be executed once per pulse when the scheduler is dirty.
+	private final Runnable rebuild;
+
+	private boolean dirty;
+	private long requestedCount;
+	private long executedCount;
+
+	// Timer which gets called on the next pulse to flush the pending rebuild.
+	private final AnimationTimer pulseTimer = new AnimationTimer() {
+		@Override
+		public void handle(long now) {
+			flush();
+		}
+	};
+
+	/**
+	 * Constructor to initialize the scheduler.
+	 *
+	 * @param rebuild
+	 *            - Action to be executed on the next pulse.
+	 */
+	public RebuildScheduler(Runnable rebuild) {
+		this.rebuild = rebuild;
+	}
+
+	/**
+	 * Marks the scheduler as dirty. The rebuild is executed only once on the next pulse, no matter how many times this method is called
+	 * till then.
+	 */
+	public void requestRebuild() {
+		requestedCount++;
+		if (!dirty) {
+			dirty = true;
+			pulseTimer.start();
+		}
+	}
+
+	/**
+	 * Executes the pending rebuild immediately (if any), without waiting for the next pulse.
+	 */
+	public void flush() {
+		pulseTimer.stop();
+		if (!dirty) {
+			return;
+		}
+		dirty = false;
+		executedCount++;
+		rebuild.run();
+	}
+
+	/**
+	 * Cancels the pending rebuild (if any). Used when the rebuild is done directly by the caller.
+	 */
+	public void cancel() {
+		pulseTimer.stop();
+		dirty = false;
+	}
+
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	/**
+	 * Returns the number of rebuilds requested so far.
+	 *
+	 * @return long
+	 */
+	public long getRequestedCount() {
+		return requestedCount;
+	}
+
+	/**
+	 * Returns the number of rebuilds actually executed so far.
+	 *
+	 * @return long
+	 */
+	public long getExecutedCount() {
+		return executedCount;
+	}
+
+	/**
+	 * Returns the number of requests that were merged into another rebuild, i.e the rebuilds saved.
+	 *
+	 * @return long
+	 */
+	public long getCoalescedCount() {
+		return requestedCount - executedCount - (dirty ? 1 : 0);
+	}
+
+	@Override
+	public String toString() {
+		return "RebuildScheduler [requested=" + requestedCount + ", executed=" + executedCount + ", coalesced=" + getCoalescedCount() + "]";
+	}
+}
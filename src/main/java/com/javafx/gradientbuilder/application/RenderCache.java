@@ -0,0 +1,149 @@
+package com.javafx.gradientbuilder.application;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size bounded, content addressed cache of rendered images (e.g PNG bytes). The entries are keyed by the SHA-256 digest of their
+ * canonical description (see {@link #keyOf(String)}), so equal gradients written differently share an entry, and the key can be used
+ * as the entity tag of the image. The least recently used entries are evicted when the total size exceeds the limit. The cache counts
+ * the hits, misses and evictions. Instances are thread safe.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class RenderCache {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final long maxBytes;
+
+	// Entries in the access order, the eldest first.
+	private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+	private long bytes;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/**
+	 * Constructor to initialize the cache.
+	 *
+	 * @param maxBytes
+	 *            - Maximum size of the cached contents in bytes.
+	 */
+	public RenderCache(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("Invalid cache size : " + maxBytes);
+		}
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Returns the key of the content described by the canonical text : the hexadecimal SHA-256 digest of its UTF-8 bytes.
+	 *
+	 * @param canonical
+	 *            - Canonical description of the content, e.g the syntax of the parsed gradient and the size of the image.
+	 * @return String of 64 hexadecimal digits.
+	 */
+	public static String keyOf(String canonical) {
+		byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException ex) {
+			// SHA-256 is required on every Java platform.
+			throw new IllegalStateException(ex);
+		}
+		char[] hex = new char[digest.length * 2];
+		for (int i = 0; i < digest.length; i++) {
+			hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+			hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xF];
+		}
+		return new String(hex);
+	}
+
+	/**
+	 * Returns the cached content of the key.
+	 *
+	 * @param key
+	 *            - Key of the content.
+	 * @return Content (not to be modified), or null if it is not cached.
+	 */
+	public synchronized byte[] get(String key) {
+		byte[] content = entries.get(key);
+		if (content == null) {
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		return content;
+	}
+
+	/**
+	 * Caches the content of the key, evicting the least recently used entries if needed. A content larger than the cache is not cached.
+	 *
+	 * @param key
+	 *            - Key of the content.
+	 * @param content
+	 *            - Content, which is not copied and must not be modified afterwards.
+	 */
+	public synchronized void put(String key, byte[] content) {
+		if (content.length > maxBytes) {
+			return;
+		}
+		byte[] previous = entries.put(key, content);
+		if (previous != null) {
+			bytes -= previous.length;
+		}
+		bytes += content.length;
+
+		Iterator<Map.Entry<String, byte[]>> it = entries.entrySet().iterator();
+		while (bytes > maxBytes && it.hasNext()) {
+			bytes -= it.next().getValue().length;
+			it.remove();
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * Removes all the entries. The counters are not reset.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Entries : " + entries.size() + " (" + (bytes / 1024) + " KB of " + (maxBytes / 1024) + " KB), hits : " + hitCount
+				+ ", misses : " + missCount + ", evictions : " + evictionCount;
+	}
+}
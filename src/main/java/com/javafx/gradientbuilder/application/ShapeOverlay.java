@@ -0,0 +1,102 @@
+package com.javafx.gradientbuilder.application;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Ellipse;
+
+/**
+ * Rasterized image of a gradient shown over a preview shape, stretched to the size of the shape. The image and its pixel buffer are
+ * reused, and only reallocated when the size of the image is changed. Used by {@link TimelinePlayer} (at the size of the shape) and
+ * {@link DragPreview} (at a lower resolution).
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+final class ShapeOverlay {
+
+	final Pane shape;
+	private final ImageView view = new ImageView();
+	private WritableImage image;
+	private int[] pixels;
+
+	/**
+	 * Constructor to initialize the overlay of the shape.
+	 *
+	 * @param shape
+	 *            - Shape over which the image is shown.
+	 * @param elliptical
+	 *            - true to clip the image to the ellipse of the bounds of the shape.
+	 */
+	ShapeOverlay(Pane shape, boolean elliptical) {
+		this.shape = shape;
+		view.setManaged(false);
+		view.setMouseTransparent(true);
+		view.setSmooth(true);
+		view.fitWidthProperty().bind(shape.widthProperty());
+		view.fitHeightProperty().bind(shape.heightProperty());
+		if (elliptical) {
+			Ellipse clip = new Ellipse();
+			clip.centerXProperty().bind(shape.widthProperty().divide(2));
+			clip.centerYProperty().bind(shape.heightProperty().divide(2));
+			clip.radiusXProperty().bind(shape.widthProperty().divide(2));
+			clip.radiusYProperty().bind(shape.heightProperty().divide(2));
+			view.setClip(clip);
+		}
+	}
+
+	void attach() {
+		if (!shape.getChildren().contains(view)) {
+			shape.getChildren().add(view);
+		}
+	}
+
+	void detach() {
+		shape.getChildren().remove(view);
+	}
+
+	boolean isAttached() {
+		return view.getParent() != null;
+	}
+
+	/**
+	 * Returns the width of the image for the scale of the shape, at least 1 (0 if the shape is not laid out).
+	 */
+	int getImageWidth(double scale) {
+		return (shape.getWidth() <= 0) ? 0 : Math.max(1, (int) Math.ceil(shape.getWidth() * scale));
+	}
+
+	/**
+	 * Returns the height of the image for the scale of the shape, at least 1 (0 if the shape is not laid out).
+	 */
+	int getImageHeight(double scale) {
+		return (shape.getHeight() <= 0) ? 0 : Math.max(1, (int) Math.ceil(shape.getHeight() * scale));
+	}
+
+	/**
+	 * Rasterizes the frame into the image of the given size.
+	 *
+	 * @param rasterizer
+	 *            - Rasterizer of the frame.
+	 * @param frame
+	 *            - Gradient state, with its pixel geometry (if any) in the pixels of the image.
+	 * @param width
+	 *            - Width of the image.
+	 * @param height
+	 *            - Height of the image.
+	 */
+	void render(GradientRasterizer rasterizer, GradientFrame frame, int width, int height) {
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+		if (image == null || (int) image.getWidth() != width || (int) image.getHeight() != height) {
+			image = new WritableImage(width, height);
+			pixels = new int[width * height];
+			view.setImage(image);
+		}
+		rasterizer.rasterize(frame, width, height, pixels);
+		image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+	}
+}
@@ -0,0 +1,642 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Index of the feature vectors of the saved gradients (see {@link GradientFeatures}), returning the k most similar gradients to a
+ * vector. The vectors are kept in a vantage point tree over primitive arrays : each node is a vector with the median of the distances
+ * of the vectors below it, those closer than the median on one side and the others on the other side. A search visits a side only if
+ * it can hold a vector closer than the k-th found so far, and gives up the distance of a vector of a leaf as soon as it is farther :
+ * on a library of themes and their variants, it reads a few percent of the vectors.
+ * <p>
+ * The tree is implicit : the vectors are stored in the order of the tree, a node at the start of its range followed by the range of
+ * its inner side and then of its outer side (split at the middle), so only the median of each node is stored along with the vectors.
+ * The sides are built in parallel on a fork-join pool. The index can be saved next to the library and read back (see
+ * {@link #open(GradientLibrary, ForkJoinPool)}). Instances are immutable and thread safe.
+ * <p>
+ * Usage : SimilarityIndex &lt;library-file&gt; &lt;gradient syntax&gt; [&lt;k&gt;]
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class SimilarityIndex {
+
+	private static final int MAGIC = 0x47534958; // "GSIX"
+	// Version 2 : features of the linear gradients projected in pixels, and of the colors interpolated premultiplied.
+	private static final int VERSION = 2;
+	private static final int HEADER_SIZE = 24;
+
+	// Extension of the index file, next to the library.
+	public static final String EXTENSION = ".knn";
+
+	// Largest range scanned linearly, without node.
+	private static final int LEAF_SIZE = 16;
+
+	// Number of features summed between two checks of the distance against the k-th found.
+	private static final int ABANDON_STEP = 12;
+
+	// Largest range built by a single task.
+	private static final int PARALLEL_THRESHOLD = 4096;
+
+	private final int dimension;
+	private final int size;
+
+	// Vectors in the order of the tree, the index of the gradient of each, and the median distance of the node at each position.
+	private final float[] vectors;
+	private final int[] indexes;
+	private final float[] medians;
+
+	// Stamp of the indexed library (its size in bytes), to detect a changed library.
+	private final long stamp;
+
+	private SimilarityIndex(int dimension, float[] vectors, int[] indexes, float[] medians, long stamp) {
+		this.dimension = dimension;
+		this.size = indexes.length;
+		this.vectors = vectors;
+		this.indexes = indexes;
+		this.medians = medians;
+		this.stamp = stamp;
+	}
+
+	/**
+	 * Gradients found by a search, the most similar first.
+	 */
+	public static final class Result {
+		private final int[] indexes;
+		private final float[] distances;
+
+		Result(int[] indexes, float[] distances) {
+			this.indexes = indexes;
+			this.distances = distances;
+		}
+
+		public int size() {
+			return indexes.length;
+		}
+
+		/**
+		 * Returns the index of the i-th gradient (in the indexed collection).
+		 */
+		public int getIndex(int i) {
+			return indexes[i];
+		}
+
+		/**
+		 * Returns the distance of the vector of the i-th gradient.
+		 */
+		public float getDistance(int i) {
+			return distances[i];
+		}
+	}
+
+	/**
+	 * Builds the index of the vectors.
+	 *
+	 * @param vectors
+	 *            - Vectors, one after the other (the vector i is at i * dimension). The array is not modified.
+	 * @param dimension
+	 *            - Number of features of a vector.
+	 * @param stamp
+	 *            - Stamp of the indexed collection.
+	 * @param pool
+	 *            - Pool on which the index is built.
+	 * @return SimilarityIndex
+	 */
+	public static SimilarityIndex build(float[] vectors, int dimension, long stamp, ForkJoinPool pool) {
+		if (dimension <= 0 || vectors.length % dimension != 0) {
+			throw new IllegalArgumentException("Invalid dimension " + dimension + " for " + vectors.length + " features");
+		}
+		int count = vectors.length / dimension;
+		int[] order = new int[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+		float[] medians = new float[count];
+		invoke(pool, new BuildTask(vectors, dimension, order, new float[count], medians, 0, count));
+
+		float[] sorted = new float[vectors.length];
+		for (int i = 0; i < count; i++) {
+			System.arraycopy(vectors, order[i] * dimension, sorted, i * dimension, dimension);
+		}
+		return new SimilarityIndex(dimension, sorted, order, medians, stamp);
+	}
+
+	/**
+	 * Builds the index of the gradients of the library, extracting their features in parallel on the pool.
+	 *
+	 * @param library
+	 *            - Library to be indexed.
+	 * @param pool
+	 *            - Pool on which the index is built.
+	 * @return SimilarityIndex
+	 * @throws IOException
+	 *             if the size of the library file cannot be read.
+	 */
+	public static SimilarityIndex build(GradientLibrary library, ForkJoinPool pool) throws IOException {
+		long stamp = Files.size(library.getFile());
+		int count = library.size();
+		float[] vectors = new float[count * GradientFeatures.DIMENSION];
+		ThreadLocal<GradientFeatures> features = ThreadLocal.withInitial(GradientFeatures::new);
+		try {
+			pool.submit(() -> IntStream.range(0, count).parallel()
+					.forEach(i -> features.get().extract(library.get(i), vectors, i * GradientFeatures.DIMENSION))).get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Indexing interrupted", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException(ex.getCause());
+		}
+		return build(vectors, GradientFeatures.DIMENSION, stamp, pool);
+	}
+
+	private static void invoke(ForkJoinPool pool, RecursiveAction task) {
+		try {
+			pool.submit(task).get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Indexing interrupted", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+
+	/**
+	 * Returns the index of the library, loaded from its file next to the library if it is up to date, else built and saved. The index of
+	 * a library opened read only is returned even if it cannot be saved, as its directory may not be writable.
+	 *
+	 * @param library
+	 *            - Library.
+	 * @param pool
+	 *            - Pool on which the index is built if needed.
+	 * @return SimilarityIndex
+	 * @throws IOException
+	 *             if the index cannot be saved.
+	 */
+	public static SimilarityIndex open(GradientLibrary library, ForkJoinPool pool) throws IOException {
+		Path file = getPath(library.getFile());
+		if (Files.isRegularFile(file)) {
+			try {
+				SimilarityIndex index = load(file);
+				if (index.isUpToDate(library)) {
+					return index;
+				}
+			} catch (IOException ex) {
+				// Built again below.
+			}
+		}
+		SimilarityIndex index = build(library, pool);
+		try {
+			index.save(file);
+		} catch (IOException ex) {
+			if (!library.isReadOnly()) {
+				throw ex;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the path of the index file of the library.
+	 *
+	 * @param libraryFile
+	 *            - Library file.
+	 * @return Path
+	 */
+	public static Path getPath(Path libraryFile) {
+		return libraryFile.resolveSibling(libraryFile.getFileName() + EXTENSION);
+	}
+
+	/**
+	 * Returns true if the index has the features of all the gradients of the library.
+	 *
+	 * @param library
+	 *            - Library.
+	 * @return boolean
+	 * @throws IOException
+	 *             if the size of the library file cannot be read.
+	 */
+	public boolean isUpToDate(GradientLibrary library) throws IOException {
+		return dimension == GradientFeatures.DIMENSION && size == library.size() && stamp == Files.size(library.getFile());
+	}
+
+	/**
+	 * Returns the k gradients whose vectors are the closest to the query vector.
+	 *
+	 * @param query
+	 *            - Vector of the searched gradient.
+	 * @param k
+	 *            - Number of gradients.
+	 * @return Result
+	 */
+	public Result search(float[] query, int k) {
+		Search search = new Search(query, k);
+		if (search.k > 0) {
+			search.visit(0, size);
+		}
+		return search.toResult();
+	}
+
+	/**
+	 * Returns the k closest gradients by comparing the query vector with all the vectors, without the tree. Gives the same gradients
+	 * as {@link #search(float[], int)} (in any order for the same distance).
+	 *
+	 * @param query
+	 *            - Vector of the searched gradient.
+	 * @param k
+	 *            - Number of gradients.
+	 * @return Result
+	 */
+	public Result searchExhaustive(float[] query, int k) {
+		Search search = new Search(query, k);
+		for (int i = 0; search.k > 0 && i < size; i++) {
+			search.consider(i);
+		}
+		return search.toResult();
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * Search of the k closest vectors, holding the closest found so far in a max-heap on their distance.
+	 */
+	private final class Search {
+		final float[] query;
+		final int k;
+		final int[] heapPositions;
+		final float[] heapDistances;
+		int heapSize;
+
+		Search(float[] query, int k) {
+			if (query.length != dimension) {
+				throw new IllegalArgumentException("Query of " + query.length + " features instead of " + dimension);
+			}
+			this.query = query;
+			this.k = Math.max(0, Math.min(k, size));
+			this.heapPositions = new int[this.k];
+			this.heapDistances = new float[this.k];
+		}
+
+		/**
+		 * Distance within which a vector is closer than the k-th found.
+		 */
+		float bound() {
+			return (heapSize < k) ? Float.POSITIVE_INFINITY : heapDistances[0];
+		}
+
+		void visit(int lo, int hi) {
+			if (hi - lo <= LEAF_SIZE) {
+				for (int i = lo; i < hi; i++) {
+					consider(i);
+				}
+				return;
+			}
+			float distance = (float) Math.sqrt(squaredDistance(query, 0, vectors, lo * dimension, dimension, Float.POSITIVE_INFINITY));
+			if (distance < bound()) {
+				add(lo, distance);
+			}
+			int mid = (lo + 1 + hi) >>> 1;
+			float median = medians[lo];
+			if (distance < median) {
+				if (distance - bound() <= median) {
+					visit(lo + 1, mid);
+				}
+				if (distance + bound() >= median) {
+					visit(mid, hi);
+				}
+			} else {
+				if (distance + bound() >= median) {
+					visit(mid, hi);
+				}
+				if (distance - bound() <= median) {
+					visit(lo + 1, mid);
+				}
+			}
+		}
+
+		/**
+		 * Adds the vector at the position if it is closer than the k-th found, giving up its distance as soon as it is farther.
+		 */
+		void consider(int position) {
+			float bound = bound();
+			float squared = squaredDistance(query, 0, vectors, position * dimension, dimension, bound * bound);
+			if (squared < bound * bound) {
+				add(position, (float) Math.sqrt(squared));
+			}
+		}
+
+		void add(int position, float distance) {
+			if (heapSize < k) {
+				// Sifting up the new vector.
+				int i = heapSize++;
+				while (i > 0 && heapDistances[(i - 1) / 2] < distance) {
+					heapPositions[i] = heapPositions[(i - 1) / 2];
+					heapDistances[i] = heapDistances[(i - 1) / 2];
+					i = (i - 1) / 2;
+				}
+				heapPositions[i] = position;
+				heapDistances[i] = distance;
+			} else {
+				// Replacing the farthest and sifting it down.
+				int i = 0;
+				while (2 * i + 1 < k) {
+					int child = 2 * i + 1;
+					if (child + 1 < k && heapDistances[child + 1] > heapDistances[child]) {
+						child++;
+					}
+					if (heapDistances[child] <= distance) {
+						break;
+					}
+					heapPositions[i] = heapPositions[child];
+					heapDistances[i] = heapDistances[child];
+					i = child;
+				}
+				heapPositions[i] = position;
+				heapDistances[i] = distance;
+			}
+		}
+
+		Result toResult() {
+			int[] found = new int[heapSize];
+			float[] distances = new float[heapSize];
+			// Sorting the heap by distance (insertion sort, k is small).
+			for (int i = 0; i < heapSize; i++) {
+				int j = i;
+				while (j > 0 && distances[j - 1] > heapDistances[i]) {
+					found[j] = found[j - 1];
+					distances[j] = distances[j - 1];
+					j--;
+				}
+				found[j] = indexes[heapPositions[i]];
+				distances[j] = heapDistances[i];
+			}
+			return new Result(found, distances);
+		}
+	}
+
+	/**
+	 * Returns the squared distance of two vectors, or a partial sum greater than the limit as soon as it is (checked every few features).
+	 */
+	private static float squaredDistance(float[] v1, int offset1, float[] v2, int offset2, int dimension, float limit) {
+		float sum = 0;
+		for (int i = 0; i < dimension;) {
+			for (int end = Math.min(i + ABANDON_STEP, dimension); i < end; i++) {
+				float d = v1[offset1 + i] - v2[offset2 + i];
+				sum += d * d;
+			}
+			if (sum > limit) {
+				break;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Task building the node of a range : a random vantage point moved to the start, and the other vectors split at the middle by
+	 * their distance to it, the closest first.
+	 */
+	private static final class BuildTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		final float[] vectors;
+		final int dimension;
+		final int[] order;
+		final float[] distances;
+		final float[] medians;
+		final int lo;
+		final int hi;
+
+		BuildTask(float[] vectors, int dimension, int[] order, float[] distances, float[] medians, int lo, int hi) {
+			this.vectors = vectors;
+			this.dimension = dimension;
+			this.order = order;
+			this.distances = distances;
+			this.medians = medians;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo <= LEAF_SIZE) {
+				return;
+			}
+			swap(order, distances, lo, lo + ThreadLocalRandom.current().nextInt(hi - lo));
+			int vantage = order[lo] * dimension;
+			for (int i = lo + 1; i < hi; i++) {
+				distances[i] = (float) Math.sqrt(squaredDistance(vectors, vantage, vectors, order[i] * dimension, dimension, Float.POSITIVE_INFINITY));
+			}
+			int mid = (lo + 1 + hi) >>> 1;
+			select(lo + 1, hi, mid);
+			medians[lo] = distances[mid];
+
+			BuildTask inner = new BuildTask(vectors, dimension, order, distances, medians, lo + 1, mid);
+			BuildTask outer = new BuildTask(vectors, dimension, order, distances, medians, mid, hi);
+			if (hi - lo > PARALLEL_THRESHOLD) {
+				invokeAll(inner, outer);
+			} else {
+				inner.compute();
+				outer.compute();
+			}
+		}
+
+		/**
+		 * Moves the k-th smallest distance of the range to k, the smaller ones before it and the greater ones after it (quickselect).
+		 */
+		private void select(int from, int to, int k) {
+			int left = from;
+			int right = to - 1;
+			while (right > left) {
+				float pivot = distances[(left + right) >>> 1];
+				int i = left;
+				int j = right;
+				while (i <= j) {
+					while (distances[i] < pivot) {
+						i++;
+					}
+					while (distances[j] > pivot) {
+						j--;
+					}
+					if (i <= j) {
+						swap(order, distances, i++, j--);
+					}
+				}
+				if (k <= j) {
+					right = j;
+				} else if (k >= i) {
+					left = i;
+				} else {
+					return;
+				}
+			}
+		}
+	}
+
+	private static void swap(int[] order, float[] distances, int i, int j) {
+		int o = order[i];
+		order[i] = order[j];
+		order[j] = o;
+		float d = distances[i];
+		distances[i] = distances[j];
+		distances[j] = d;
+	}
+
+	/**
+	 * Saves the index to the file, replacing it once written.
+	 *
+	 * @param file
+	 *            - Index file.
+	 * @throws IOException
+	 *             if the file cannot be written.
+	 */
+	public void save(Path file) throws IOException {
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(dimension).putInt(size).putLong(stamp);
+			for (int i = 0; i < size; i++) {
+				flushIfFull(channel, buffer, 8);
+				buffer.putInt(indexes[i]).putFloat(medians[i]);
+			}
+			for (int i = 0; i < vectors.length; i++) {
+				flushIfFull(channel, buffer, 4);
+				buffer.putFloat(vectors[i]);
+			}
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static void flushIfFull(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+		if (buffer.remaining() < needed) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Reads from the channel until the buffer has the needed bytes remaining, keeping those not read yet.
+	 */
+	private static void fillIfShort(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+		if (buffer.remaining() < needed) {
+			buffer.compact();
+			while (buffer.position() < needed) {
+				if (channel.read(buffer) < 0) {
+					throw new IOException("Unexpected end of the similarity index");
+				}
+			}
+			buffer.flip();
+		}
+	}
+
+	/**
+	 * Loads the index saved to the file.
+	 *
+	 * @param file
+	 *            - Index file.
+	 * @return SimilarityIndex
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid index.
+	 */
+	public static SimilarityIndex load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long length = channel.size();
+			if (length < HEADER_SIZE) {
+				throw new IOException("Not a similarity index : " + file);
+			}
+			// Read through a buffer on the heap, as a mapping left open until it is collected would prevent replacing the file on
+			// Windows (see save).
+			ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+			buffer.limit(0);
+			fillIfShort(channel, buffer, HEADER_SIZE);
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				throw new IOException("Not a similarity index : " + file);
+			}
+			int dimension = buffer.getInt();
+			int size = buffer.getInt();
+			long stamp = buffer.getLong();
+			if (dimension <= 0 || size < 0 || (long) size * dimension > Integer.MAX_VALUE
+					|| length != HEADER_SIZE + size * 8L + (long) size * dimension * 4) {
+				throw new IOException("Corrupted similarity index : " + file);
+			}
+			int[] indexes = new int[size];
+			float[] medians = new float[size];
+			for (int i = 0; i < size; i++) {
+				fillIfShort(channel, buffer, 8);
+				indexes[i] = buffer.getInt();
+				medians[i] = buffer.getFloat();
+			}
+			float[] vectors = new float[size * dimension];
+			for (int i = 0; i < vectors.length;) {
+				fillIfShort(channel, buffer, 4);
+				int count = Math.min(buffer.remaining() / 4, vectors.length - i);
+				buffer.asFloatBuffer().get(vectors, i, count);
+				buffer.position(buffer.position() + count * 4);
+				i += count;
+			}
+			return new SimilarityIndex(dimension, vectors, indexes, medians, stamp);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		int k = 10;
+		GradientModel model = null;
+		try {
+			if (args.length < 2) {
+				throw new IllegalArgumentException("Missing arguments");
+			}
+			model = new GradientParser().parse(args[1]);
+			if (args.length > 2) {
+				k = Integer.parseInt(args[2]);
+			}
+		} catch (IllegalArgumentException ex) {
+			System.err.println("Usage : SimilarityIndex <library-file> <gradient syntax> [<k>]");
+			System.err.println(ex.getMessage());
+			System.exit(1);
+		}
+		Path path = Paths.get(args[0]);
+		if (!Files.isRegularFile(path)) {
+			System.err.println("No such library : " + path);
+			System.exit(1);
+		}
+
+		try (GradientLibrary library = GradientLibrary.openReadOnly(path)) {
+			long start = System.nanoTime();
+			SimilarityIndex index = open(library, ForkJoinPool.commonPool());
+			long opened = System.nanoTime();
+			Result result = index.search(new GradientFeatures().extract(model), k);
+			long searched = System.nanoTime();
+			for (int i = 0; i < result.size(); i++) {
+				int found = result.getIndex(i);
+				System.out.println(String.format("%.2f\t%d\t%s\t%s", GradientFeatures.toDeltaE(result.getDistance(i)), found,
+						library.getName(found), library.get(found).toSyntax()));
+			}
+			System.err.println("Index of " + index.size() + " gradients opened in " + (opened - start) / 1_000_000 + " ms, searched in "
+					+ (searched - opened) / 1000 + " us");
+		}
+	}
+}
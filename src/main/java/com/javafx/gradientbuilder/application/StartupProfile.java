@@ -0,0 +1,169 @@
+package com.javafx.gradientbuilder.application;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timings of the startup phases of the application : each phase is timed from the end of the previous one (or the creation of the
+ * profile), and the profile is complete when the first frame is shown. The time from the start of the JVM to the creation of the profile
+ * (class loading, toolkit startup) is reported too, as it is part of the startup seen by the user. The work deferred from the startup to
+ * its first use (e.g opening the library and its similarity index) is timed as deferred phases, to check that it stays out of the
+ * startup and to measure the wait it moves to that first use.
+ * <p>
+ * The report is printed to the standard error on completion if the system property {@link #REPORT_PROPERTY} is "true", and it can be read
+ * by the startup harness of the benchmarks.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class StartupProfile {
+
+	// System property to print the report when the startup is complete.
+	public static final String REPORT_PROPERTY = "gradientbuilder.startupReport";
+
+	private final long createdAt = System.nanoTime();
+	private final long jvmMillis;
+
+	// Names and durations (in nanoseconds) of the phases, in order.
+	private final List<String> phases = new ArrayList<String>();
+	private final List<Long> durations = new ArrayList<Long>();
+	private long lastMark = createdAt;
+	private long completedAt;
+
+	// Names and durations (in nanoseconds) of the deferred phases, in the order of their first use.
+	private final List<String> deferred = new ArrayList<String>();
+	private final List<Long> deferredDurations = new ArrayList<Long>();
+
+	/**
+	 * Constructor to start the profile.
+	 */
+	public StartupProfile() {
+		long uptime;
+		try {
+			uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+		} catch (RuntimeException ex) {
+			uptime = -1;
+		}
+		this.jvmMillis = uptime;
+	}
+
+	/**
+	 * Records the end of a phase, started at the end of the previous phase.
+	 *
+	 * @param phase
+	 *            - Name of the phase.
+	 */
+	public void mark(String phase) {
+		if (isComplete()) {
+			return;
+		}
+		long now = System.nanoTime();
+		phases.add(phase);
+		durations.add(now - lastMark);
+		lastMark = now;
+	}
+
+	/**
+	 * Records the last phase and completes the profile, printing the report if requested.
+	 *
+	 * @param phase
+	 *            - Name of the last phase.
+	 */
+	public void complete(String phase) {
+		if (isComplete()) {
+			return;
+		}
+		mark(phase);
+		completedAt = lastMark;
+		if (Boolean.getBoolean(REPORT_PROPERTY)) {
+			System.err.println(getReport());
+		}
+	}
+
+	public boolean isComplete() {
+		return completedAt != 0;
+	}
+
+	/**
+	 * Records the duration of a deferred phase at its first use, printing it if the report is requested. The later uses are not
+	 * recorded.
+	 *
+	 * @param phase
+	 *            - Name of the deferred phase.
+	 * @param nanos
+	 *            - Duration of the phase in nanoseconds.
+	 */
+	public void recordDeferred(String phase, long nanos) {
+		if (deferred.contains(phase)) {
+			return;
+		}
+		deferred.add(phase);
+		deferredDurations.add(nanos);
+		if (Boolean.getBoolean(REPORT_PROPERTY)) {
+			System.err.println(String.format("Deferred %s : %.2f ms", phase, nanos / 1e6));
+		}
+	}
+
+	/**
+	 * Returns the duration of the deferred phase in nanoseconds, or -1 if it is not used yet.
+	 *
+	 * @param phase
+	 *            - Name of the deferred phase.
+	 * @return long
+	 */
+	public long getDeferredNanos(String phase) {
+		int index = deferred.indexOf(phase);
+		return (index < 0) ? -1 : deferredDurations.get(index);
+	}
+
+	/**
+	 * Returns the duration of the phase in nanoseconds, or -1 if it is not recorded.
+	 *
+	 * @param phase
+	 *            - Name of the phase.
+	 * @return long
+	 */
+	public long getPhaseNanos(String phase) {
+		int index = phases.indexOf(phase);
+		return (index < 0) ? -1 : durations.get(index);
+	}
+
+	/**
+	 * Returns the time from the creation of the profile to its last phase, in nanoseconds.
+	 *
+	 * @return long
+	 */
+	public long getTotalNanos() {
+		return lastMark - createdAt;
+	}
+
+	/**
+	 * Returns the time from the start of the JVM to the creation of the profile in milliseconds, or -1 if unknown.
+	 *
+	 * @return long
+	 */
+	public long getJvmMillis() {
+		return jvmMillis;
+	}
+
+	/**
+	 * Returns the phases as text, a line per phase.
+	 *
+	 * @return String
+	 */
+	public String getReport() {
+		StringBuilder sb = new StringBuilder("Startup phases :\n");
+		if (jvmMillis >= 0) {
+			sb.append(String.format("  %-16s : %8d ms%n", "jvm + toolkit", jvmMillis));
+		}
+		for (int i = 0; i < phases.size(); i++) {
+			sb.append(String.format("  %-16s : %8.2f ms%n", phases.get(i), durations.get(i) / 1e6));
+		}
+		sb.append(String.format("  %-16s : %8.2f ms%s", "total", getTotalNanos() / 1e6, isComplete() ? "" : " (incomplete)"));
+		for (int i = 0; i < deferred.size(); i++) {
+			sb.append(String.format("%n  %-16s : %8.2f ms (deferred)", deferred.get(i), deferredDurations.get(i) / 1e6));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,398 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scans a directory tree of stylesheets (*.css) for the linear and radial gradients, and builds an index of the file, byte offset,
+ * selector and parsed {@link GradientModel} of every gradient found. Gradients which cannot be parsed are indexed with the parse error.
+ * <p>
+ * The files are memory mapped and parsed in place with {@link GradientParser} (no decoding of the whole file into a String), and are
+ * split between the tasks of a fork-join pool.
+ * <p>
+ * Usage : StylesheetScanner &lt;directory&gt; [&lt;index-file&gt;]
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class StylesheetScanner {
+
+	// Number of files below which a task does not split any further.
+	private static final int FILES_PER_TASK = 8;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructor to scan on the common fork-join pool.
+	 */
+	public StylesheetScanner() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor to scan on the given pool.
+	 *
+	 * @param pool
+	 *            - Pool on which the files are scanned.
+	 */
+	public StylesheetScanner(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Scans all the stylesheets in the directory tree.
+	 *
+	 * @param root
+	 *            - Directory (or a single file) to be scanned.
+	 * @return List of the index entries, ordered by file and offset.
+	 * @throws IOException
+	 *             if a file cannot be read.
+	 */
+	public List<Entry> scan(Path root) throws IOException {
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(root)) {
+			files = stream.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(".css")).sorted()
+					.collect(Collectors.toList());
+		}
+		try {
+			return pool.invoke(new ScanTask(files, 0, files.size()));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Scans a single stylesheet.
+	 *
+	 * @param file
+	 *            - Stylesheet to be scanned.
+	 * @param parser
+	 *            - Parser to be used, which is reused across the files of a task.
+	 * @return List of the index entries of the file.
+	 * @throws IOException
+	 *             if the file cannot be read.
+	 */
+	public static List<Entry> scanFile(Path file, GradientParser parser) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size == 0) {
+				return Collections.emptyList();
+			}
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("File is too large to be scanned : " + file);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			ByteCharSequence text = new ByteCharSequence(buffer, 0, (int) size);
+			RuleTracker rules = new RuleTracker(text);
+			List<Entry> entries = new ArrayList<>();
+
+			int end = text.length();
+			int pos = 0;
+			while ((pos = GradientParser.indexOfGradient(text, pos, end)) >= 0) {
+				rules.advanceTo(pos);
+				// Gradients in comments and strings (e.g "content" or quoted urls) are not in effect.
+				if (rules.inComment || rules.inString != 0) {
+					pos++;
+					continue;
+				}
+				String selector = rules.selector(buffer);
+				try {
+					GradientModel model = parser.parse(text, pos, end);
+					entries.add(new Entry(file, pos, selector, model, null));
+					pos = parser.getEndIndex();
+				} catch (IllegalArgumentException e) {
+					entries.add(new Entry(file, pos, selector, null, e.getMessage()));
+					pos++;
+				}
+			}
+			return entries;
+		}
+	}
+
+	/**
+	 * Writes the index as tab separated lines of file, offset, selector and gradient syntax (or the parse error prefixed by "!").
+	 *
+	 * @param entries
+	 *            - Entries to be written.
+	 * @param out
+	 *            - Writer to which the index is written.
+	 * @throws IOException
+	 *             if the index cannot be written.
+	 */
+	public static void writeIndex(List<Entry> entries, Writer out) throws IOException {
+		StringBuilder line = new StringBuilder(256);
+		for (Entry entry : entries) {
+			line.setLength(0);
+			line.append(entry.getFile()).append('\t').append(entry.getOffset()).append('\t').append(entry.getSelector()).append('\t');
+			if (entry.getGradient() != null) {
+				entry.getGradient().appendSyntax(line);
+			} else {
+				line.append('!').append(entry.getError());
+			}
+			line.append('\n');
+			out.append(line);
+		}
+		out.flush();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage : StylesheetScanner <directory> [<index-file>]");
+			System.exit(1);
+		}
+		long start = System.nanoTime();
+		List<Entry> entries = new StylesheetScanner().scan(Paths.get(args[0]));
+		long elapsed = System.nanoTime() - start;
+
+		if (args.length > 1) {
+			try (Writer out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+				writeIndex(entries, out);
+			}
+		} else {
+			writeIndex(entries, new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		}
+
+		long files = entries.stream().map(Entry::getFile).distinct().count();
+		long errors = entries.stream().filter(e -> e.getGradient() == null).count();
+		System.err.println("Indexed " + entries.size() + " gradients (" + errors + " errors) in " + files + " files in "
+				+ (elapsed / 1_000_000) + " ms");
+	}
+
+	/**
+	 * Index entry of a gradient found in a stylesheet.
+	 */
+	public static final class Entry {
+		private final Path file;
+		private final int offset;
+		private final String selector;
+		private final GradientModel gradient;
+		private final String error;
+
+		Entry(Path file, int offset, String selector, GradientModel gradient, String error) {
+			this.file = file;
+			this.offset = offset;
+			this.selector = selector;
+			this.gradient = gradient;
+			this.error = error;
+		}
+
+		public Path getFile() {
+			return file;
+		}
+
+		/**
+		 * Returns the byte offset of the gradient in the file.
+		 *
+		 * @return int
+		 */
+		public int getOffset() {
+			return offset;
+		}
+
+		/**
+		 * Returns the selector of the rule containing the gradient, empty if the gradient is not inside a rule.
+		 *
+		 * @return String
+		 */
+		public String getSelector() {
+			return selector;
+		}
+
+		/**
+		 * Returns the parsed gradient, null if the gradient could not be parsed.
+		 *
+		 * @return GradientModel
+		 */
+		public GradientModel getGradient() {
+			return gradient;
+		}
+
+		/**
+		 * Returns the parse error, null if the gradient is parsed.
+		 *
+		 * @return String
+		 */
+		public String getError() {
+			return error;
+		}
+
+		@Override
+		public String toString() {
+			return file + ":" + offset + " " + selector + " " + (gradient != null ? gradient : "!" + error);
+		}
+	}
+
+	/**
+	 * Task which scans a range of the files, splitting the range in halves till it is small enough.
+	 */
+	private static final class ScanTask extends RecursiveTask<List<Entry>> {
+		private static final long serialVersionUID = 1L;
+
+		private final List<Path> files;
+		private final int from;
+		private final int to;
+
+		ScanTask(List<Path> files, int from, int to) {
+			this.files = files;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected List<Entry> compute() {
+			if (to - from <= FILES_PER_TASK) {
+				GradientParser parser = new GradientParser();
+				List<Entry> entries = new ArrayList<>();
+				for (int i = from; i < to; i++) {
+					try {
+						entries.addAll(scanFile(files.get(i), parser));
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+				return entries;
+			}
+			int mid = (from + to) >>> 1;
+			ScanTask left = new ScanTask(files, from, mid);
+			left.fork();
+			List<Entry> right = new ScanTask(files, mid, to).compute();
+			List<Entry> entries = left.join();
+			entries.addAll(right);
+			return entries;
+		}
+	}
+
+	/**
+	 * Tracks the rule (selector and block) at a position of the stylesheet, by reading the text forward once. Comments and strings are
+	 * skipped, and the selectors of the nested blocks (e.g inside "@media") are kept on a stack.
+	 */
+	private static final class RuleTracker {
+		private final CharSequence text;
+		private int pos;
+
+		boolean inComment;
+		char inString;
+
+		// Start of the current selector/statement, and whether it has any text yet.
+		private int selectorStart;
+		private boolean selectorHasText;
+
+		// Start/end of the selectors of the open blocks.
+		private int[] blocks = new int[16];
+		private int depth;
+
+		RuleTracker(CharSequence text) {
+			this.text = text;
+		}
+
+		void advanceTo(int target) {
+			final int length = text.length();
+			while (pos < target) {
+				char c = text.charAt(pos);
+				char next = (pos + 1 < length) ? text.charAt(pos + 1) : 0;
+				if (inComment) {
+					if (c == '*' && next == '/') {
+						inComment = false;
+						pos += 2;
+						if (!selectorHasText) {
+							selectorStart = pos;
+						}
+					} else {
+						pos++;
+					}
+					continue;
+				}
+				if (inString != 0) {
+					if (c == '\\') {
+						pos += 2;
+						continue;
+					}
+					if (c == inString) {
+						inString = 0;
+					}
+					pos++;
+					continue;
+				}
+				switch (c) {
+				case '/':
+					if (next == '*') {
+						inComment = true;
+						pos += 2;
+						continue;
+					}
+					break;
+				case '"':
+				case '\'':
+					inString = c;
+					break;
+				case '{':
+					if (2 * depth + 2 > blocks.length) {
+						blocks = Arrays.copyOf(blocks, blocks.length * 2);
+					}
+					blocks[2 * depth] = selectorStart;
+					blocks[2 * depth + 1] = pos;
+					depth++;
+					startStatement(pos + 1);
+					pos++;
+					continue;
+				case '}':
+					if (depth > 0) {
+						depth--;
+					}
+					startStatement(pos + 1);
+					pos++;
+					continue;
+				case ';':
+					startStatement(pos + 1);
+					pos++;
+					continue;
+				default:
+					break;
+				}
+				if (!Character.isWhitespace(c)) {
+					selectorHasText = true;
+				}
+				pos++;
+			}
+		}
+
+		private void startStatement(int start) {
+			selectorStart = start;
+			selectorHasText = false;
+		}
+
+		/**
+		 * Returns the selector of the innermost open block, with the white spaces collapsed.
+		 */
+		String selector(MappedByteBuffer buffer) {
+			if (depth == 0) {
+				return "";
+			}
+			int start = blocks[2 * (depth - 1)];
+			int end = blocks[2 * (depth - 1) + 1];
+			byte[] bytes = new byte[end - start];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = buffer.get(start + i);
+			}
+			return new String(bytes, StandardCharsets.UTF_8).trim().replaceAll("\\s+", " ");
+		}
+	}
+}
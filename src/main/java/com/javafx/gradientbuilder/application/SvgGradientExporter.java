@@ -0,0 +1,114 @@
+package com.javafx.gradientbuilder.application;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Exporter of the gradient to an SVG image of the shape, filled by a &lt;linearGradient&gt; or &lt;radialGradient&gt;.
+ * <p>
+ * The radial gradient is exported as is : proportional geometry in "objectBoundingBox" units (stretched to the shape as in JavaFX), pixel
+ * geometry in "userSpaceOnUse" units and the focus as the focal point (fx, fy). JavaFX does not stretch the linear gradients (the lines of
+ * equal color stay perpendicular to the gradient), so their proportional points are scaled to the shape in "userSpaceOnUse" units. The
+ * cycle method is exported as the spread method.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class SvgGradientExporter extends GradientExporter {
+
+	/**
+	 * Constructor to initialize the exporter.
+	 *
+	 * @param width
+	 *            - Width of the shape.
+	 * @param height
+	 *            - Height of the shape.
+	 */
+	public SvgGradientExporter(int width, int height) {
+		super(width, height);
+	}
+
+	@Override
+	public Format getFormat() {
+		return Format.SVG;
+	}
+
+	@Override
+	public void write(GradientModel model, Writer out) throws IOException {
+		out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<svg xmlns=\"http://www.w3.org/2000/svg\"");
+		writeAttribute(out, "width", width);
+		writeAttribute(out, "height", height);
+		out.write(" viewBox=\"0 0 ");
+		writeNumber(out, width);
+		out.write(' ');
+		writeNumber(out, height);
+		out.write("\">\n\t<defs>\n");
+
+		String element;
+		if (model instanceof LinearGradientModel) {
+			LinearGradientModel linear = (LinearGradientModel) model;
+			element = "linearGradient";
+			double[] p = linear.getPoints();
+			double sx = linear.isProportional() ? width : 1;
+			double sy = linear.isProportional() ? height : 1;
+			out.write("\t\t<linearGradient id=\"gradient\"");
+			writeAttribute(out, "gradientUnits", "userSpaceOnUse");
+			writeAttribute(out, "x1", p[0] * sx);
+			writeAttribute(out, "y1", p[1] * sy);
+			writeAttribute(out, "x2", p[2] * sx);
+			writeAttribute(out, "y2", p[3] * sy);
+		} else {
+			RadialGradientModel radial = (RadialGradientModel) model;
+			element = "radialGradient";
+			double radius = radial.getEffectiveRadius();
+			double distance = getFocusDistance(radial) * radius;
+			double angle = Math.toRadians(radial.getEffectiveFocusAngle());
+			double cx = radial.getEffectiveCenterX();
+			double cy = radial.getEffectiveCenterY();
+			out.write("\t\t<radialGradient id=\"gradient\"");
+			writeUnits(out, radial.isProportional());
+			writeAttribute(out, "cx", cx);
+			writeAttribute(out, "cy", cy);
+			writeAttribute(out, "r", radius);
+			writeAttribute(out, "fx", cx + distance * Math.cos(angle));
+			writeAttribute(out, "fy", cy + distance * Math.sin(angle));
+		}
+		switch (model.getRepeatOrReflect()) {
+		case REPEAT:
+			writeAttribute(out, "spreadMethod", "repeat");
+			break;
+		case REFLECT:
+			writeAttribute(out, "spreadMethod", "reflect");
+			break;
+		default:
+			writeAttribute(out, "spreadMethod", "pad");
+			break;
+		}
+		out.write(">\n");
+
+		double[] offsets = model.resolveOffsets();
+		for (int i = 0; i < offsets.length; i++) {
+			int color = model.getColor(i);
+			out.write("\t\t\t<stop");
+			writeAttribute(out, "offset", offsets[i]);
+			out.write(" stop-color=\"");
+			HexEncoder.writeHex(out, color, false);
+			out.write('"');
+			if ((color >>> 24) != 0xFF) {
+				writeAttribute(out, "stop-opacity", (color >>> 24) / 255.0);
+			}
+			out.write("/>\n");
+		}
+
+		out.write("\t\t</");
+		out.write(element);
+		out.write(">\n\t</defs>\n\t<rect");
+		writeAttribute(out, "width", width);
+		writeAttribute(out, "height", height);
+		out.write(" fill=\"url(#gradient)\"/>\n</svg>\n");
+	}
+
+	private static void writeUnits(Writer out, boolean proportional) throws IOException {
+		writeAttribute(out, "gradientUnits", proportional ? "objectBoundingBox" : "userSpaceOnUse");
+	}
+}
@@ -22,6 +22,7 @@ public interface SyntaxConstants {
 	public String focusDistUnit = "% ";
 	public String centerStart = "center ";
 	public String centerUnit = "% ";
+	public String centerPixelUnit = "px ";
 	public String radiusStart = "radius ";
 	public String radiusPercentUnit = "% ";
 	public String radiusPixelUnit = "px ";
@@ -57,13 +58,19 @@ public interface SyntaxConstants {
 	}
 	
 	public enum LinearDirection{
-		TOP("top"), LEFT("left"), BOTTOM("bottom"), RIGHT("right"),
-		TOP_LEFT("top left"), TOP_RIGHT("top right"),
-		BOTTOM_LEFT("bottom left"), BOTTOM_RIGHT("bottom right");
+		TOP("top", 0, 1, 0, 0), LEFT("left", 1, 0, 0, 0), BOTTOM("bottom", 0, 0, 0, 1), RIGHT("right", 0, 0, 1, 0),
+		TOP_LEFT("top left", 1, 1, 0, 0), TOP_RIGHT("top right", 0, 1, 1, 0),
+		BOTTOM_LEFT("bottom left", 1, 0, 0, 1), BOTTOM_RIGHT("bottom right", 0, 0, 1, 1);
 		
 		String value;
-		LinearDirection(String value){
+		// Proportional start and end points of the gradient for the direction.
+		double startX, startY, endX, endY;
+		LinearDirection(String value, double startX, double startY, double endX, double endY){
 			this.value= value;
+			this.startX = startX;
+			this.startY = startY;
+			this.endX = endX;
+			this.endY = endY;
 		}
 		
 		public static ObservableList<LinearDirection> getList(){
@@ -72,6 +79,22 @@ public interface SyntaxConstants {
 			return list;
 		}
 		
+		public double getStartX() {
+			return startX;
+		}
+		
+		public double getStartY() {
+			return startY;
+		}
+		
+		public double getEndX() {
+			return endX;
+		}
+		
+		public double getEndY() {
+			return endY;
+		}
+		
 		@Override
 		public String toString() {
 			return this.value;
@@ -0,0 +1,179 @@
+package com.javafx.gradientbuilder.application;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+
+/**
+ * Size bounded cache of the rendered thumbnails (ARGB pixel buffers) of the gradients, keyed by the {@link GradientModel}. The least
+ * recently used thumbnails are evicted when the total size exceeds the limit, and their buffers are reused for the next thumbnails.
+ * <p>
+ * The pixels can be kept off the Java heap in direct buffers, so that a large cache does not add to the garbage collection work. The
+ * pixels are only read under the lock of the cache (see {@link #writeTo(GradientModel, PixelWriter)}), so a reused buffer is never seen
+ * by a reader. The cache counts the hits, misses and evictions. Instances are thread safe.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class ThumbnailCache {
+
+	private final int width;
+	private final int height;
+	private final long maxBytes;
+	private final boolean offHeap;
+
+	// Thumbnails in the access order, the eldest first.
+	private final LinkedHashMap<GradientModel, IntBuffer> thumbnails = new LinkedHashMap<>(256, 0.75f, true);
+
+	// Buffers of the evicted thumbnails, to be reused.
+	private final ArrayDeque<IntBuffer> freeBuffers = new ArrayDeque<>();
+
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/**
+	 * Constructor to initialize the cache.
+	 *
+	 * @param width
+	 *            - Width of the thumbnails.
+	 * @param height
+	 *            - Height of the thumbnails.
+	 * @param maxBytes
+	 *            - Maximum size of the cached pixels in bytes.
+	 * @param offHeap
+	 *            - true to keep the pixels in direct buffers.
+	 */
+	public ThumbnailCache(int width, int height, long maxBytes, boolean offHeap) {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Invalid thumbnail size : " + width + "x" + height);
+		}
+		this.width = width;
+		this.height = height;
+		this.maxBytes = maxBytes;
+		this.offHeap = offHeap;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public boolean isOffHeap() {
+		return offHeap;
+	}
+
+	/**
+	 * Writes the thumbnail of the gradient (if cached) to the pixel writer, e.g of a WritableImage of the thumbnail size.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @param writer
+	 *            - Writer to which the pixels are written.
+	 * @return true if the thumbnail is cached and written.
+	 */
+	public synchronized boolean writeTo(GradientModel model, PixelWriter writer) {
+		IntBuffer pixels = thumbnails.get(model);
+		if (pixels == null) {
+			missCount++;
+			return false;
+		}
+		hitCount++;
+		pixels.rewind();
+		writer.setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, width);
+		return true;
+	}
+
+	/**
+	 * Returns true if the thumbnail of the gradient is cached. Does not count as a hit or miss, nor changes the order of eviction.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @return boolean
+	 */
+	public synchronized boolean contains(GradientModel model) {
+		return thumbnails.containsKey(model);
+	}
+
+	/**
+	 * Caches the thumbnail of the gradient, evicting the least recently used ones if needed.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @param argb
+	 *            - ARGB pixels (width * height), which are copied.
+	 */
+	public synchronized void put(GradientModel model, int[] argb) {
+		IntBuffer pixels = thumbnails.get(model);
+		if (pixels == null) {
+			pixels = freeBuffers.poll();
+			if (pixels == null) {
+				pixels = offHeap ? ByteBuffer.allocateDirect(width * height * 4).order(ByteOrder.nativeOrder()).asIntBuffer()
+						: IntBuffer.allocate(width * height);
+			}
+			thumbnails.put(model, pixels);
+		}
+		pixels.clear();
+		pixels.put(argb, 0, width * height);
+		pixels.flip();
+		evict();
+	}
+
+	private void evict() {
+		long bytesPerThumbnail = width * height * 4L;
+		Iterator<Map.Entry<GradientModel, IntBuffer>> it = thumbnails.entrySet().iterator();
+		while (thumbnails.size() > 1 && thumbnails.size() * bytesPerThumbnail > maxBytes && it.hasNext()) {
+			IntBuffer evicted = it.next().getValue();
+			it.remove();
+			evictionCount++;
+			if (freeBuffers.size() < 16) {
+				freeBuffers.push(evicted);
+			}
+		}
+	}
+
+	/**
+	 * Removes all the thumbnails. The counters are not reset.
+	 */
+	public synchronized void clear() {
+		thumbnails.clear();
+		freeBuffers.clear();
+	}
+
+	public synchronized int size() {
+		return thumbnails.size();
+	}
+
+	public synchronized long getBytes() {
+		return thumbnails.size() * width * height * 4L;
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Thumbnails : " + thumbnails.size() + " (" + (getBytes() / 1024) + " KB), hits : " + hitCount + ", misses : " + missCount
+				+ ", evictions : " + evictionCount;
+	}
+}
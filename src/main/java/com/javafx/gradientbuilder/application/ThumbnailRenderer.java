@@ -0,0 +1,166 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javafx.application.Platform;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Renders the thumbnails of the gradients with {@link GradientRasterizer} on background threads and keeps them in a
+ * {@link ThumbnailCache}. Only the copy of the cached pixels into the image of a visible cell is done on the JavaFX Application thread.
+ * A gradient which fails to render is shown blank, and is not rendered again.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class ThumbnailRenderer {
+
+	private final ThumbnailCache cache;
+	private final ExecutorService executor;
+
+	// Gradients being rendered with the requests waiting for them, to avoid rendering the same gradient twice.
+	private final ConcurrentHashMap<GradientModel, Requests> pending = new ConcurrentHashMap<>();
+
+	// Gradients which failed to render, and the transparent pixels written for them.
+	private final Set<GradientModel> failed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+	private final int[] blank;
+
+	// Rasterizer and pixel buffer of each render thread.
+	private final ThreadLocal<GradientRasterizer> rasterizer = ThreadLocal.withInitial(GradientRasterizer::new);
+	private final ThreadLocal<int[]> pixels;
+
+	/**
+	 * Constructor to initialize the renderer with a thread per available processor (leaving one for the JavaFX thread).
+	 *
+	 * @param cache
+	 *            - Cache in which the thumbnails are kept.
+	 */
+	public ThumbnailRenderer(ThumbnailCache cache) {
+		this.cache = cache;
+		this.pixels = ThreadLocal.withInitial(() -> new int[cache.getWidth() * cache.getHeight()]);
+		this.blank = new int[cache.getWidth() * cache.getHeight()];
+		final AtomicInteger threadCount = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+			Thread thread = new Thread(r, "thumbnail-renderer-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public ThumbnailCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Returns a new image of the thumbnail size, to be reused by a cell.
+	 *
+	 * @return WritableImage
+	 */
+	public WritableImage createImage() {
+		return new WritableImage(cache.getWidth(), cache.getHeight());
+	}
+
+	/**
+	 * Writes the thumbnail of the gradient to the image. If the thumbnail is not cached, it is rendered in the background and
+	 * <code>onRendered</code> is called on the JavaFX Application thread when it is ready, so that the caller can request it again. The
+	 * requests of a gradient which is already being rendered wait for the same rendering.
+	 *
+	 * @param model
+	 *            - Gradient.
+	 * @param image
+	 *            - Image of the thumbnail size.
+	 * @param stillNeeded
+	 *            - Checked (on the render thread) before rendering; the rendering is skipped if false for all the requests of the
+	 *            gradient, e.g when their cells are reused for other gradients. It is checked while the requests of the gradient are
+	 *            locked, so it must be quick.
+	 * @param onRendered
+	 *            - Called when the thumbnail is rendered, or failed to render.
+	 * @return true if the thumbnail is written to the image (blank if the gradient failed to render).
+	 */
+	public boolean request(GradientModel model, WritableImage image, BooleanSupplier stillNeeded, Runnable onRendered) {
+		if (cache.writeTo(model, image.getPixelWriter())) {
+			return true;
+		}
+		if (failed.contains(model)) {
+			image.getPixelWriter().setPixels(0, 0, cache.getWidth(), cache.getHeight(), PixelFormat.getIntArgbInstance(), blank, 0,
+					cache.getWidth());
+			return true;
+		}
+		Requests requests = new Requests(stillNeeded, onRendered);
+		if (pending.merge(model, requests, Requests::addAll) == requests) {
+			executor.execute(() -> render(model));
+		}
+		return false;
+	}
+
+	private void render(GradientModel model) {
+		// Forgetting the requests atomically with the check, so that a request made meanwhile starts a new rendering.
+		if (pending.computeIfPresent(model, (m, requests) -> requests.isNeeded() ? requests : null) == null) {
+			return;
+		}
+		Requests requests;
+		try {
+			int[] argb = pixels.get();
+			rasterizer.get().rasterize(model, cache.getWidth(), cache.getHeight(), argb);
+			cache.put(model, argb);
+		} catch (RuntimeException ex) {
+			// Notifying the requests all the same, which then show the thumbnail blank instead of waiting for it forever.
+			failed.add(model);
+			System.err.println("Thumbnail of " + model.toSyntax() + " not rendered : " + ex);
+		} finally {
+			requests = pending.remove(model);
+		}
+		Platform.runLater(requests::notifyRendered);
+	}
+
+	/**
+	 * Stops the render threads.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Requests waiting for the rendering of a gradient.
+	 */
+	private static final class Requests {
+		private final List<BooleanSupplier> stillNeeded = new ArrayList<>(2);
+		private final List<Runnable> onRendered = new ArrayList<>(2);
+
+		Requests(BooleanSupplier stillNeeded, Runnable onRendered) {
+			this.stillNeeded.add(stillNeeded);
+			this.onRendered.add(onRendered);
+		}
+
+		synchronized Requests addAll(Requests other) {
+			stillNeeded.addAll(other.stillNeeded);
+			onRendered.addAll(other.onRendered);
+			return this;
+		}
+
+		synchronized boolean isNeeded() {
+			for (BooleanSupplier needed : stillNeeded) {
+				if (needed.getAsBoolean()) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		synchronized void notifyRendered() {
+			for (Runnable callback : onRendered) {
+				callback.run();
+			}
+		}
+	}
+}
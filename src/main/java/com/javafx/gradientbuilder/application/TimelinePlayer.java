@@ -0,0 +1,125 @@
+package com.javafx.gradientbuilder.application;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+
+/**
+ * Plays a {@link GradientTimeline} on the preview shapes, once per pulse (60 fps). Each frame is sampled into one {@link GradientFrame}
+ * and rasterized by {@link GradientRasterizer} into a pixel buffer per shape, which is written to an image shown over the shape (see
+ * {@link ShapeOverlay}). The frame, buffers and images are reused, so the frames do not allocate (the images are only reallocated when a
+ * shape is resized). The shapes are not given a new LinearGradient/RadialGradient and Background for each frame, as those are immutable
+ * and would be garbage after one frame.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class TimelinePlayer extends AnimationTimer {
+
+	private final GradientTimeline timeline;
+	private final GradientRasterizer rasterizer = new GradientRasterizer();
+	private final ShapeOverlay[] targets;
+	private GradientFrame frame;
+
+	private boolean loop = true;
+	private boolean playing;
+	private long startNanos;
+
+	/**
+	 * Constructor to initialize the player for the shapes.
+	 *
+	 * @param timeline
+	 *            - Timeline to be played.
+	 * @param rectangle
+	 *            - Rectangle shape.
+	 * @param circle
+	 *            - Circle shape, clipped to the ellipse of its bounds.
+	 */
+	public TimelinePlayer(GradientTimeline timeline, Pane rectangle, Pane circle) {
+		this.timeline = timeline;
+		this.targets = new ShapeOverlay[] { new ShapeOverlay(rectangle, false), new ShapeOverlay(circle, true) };
+	}
+
+	public boolean isLoop() {
+		return loop;
+	}
+
+	public void setLoop(boolean loop) {
+		this.loop = loop;
+	}
+
+	/**
+	 * Returns true while the frames are played. A timeline which does not loop is no longer played once its end is reached, though its
+	 * last frame stays shown till the player is stopped.
+	 *
+	 * @return boolean
+	 */
+	public boolean isPlaying() {
+		return playing;
+	}
+
+	/**
+	 * Starts playing the timeline from its start, over the shapes.
+	 */
+	@Override
+	public void start() {
+		if (timeline.size() == 0) {
+			return;
+		}
+		frame = timeline.createFrame();
+		for (ShapeOverlay target : targets) {
+			target.attach();
+		}
+		startNanos = -1;
+		playing = true;
+		super.start();
+	}
+
+	/**
+	 * Stops playing, and shows the shapes as they are again.
+	 */
+	@Override
+	public void stop() {
+		super.stop();
+		playing = false;
+		for (ShapeOverlay target : targets) {
+			target.detach();
+		}
+	}
+
+	@Override
+	public void handle(long now) {
+		if (startNanos < 0) {
+			startNanos = now;
+		}
+		double time = (now - startNanos) / 1_000_000.0;
+		long duration = timeline.getDuration();
+		if (time > duration) {
+			if (loop && duration > 0) {
+				time %= duration;
+			} else {
+				time = duration;
+			}
+		}
+		timeline.sample(time, frame);
+		for (ShapeOverlay target : targets) {
+			target.render(rasterizer, frame, target.getImageWidth(1), target.getImageHeight(1));
+		}
+		if (!loop && time >= duration) {
+			// Keeping the last frame shown till the player is stopped.
+			super.stop();
+			playing = false;
+		}
+	}
+
+	/**
+	 * Returns the size of the first shape as {width, height}, the size in which the frames are exported.
+	 *
+	 * @return int[]
+	 */
+	public int[] getShapeSize() {
+		Region shape = targets[0].shape;
+		return new int[] { Math.max(1, (int) Math.ceil(shape.getWidth())), Math.max(1, (int) Math.ceil(shape.getHeight())) };
+	}
+}
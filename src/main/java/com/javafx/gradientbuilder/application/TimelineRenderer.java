@@ -0,0 +1,162 @@
+package com.javafx.gradientbuilder.application;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Renders all the frames of a {@link GradientTimeline} to PNG files (frame-00000.png, frame-00001.png, ...), without the need of a
+ * JavaFX stage. The frames are split between the threads of a fork-join pool; each thread samples and rasterizes its frames into its
+ * own frame, rasterizer and image, so only the PNG encoding allocates.
+ * <p>
+ * Usage : TimelineRenderer &lt;timeline-file&gt; &lt;output-directory&gt; [&lt;width&gt; &lt;height&gt; [&lt;fps&gt;]]
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class TimelineRenderer {
+
+	public static final int DEFAULT_FPS = 60;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructor to render on the common fork-join pool.
+	 */
+	public TimelineRenderer() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor to render on the given pool.
+	 *
+	 * @param pool
+	 *            - Pool on which the frames are rendered.
+	 */
+	public TimelineRenderer(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the number of frames of the timeline at the frame rate, including the frames of the first and last keyframes.
+	 *
+	 * @param timeline
+	 *            - Timeline.
+	 * @param fps
+	 *            - Frames per second.
+	 * @return int
+	 */
+	public static int getFrameCount(GradientTimeline timeline, int fps) {
+		return (int) (timeline.getDuration() * fps / 1000) + 1;
+	}
+
+	/**
+	 * Renders the frames of the timeline to the directory, creating it if needed.
+	 *
+	 * @param timeline
+	 *            - Timeline to be rendered.
+	 * @param width
+	 *            - Width of the frames in pixels.
+	 * @param height
+	 *            - Height of the frames in pixels.
+	 * @param fps
+	 *            - Frames per second.
+	 * @param directory
+	 *            - Directory to which the PNG files are written.
+	 * @param progress
+	 *            - Called (from the render threads) with the number of frames written so far, or null.
+	 * @return Number of frames written.
+	 * @throws IOException
+	 *             - If a frame cannot be written.
+	 */
+	public int render(GradientTimeline timeline, int width, int height, int fps, Path directory, IntConsumer progress)
+			throws IOException {
+		if (width <= 0 || height <= 0 || fps <= 0) {
+			throw new IllegalArgumentException("Invalid size " + width + "x" + height + " or frame rate " + fps);
+		}
+		Files.createDirectories(directory);
+		final int frames = getFrameCount(timeline, fps);
+		final AtomicInteger written = new AtomicInteger();
+
+		// Resolving the timeline once, before it is shared by the render threads.
+		timeline.createFrame();
+		final ThreadLocal<FrameRenderer> renderers = ThreadLocal.withInitial(() -> new FrameRenderer(timeline, width, height));
+		try {
+			pool.submit(() -> IntStream.range(0, frames).parallel().forEach(i -> {
+				try {
+					renderers.get().render(i * 1000.0 / fps, directory.resolve(String.format("frame-%05d.png", i)));
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				int count = written.incrementAndGet();
+				if (progress != null) {
+					progress.accept(count);
+				}
+			})).get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Rendering interrupted", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) ex.getCause()).getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+		return frames;
+	}
+
+	/**
+	 * Frame, rasterizer and image of a render thread. The pixels are rasterized directly into the buffer of the image.
+	 */
+	private static final class FrameRenderer {
+		final GradientTimeline timeline;
+		final GradientFrame frame;
+		final GradientRasterizer rasterizer = new GradientRasterizer();
+		final BufferedImage image;
+		final int[] pixels;
+
+		FrameRenderer(GradientTimeline timeline, int width, int height) {
+			this.timeline = timeline;
+			this.frame = timeline.createFrame();
+			this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		}
+
+		void render(double time, Path file) throws IOException {
+			timeline.sample(time, frame);
+			rasterizer.rasterize(frame, image.getWidth(), image.getHeight(), pixels);
+			ImageIO.write(image, "png", file.toFile());
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage : TimelineRenderer <timeline-file> <output-directory> [<width> <height> [<fps>]]");
+			System.exit(1);
+		}
+		GradientTimeline timeline = GradientTimeline.read(Paths.get(args[0]));
+		if (timeline.size() == 0) {
+			System.err.println("No keyframes in " + args[0]);
+			System.exit(1);
+		}
+		int width = (args.length > 3) ? Integer.parseInt(args[2]) : 400;
+		int height = (args.length > 3) ? Integer.parseInt(args[3]) : 300;
+		int fps = (args.length > 4) ? Integer.parseInt(args[4]) : DEFAULT_FPS;
+
+		long start = System.nanoTime();
+		int frames = new TimelineRenderer().render(timeline, width, height, fps, Paths.get(args[1]), null);
+		long elapsed = System.nanoTime() - start;
+		System.err.println("Rendered " + frames + " frames of " + width + "x" + height + " in " + (elapsed / 1_000_000) + " ms");
+	}
+}
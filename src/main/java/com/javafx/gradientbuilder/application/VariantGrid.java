@@ -0,0 +1,211 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tooltip;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.TilePane;
+import javafx.scene.layout.VBox;
+
+import com.javafx.gradientbuilder.application.SyntaxConstants.LinearDirection;
+import com.javafx.gradientbuilder.application.SyntaxConstants.RepeatOrReflect;
+
+/**
+ * Grid of the permutations of the current gradient, to explore the options at once : for a linear gradient, each direction (and its
+ * from/to points, if set) with each cycle method; for a radial gradient, a range of radii with each cycle method. Clicking a variant
+ * adopts it.
+ * <p>
+ * The thumbnails are rendered in parallel by a {@link ThumbnailRenderer} on its worker threads, and each tile is shown as soon as its
+ * thumbnail is ready. When the base gradient is changed, the tiles whose variant is unchanged are kept as they are, the others are
+ * given their new variant (from the cache if rendered before), and the pending renders of the stale variants are skipped.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class VariantGrid extends ScrollPane {
+
+	// Size of the thumbnails, and maximum size of their cache.
+	public static final int THUMBNAIL_WIDTH = 96;
+	public static final int THUMBNAIL_HEIGHT = 64;
+	private static final long CACHE_BYTES = 8 * 1024 * 1024;
+
+	// Radii of the radial variants, in percentage or pixels as per the base gradient.
+	private static final int[] RADIUS_PERCENTS = { 25, 50, 75, 100 };
+	private static final int[] RADIUS_PIXELS = { 50, 100, 150, 200 };
+
+	private final ThumbnailRenderer thumbnails = new ThumbnailRenderer(new ThumbnailCache(THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, CACHE_BYTES,
+			false));
+	private final TilePane tiles = new TilePane();
+	private final Consumer<GradientModel> onAdopt;
+
+	/**
+	 * Variant of the base gradient, with its description.
+	 */
+	public static final class Variant {
+		private final GradientModel model;
+		private final String name;
+
+		Variant(GradientModel model, String name) {
+			this.model = model;
+			this.name = name;
+		}
+
+		public GradientModel getModel() {
+			return model;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	/**
+	 * Constructor to initialize the grid.
+	 *
+	 * @param onAdopt
+	 *            - Called with the variant clicked by the user.
+	 */
+	public VariantGrid(Consumer<GradientModel> onAdopt) {
+		this.onAdopt = onAdopt;
+		tiles.setHgap(8);
+		tiles.setVgap(8);
+		tiles.setPadding(new Insets(10));
+		setContent(tiles);
+		setFitToWidth(true);
+	}
+
+	/**
+	 * Shows the variants of the gradient.
+	 *
+	 * @param base
+	 *            - Gradient of which the variants are shown.
+	 */
+	public void setBase(GradientModel base) {
+		List<Variant> variants = permutations(base);
+		tiles.setPrefColumns(variants.size() / RepeatOrReflect.values().length);
+
+		while (tiles.getChildren().size() > variants.size()) {
+			((Tile) tiles.getChildren().remove(tiles.getChildren().size() - 1)).clear();
+		}
+		while (tiles.getChildren().size() < variants.size()) {
+			tiles.getChildren().add(new Tile());
+		}
+		for (int i = 0; i < variants.size(); i++) {
+			((Tile) tiles.getChildren().get(i)).show(variants.get(i));
+		}
+	}
+
+	/**
+	 * Stops the render threads.
+	 */
+	public void shutdown() {
+		thumbnails.shutdown();
+	}
+
+	/**
+	 * Returns the permutations of the gradient, row by row : a row per cycle method (none, repeat, reflect), with the same columns in
+	 * each row.
+	 *
+	 * @param base
+	 *            - Gradient of which the variants are built.
+	 * @return List of variants.
+	 */
+	public static List<Variant> permutations(GradientModel base) {
+		List<Variant> variants = new ArrayList<Variant>();
+		int[] colors = base.colors;
+		int[] percents = base.percents;
+		for (RepeatOrReflect cycle : RepeatOrReflect.values()) {
+			String cycleName = cycle.value.toLowerCase();
+			if (base instanceof LinearGradientModel) {
+				LinearGradientModel linear = (LinearGradientModel) base;
+				if (linear.isFromTo()) {
+					variants.add(new Variant(new LinearGradientModel(true, linear.isPixel(), linear.getFromX(), linear.getFromY(), linear
+							.getToX(), linear.getToY(), null, cycle, colors, percents), "from/to, " + cycleName));
+				}
+				for (LinearDirection direction : LinearDirection.values()) {
+					variants.add(new Variant(new LinearGradientModel(false, false, 0, 0, 0, 0, direction, cycle, colors, percents), "to "
+							+ direction.value + ", " + cycleName));
+				}
+			} else {
+				RadialGradientModel radial = (RadialGradientModel) base;
+				boolean pixel = radial.isRadiusPixel();
+				Set<Integer> radii = new LinkedHashSet<Integer>();
+				radii.add(radial.getRadius());
+				for (int radius : pixel ? RADIUS_PIXELS : RADIUS_PERCENTS) {
+					radii.add(radius);
+				}
+				for (int radius : radii) {
+					variants.add(new Variant(new RadialGradientModel(radial.hasFocusAngle(), radial.getFocusAngle(), radial
+							.hasFocusDistance(), radial.getFocusDistance(), radial.hasCenter(), radial.getCenterX(), radial.getCenterY(),
+							pixel, radius, cycle, colors, percents), "radius " + radius + (pixel ? "px, " : "%, ") + cycleName));
+				}
+			}
+		}
+		return variants;
+	}
+
+	/**
+	 * Tile showing the thumbnail and description of a variant.
+	 */
+	private final class Tile extends VBox {
+		private final WritableImage image = thumbnails.createImage();
+		private final ImageView imageView = new ImageView(image);
+		private final Label nameLbl = new Label();
+
+		// Variant shown by the tile, read by the render threads to skip the stale variants.
+		private volatile GradientModel model;
+
+		Tile() {
+			setAlignment(Pos.CENTER);
+			setSpacing(2);
+			nameLbl.setStyle("-fx-font-size:10px;");
+			getChildren().addAll(imageView, nameLbl);
+			setOnMouseClicked(e -> {
+				if (e.getButton() == MouseButton.PRIMARY && model != null) {
+					onAdopt.accept(model);
+				}
+			});
+		}
+
+		/**
+		 * Shows the variant, unless it is already shown.
+		 */
+		void show(Variant variant) {
+			if (variant.model.equals(model)) {
+				return;
+			}
+			model = variant.model;
+			nameLbl.setText(variant.name);
+			Tooltip.install(this, new Tooltip(variant.model.toSyntax()));
+			request(variant.model);
+		}
+
+		/**
+		 * Writes the thumbnail of the variant, or requests it to be rendered.
+		 */
+		private void request(GradientModel variant) {
+			boolean written = thumbnails.request(variant, image, () -> model == variant, () -> {
+				if (model == variant) {
+					request(variant);
+				}
+			});
+			// Hiding the previous thumbnail of the tile till the new one is rendered.
+			imageView.setVisible(written);
+		}
+
+		void clear() {
+			model = null;
+		}
+	}
+}
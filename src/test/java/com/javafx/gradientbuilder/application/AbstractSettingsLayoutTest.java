@@ -0,0 +1,75 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+
+import javafx.scene.control.ColorPicker;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.paint.Color;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link AbstractSettingsLayout} : the rows of the color stops list show the color stops they are bound to, also when these
+ * are changed elsewhere.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class AbstractSettingsLayoutTest {
+
+	@Test
+	public void colorStopCellFollowsTheColorStop() throws Exception {
+		HeadlessToolkit.call(() -> {
+			LinearSettingsLayout layout = new LinearSettingsLayout(new GradientBuilderApp());
+			layout.editColorStops((stops) -> {
+				stops.clear();
+				stops.add(-1, 0, "#FF0000");
+				stops.add(-1, 0, "#0000FF");
+			});
+			ListCell<ColorStopDTO> cell = layout.colorStopsList.getCellFactory().call(layout.colorStopsList);
+			cell.updateListView(layout.colorStopsList);
+			cell.updateIndex(0);
+			ColorPicker picker = (ColorPicker) ((HBox) cell.getGraphic()).getChildren().get(0);
+			assertEquals(Color.web("#FF0000"), picker.getValue());
+
+			// Changed elsewhere, e.g by an undo.
+			layout.colorStops.get(0).setColorCode("#00FF00");
+			assertEquals(Color.web("#00FF00"), picker.getValue());
+
+			// Changed with the picker.
+			picker.setValue(Color.web("#FFA500"));
+			assertEquals("#FFA500", layout.colorStops.get(0).getColorCode());
+
+			// Once the cell shows another color stop, it no longer follows the first one.
+			cell.updateIndex(1);
+			assertEquals(Color.web("#0000FF"), picker.getValue());
+			layout.colorStops.get(0).setColorCode("#FFFFFF");
+			assertEquals(Color.web("#0000FF"), picker.getValue());
+			layout.colorStops.get(1).setColorCode("#000000");
+			assertEquals(Color.web("#000000"), picker.getValue());
+			return null;
+		});
+	}
+
+	@Test
+	public void translucentColorStops() throws Exception {
+		HeadlessToolkit.call(() -> {
+			LinearSettingsLayout layout = new LinearSettingsLayout(new GradientBuilderApp());
+			GradientModel model = new GradientParser().parse("linear-gradient(to bottom, #FF000080, #00FF00 40%, #0000FF00)");
+			layout.loadColorStops(model);
+			assertEquals("#FF000080", layout.colorStops.get(0).getColorCode());
+			assertEquals("#0000FF00", layout.colorStops.get(2).getColorCode());
+			assertEquals(model.toSyntax(), new GradientParser().parse(layout.buildSyntax()).toSyntax());
+
+			ListCell<ColorStopDTO> cell = layout.colorStopsList.getCellFactory().call(layout.colorStopsList);
+			cell.updateListView(layout.colorStopsList);
+			cell.updateIndex(0);
+			ColorPicker picker = (ColorPicker) ((HBox) cell.getGraphic()).getChildren().get(0);
+			picker.setValue(Color.rgb(0, 0, 255, 0.25));
+			assertEquals("#0000FF40", layout.colorStops.get(0).getColorCode());
+			return null;
+		});
+	}
+}
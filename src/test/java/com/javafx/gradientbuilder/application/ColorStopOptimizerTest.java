@@ -0,0 +1,143 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link ColorStopOptimizer} : the reduced gradients are rendered within the tolerance of the original ones (colors and
+ * opacities), with the fewest stops for the simple cases, and the hard edges are kept.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class ColorStopOptimizerTest {
+
+	private static final double TOLERANCE = 1.0;
+
+	private final ColorStopOptimizer optimizer = new ColorStopOptimizer();
+	private final GradientRasterizer rasterizer = new GradientRasterizer();
+
+	@Test
+	public void linearRamp() {
+		// 101 stops sampled from the ramp of two colors.
+		int[] colors = new int[101];
+		int[] percents = new int[101];
+		for (int p = 0; p <= 100; p++) {
+			colors[p] = GradientRasterizer.interpolate(0xFFFF0000, 0xFF0000FF, p / 100.0);
+			percents[p] = p;
+		}
+		ColorStopOptimizer.Result result = assertWithinTolerance(colors, percents);
+		assertEquals(2, result.getStopCount());
+		assertEquals(0xFFFF0000, result.getColors()[0]);
+		assertEquals(0xFF0000FF, result.getColors()[1]);
+		assertArrayEquals(new int[] { GradientModel.UNSPECIFIED, GradientModel.UNSPECIFIED }, result.getPercents());
+	}
+
+	@Test
+	public void redundantStops() {
+		// The repeated stop lies on the ramp of the first and last stops.
+		int middle = GradientRasterizer.interpolate(0xFFFF0000, 0xFF0000FF, 0.3);
+		int[] colors = { 0xFFFF0000, middle, middle, 0xFF0000FF };
+		int[] percents = { GradientModel.UNSPECIFIED, 30, 30, GradientModel.UNSPECIFIED };
+		assertEquals(2, assertWithinTolerance(colors, percents).getStopCount());
+
+		// The flat parts need both their ends.
+		colors = new int[] { 0xFFFF0000, 0xFFFF0000, 0xFF00FF00, 0xFF00FF00, 0xFF0000FF };
+		percents = new int[] { GradientModel.UNSPECIFIED, 20, 50, 60, GradientModel.UNSPECIFIED };
+		assertEquals(5, assertWithinTolerance(colors, percents).getStopCount());
+	}
+
+	@Test
+	public void hardEdges() {
+		int[] colors = { 0xFFFF0000, 0xFFFF0000, 0xFF0000FF, 0xFF0000FF, 0xFF00FF00, 0xFFFFFF00 };
+		int[] percents = { GradientModel.UNSPECIFIED, 40, 40, 70, 70, GradientModel.UNSPECIFIED };
+		ColorStopOptimizer.Result result = assertWithinTolerance(colors, percents);
+		assertEquals(6, result.getStopCount());
+		assertArrayEquals(colors, result.getColors());
+	}
+
+	@Test
+	public void opacity() {
+		// Only the opacity changes, so the colors alone would be reduced to the first and last stops.
+		int[] colors = { 0x40FF0000, 0xFFFF0000, 0x40FF0000, 0xFFFF0000, 0x40FF0000 };
+		int[] percents = { GradientModel.UNSPECIFIED, 25, 50, 75, GradientModel.UNSPECIFIED };
+		ColorStopOptimizer.Result result = optimizer.optimize(colors, percents, TOLERANCE);
+		assertEquals(5, result.getStopCount());
+
+		// A ramp of opacity is reduced to its ends.
+		int[] ramp = new int[11];
+		int[] rampPercents = new int[11];
+		for (int i = 0; i <= 10; i++) {
+			ramp[i] = GradientRasterizer.interpolate(0xFF00FF00, 0x2000FF00, i / 10.0);
+			rampPercents[i] = i * 10;
+		}
+		assertEquals(2, assertWithinTolerance(ramp, rampPercents).getStopCount());
+	}
+
+	@Test
+	public void unchanged() {
+		int[] colors = { 0xFFFF0000, 0xFF00FF00, 0xFF0000FF };
+		int[] percents = { GradientModel.UNSPECIFIED, 30, GradientModel.UNSPECIFIED };
+		ColorStopOptimizer.Result result = optimizer.optimize(colors, percents, TOLERANCE);
+		assertArrayEquals(colors, result.getColors());
+		assertArrayEquals(percents, result.getPercents());
+		assertEquals(0, result.getMaxError(), 0);
+
+		// A stop at 0% hides the first stop.
+		result = optimizer.optimize(colors, new int[] { GradientModel.UNSPECIFIED, 0, GradientModel.UNSPECIFIED }, TOLERANCE);
+		assertArrayEquals(new int[] { 0xFF00FF00, 0xFF0000FF }, result.getColors());
+
+		int[] two = { 0xFFFF0000, 0xFF0000FF };
+		assertEquals(2, optimizer.optimize(two, new int[] { GradientModel.UNSPECIFIED, GradientModel.UNSPECIFIED }, 50).getStopCount());
+	}
+
+	@Test
+	public void invalidArguments() {
+		try {
+			optimizer.optimize(new int[3], new int[2], TOLERANCE);
+			fail("Accepted counts not matching");
+		} catch (IllegalArgumentException e) {
+			// Expected.
+		}
+		try {
+			optimizer.optimize(new int[3], new int[3], -1);
+			fail("Accepted a negative tolerance");
+		} catch (IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+	/**
+	 * Optimizes the stops, and checks that the rendered colors and opacities of the result are within the tolerance of the original.
+	 */
+	private ColorStopOptimizer.Result assertWithinTolerance(int[] colors, int[] percents) {
+		ColorStopOptimizer.Result result = optimizer.optimize(colors, percents, TOLERANCE);
+		assertTrue(result.getMaxError() + " over the tolerance", result.getMaxError() <= TOLERANCE);
+
+		int[] original = lookupTable(colors, percents);
+		int[] reduced = lookupTable(result.getColors(), result.getPercents());
+		double[] lab1 = new double[3];
+		double[] lab2 = new double[3];
+		for (int k = 0; k < original.length; k++) {
+			ColorSpace.toLab(original[k], lab1, 0);
+			ColorSpace.toLab(reduced[k], lab2, 0);
+			String at = "Entry " + k + " : #" + Integer.toHexString(reduced[k]) + " instead of #" + Integer.toHexString(original[k]);
+			assertTrue(at, ColorSpace.deltaE(lab1, 0, lab2, 0) <= TOLERANCE);
+			assertTrue(at, Math.abs((original[k] >>> 24) - (reduced[k] >>> 24)) * 100.0 / 255 <= TOLERANCE);
+		}
+		return result;
+	}
+
+	private int[] lookupTable(int[] colors, int[] percents) {
+		GradientFrame frame = new GradientFrame(colors.length);
+		frame.stopCount = colors.length;
+		System.arraycopy(colors, 0, frame.colors, 0, colors.length);
+		GradientModel.resolveOffsets(percents, colors.length, frame.offsets);
+		rasterizer.buildLookupTable(frame);
+		return rasterizer.getLookupTable().clone();
+	}
+}
@@ -0,0 +1,95 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link ColorStopTransaction} : the edits are only applied to the color stops at the commit, and the color codes keep
+ * their alpha.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class ColorStopTransactionTest {
+
+	private final ColorStopDTO red = new ColorStopDTO("#FF0000", 0);
+	private final ColorStopDTO green = new ColorStopDTO("#00FF00", 40);
+	private final ColorStopDTO blue = new ColorStopDTO("#0000FF", 0);
+	private final List<ColorStopDTO> current = new ArrayList<ColorStopDTO>(Arrays.asList(red, green, blue));
+
+	@Test
+	public void replacementsAreAppliedAtCommit() {
+		ColorStopTransaction transaction = new ColorStopTransaction(current);
+		transaction.replace(green, 60, "orange");
+		transaction.replace(2, 90, "#0000FF80");
+		transaction.replace(green, 70, "yellow");
+		assertEquals("#00FF00", green.getColorCode());
+		assertEquals(40, green.getPercent());
+		assertEquals("#0000FF", blue.getColorCode());
+
+		List<ColorStopDTO> stops = transaction.commit();
+		assertEquals(current, stops);
+		assertEquals("#FFFF00", green.getColorCode());
+		assertEquals(70, green.getPercent());
+		assertEquals("#0000FF80", blue.getColorCode());
+		assertEquals(90, blue.getPercent());
+		assertEquals("#FF0000", red.getColorCode());
+	}
+
+	@Test
+	public void removedStopsAreNotReplaced() {
+		ColorStopTransaction transaction = new ColorStopTransaction(current);
+		transaction.replace(green, 60, "orange");
+		transaction.remove(green);
+		ColorStopDTO added = transaction.addAfter(red, 20, "#FFFFFF");
+		transaction.replace(added, 30, "#000000");
+
+		List<ColorStopDTO> stops = transaction.commit();
+		assertEquals(Arrays.asList(red, added, blue), stops);
+		assertEquals("#00FF00", green.getColorCode());
+		assertEquals("#000000", added.getColorCode());
+		assertEquals(30, added.getPercent());
+	}
+
+	@Test
+	public void failedTransactionLeavesTheStops() {
+		ColorStopTransaction transaction = new ColorStopTransaction(current);
+		transaction.replace(green, 60, "orange");
+		try {
+			transaction.replace(blue, 0, "not a color");
+		} catch (IllegalArgumentException e) {
+			// The transaction is dropped without commit.
+		}
+		assertEquals("#00FF00", green.getColorCode());
+		assertEquals("#0000FF", blue.getColorCode());
+	}
+
+	@Test
+	public void normalizeKeepsAlpha() {
+		assertEquals("#FF0000", ColorStopTransaction.normalize("red"));
+		assertEquals("#FFA500", ColorStopTransaction.normalize("#ffa500"));
+		assertEquals("#FF000080", ColorStopTransaction.normalize("rgba(255, 0, 0, 0.5)"));
+		assertEquals("#0000FF40", ColorStopTransaction.normalize("#0000FF40"));
+		assertEquals("#00000000", ColorStopTransaction.normalize("transparent"));
+		for (int alpha = 0; alpha < 256; alpha++) {
+			int argb = (alpha << 24) | 0x3366CC;
+			String code = HexEncoder.toHexAlpha(argb);
+			assertEquals(code, ColorStopTransaction.normalize(code));
+			assertEquals(argb, GradientModel.parseColorCode(code));
+		}
+	}
+
+	@Test
+	public void addsNormalizedStops() {
+		ColorStopTransaction transaction = new ColorStopTransaction(current);
+		ColorStopDTO added = transaction.add(-1, 0, "rgba(0, 0, 0, 0.25)");
+		assertSame(added, transaction.last());
+		assertEquals("#00000040", added.getColorCode());
+	}
+}
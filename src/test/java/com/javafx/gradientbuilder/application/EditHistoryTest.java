@@ -0,0 +1,139 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link EditHistory} : undo and redo restore the settings and the color stops (with their alpha) of each entry, the
+ * changes of one build or of a suspended recording make one entry, a change not built yet is recorded before an undo or a redo, and
+ * the oldest entries are dropped after the capacity.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class EditHistoryTest {
+
+	@Test
+	public void undoRedo() throws Exception {
+		HeadlessToolkit.call(() -> {
+			RadialSettingsLayout layout = new RadialSettingsLayout(new GradientBuilderApp());
+			EditHistory history = layout.getHistory();
+			String initial = build(layout);
+			assertFalse(history.undoableProperty().get());
+
+			// Changes of one build make one entry.
+			layout.centerX.set(20);
+			layout.radiusPercent.set(70);
+			String second = build(layout);
+			layout.editColorStops((stops) -> stops.replace(0, 30, "#FF000080"));
+			String third = build(layout);
+			layout.focusDistance.set(30);
+			String fourth = build(layout);
+			assertEquals(3, history.getUndoCount());
+
+			assertTrue(history.undo());
+			assertEquals(third, build(layout));
+			assertTrue(history.undo());
+			assertEquals(second, build(layout));
+			assertTrue(history.redo());
+			assertEquals(third, build(layout));
+			assertTrue(history.redo());
+			assertEquals(fourth, build(layout));
+			assertFalse(history.redo());
+
+			while (history.undo()) {
+			}
+			assertEquals(initial, build(layout));
+			assertEquals(3, history.getRedoCount());
+			assertTrue(history.redoableProperty().get());
+
+			// A new change clears the redo steps.
+			layout.focusAngle.set(45);
+			build(layout);
+			assertEquals(0, history.getRedoCount());
+			assertEquals(1, history.getUndoCount());
+			return null;
+		});
+	}
+
+	@Test
+	public void suspendedChangesMakeOneEntry() throws Exception {
+		HeadlessToolkit.call(() -> {
+			LinearSettingsLayout layout = new LinearSettingsLayout(new GradientBuilderApp());
+			EditHistory history = layout.getHistory();
+			String initial = build(layout);
+
+			history.suspend();
+			for (int i = 1; i <= 10; i++) {
+				layout.editColorStops((stops) -> stops.add(-1, 0, "#00FF00"));
+				build(layout);
+			}
+			history.resume();
+			assertEquals(1, history.getUndoCount());
+
+			assertTrue(history.undo());
+			assertEquals(initial, build(layout));
+			return null;
+		});
+	}
+
+	@Test
+	public void pendingChange() throws Exception {
+		HeadlessToolkit.call(() -> {
+			LinearSettingsLayout layout = new LinearSettingsLayout(new GradientBuilderApp());
+			EditHistory history = layout.getHistory();
+			String initial = build(layout);
+
+			// The first change, still waiting for its build, is undone.
+			layout.editColorStops((stops) -> stops.add(-1, 0, "#00FF00"));
+			String changed = layout.buildSyntax();
+			assertTrue(history.undo());
+			assertEquals(initial, build(layout));
+			assertTrue(history.redo());
+			assertEquals(changed, build(layout));
+
+			// A change waiting for its build clears the redo steps, and is kept.
+			assertTrue(history.undo());
+			layout.editColorStops((stops) -> stops.add(-1, 0, "#0000FF"));
+			String other = layout.buildSyntax();
+			assertFalse(history.redo());
+			assertEquals(other, build(layout));
+			assertEquals(0, history.getRedoCount());
+			assertEquals(1, history.getUndoCount());
+			return null;
+		});
+	}
+
+	@Test
+	public void capacity() throws Exception {
+		HeadlessToolkit.call(() -> {
+			LinearSettingsLayout layout = new LinearSettingsLayout(new GradientBuilderApp());
+			EditHistory history = new EditHistory(layout, 3);
+			history.reset();
+			for (int i = 1; i <= 5; i++) {
+				layout.editColorStops((stops) -> stops.add(-1, 0, "#0000FF"));
+				history.record();
+			}
+			// Nothing changed since the last entry.
+			history.record();
+			assertEquals(3, history.getUndoCount());
+
+			while (history.undo()) {
+			}
+			assertEquals(4, layout.colorStops.size());
+			return null;
+		});
+	}
+
+	/**
+	 * Records the changes of the layout as its build does (the layout is not shown, so its builds are skipped), and returns the syntax.
+	 */
+	private static String build(AbstractSettingsLayout layout) {
+		layout.getHistory().record();
+		return layout.buildSyntax();
+	}
+}
@@ -0,0 +1,114 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link GradientCanonicalizer} : the settings giving the same rendering have the same normal form, syntax and hash (and
+ * are rendered the same, as the render server caches the images by the normal form), the settings rendered differently have different
+ * ones, and the syntax of the normal form parses back to the same form.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientCanonicalizerTest {
+
+	private final GradientParser parser = new GradientParser();
+	private final GradientCanonicalizer canonicalizer = new GradientCanonicalizer();
+
+	@Test
+	public void linearDirection() {
+		assertSameForm("linear-gradient(to bottom, #FF0000, #0000FF)", "linear-gradient(#FF0000, #0000FF)",
+				"linear-gradient(from 0% 0% to 0% 100%, #FF0000 0%, #0000FF 100%)",
+				"linear-gradient(from 0% 0% to 0% 100%, #FF0000, #FF0000 0%, #0000FF)");
+		assertSameForm("linear-gradient(to right, #FF0000, #00FF00 50%, #0000FF)",
+				"linear-gradient(from 0% 0% to 100% 0%, #FF0000 0%, #00FF00 50%, #0000FF 100%)");
+		assertEquals("linear-gradient(from 0% 0% to 100% 0%, #FF0000 0%, #0000FF 100%)",
+				canonicalizer.toSyntax(parser.parse("linear-gradient(to right, red, blue)")));
+	}
+
+	@Test
+	public void stops() {
+		// Stops without effect.
+		assertSameForm("linear-gradient(to right, #FF0000, #0000FF)", "linear-gradient(to right, #FF0000, #0000FF 100%, #0000FF)",
+				"linear-gradient(to right, #00FF00 0%, #FF0000 0%, #0000FF)",
+				"linear-gradient(to right, #FF0000, #0000FF 100%, #00FF00 100%)");
+		assertSameForm("linear-gradient(to right, #FF0000, #FF0000 30%, #FF0000 60%, #0000FF)",
+				"linear-gradient(to right, #FF0000, #FF0000 60%, #0000FF)");
+		// Only the first and last stops at the same offset have an effect.
+		assertSameForm("linear-gradient(to right, #FF0000, #FF0000 50%, #00FF00 50%, #0000FF 50%, #0000FF)",
+				"linear-gradient(to right, #FF0000, #FF0000 50%, #0000FF 50%, #0000FF)");
+		// Stops in the unresolved order, as JavaFX keeps each offset at least the previous one.
+		assertSameForm("linear-gradient(to right, #FF0000, #00FF00 60%, #0000FF 40%, #FFFFFF)",
+				"linear-gradient(to right, #FF0000, #00FF00 60%, #0000FF 60%, #FFFFFF)");
+	}
+
+	@Test
+	public void radial() {
+		assertSameForm("radial-gradient(radius 50%, #FF0000, #0000FF)",
+				"radial-gradient(focus-angle 0deg, focus-distance 0%, center 0% 0%, radius 50%, #FF0000, #0000FF)",
+				"radial-gradient(focus-angle 90deg, radius 50%, #FF0000, #0000FF)");
+		assertSameForm("radial-gradient(focus-angle 30deg, focus-distance -40%, center 50% 50%, radius 50%, #FF0000, #0000FF)",
+				"radial-gradient(focus-angle 210deg, focus-distance 40%, center 50% 50%, radius 50%, #FF0000, #0000FF)",
+				"radial-gradient(focus-angle -150deg, focus-distance 40%, center 50% 50%, radius 50%, #FF0000, #0000FF)");
+	}
+
+	@Test
+	public void solid() {
+		assertSameForm("linear-gradient(to right, #FF000080, #FF000080)", "radial-gradient(radius 10%, reflect, #FF000080, #FF000080)",
+				"linear-gradient(from 10px 0px to 30px 20px, repeat, #FF000080, #FF000080 40%, #FF000080)");
+		assertEquals("#FF000080", canonicalizer.toSyntax(parser.parse("linear-gradient(to top, #FF000080, #FF000080)")));
+	}
+
+	@Test
+	public void differentRenderings() {
+		String[] syntaxes = { "linear-gradient(to right, #FF0000, #0000FF)", "linear-gradient(to right, #FF000080, #0000FF)",
+				"linear-gradient(to left, #FF0000, #0000FF)", "linear-gradient(to right, repeat, #FF0000, #0000FF 50%)",
+				"linear-gradient(to right, reflect, #FF0000, #0000FF 50%)", "linear-gradient(to right, #FF0000, #0000FF 50%)",
+				"linear-gradient(from 0px 0px to 100px 0px, #FF0000, #0000FF)",
+				"linear-gradient(from 0% 0% to 100% 0%, #FF0000, #00FF00 50%, #0000FF)",
+				"radial-gradient(center 50% 50%, radius 50%, #FF0000, #0000FF)",
+				"radial-gradient(center 50px 50px, radius 50px, #FF0000, #0000FF)",
+				"radial-gradient(focus-angle 10deg, focus-distance 20%, center 50% 50%, radius 50%, #FF0000, #0000FF)",
+				"#FF0000", "#FF000080" };
+		for (int i = 0; i < syntaxes.length; i++) {
+			for (int j = i + 1; j < syntaxes.length; j++) {
+				String a = syntaxes[i].startsWith("#") ? "linear-gradient(" + syntaxes[i] + ", " + syntaxes[i] + ")" : syntaxes[i];
+				String b = syntaxes[j].startsWith("#") ? "linear-gradient(" + syntaxes[j] + ", " + syntaxes[j] + ")" : syntaxes[j];
+				assertNotEquals(a + " / " + b, canonicalizer.toSyntax(parser.parse(a)), canonicalizer.toSyntax(parser.parse(b)));
+				assertNotEquals(a + " / " + b, canonicalizer.hash(parser.parse(a)), canonicalizer.hash(parser.parse(b)));
+			}
+		}
+	}
+
+	@Test
+	public void syntaxParsesBack() {
+		String[] syntaxes = { "linear-gradient(to bottom right, #FF0000, #00FF0080 33.3%, #0000FF)",
+				"linear-gradient(from 5px 10px to 80px 40px, reflect, #FF0000, #0000FF)",
+				"radial-gradient(focus-angle 45deg, focus-distance -30%, center 20px 70px, radius 40px, repeat, #FFFF00, #008000 25%)" };
+		for (String syntax : syntaxes) {
+			String form = canonicalizer.toSyntax(parser.parse(syntax));
+			assertEquals(form, canonicalizer.toSyntax(parser.parse(form)));
+			assertEquals(canonicalizer.hash(parser.parse(syntax)), canonicalizer.hash(parser.parse(form)));
+		}
+	}
+
+	/**
+	 * Checks that the gradients have the same normal form, syntax and hash, and the same rendering.
+	 */
+	private void assertSameForm(String... syntaxes) {
+		GradientModel first = parser.parse(syntaxes[0]);
+		String form = canonicalizer.toSyntax(first);
+		long hash = canonicalizer.hash(first);
+		int[] rendered = new GradientRasterizer().rasterize(first, 64, 48);
+		for (int i = 1; i < syntaxes.length; i++) {
+			GradientModel model = parser.parse(syntaxes[i]);
+			assertEquals(syntaxes[i], form, canonicalizer.toSyntax(model));
+			assertEquals(syntaxes[i], hash, canonicalizer.hash(model));
+			assertArrayEquals(syntaxes[i], rendered, new GradientRasterizer().rasterize(model, 64, 48));
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link GradientDedupIndex} : each gradient is either added or reported as a duplicate of the first gradient of its form,
+ * also after the table is resized.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientDedupIndexTest {
+
+	private final GradientParser parser = new GradientParser();
+
+	@Test
+	public void duplicates() {
+		GradientDedupIndex index = new GradientDedupIndex(4);
+		assertEquals(-1, index.add(parser.parse("linear-gradient(to right, #FF0000, #0000FF)"), 0));
+		assertEquals(-1, index.add(parser.parse("linear-gradient(to right, #FF000080, #0000FF)"), 1));
+		assertEquals(0, index.add(parser.parse("linear-gradient(from 0% 0% to 100% 0%, #FF0000 0%, #0000FF 100%)"), 2));
+		assertEquals(1, index.add(parser.parse("linear-gradient(to right, #FF000080, #0000FF 100%)"), 3));
+		assertEquals(2, index.size());
+
+		assertEquals(0, index.indexOf(parser.parse("linear-gradient(to right, red, blue)")));
+		assertEquals(-1, index.indexOf(parser.parse("linear-gradient(to left, red, blue)")));
+	}
+
+	@Test
+	public void resize() {
+		GradientDedupIndex index = new GradientDedupIndex(1);
+		long initialBytes = index.getBytes();
+		int count = 10_000;
+		for (int i = 0; i < count; i++) {
+			assertEquals(-1, index.add(hash(i), i));
+		}
+		assertEquals(count, index.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(i, index.add(hash(i), count + i));
+		}
+		assertEquals(count, index.size());
+		// Filled to 3/4 at most.
+		assertEquals(true, index.getBytes() > initialBytes && index.getBytes() >= count * 12L * 4 / 3);
+	}
+
+	@Test
+	public void invalidIndex() {
+		GradientDedupIndex index = new GradientDedupIndex(16);
+		for (int invalid : new int[] { -1, Integer.MAX_VALUE }) {
+			try {
+				index.add(1L, invalid);
+				fail("Accepted the index " + invalid);
+			} catch (IllegalArgumentException e) {
+				// Expected.
+			}
+		}
+		assertEquals(0, index.size());
+	}
+
+	/**
+	 * Returns distinct hashes, many of them in the same slots of the small tables.
+	 */
+	private static long hash(int i) {
+		return (i % 2 == 0) ? i * 0x9E3779B97F4A7C15L : (long) i << 32;
+	}
+}
@@ -0,0 +1,64 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.javafx.gradientbuilder.application.GradientExporter.Format;
+
+/**
+ * Tests of the {@link GradientExporter}s : the linear gradients keep the geometry of JavaFX (proportional points scaled to the shape,
+ * not stretched with it) and the radial gradients are stretched with the shape.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientExporterTest {
+
+	private final GradientParser parser = new GradientParser();
+
+	@Test
+	public void css() throws IOException {
+		assertExport(Format.CSS, "linear-gradient(to left, #FF0000, #0000FF80)",
+				"linear-gradient(to left, #FF0000 0%, rgba(0, 0, 255, 0.502) 100%)");
+		// The gradient to a corner is perpendicular to the diagonal, so it is exported as an angle.
+		assertExport(Format.CSS, "linear-gradient(to bottom right, #FF0000, #0000FF)",
+				"linear-gradient(116.5651deg, #FF0000 0%, #0000FF 100%)");
+		assertExport(Format.CSS, "linear-gradient(from 0% 0% to 50% 0%, #FF0000, #0000FF)",
+				"linear-gradient(90deg, #FF0000 0%, #0000FF 50%)");
+		assertExport(Format.CSS, "radial-gradient(center 25% 50%, radius 50%, #FF0000, #0000FF)",
+				"radial-gradient(ellipse 50% 50% at 25% 50%, #FF0000 0%, #0000FF 100%)");
+		assertExport(Format.CSS, "radial-gradient(center 40px 30px, radius 20px, #FF0000, #0000FF)",
+				"radial-gradient(circle 20px at 40px 30px, #FF0000 0%, #0000FF 100%)");
+	}
+
+	@Test
+	public void svg() throws IOException {
+		assertExport(Format.SVG, "linear-gradient(to bottom right, #FF0000, #0000FF)",
+				"<linearGradient id=\"gradient\" gradientUnits=\"userSpaceOnUse\" x1=\"0\" y1=\"0\" x2=\"200\" y2=\"100\"");
+		assertExport(Format.SVG, "linear-gradient(from 10px 20px to 30px 40px, #FF0000, #0000FF)",
+				"gradientUnits=\"userSpaceOnUse\" x1=\"10\" y1=\"20\" x2=\"30\" y2=\"40\"");
+		assertExport(Format.SVG, "radial-gradient(center 25% 50%, radius 50%, #FF0000, #0000FF80)",
+				"gradientUnits=\"objectBoundingBox\" cx=\"0.25\" cy=\"0.5\" r=\"0.5\"");
+		assertExport(Format.SVG, "radial-gradient(radius 50%, #FF0000, #0000FF80)", "stop-opacity=\"0.502");
+	}
+
+	@Test
+	public void android() throws IOException {
+		assertExport(Format.ANDROID, "linear-gradient(to bottom right, #FF0000, #0000FF)",
+				"<path android:pathData=\"M0,0h200v100h-200z\">");
+		assertExport(Format.ANDROID, "linear-gradient(to bottom right, #FF0000, #0000FF)",
+				"android:startX=\"0\" android:startY=\"0\" android:endX=\"200\" android:endY=\"100\"");
+		assertExport(Format.ANDROID, "radial-gradient(radius 50%, #FF0000, #0000FF)",
+				"<group android:scaleX=\"200\" android:scaleY=\"100\">");
+	}
+
+	private void assertExport(Format format, String gradient, String expected) throws IOException {
+		StringWriter out = new StringWriter();
+		GradientExporter.create(format, 200, 100).write(parser.parse(gradient), out);
+		assertTrue(out.toString(), out.toString().contains(expected));
+	}
+}
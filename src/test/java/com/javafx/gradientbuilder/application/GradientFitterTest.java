@@ -0,0 +1,43 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link GradientFitter} : the gradients rendered by the {@link GradientRasterizer} are fitted back within a small error,
+ * on images which are not square, for gradients ending inside the image, and for radial gradients with a focus and a smaller radius.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientFitterTest {
+
+	// Largest root mean square error (0 to 255 per channel) of the fit of a rendered gradient.
+	private static final double MAX_ERROR = 3;
+
+	private final GradientParser parser = new GradientParser();
+	private final GradientFitter fitter = new GradientFitter();
+
+	@Test
+	public void linearToCorner() {
+		assertFitted(true, "linear-gradient(from 0% 0% to 100% 100%, #FF0000, #FFFF00 30%, #0000FF)", 240, 120);
+	}
+
+	@Test
+	public void linearInsideImage() {
+		assertFitted(true, "linear-gradient(from 30% 0% to 70% 0%, #00FF00, #000080)", 200, 160);
+	}
+
+	@Test
+	public void radial() {
+		assertFitted(false,
+				"radial-gradient(focus-angle 0deg, focus-distance 40%, center 40% 50%, radius 35%, #FFFF00, #FF0000 60%, #0000FF)", 160, 160);
+	}
+
+	private void assertFitted(boolean linear, String syntax, int width, int height) {
+		int[] argb = new GradientRasterizer().rasterize(parser.parse(syntax), width, height);
+		GradientFitter.Fit fit = linear ? fitter.fitLinear(argb, width, height) : fitter.fitRadial(argb, width, height);
+		assertTrue(syntax + " fitted as " + fit, fit.getError() <= MAX_ERROR);
+	}
+}
@@ -0,0 +1,210 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the {@link GradientLibrary} file format : the saved gradients are read back the same after the library is opened again, the
+ * bytes from a record whose length does not fit are kept (and not appended after), the corrupted records are reported, a library opened
+ * read only is not written, and the files of the first version (without unspecified percentages) are not read.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientLibraryTest {
+
+	private static final String[] GRADIENTS = { //
+			"linear-gradient(to bottom right, #FFB6C1, #FFA500 30%, #008000 70%, #000080)", //
+			"linear-gradient(from 10px 20px to 300px 40px, reflect, #FF000080, #0000FF 0%, #00FF0000)", //
+			"linear-gradient(from 0% 0% to 50% 100%, repeat, #FFFFFF, #000000 100%)", //
+			"radial-gradient(focus-angle -30deg, focus-distance 40%, center 20% 80%, radius 60%, #FFFFFF, #008080 60%, #000000)", //
+			"radial-gradient(center 40px 30px, radius 25px, repeat, #FF0000, #00FF00, #0000FF)", //
+			"radial-gradient(radius 50%, #FFE4C4, #D2691E)" };
+
+	private static final String[] NAMES = { "Sunrise", "", "Stripes", "Teal \u00E9t\u00E9", "Rings \u2600", "Bisque" };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final GradientParser parser = new GradientParser();
+
+	@Test
+	public void roundTrip() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("library/library.gdb");
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			for (int i = 0; i < GRADIENTS.length; i++) {
+				assertEquals(i, library.append(NAMES[i], parser.parse(GRADIENTS[i])));
+			}
+			assertGradients(library);
+		}
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			assertGradients(library);
+		}
+	}
+
+	@Test
+	public void incompleteRecordIsKept() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("library.gdb");
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			library.append(NAMES[0], parser.parse(GRADIENTS[0]));
+			library.append(NAMES[1], parser.parse(GRADIENTS[1]));
+		}
+		// Record interrupted after its length and part of its header.
+		Files.write(file, new byte[] { 0, 0, 0, 100, 0, 1, 2 }, StandardOpenOption.APPEND);
+		long size = Files.size(file);
+
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			assertEquals(2, library.size());
+			assertEquals(parser.parse(GRADIENTS[1]), library.get(1));
+			try {
+				library.append(NAMES[2], parser.parse(GRADIENTS[2]));
+				fail("Appended after an incomplete record");
+			} catch (IOException e) {
+				assertTrue(e.getMessage(), e.getMessage().startsWith("Corrupted library"));
+			}
+		}
+		assertEquals(size, Files.size(file));
+	}
+
+	@Test
+	public void corruptedLengthKeepsTheNextRecords() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("library.gdb");
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			for (int i = 0; i < GRADIENTS.length; i++) {
+				library.append(NAMES[i], parser.parse(GRADIENTS[i]));
+			}
+		}
+		long size = Files.size(file);
+		int second;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer length = ByteBuffer.allocate(4);
+			channel.read(length, 8);
+			second = 8 + length.getInt(0);
+			channel.write(ByteBuffer.allocate(4).putInt(0, 3), second);
+		}
+
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			assertEquals(1, library.size());
+			assertEquals(parser.parse(GRADIENTS[0]), library.get(0));
+		}
+		assertEquals(size, Files.size(file));
+	}
+
+	@Test
+	public void corruptedRecords() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("library.gdb");
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			library.append(NAMES[0], parser.parse(GRADIENTS[0]));
+		}
+		// Stop count, repeat or reflect, direction, stop percentage and type.
+		int record = 8;
+		assertCorrupted(file, record + 28, ByteBuffer.allocate(4).putInt(0, -5), "-5 stops");
+		assertCorrupted(file, record + 28, ByteBuffer.allocate(4).putInt(0, 1000000), "1000000 stops");
+		assertCorrupted(file, record + 6, ByteBuffer.wrap(new byte[] { 9 }), "repeat or reflect 9");
+		assertCorrupted(file, record + 7, ByteBuffer.wrap(new byte[] { 100 }), "direction 100");
+		assertCorrupted(file, record + 34 + 4, ByteBuffer.wrap(new byte[] { (byte) 200 }), "stop percentage 200");
+		assertCorrupted(file, record + 4, ByteBuffer.wrap(new byte[] { 7 }), "type 7");
+	}
+
+	@Test
+	public void readOnly() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("library.gdb");
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			library.append(NAMES[0], parser.parse(GRADIENTS[0]));
+		}
+		Files.write(file, new byte[] { 0, 0 }, StandardOpenOption.APPEND);
+		long size = Files.size(file);
+
+		try (GradientLibrary library = GradientLibrary.openReadOnly(file)) {
+			assertTrue(library.isReadOnly());
+			assertEquals(1, library.size());
+			assertEquals(NAMES[0], library.getName(0));
+			try {
+				library.append(NAMES[1], parser.parse(GRADIENTS[1]));
+				fail("Appended to a library opened read only");
+			} catch (IOException e) {
+				assertTrue(e.getMessage(), e.getMessage().startsWith("Library opened read only"));
+			}
+		}
+		assertEquals(size, Files.size(file));
+
+		Path missing = folder.getRoot().toPath().resolve("missing.gdb");
+		try {
+			GradientLibrary.openReadOnly(missing).close();
+			fail("Opened the missing library " + missing);
+		} catch (IOException e) {
+			assertTrue(Files.notExists(missing));
+		}
+	}
+
+	@Test
+	public void firstVersionIsNotRead() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("library.gdb");
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			library.append("Old", parser.parse("linear-gradient(to bottom, #FF0000, #00FF00 40%, #0000FF)"));
+		}
+		// Version 1 wrote 0 for the unspecified percentages.
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(4).putInt(0, 1), 4);
+		}
+		try {
+			GradientLibrary.open(file).close();
+			fail("Opened the version 1 library " + file);
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Unsupported gradient library version 1"));
+		}
+	}
+
+	@Test
+	public void notALibrary() throws IOException {
+		Path file = folder.newFile("styles.css").toPath();
+		Files.write(file, ".root { -fx-base: #336699; }".getBytes(StandardCharsets.UTF_8));
+		try {
+			GradientLibrary.open(file).close();
+			fail("Opened " + file);
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Not a gradient library"));
+		}
+	}
+
+	/**
+	 * Writes the bytes into a copy of the library, and checks that reading its first record fails with the reason.
+	 */
+	private void assertCorrupted(Path file, int position, ByteBuffer bytes, String reason) throws IOException {
+		Path copy = folder.getRoot().toPath().resolve("corrupted.gdb");
+		Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+		try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+			channel.write(bytes, position);
+		}
+		try (GradientLibrary library = GradientLibrary.openReadOnly(copy)) {
+			try {
+				library.get(0);
+				fail("Read a record with " + reason);
+			} catch (IllegalStateException e) {
+				assertTrue(e.getMessage(), e.getMessage().startsWith("Corrupted library") && e.getMessage().contains(" has " + reason));
+			}
+		}
+	}
+
+	private void assertGradients(GradientLibrary library) {
+		assertEquals(GRADIENTS.length, library.size());
+		for (int i = 0; i < GRADIENTS.length; i++) {
+			assertEquals(GRADIENTS[i], parser.parse(GRADIENTS[i]), library.get(i));
+			assertEquals(NAMES[i], library.getName(i));
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.paint.Stop;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link GradientParser} : the color stops of the parsed gradients are those parsed by JavaFX from the same syntax, and the
+ * syntax written back from the models gives the same models.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class GradientParserTest {
+
+	private static final String[] GRADIENTS = { //
+			"linear-gradient(to right, #FF0000, #0000FF)", //
+			"linear-gradient(to bottom, #FF0000, #00FF00 30%, #0000FF)", //
+			"linear-gradient(to bottom, #FF0000, #0000FF 0%, #008000)", //
+			"linear-gradient(to bottom, #FF0000 0%, #0000FF 0%, #008000 50%, #FFFF00)", //
+			"linear-gradient(to bottom, #FF0000, #00FF00, #0000FF 40%, #FFFF00, #00FFFF, #FF00FF)", //
+			"linear-gradient(to bottom, #FF0000 50%, #00FF00 20%, #0000FF)", //
+			"linear-gradient(to bottom, #FF0000 -10%, #00FF00 150%, #0000FF)", //
+			"linear-gradient(to bottom, #FF0000, #00FF00 100%, #0000FF 100%)", //
+			"linear-gradient(to left, #F00, #0000FF80, #00FF00C0)", //
+			"linear-gradient(from 0% 0% to 50% 50%, repeat, orange, DarkSlateBlue 40%, transparent)", //
+			"linear-gradient(to bottom, rgb(255, 128, 0), rgba(0, 0, 255, 0.5) 60%, rgb(10%, 20%, 30%))", //
+			"linear-gradient(to bottom, hsl(120, 100%, 50%), hsla(240, 100%, 50%, 0.25))", //
+			"radial-gradient(radius 50%, #FFE4C4, #D2691E 0%, #000000)", //
+			"radial-gradient(focus-angle 45deg, focus-distance 50%, center 30% 70%, radius 40%, reflect, red, rgba(0, 128, 0, 0.75) 30%, blue)", //
+			"radial-gradient(center 40px 30px, radius 25px, #FF0000, #00FF00 10%, #0000FF 10%, #FFFFFF)" };
+
+	private final GradientParser parser = new GradientParser();
+
+	@Test
+	public void stopsOfJavaFX() {
+		for (String gradient : GRADIENTS) {
+			GradientModel model = parser.parse(gradient);
+			if (gradient.startsWith("linear")) {
+				assertEquals(gradient, stops(LinearGradient.valueOf(gradient).getStops()), stops(normalizedStops(model)));
+			} else {
+				assertEquals(gradient, stops(RadialGradient.valueOf(gradient).getStops()), stops(normalizedStops(model)));
+			}
+		}
+	}
+
+	@Test
+	public void roundTrip() {
+		for (String gradient : GRADIENTS) {
+			GradientModel model = parser.parse(gradient);
+			assertEquals(gradient, model, parser.parse(model.toSyntax()));
+		}
+	}
+
+	@Test
+	public void explicitZeroPercent() {
+		GradientModel model = parser.parse("linear-gradient(to bottom, #FF0000, #0000FF 0%, #008000)");
+		assertEquals(GradientModel.UNSPECIFIED, model.getPercent(0));
+		assertEquals(0, model.getPercent(1));
+		assertEquals(GradientModel.UNSPECIFIED, model.getPercent(2));
+		assertTrue(model.toSyntax(), model.toSyntax().contains("#0000FF 0%"));
+	}
+
+	@Test
+	public void colors() {
+		GradientModel model = parser.parse("linear-gradient(to bottom, orange, rgb(255, 0, 0), rgba(0, 0, 255, 0.5), hsl(0, 100%, 50%), #0000FF80)");
+		assertEquals(0xFFFFA500, model.getColor(0));
+		assertEquals(0xFFFF0000, model.getColor(1));
+		assertEquals(0x800000FF, model.getColor(2));
+		// As parsed by JavaFX, whose lightness of 50% is half the brightness.
+		assertEquals(0xFF800000, model.getColor(3));
+		assertEquals(0x800000FF, model.getColor(4));
+	}
+
+	@Test
+	public void mixedRadialUnits() {
+		for (String gradient : new String[] { "radial-gradient(center 50% 50%, radius 20px, red, blue)",
+				"radial-gradient(center 50px 50px, radius 20%, red, blue)", "radial-gradient(center 50% 50px, radius 20%, red, blue)" }) {
+			assertRejected(gradient);
+			try {
+				RadialGradient.valueOf(gradient);
+				fail("Accepted by JavaFX : " + gradient);
+			} catch (IllegalArgumentException e) {
+				// Expected.
+			}
+		}
+	}
+
+	@Test
+	public void invalidSyntax() {
+		assertRejected("linear-gradient(to bottom, #FF0000)");
+		assertRejected("linear-gradient(to bottom, #FF00, #0000FF)");
+		assertRejected("linear-gradient(to bottom, unknown, #0000FF)");
+		assertRejected("linear-gradient(to bottom, rgb(255, 0, 0, #0000FF)");
+		assertRejected("linear-gradient(to bottom, #FF0000 10px, #0000FF)");
+	}
+
+	private void assertRejected(String gradient) {
+		try {
+			parser.parse(gradient);
+			fail("Accepted : " + gradient);
+		} catch (IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+	/**
+	 * Returns the stops of the model as normalized by JavaFX, which the gradients parsed by JavaFX also are.
+	 */
+	private static List<Stop> normalizedStops(GradientModel model) {
+		double[] offsets = model.resolveOffsets();
+		List<Stop> stops = new ArrayList<Stop>();
+		for (int i = 0; i < offsets.length; i++) {
+			int argb = model.getColor(i);
+			stops.add(new Stop(offsets[i], Color.rgb((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, (argb >>> 24) / 255.0)));
+		}
+		return new LinearGradient(0, 0, 1, 1, true, CycleMethod.NO_CYCLE, stops).getStops();
+	}
+
+	/**
+	 * Returns the stops as text, with the colors rounded to 8 bits per channel.
+	 */
+	private static String stops(List<Stop> stops) {
+		StringBuilder sb = new StringBuilder();
+		for (Stop stop : stops) {
+			Color c = stop.getColor();
+			sb.append(String.format("%.4f #%02X%02X%02X%02X, ", stop.getOffset(), Math.round(c.getRed() * 255), Math.round(c.getGreen() * 255),
+					Math.round(c.getBlue() * 255), Math.round(c.getOpacity() * 255)));
+		}
+		return sb.toString();
+	}
+}
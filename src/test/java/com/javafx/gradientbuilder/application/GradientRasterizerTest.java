@@ -0,0 +1,115 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertTrue;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.transform.Translate;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link GradientRasterizer} : the pixels of each gradient are those of a JavaFX snapshot of a region filled with the same
+ * gradient, within a tolerance per channel of the premultiplied colors.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientRasterizerTest {
+
+	private static final int WIDTH = 120;
+	private static final int HEIGHT = 80;
+
+	// Maximum difference of a channel (0 to 255) between the rasterizer and the snapshot.
+	private static final int TOLERANCE = 4;
+
+	private static final String[] GRADIENTS = { //
+			"linear-gradient(to right, #FF0000, #0000FF)", //
+			"linear-gradient(to bottom right, #FFB6C1, #FFA500 30%, #008000 70%, #000080)", //
+			"linear-gradient(from 10% 20% to 40% 60%, repeat, #FFFFFF, #000000)", //
+			"linear-gradient(from 0% 0% to 25% 25%, reflect, #FFFF00, #8A2BE2)", //
+			"linear-gradient(from 20px 10px to 100px 70px, #00FFFF, #FF00FF)", //
+			"radial-gradient(radius 50%, #FFE4C4, #D2691E)", //
+			"radial-gradient(center 30% 70%, radius 40%, #FFFFFF, #008080 60%, #000000)", //
+			"radial-gradient(focus-angle 45deg, focus-distance 50%, center 50% 50%, radius 60%, #FFFF00, #FF0000)", //
+			"radial-gradient(center 40px 30px, radius 25px, repeat, #FF0000, #00FF00, #0000FF)", //
+			"radial-gradient(radius 20%, reflect, #FFFFFF, #808080)", //
+			"linear-gradient(to bottom, #FF0000C0, #0000FF40 80%)", //
+			"linear-gradient(from 20% 0% to 80% 0%, #FF0000, #0000FF 0%, #008000)", //
+			"linear-gradient(from 20% 0% to 80% 0%, #FF0000, #00FF00 100%, #0000FF 100%)" };
+
+	private final GradientParser parser = new GradientParser();
+	private final GradientRasterizer rasterizer = new GradientRasterizer();
+
+	@Test
+	public void matchesSnapshot() throws Exception {
+		for (String gradient : GRADIENTS) {
+			Paint paint = gradient.startsWith("linear") ? LinearGradient.valueOf(gradient) : RadialGradient.valueOf(gradient);
+			int[] expected = snapshot(paint);
+			int[] actual = rasterizer.rasterize(parser.parse(gradient), WIDTH, HEIGHT);
+			for (int i = 0; i < actual.length; i++) {
+				actual[i] = premultiply(actual[i]);
+			}
+			// The last row and column are only partly covered in the snapshot, see snapshot().
+			for (int y = 0; y < HEIGHT - 1; y++) {
+				for (int x = 0; x < WIDTH - 1; x++) {
+					int i = y * WIDTH + x;
+					int diff = 0;
+					for (int shift = 0; shift < 32; shift += 8) {
+						diff = Math.max(diff, Math.abs(((expected[i] >> shift) & 0xFF) - ((actual[i] >> shift) & 0xFF)));
+					}
+					assertTrue(String.format("%s : difference of %d at (%d, %d), #%08X instead of #%08X", gradient, diff, x, y, actual[i],
+							expected[i]), diff <= TOLERANCE);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the ARGB color with its channels multiplied by its alpha, as stored by the snapshot.
+	 */
+	private static int premultiply(int argb) {
+		int a = argb >>> 24;
+		int r = ((argb >> 16) & 0xFF) * a / 255;
+		int g = ((argb >> 8) & 0xFF) * a / 255;
+		int b = (argb & 0xFF) * a / 255;
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
+
+	/**
+	 * Returns the premultiplied ARGB pixels of a snapshot of a region filled with the paint. The software pipeline samples the paints at the corners
+	 * of the pixels where the rasterizer (and the hardware pipelines) sample at their centers, so the region is moved by half a pixel
+	 * and the pixel (x, y) of the rasterizer is compared with the pixel (x + 1, y + 1) of the snapshot (whose last row and column
+	 * are then half covered).
+	 */
+	private static int[] snapshot(Paint paint) throws Exception {
+		return HeadlessToolkit.call(() -> {
+			Region region = new Region();
+			region.setBackground(new Background(new BackgroundFill(paint, CornerRadii.EMPTY, Insets.EMPTY)));
+			region.setPrefSize(WIDTH, HEIGHT);
+			new Scene(new Group(region));
+
+			SnapshotParameters parameters = new SnapshotParameters();
+			parameters.setFill(Color.TRANSPARENT);
+			parameters.setTransform(new Translate(0.5, 0.5));
+			parameters.setViewport(new Rectangle2D(0, 0, WIDTH + 1, HEIGHT + 1));
+			WritableImage image = region.snapshot(parameters, new WritableImage(WIDTH + 1, HEIGHT + 1));
+			int[] argb = new int[WIDTH * HEIGHT];
+			image.getPixelReader().getPixels(1, 1, WIDTH, HEIGHT, PixelFormat.getIntArgbPreInstance(), argb, 0, WIDTH);
+			return argb;
+		});
+	}
+}
@@ -0,0 +1,166 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link GradientRenderServer} : the images are rendered once and then served from the cache, with the same entity tag
+ * for the equivalent gradients, a matching "If-None-Match" gets "304 Not Modified", the invalid requests get "400 Bad Request", and a
+ * request without a free rendering permit gets "503 Service Unavailable".
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class GradientRenderServerTest {
+
+	private static final String GRADIENT = "linear-gradient(to right, #FF0000, #0000FF)";
+
+	private GradientRenderServer server;
+
+	@Before
+	public void start() throws IOException {
+		server = new GradientRenderServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024 * 1024, 1);
+		server.start();
+	}
+
+	@After
+	public void stop() {
+		server.stop(0);
+	}
+
+	@Test
+	public void cachedImages() throws IOException {
+		HttpURLConnection connection = get("/render?gradient=" + URLEncoder.encode(GRADIENT, "UTF-8") + "&width=20&height=10");
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("image/png", connection.getHeaderField("Content-Type"));
+		assertEquals("MISS", connection.getHeaderField("X-Cache"));
+		String tag = connection.getHeaderField("ETag");
+		assertNotNull(tag);
+		byte[] png = read(connection);
+		assertEquals(20, ImageIO.read(new ByteArrayInputStream(png)).getWidth());
+		assertEquals(1, server.getCache().size());
+
+		// The same gradient written differently, posted.
+		connection = post("/render?width=20&height=10", "linear-gradient(from 0% 0% to 100% 0%, #FF0000 0%, #0000FF 100%)");
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("HIT", connection.getHeaderField("X-Cache"));
+		assertEquals(tag, connection.getHeaderField("ETag"));
+		assertEquals(png.length, read(connection).length);
+
+		// Another size is another image.
+		connection = get("/render?gradient=" + URLEncoder.encode(GRADIENT, "UTF-8") + "&width=20&height=11");
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("MISS", connection.getHeaderField("X-Cache"));
+		read(connection);
+		assertEquals(2, server.getCache().size());
+	}
+
+	@Test
+	public void notModified() throws IOException {
+		String path = "/render?gradient=" + URLEncoder.encode(GRADIENT, "UTF-8");
+		HttpURLConnection connection = get(path);
+		assertEquals(200, connection.getResponseCode());
+		String tag = connection.getHeaderField("ETag");
+		read(connection);
+
+		connection = open(path);
+		connection.setRequestProperty("If-None-Match", tag);
+		assertEquals(304, connection.getResponseCode());
+		assertEquals(tag, connection.getHeaderField("ETag"));
+
+		connection = open(path);
+		connection.setRequestProperty("If-None-Match", "\"other\"");
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("HIT", connection.getHeaderField("X-Cache"));
+		read(connection);
+	}
+
+	@Test
+	public void badRequests() throws IOException {
+		assertBadRequest(get("/render"));
+		assertBadRequest(get("/render?gradient=%20"));
+		assertBadRequest(get("/render?gradient=" + URLEncoder.encode("linear-gradient(to nowhere, red)", "UTF-8")));
+		String gradient = "/render?gradient=" + URLEncoder.encode(GRADIENT, "UTF-8");
+		assertBadRequest(get(gradient + "&width=0"));
+		assertBadRequest(get(gradient + "&width=" + (GradientRenderServer.MAX_SIZE + 1)));
+		assertBadRequest(get(gradient + "&height=ten"));
+		assertBadRequest(post("/render", ""));
+
+		HttpURLConnection connection = open("/render");
+		connection.setRequestMethod("DELETE");
+		assertEquals(405, connection.getResponseCode());
+		assertEquals(0, server.getCache().size());
+	}
+
+	@Test
+	public void busy() throws IOException, InterruptedException {
+		// The only permit is taken, as by a rendering in progress.
+		server.renderPermits.acquire();
+		try {
+			HttpURLConnection connection = get("/render?gradient=" + URLEncoder.encode(GRADIENT, "UTF-8"));
+			assertEquals(503, connection.getResponseCode());
+			assertEquals("1", connection.getHeaderField("Retry-After"));
+			assertNull(connection.getHeaderField("ETag"));
+		} finally {
+			server.renderPermits.release();
+		}
+		assertEquals(0, server.getCache().size());
+		assertEquals(200, get("/render?gradient=" + URLEncoder.encode(GRADIENT, "UTF-8")).getResponseCode());
+	}
+
+	private void assertBadRequest(HttpURLConnection connection) throws IOException {
+		assertEquals(400, connection.getResponseCode());
+		assertNull(connection.getHeaderField("ETag"));
+	}
+
+	private HttpURLConnection open(String path) throws IOException {
+		return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+	}
+
+	private HttpURLConnection get(String path) throws IOException {
+		HttpURLConnection connection = open(path);
+		connection.setRequestMethod("GET");
+		return connection;
+	}
+
+	private HttpURLConnection post(String path, String body) throws IOException {
+		HttpURLConnection connection = open(path);
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(body.getBytes(StandardCharsets.UTF_8));
+		}
+		return connection;
+	}
+
+	private static byte[] read(HttpURLConnection connection) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		try (InputStream in = connection.getInputStream()) {
+			int read;
+			while ((read = in.read(buffer)) > 0) {
+				bytes.write(buffer, 0, read);
+			}
+		}
+		return bytes.toByteArray();
+	}
+}
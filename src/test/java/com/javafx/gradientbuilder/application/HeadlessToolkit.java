@@ -0,0 +1,76 @@
+package com.javafx.gradientbuilder.application;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+/**
+ * Starts the JavaFX toolkit once for the tests, on the headless Monocle platform with the software pipeline, and runs the tasks on the
+ * JavaFX application thread. The tests using it show no text, so they need no fonts.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public final class HeadlessToolkit {
+
+	private static final CountDownLatch STARTED = new CountDownLatch(1);
+	private static boolean launched;
+
+	private HeadlessToolkit() {
+	}
+
+	/**
+	 * Application which only signals that the toolkit is started.
+	 */
+	public static class Boot extends Application {
+		@Override
+		public void start(Stage stage) {
+			Platform.setImplicitExit(false);
+			STARTED.countDown();
+		}
+	}
+
+	/**
+	 * Runs the task on the JavaFX application thread, starting the toolkit first if needed, and waits for its result.
+	 *
+	 * @param task
+	 *            - Task to be executed.
+	 * @return result of the task.
+	 * @throws Exception
+	 *             - Exception thrown by the task.
+	 */
+	public static <T> T call(Callable<T> task) throws Exception {
+		startup();
+		FutureTask<T> future = new FutureTask<T>(task);
+		Platform.runLater(future);
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw (Error) e.getCause();
+		}
+	}
+
+	private static synchronized void startup() throws InterruptedException {
+		if (!launched) {
+			launched = true;
+			System.setProperty("glass.platform", "Monocle");
+			System.setProperty("monocle.platform", "Headless");
+			System.setProperty("prism.order", "sw");
+			System.setProperty("java.awt.headless", "true");
+
+			Thread launcher = new Thread(() -> Application.launch(Boot.class), "fx-launcher");
+			launcher.setDaemon(true);
+			launcher.start();
+		}
+		STARTED.await();
+	}
+}
@@ -0,0 +1,70 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link PaintCodeGenerator} : the syntax constants give back the generated gradients, with their alpha.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class PaintCodeGeneratorTest {
+
+	private static final Pattern SYNTAX_CONSTANT = Pattern.compile("public static final String (\\w+)_SYNTAX = \"(.*)\";\n");
+
+	private final GradientParser parser = new GradientParser();
+
+	@Test
+	public void syntaxConstantsRoundTrip() throws IOException {
+		Map<String, GradientModel> gradients = new LinkedHashMap<String, GradientModel>();
+		gradients.put("Halo", parser.parse("radial-gradient(center 50% 50%, radius 50%, #FFFF0080, #FF8C00 60%, #00000000);"));
+		gradients.put("Glass", parser.parse("linear-gradient(to right, repeat, #FFFFFF40, #0000FF 50%, #0000FFCC)"));
+		gradients.put("Sunrise", parser.parse("linear-gradient(to bottom, #FFB6C1, #FFA500);"));
+
+		String source = generate(gradients);
+		Matcher matcher = SYNTAX_CONSTANT.matcher(source);
+		int count = 0;
+		for (Map.Entry<String, GradientModel> entry : gradients.entrySet()) {
+			assertTrue("Missing syntax of " + entry.getKey(), matcher.find());
+			assertEquals(PaintCodeGenerator.toConstantName(entry.getKey()), matcher.group(1));
+			assertEquals(entry.getValue(), parser.parse(matcher.group(2)));
+			count++;
+		}
+		assertEquals(3, count);
+		assertTrue(source.contains("#FFFF0080, #FF8C00 60% , #00000000"));
+	}
+
+	@Test
+	public void translucentStopsKeepTheirAlpha() throws IOException {
+		Map<String, GradientModel> gradients = new LinkedHashMap<String, GradientModel>();
+		gradients.put("Halo", parser.parse("radial-gradient(radius 50%, #FFFF0080, #00000000)"));
+
+		String source = generate(gradients);
+		assertTrue(source, source.contains("Color.rgb(255, 255, 0, " + (0x80 / 255.0) + ")"));
+		assertTrue(source, source.contains("Color.rgb(0, 0, 0, 0.0)"));
+		assertTrue(source, source.contains("HALO_SYNTAX = \"radial-gradient(radius 50% , #FFFF0080, #00000000);\""));
+	}
+
+	@Test
+	public void names() {
+		assertEquals("SceneGradients", PaintCodeGenerator.toClassName("scene.gradients"));
+		assertEquals("BRAND_BLUE_2", PaintCodeGenerator.toConstantName("brand blue-2"));
+		assertEquals("a *&#47; b&#233;", PaintCodeGenerator.escapeComment("a */ b\u00E9"));
+	}
+
+	private static String generate(Map<String, GradientModel> gradients) throws IOException {
+		StringWriter out = new StringWriter();
+		new PaintCodeGenerator().generate("gradients", "TestGradients", "test.gradients", gradients, out);
+		return out.toString();
+	}
+}
@@ -0,0 +1,56 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import javafx.scene.paint.RadialGradient;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link RadialSettingsLayout} : the paint applied to the shapes is the gradient of the syntax output, with the center in
+ * the units of the radius.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class RadialSettingsLayoutTest {
+
+	@Test
+	public void percentRadius() throws Exception {
+		HeadlessToolkit.call(() -> {
+			RadialSettingsLayout layout = new RadialSettingsLayout(new GradientBuilderApp());
+			layout.centerX.set(30);
+			layout.centerY.set(70);
+			layout.radiusPercent.set(50);
+			assertPaintOfSyntax(layout, "center 30% 70% , radius 50% ,");
+			return null;
+		});
+	}
+
+	@Test
+	public void pixelRadius() throws Exception {
+		HeadlessToolkit.call(() -> {
+			RadialSettingsLayout layout = new RadialSettingsLayout(new GradientBuilderApp());
+			layout.centerX.set(30);
+			layout.isRadiusPixel.set(true);
+			layout.centerPixelX.set(40);
+			layout.centerPixelY.set(120);
+			layout.radiusPixel.set(80);
+			assertPaintOfSyntax(layout, "center 40px 120px , radius 80px ,");
+
+			layout.isCenter.set(false);
+			assertPaintOfSyntax(layout, "radius 80px ,");
+			return null;
+		});
+	}
+
+	private static void assertPaintOfSyntax(RadialSettingsLayout layout, String expected) {
+		String syntax = layout.buildSyntax();
+		assertTrue(syntax, syntax.contains(expected));
+		String gradient = syntax.substring(0, syntax.lastIndexOf(';'));
+		assertEquals(RadialGradient.valueOf(gradient), layout.buildPaint());
+		assertEquals(syntax, layout.buildModel().toSyntax());
+		assertEquals(syntax, new GradientParser().parse(syntax).toSyntax());
+	}
+}
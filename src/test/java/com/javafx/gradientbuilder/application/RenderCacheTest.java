@@ -0,0 +1,95 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link RenderCache} : the least recently used entries are evicted when the size in bytes exceeds the limit, replacing
+ * an entry counts only its new content, and a content larger than the cache is not cached.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class RenderCacheTest {
+
+	@Test
+	public void leastRecentlyUsedEviction() {
+		RenderCache cache = new RenderCache(100);
+		cache.put("a", new byte[40]);
+		cache.put("b", new byte[40]);
+		assertEquals(80, cache.getBytes());
+
+		// Using "a" leaves "b" as the least recently used.
+		assertEquals(40, cache.get("a").length);
+		cache.put("c", new byte[40]);
+		assertNull(cache.get("b"));
+		assertEquals(40, cache.get("a").length);
+		assertEquals(40, cache.get("c").length);
+		assertEquals(80, cache.getBytes());
+		assertEquals(1, cache.getEvictionCount());
+
+		// As many entries as needed are evicted.
+		cache.put("d", new byte[100]);
+		assertEquals(1, cache.size());
+		assertEquals(100, cache.getBytes());
+		assertEquals(3, cache.getEvictionCount());
+		assertEquals(3, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void replacedEntry() {
+		RenderCache cache = new RenderCache(100);
+		cache.put("a", new byte[60]);
+		cache.put("b", new byte[30]);
+		byte[] content = { 1, 2, 3 };
+		cache.put("a", content);
+		assertEquals(33, cache.getBytes());
+		assertEquals(2, cache.size());
+		assertArrayEquals(content, cache.get("a"));
+
+		// Growing the replaced entry evicts the others, not itself.
+		cache.put("a", new byte[90]);
+		assertEquals(90, cache.getBytes());
+		assertEquals(1, cache.size());
+		assertEquals(90, cache.get("a").length);
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void contentLargerThanTheCache() {
+		RenderCache cache = new RenderCache(100);
+		cache.put("a", new byte[50]);
+		cache.put("b", new byte[101]);
+		assertNull(cache.get("b"));
+		assertEquals(50, cache.get("a").length);
+		assertEquals(50, cache.getBytes());
+		assertEquals(0, cache.getEvictionCount());
+
+		RenderCache none = new RenderCache(0);
+		none.put("a", new byte[1]);
+		assertEquals(0, none.size());
+		none.put("b", new byte[0]);
+		assertEquals(1, none.size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getBytes());
+	}
+
+	@Test
+	public void keys() {
+		String key = RenderCache.keyOf("linear-gradient(to right, #FF0000, #0000FF) 400x300");
+		assertEquals(64, key.length());
+		assertTrue(key, key.matches("[0-9a-f]+"));
+		assertEquals(key, RenderCache.keyOf("linear-gradient(to right, #FF0000, #0000FF) 400x300"));
+		assertNotEquals(key, RenderCache.keyOf("linear-gradient(to right, #FF0000, #0000FF) 400x301"));
+		// SHA-256 of the empty string.
+		assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", RenderCache.keyOf(""));
+	}
+}
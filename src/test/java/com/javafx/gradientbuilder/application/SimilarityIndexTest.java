@@ -0,0 +1,150 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the {@link SimilarityIndex} : the search of the tree finds the same distances as the exhaustive search, the index is read
+ * back the same from its file, and the index of a library is built again once the library changed.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class SimilarityIndexTest {
+
+	private static final int DIMENSION = 6;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	@Test
+	public void searchMatchesExhaustive() {
+		Random random = new Random(7);
+		// Clusters of close vectors, as the themes and their variants, and random vectors, more than a single build task.
+		float[] vectors = new float[10_000 * DIMENSION];
+		for (int i = 0; i < vectors.length; i++) {
+			vectors[i] = (i < vectors.length / 2) ? (i / DIMENSION / 50) * 7 % 100 + random.nextFloat() : random.nextFloat() * 100;
+		}
+		SimilarityIndex index = SimilarityIndex.build(vectors, DIMENSION, 0, pool);
+		assertEquals(10_000, index.size());
+
+		for (int q = 0; q < 50; q++) {
+			float[] query = new float[DIMENSION];
+			for (int d = 0; d < DIMENSION; d++) {
+				query[d] = random.nextFloat() * 100;
+			}
+			for (int k : new int[] { 1, 12 }) {
+				assertSameDistances(index.searchExhaustive(query, k), index.search(query, k));
+			}
+		}
+
+		// A vector of the index is found first, at no distance.
+		float[] query = new float[DIMENSION];
+		System.arraycopy(vectors, 1234 * DIMENSION, query, 0, DIMENSION);
+		SimilarityIndex.Result result = index.search(query, 1);
+		assertEquals(0, result.getDistance(0), 0);
+	}
+
+	@Test
+	public void fewVectors() {
+		float[] vectors = { 0, 0, 3, 4, 1, 1 };
+		SimilarityIndex index = SimilarityIndex.build(vectors, 2, 0, pool);
+		SimilarityIndex.Result result = index.search(new float[] { 0, 0 }, 10);
+		assertEquals(3, result.size());
+		assertEquals(0, result.getIndex(0));
+		assertEquals(2, result.getIndex(1));
+		assertEquals(1, result.getIndex(2));
+		assertEquals(0, index.search(new float[] { 0, 0 }, 0).size());
+		assertEquals(0, SimilarityIndex.build(new float[0], 2, 0, pool).search(new float[] { 0, 0 }, 5).size());
+
+		try {
+			SimilarityIndex.build(new float[5], 2, 0, pool);
+			fail("Accepted an incomplete vector");
+		} catch (IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void saveAndLoad() throws IOException {
+		Random random = new Random(11);
+		// Larger than the buffer of the file.
+		float[] vectors = new float[5000 * DIMENSION];
+		for (int i = 0; i < vectors.length; i++) {
+			vectors[i] = random.nextFloat();
+		}
+		SimilarityIndex index = SimilarityIndex.build(vectors, DIMENSION, 42, pool);
+		Path file = folder.getRoot().toPath().resolve("vectors.knn");
+		index.save(file);
+		SimilarityIndex loaded = SimilarityIndex.load(file);
+		// The file is not held after it is loaded, and can be replaced.
+		loaded.save(file);
+		loaded = SimilarityIndex.load(file);
+		assertEquals(index.size(), loaded.size());
+		assertEquals(DIMENSION, loaded.getDimension());
+		float[] query = { 0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f };
+		SimilarityIndex.Result expected = index.search(query, 20);
+		SimilarityIndex.Result actual = loaded.search(query, 20);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.getIndex(i), actual.getIndex(i));
+			assertEquals(expected.getDistance(i), actual.getDistance(i), 0);
+		}
+
+		Files.write(file, new byte[] { 1, 2, 3 });
+		try {
+			SimilarityIndex.load(file);
+			fail("Loaded a file which is not an index");
+		} catch (IOException e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void libraryIndex() throws IOException {
+		GradientParser parser = new GradientParser();
+		Path file = folder.getRoot().toPath().resolve("library.gdb");
+		try (GradientLibrary library = GradientLibrary.open(file)) {
+			library.append("Red to blue", parser.parse("linear-gradient(to right, #FF0000, #0000FF)"));
+			library.append("Green", parser.parse("radial-gradient(center 50% 50%, radius 60%, #00FF00, #004000)"));
+			library.append("Red to navy", parser.parse("linear-gradient(to right, #FF0000, #000080)"));
+
+			SimilarityIndex index = SimilarityIndex.open(library, pool);
+			Path indexFile = SimilarityIndex.getPath(file);
+			assertTrue(Files.isRegularFile(indexFile));
+			assertTrue(index.isUpToDate(library));
+			float[] query = new GradientFeatures().extract(parser.parse("linear-gradient(to right, #FF0000, #0000F0)"));
+			SimilarityIndex.Result result = index.search(query, 2);
+			assertEquals(0, result.getIndex(0));
+			assertEquals(2, result.getIndex(1));
+
+			// Read back while the library is unchanged, built again once it changed.
+			assertTrue(SimilarityIndex.open(library, pool).isUpToDate(library));
+			library.append("Blue to red", parser.parse("linear-gradient(to right, #0000FF, #FF0000)"));
+			assertFalse(index.isUpToDate(library));
+			SimilarityIndex rebuilt = SimilarityIndex.open(library, pool);
+			assertEquals(4, rebuilt.size());
+			assertTrue(SimilarityIndex.load(indexFile).isUpToDate(library));
+		}
+	}
+
+	private static void assertSameDistances(SimilarityIndex.Result expected, SimilarityIndex.Result actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.getDistance(i), actual.getDistance(i), 1e-3);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the {@link StylesheetScanner} : the gradients in effect are indexed with their selector and alpha, and the gradients in the
+ * comments and strings are skipped.
+ *
+ * @author Sai.Dandem
+ *
+ */
+public class StylesheetScannerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void scan() throws IOException {
+		write("a.css", ".button {\n" //
+				+ "  -fx-background-color: linear-gradient(to bottom, #FF000080, #0000FF);\n" //
+				+ "  /* -fx-background-color: linear-gradient(to bottom, #00FF00, #000000); */\n" //
+				+ "}\n" //
+				+ ".label:hover .text {\n" //
+				+ "  -fx-text-fill: radial-gradient(center 40px 30px, radius 20px, #FFFFFF, #00000040 50%);\n" //
+				+ "}\n");
+		write("sub/b.css", "@media print {\n" //
+				+ "  .tip { content: \"linear-gradient(to top, #FF0000, #0000FF)\"; background: url('radial-gradient(radius 50%, red, blue)'); }\n" //
+				+ "  .pane { -fx-background-color: linear-gradient(to right, red 0%, orange); }\n" //
+				+ "}\n" //
+				+ ".broken { -fx-background-color: linear-gradient(to right, #FF0000); }\n");
+
+		List<StylesheetScanner.Entry> entries = new StylesheetScanner().scan(folder.getRoot().toPath());
+		assertEquals(entries.toString(), 4, entries.size());
+
+		assertEntry(entries.get(0), ".button", "linear-gradient(to bottom, #FF000080, #0000FF)");
+		assertEntry(entries.get(1), ".label:hover .text", "radial-gradient(center 40px 30px, radius 20px, #FFFFFF, #00000040 50%)");
+		assertEntry(entries.get(2), ".pane", "linear-gradient(to right, #FF0000 0%, #FFA500)");
+		assertEquals(".broken", entries.get(3).getSelector());
+		assertNull(entries.get(3).getGradient());
+
+		// The offsets are those of the gradients in the files.
+		String a = new String(Files.readAllBytes(entries.get(0).getFile()), StandardCharsets.UTF_8);
+		assertTrue(a.startsWith("linear-gradient(to bottom, #FF000080", entries.get(0).getOffset()));
+	}
+
+	@Test
+	public void indexKeepsAlpha() throws IOException {
+		write("a.css", ".halo { -fx-fill: radial-gradient(radius 50%, #FFFF0080, #00000000); }\n" //
+				+ ".glass { -fx-fill: linear-gradient(to right, rgba(255, 255, 255, 0.25), #0000FFCC); }\n");
+
+		List<StylesheetScanner.Entry> entries = new StylesheetScanner().scan(folder.getRoot().toPath());
+		StringWriter out = new StringWriter();
+		StylesheetScanner.writeIndex(entries, out);
+		String[] lines = out.toString().split("\n");
+		assertEquals(2, lines.length);
+
+		GradientParser parser = new GradientParser();
+		for (int i = 0; i < lines.length; i++) {
+			String[] fields = lines[i].split("\t");
+			assertEquals(4, fields.length);
+			assertEquals(entries.get(i).getGradient(), parser.parse(fields[3]));
+		}
+		assertTrue(lines[0], lines[0].contains("#FFFF0080, #00000000"));
+		assertTrue(lines[1], lines[1].contains("#FFFFFF40, #0000FFCC"));
+	}
+
+	private void assertEntry(StylesheetScanner.Entry entry, String selector, String gradient) {
+		assertEquals(selector, entry.getSelector());
+		assertNull(entry.getError(), entry.getError());
+		assertEquals(new GradientParser().parse(gradient), entry.getGradient());
+	}
+
+	private void write(String name, String css) throws IOException {
+		Path file = folder.getRoot().toPath().resolve(name);
+		Files.createDirectories(file.getParent());
+		Files.write(file, css.getBytes(StandardCharsets.UTF_8));
+	}
+}
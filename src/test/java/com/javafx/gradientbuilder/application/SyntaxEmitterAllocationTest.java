@@ -0,0 +1,104 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Tests that the syntax emitters of the settings layouts and of the models produce no garbage once warmed up : the bytes allocated by
+ * the thread (as counted by the JVM) while emitting the syntax many times into a reused buffer must stay under a small budget, which
+ * covers the allocations of the measure itself.
+ * <p>
+ * Only the emitters are measured, not the whole rebuild : the rebuild also allocates the syntax string when it changed, and the paint
+ * applied to the nodes (the JavaFX Paint, Stop and Color objects are immutable).
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class SyntaxEmitterAllocationTest {
+
+	private static final int STOPS = 100;
+	private static final int WARMUP = 20_000;
+	private static final int BUILDS = 10_000;
+
+	// Budget of the bytes allocated for all the measured builds, far below a single syntax string (several kilobytes).
+	private static final long BUDGET = 1024;
+
+	private ThreadMXBean threads;
+
+	@Before
+	public void setUp() {
+		threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	@Test
+	public void linearLayoutSyntax() throws Exception {
+		HeadlessToolkit.call(() -> {
+			LinearSettingsLayout layout = withColorStops(new LinearSettingsLayout(new GradientBuilderApp()));
+			layout.isRepeat.set(true);
+			assertNoGarbage(layout::appendSyntax);
+			return null;
+		});
+	}
+
+	@Test
+	public void radialLayoutSyntax() throws Exception {
+		HeadlessToolkit.call(() -> {
+			RadialSettingsLayout layout = withColorStops(new RadialSettingsLayout(new GradientBuilderApp()));
+			layout.isRadiusPixel.set(true);
+			assertNoGarbage(layout::appendSyntax);
+			return null;
+		});
+	}
+
+	@Test
+	public void modelSyntax() {
+		StringBuilder sb = new StringBuilder("radial-gradient(focus-angle 30deg, focus-distance 20%, center 10px 20px, radius 80px, reflect");
+		for (int i = 0; i < STOPS; i++) {
+			sb.append(", #").append(String.format("%06X", (i * 0x3F5A7) & 0xFFFFFF)).append((i % 3 == 0) ? "80" : "");
+			sb.append(' ').append(i).append('%');
+		}
+		GradientModel model = new GradientParser().parse(sb.append(')'));
+		assertNoGarbage(model::appendSyntax);
+	}
+
+	private void assertNoGarbage(Emitter emitter) {
+		StringBuilder buffer = new StringBuilder(1 << 16);
+		for (int i = 0; i < WARMUP; i++) {
+			buffer.setLength(0);
+			emitter.appendSyntax(buffer);
+		}
+
+		long thread = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < BUILDS; i++) {
+			buffer.setLength(0);
+			emitter.appendSyntax(buffer);
+		}
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+		assertTrue(allocated + " bytes allocated by " + BUILDS + " syntaxes of " + buffer.length() + " chars", allocated <= BUDGET);
+	}
+
+	private static <T extends AbstractSettingsLayout> T withColorStops(T layout) {
+		for (int i = layout.colorStops.size(); i < STOPS; i++) {
+			layout.addColorStop(-1, (i * 100) / (STOPS - 1), String.format("#%06X", (i * 0x3F5A7) & 0xFFFFFF));
+		}
+		return layout;
+	}
+
+	/**
+	 * Syntax emitter under test.
+	 */
+	private interface Emitter {
+		void appendSyntax(StringBuilder sb);
+	}
+}
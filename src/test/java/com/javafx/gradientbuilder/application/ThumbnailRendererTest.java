@@ -0,0 +1,108 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javafx.scene.image.WritableImage;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link ThumbnailRenderer} : the requests of a gradient which is already being rendered are all served, the rendering
+ * is only skipped when none of them needs it any more, and a gradient which fails to render is shown blank.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class ThumbnailRendererTest {
+
+	private final ThumbnailRenderer renderer = new ThumbnailRenderer(new ThumbnailCache(64, 40, 1024 * 1024, false));
+	private final GradientModel model = new GradientParser().parse("linear-gradient(to right, #FF0000, #0000FF80)");
+
+	@After
+	public void tearDown() {
+		renderer.shutdown();
+	}
+
+	@Test
+	public void allRequestsAreNotified() throws Exception {
+		CountDownLatch rendered = new CountDownLatch(3);
+		HeadlessToolkit.call(() -> {
+			// The first cell is reused for another gradient before the rendering starts, the others still show the gradient.
+			WritableImage image = renderer.createImage();
+			assertFalse(renderer.request(model, image, () -> false, () -> {
+			}));
+			for (int i = 0; i < 3; i++) {
+				// Written at once if the rendering is already done.
+				if (renderer.request(model, image, () -> true, rendered::countDown)) {
+					rendered.countDown();
+				}
+			}
+			return null;
+		});
+		assertTrue("Requests not served : " + rendered.getCount(), rendered.await(5, TimeUnit.SECONDS));
+		assertTrue(renderer.getCache().contains(model));
+		assertTrue(HeadlessToolkit.call(() -> renderer.request(model, renderer.createImage(), () -> true, () -> {
+		})));
+	}
+
+	@Test
+	public void renderingIsSkippedWhenNotNeeded() throws Exception {
+		CountDownLatch checked = new CountDownLatch(2);
+		HeadlessToolkit.call(() -> {
+			WritableImage image = renderer.createImage();
+			for (int i = 0; i < 2; i++) {
+				renderer.request(model, image, () -> {
+					checked.countDown();
+					return false;
+				}, () -> {
+				});
+			}
+			return null;
+		});
+		assertTrue(checked.await(5, TimeUnit.SECONDS));
+		assertFalse(renderer.getCache().contains(model));
+
+		// A new request renders the gradient.
+		CountDownLatch rendered = new CountDownLatch(1);
+		HeadlessToolkit.call(() -> renderer.request(model, renderer.createImage(), () -> true, rendered::countDown));
+		assertTrue(rendered.await(5, TimeUnit.SECONDS));
+		assertTrue(renderer.getCache().contains(model));
+	}
+
+	@Test
+	public void failedRendering() throws Exception {
+		// Not a gradient of the rasterizer.
+		GradientModel unsupported = new GradientModel(null, new int[] { 0xFFFF0000, 0xFF0000FF }, new int[] { 0, 100 }) {
+			@Override
+			public void appendSyntax(StringBuilder sb) {
+				sb.append("unsupported-gradient()");
+			}
+		};
+		CountDownLatch notified = new CountDownLatch(2);
+		WritableImage image = HeadlessToolkit.call(() -> {
+			WritableImage written = renderer.createImage();
+			written.getPixelWriter().setArgb(0, 0, 0xFFFFFFFF);
+			for (int i = 0; i < 2; i++) {
+				// Written at once if the rendering already failed.
+				if (renderer.request(unsupported, written, () -> true, notified::countDown)) {
+					notified.countDown();
+				}
+			}
+			return written;
+		});
+		assertTrue("Requests not notified : " + notified.getCount(), notified.await(5, TimeUnit.SECONDS));
+		assertFalse(renderer.getCache().contains(unsupported));
+
+		// Written blank, without rendering again.
+		assertTrue(HeadlessToolkit.call(() -> renderer.request(unsupported, image, () -> true, () -> {
+		})));
+		assertEquals(0, image.getPixelReader().getArgb(0, 0));
+	}
+}
@@ -0,0 +1,78 @@
+package com.javafx.gradientbuilder.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import javafx.scene.layout.Pane;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link TimelinePlayer} : a timeline which does not loop stops playing at its end and keeps its last frame shown till the
+ * player is stopped, and a looping timeline keeps playing.
+ *
+ * @author Sai.Dandem
+ *
+ */
+@SuppressWarnings("restriction")
+public class TimelinePlayerTest {
+
+	private static final long MS = 1_000_000;
+
+	@Test
+	public void endOfTimeline() throws Exception {
+		HeadlessToolkit.call(() -> {
+			Pane rectangle = shape();
+			TimelinePlayer player = new TimelinePlayer(timeline(), rectangle, shape());
+			player.setLoop(false);
+			player.start();
+			assertTrue(player.isPlaying());
+
+			player.handle(1000 * MS);
+			player.handle(1500 * MS);
+			assertTrue(player.isPlaying());
+			player.handle(2000 * MS);
+			assertFalse(player.isPlaying());
+			assertEquals(1, rectangle.getChildren().size());
+
+			player.stop();
+			assertFalse(player.isPlaying());
+			assertEquals(0, rectangle.getChildren().size());
+
+			// Played again from its start.
+			player.start();
+			assertTrue(player.isPlaying());
+			player.stop();
+			return null;
+		});
+	}
+
+	@Test
+	public void loop() throws Exception {
+		HeadlessToolkit.call(() -> {
+			TimelinePlayer player = new TimelinePlayer(timeline(), shape(), shape());
+			player.start();
+			player.handle(1000 * MS);
+			player.handle(5000 * MS);
+			assertTrue(player.isPlaying());
+			player.stop();
+			assertFalse(player.isPlaying());
+			return null;
+		});
+	}
+
+	private static GradientTimeline timeline() {
+		GradientParser parser = new GradientParser();
+		GradientTimeline timeline = new GradientTimeline();
+		timeline.add(0, parser.parse("linear-gradient(to right, #FF0000, #0000FF)"));
+		timeline.add(1000, parser.parse("linear-gradient(to right, #00FF00, #FFFF00)"));
+		return timeline;
+	}
+
+	private static Pane shape() {
+		Pane pane = new Pane();
+		pane.resize(40, 30);
+		return pane;
+	}
+}